@@ -0,0 +1,95 @@
+package logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the log messages of all loggers on one background thread.
+ * The messages are buffered in a bounded ring buffer. When it's full new messages are dropped and counted,
+ * so a thread which logs is never slowed down by the console.
+ */
+final class AsyncLogWriter implements Runnable {
+    private static final int CAPACITY = 4096;
+
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final AsyncLogWriter INSTANCE = new AsyncLogWriter();
+
+    private final BlockingQueue<LogRecord> buffer = new ArrayBlockingQueue<>(CAPACITY);
+    private final AtomicLong droppedMessages = new AtomicLong();
+
+    private AsyncLogWriter() {
+        Thread writerThread = new Thread(this, "log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        //write what's left when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "log-writer-shutdown"));
+    }
+
+    static AsyncLogWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Hands a message to the writer thread. Never blocks.
+     * @param record the message
+     */
+    void enqueue(LogRecord record) {
+        if(!this.buffer.offer(record)) {
+            this.droppedMessages.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while(true) {
+                this.write(this.buffer.take());
+                this.reportDroppedMessages();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void drain() {
+        LogRecord record;
+        while((record = this.buffer.poll()) != null) {
+            this.write(record);
+        }
+        this.reportDroppedMessages();
+    }
+
+    private void reportDroppedMessages() {
+        final long dropped = this.droppedMessages.getAndSet(0);
+        if(dropped > 0) {
+            System.err.println(TIME_FORMAT.format(Instant.now()) + " [WARN] " + this.getClass().getSimpleName()
+                    + ": " + dropped + " log messages were dropped");
+        }
+    }
+
+    private synchronized void write(LogRecord record) {
+        final PrintStream out = record.level.ordinal() >= LogLevel.WARN.ordinal() ? System.err : System.out;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(TIME_FORMAT.format(Instant.ofEpochMilli(record.timeInMillis)));
+        sb.append(" [");
+        sb.append(record.level);
+        sb.append("] ");
+        sb.append(record.loggerName);
+        sb.append(": ");
+        sb.append(record.message);
+        out.println(sb);
+
+        if(record.cause != null) {
+            record.cause.printStackTrace(out);
+        }
+    }
+}
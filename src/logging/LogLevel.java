@@ -0,0 +1,17 @@
+package logging;
+
+/**
+ * The levels of log messages ordered by their importance.
+ * A logger only passes messages on which are at least as important as the configured level.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+
+    /**
+     * Only used to configure the level: no message is logged at all
+     */
+    OFF
+}
@@ -0,0 +1,20 @@
+package logging;
+
+/**
+ * One log message on its way to the background writer
+ */
+class LogRecord {
+    final long timeInMillis;
+    final LogLevel level;
+    final String loggerName;
+    final String message;
+    final Throwable cause;
+
+    LogRecord(long timeInMillis, LogLevel level, String loggerName, String message, Throwable cause) {
+        this.timeInMillis = timeInMillis;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.message = message;
+        this.cause = cause;
+    }
+}
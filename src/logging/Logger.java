@@ -0,0 +1,123 @@
+package logging;
+
+import java.util.function.Supplier;
+
+/**
+ * A small logger which hands every message to a background thread (see {@link AsyncLogWriter}).
+ * The calling thread never does any console I/O and never blocks. If the messages can't be written fast enough
+ * messages are dropped instead.
+ * Messages below the configured level are discarded before they are built: the variants taking a supplier only
+ * create the message string if the level is enabled.
+ *
+ * The level can be set with the system property "maumau.log.level" (e.g. -Dmaumau.log.level=DEBUG) or
+ * with {@link #setLevel(LogLevel)}. The default level is INFO.
+ */
+public final class Logger {
+    private static final String LEVEL_PROPERTY = "maumau.log.level";
+
+    private static volatile LogLevel level = readLevelProperty();
+
+    private final String name;
+
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param owner the class which logs messages
+     * @return a logger which prefixes every message with the simple name of the class
+     */
+    public static Logger getLogger(Class<?> owner) {
+        return new Logger(owner.getSimpleName());
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    private static LogLevel readLevelProperty() {
+        final String property = System.getProperty(LEVEL_PROPERTY);
+        if(property != null) {
+            try {
+                return LogLevel.valueOf(property.trim().toUpperCase());
+            } catch (IllegalArgumentException ignored) {
+                //unknown level - keep the default
+            }
+        }
+        return LogLevel.INFO;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  logging                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param messageLevel the level of a message
+     * @return if messages of this level are written
+     */
+    public boolean isEnabled(LogLevel messageLevel) {
+        return messageLevel != LogLevel.OFF && messageLevel.ordinal() >= level.ordinal();
+    }
+
+    public boolean isDebugEnabled() {
+        return this.isEnabled(LogLevel.DEBUG);
+    }
+
+    public void debug(Supplier<String> message) {
+        if(this.isEnabled(LogLevel.DEBUG)) {
+            this.write(LogLevel.DEBUG, message.get(), null);
+        }
+    }
+
+    public void debug(String message) {
+        if(this.isEnabled(LogLevel.DEBUG)) {
+            this.write(LogLevel.DEBUG, message, null);
+        }
+    }
+
+    public void info(Supplier<String> message) {
+        if(this.isEnabled(LogLevel.INFO)) {
+            this.write(LogLevel.INFO, message.get(), null);
+        }
+    }
+
+    public void info(String message) {
+        if(this.isEnabled(LogLevel.INFO)) {
+            this.write(LogLevel.INFO, message, null);
+        }
+    }
+
+    public void warn(String message) {
+        if(this.isEnabled(LogLevel.WARN)) {
+            this.write(LogLevel.WARN, message, null);
+        }
+    }
+
+    public void warn(String message, Throwable cause) {
+        if(this.isEnabled(LogLevel.WARN)) {
+            this.write(LogLevel.WARN, message, cause);
+        }
+    }
+
+    public void error(String message) {
+        if(this.isEnabled(LogLevel.ERROR)) {
+            this.write(LogLevel.ERROR, message, null);
+        }
+    }
+
+    public void error(String message, Throwable cause) {
+        if(this.isEnabled(LogLevel.ERROR)) {
+            this.write(LogLevel.ERROR, message, cause);
+        }
+    }
+
+    private void write(LogLevel messageLevel, String message, Throwable cause) {
+        AsyncLogWriter.getInstance().enqueue(
+                new LogRecord(System.currentTimeMillis(), messageLevel, this.name, message, cause));
+    }
+}
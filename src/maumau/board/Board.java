@@ -31,7 +31,7 @@ public interface Board {
     Card getLastPlayedCard();
 
     /**
-     * Get the seven start cards every player starts with
+     * Get the start cards every player starts with (seven unless the board was configured otherwise)
      * @return the cards as a list
      */
     List<Card> getStartCards();
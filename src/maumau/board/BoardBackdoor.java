@@ -9,5 +9,9 @@ interface BoardBackdoor extends Board {
 
     int getStartCardNumber();
 
+    /**
+     * Returns a copy of the discard pile as list
+     * @return the cards, the first card in the list is the top card
+     */
     List<Card> getDiscardPile();
 }
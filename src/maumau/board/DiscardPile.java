@@ -0,0 +1,109 @@
+package maumau.board;
+
+import maumau.board.deck.Deck;
+import maumau.cards.Card;
+import maumau.cards.MauMauCard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The discard pile of a board.
+ * Like the deck it only stores the ordinals of the cards (see {@link Card#getOrdinal()}).
+ * The card at index size - 1 is the top card, so playing a card and looking at the top card take constant time.
+ */
+class DiscardPile {
+    private byte[] cards;
+    private int size;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                               constructors                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    DiscardPile() {
+        this.cards = new byte[MauMauCard.NUMBER_OF_CARDS];
+        this.size = 0;
+    }
+
+    /**
+     * Creates a discard pile from a list
+     * @param discardPile the cards of the discard pile, the first card in the list is the top card
+     */
+    DiscardPile(List<Card> discardPile) {
+        this();
+        for(int i = discardPile.size() - 1; i >= 0; i--) {
+            this.push(discardPile.get(i));
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  methods                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Put a card on top of the pile
+     * @param card the played card
+     */
+    void push(Card card) {
+        if(this.size == this.cards.length) {
+            this.cards = Arrays.copyOf(this.cards, this.cards.length * 2);
+        }
+        this.cards[this.size++] = (byte) card.getOrdinal();
+    }
+
+    /**
+     * @return the top card of the pile
+     * @throws NoSuchElementException if the pile is empty
+     */
+    Card top() {
+        if(this.size == 0) {
+            throw new NoSuchElementException("the discard pile is empty");
+        }
+        return MauMauCard.fromOrdinal(this.cards[this.size - 1]);
+    }
+
+    /**
+     * Replace the top card of the pile. If the pile is empty the card is put on the pile.
+     * @param card the new top card
+     */
+    void setTop(Card card) {
+        if(this.size == 0) {
+            this.push(card);
+        } else {
+            this.cards[this.size - 1] = (byte) card.getOrdinal();
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Moves every card except the top card into the deck with one bulk copy.
+     * Afterwards only the top card remains on the pile.
+     * @param deck the deck to refill
+     */
+    void recycleInto(Deck deck) {
+        final int TOP_CARD_INDEX = this.size - 1;
+        if(TOP_CARD_INDEX < 1) {
+            return;
+        }
+        deck.addCardsToDeck(this.cards, 0, TOP_CARD_INDEX);
+        this.cards[0] = this.cards[TOP_CARD_INDEX];
+        this.size = 1;
+    }
+
+    /**
+     * Creates a list of the cards on the pile. The list isn't backed by the pile.
+     * @return the cards, the first card in the list is the top card
+     */
+    List<Card> toList() {
+        List<Card> discardPile = new ArrayList<>(this.size);
+        for(int i = this.size - 1; i >= 0; i--) {
+            discardPile.add(MauMauCard.fromOrdinal(this.cards[i]));
+        }
+        return discardPile;
+    }
+}
@@ -1,5 +1,6 @@
 package maumau.board;
 
+import maumau.board.deck.DeckTemplate;
 import maumau.board.deck.TCPDeck;
 import maumau.cards.Card;
 import maumau.board.deck.MauMauDeck;
@@ -10,13 +11,12 @@ import java.util.List;
 
 public class MauMauBoard implements Board, BoardBackdoor, TCPNetworkBoard {
     private TCPDeck deck;
-    private final List<Card> discardPile;
+    private final DiscardPile discardPile;
 
-    //for the time being it remains seven start cards with two players
-    //could be easily made variable
-    private final int START_CARD_NUMBER = 7;
+    //seven start cards unless the board is created with another number
+    public static final int DEFAULT_START_CARD_NUMBER = 7;
 
-    private final int TOP_DISCARD_PILE_CARD_INDEX = 0;
+    private final int startCardNumber;
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     //                                               Constructors                                                     //
@@ -27,6 +27,34 @@ public class MauMauBoard implements Board, BoardBackdoor, TCPNetworkBoard {
         this(new MauMauDeck());
     }
 
+    /**
+     * Creates a board with a new deck built from a template
+     * @param template the composition of the deck, e.g. {@link DeckTemplate#SKAT} or a shoe of several decks
+     * @param startCardNumber the number of cards every player starts with
+     */
+    public MauMauBoard(DeckTemplate template, int startCardNumber) {
+        this(new MauMauDeck(template), startCardNumber);
+    }
+
+    /**
+     * Creates a board and draws one card from the deck so that the discard pile isn't empty
+     * @param deck the deck on which the board relies
+     * @param startCardNumber the number of cards every player starts with
+     * @throws IllegalArgumentException if the start card number is less than one
+     */
+    public MauMauBoard(TCPDeck deck, int startCardNumber) {
+        if(startCardNumber < 1) {
+            throw new IllegalArgumentException("every player needs at least one start card: " + startCardNumber);
+        }
+        this.deck = deck;
+        this.startCardNumber = startCardNumber;
+        this.discardPile = new DiscardPile();
+        try {
+            this.discardPile.push(this.deck.drawCard());
+        } catch (EmptyDeckException ignored) {
+        }
+    }
+
 
 
 
@@ -46,10 +74,7 @@ public class MauMauBoard implements Board, BoardBackdoor, TCPNetworkBoard {
             //if at least one other card besides the last played card is on the discard pile
             //the discard pile gets shuffled into the deck, except the top card which will remain in the discard pile
             if (this.discardPile.size() > 1) {
-                Card lastPlayedCard = this.discardPile.remove(this.TOP_DISCARD_PILE_CARD_INDEX);
-                this.deck.addCardsToDeck(this.discardPile);
-                this.discardPile.clear();
-                this.discardPile.add(lastPlayedCard);
+                this.discardPile.recycleInto(this.deck);
 
                 //now try again. Of course, it would work now, but the compiler doesn't know that
                 try {
@@ -67,12 +92,12 @@ public class MauMauBoard implements Board, BoardBackdoor, TCPNetworkBoard {
 
     @Override
     public void playCard(Card card) {
-        this.discardPile.add(this.TOP_DISCARD_PILE_CARD_INDEX, card);
+        this.discardPile.push(card);
     }
 
     @Override
     public Card getLastPlayedCard() {
-        return this.discardPile.get(this.TOP_DISCARD_PILE_CARD_INDEX);
+        return this.discardPile.top();
     }
 
     @Override
@@ -81,12 +106,13 @@ public class MauMauBoard implements Board, BoardBackdoor, TCPNetworkBoard {
         List<Card> startCards = new ArrayList<>();
 
         //first cards get drawn from the deck
-        for(int i = 0; i < this.START_CARD_NUMBER; i++) {
+        for(int i = 0; i < this.startCardNumber; i++) {
             try {
-                startCards.add(this.deck.drawCard());
-            } catch (EmptyDeckException ignored) {
-                //can't happen because the deck has 52 cards at the beginning
-                //with a variable count of start cards this shouldn't be ignored
+                startCards.add(this.drawCard());
+            } catch (ProvokedEmptyDeckException e) {
+                //a small deck with many players and many start cards may run out of cards
+                //then the player just starts with the cards which were left
+                break;
             }
         }
         return startCards;
@@ -103,23 +129,20 @@ public class MauMauBoard implements Board, BoardBackdoor, TCPNetworkBoard {
      * @param deck the deck on which the board relies
      */
     public MauMauBoard(TCPDeck deck) {
-        this.deck = deck;
-        this.discardPile = new ArrayList<>();
-        try {
-            this.discardPile.add(this.deck.drawCard());
-        } catch (EmptyDeckException ignored) {
-        }
+        this(deck, DEFAULT_START_CARD_NUMBER);
     }
 
     /**
      * Constructor for Test
      * Doesn't draw a card from the deck -> discard pile possibly empty
      * @param deck the deck on which the board relies
-     * @param discardPile the discard pile on which the board relies
+     * @param discardPile the cards of the discard pile, the first card in the list is the top card.
+     *                    The list is copied, later changes of the list don't affect the board.
      */
     public MauMauBoard(TCPDeck deck, List<Card> discardPile) {
         this.deck = deck;
-        this.discardPile = discardPile;
+        this.startCardNumber = DEFAULT_START_CARD_NUMBER;
+        this.discardPile = new DiscardPile(discardPile);
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -138,7 +161,7 @@ public class MauMauBoard implements Board, BoardBackdoor, TCPNetworkBoard {
 
     @Override
     public void setDiscardPileCard(Card card) {
-        this.discardPile.set(this.TOP_DISCARD_PILE_CARD_INDEX, card);
+        this.discardPile.setTop(card);
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -147,11 +170,11 @@ public class MauMauBoard implements Board, BoardBackdoor, TCPNetworkBoard {
 
     @Override
     public int getStartCardNumber() {
-        return this.START_CARD_NUMBER;
+        return this.startCardNumber;
     }
 
     @Override
     public List<Card> getDiscardPile() {
-        return this.discardPile;
+        return this.discardPile.toList();
     }
 }
@@ -3,10 +3,17 @@ package maumau.board;
 import maumau.board.deck.TCPDeck;
 import maumau.cards.Card;
 
+import java.util.List;
+
 public interface TCPNetworkBoard extends Board {
     TCPDeck getDeck();
 
     void setDeck(TCPDeck deck);
 
     void setDiscardPileCard(Card discardPileCard);
+
+    /**
+     * @return the cards of the discard pile, the first card in the list is the top card
+     */
+    List<Card> getDiscardPile();
 }
@@ -17,4 +17,17 @@ public interface Deck {
      * @param cards cards to add to the deck
      */
     void addCardsToDeck(List<Card> cards);
+
+    /**
+     * Add cards to a deck and shuffle them in.
+     * @param ordinals array holding the ordinals of the cards to add (see {@link Card#getOrdinal()})
+     * @param offset index of the first ordinal to add
+     * @param length number of ordinals to add
+     */
+    void addCardsToDeck(byte[] ordinals, int offset, int length);
+
+    /**
+     * @return the number of cards left on the deck
+     */
+    int size();
 }
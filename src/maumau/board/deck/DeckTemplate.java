@@ -0,0 +1,126 @@
+package maumau.board.deck;
+
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+
+import java.util.Arrays;
+
+/**
+ * The composition of a deck: which cards and how many copies of each card a new deck consists of.
+ * A template is immutable and built only once. New decks copy its cards in bulk instead of building them again.
+ */
+public final class DeckTemplate {
+    /**
+     * The standard deck with 52 cards (2-10, Jack, Queen, King, Ace) * (4 card colors)
+     */
+    public static final DeckTemplate STANDARD = new DeckTemplate("standard", CardType.TWO);
+
+    /**
+     * The skat deck with 32 cards (7-10, Jack, Queen, King, Ace) * (4 card colors)
+     */
+    public static final DeckTemplate SKAT = new DeckTemplate("skat", CardType.SEVEN);
+
+    private final String name;
+    //ordinals of the cards (see MauMauCard.getOrdinal()) in the order of an unshuffled deck
+    private final byte[] cards;
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                               constructors                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a template with one card of every color and every type starting from the lowest type
+     * @param name the name of the template
+     * @param lowestType the lowest card type in the deck
+     */
+    private DeckTemplate(String name, CardType lowestType) {
+        final int numberOfTypes = CardType.values().length - lowestType.ordinal();
+        this.name = name;
+        this.cards = new byte[CardColor.values().length * numberOfTypes];
+
+        int i = 0;
+        for(CardColor color : CardColor.values()) {
+            for(int type = lowestType.ordinal(); type < CardType.values().length; type++) {
+                this.cards[i++] = (byte) MauMauCard.ordinal(color, CardType.values()[type]);
+            }
+        }
+    }
+
+    private DeckTemplate(String name, byte[] cards) {
+        this.name = name;
+        this.cards = cards;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  methods                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Finds a predefined template by its name
+     * @param name the name of the template ("standard" or "skat")
+     * @return the template, null if there is no template with this name
+     */
+    public static DeckTemplate forName(String name) {
+        if(STANDARD.name.equals(name)) {
+            return STANDARD;
+        }
+        if(SKAT.name.equals(name)) {
+            return SKAT;
+        }
+        return null;
+    }
+
+    /**
+     * Creates a shoe: a template consisting of several copies of this template.
+     * The shoe should be created once and then be reused for every game.
+     * @param numberOfDecks how many decks are combined
+     * @return the new template
+     * @throws IllegalArgumentException if the number of decks is less than one
+     */
+    public DeckTemplate shoe(int numberOfDecks) {
+        if(numberOfDecks < 1) {
+            throw new IllegalArgumentException("a shoe needs at least one deck: " + numberOfDecks);
+        }
+
+        final byte[] shoeCards = new byte[this.cards.length * numberOfDecks];
+        for(int i = 0; i < numberOfDecks; i++) {
+            System.arraycopy(this.cards, 0, shoeCards, i * this.cards.length, this.cards.length);
+        }
+        return new DeckTemplate(numberOfDecks + "x " + this.name, shoeCards);
+    }
+
+    /**
+     * @return the number of cards in a new deck
+     */
+    public int size() {
+        return this.cards.length;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return a new array with the ordinals of the cards
+     */
+    public byte[] getOrdinals() {
+        return this.copyCards(0);
+    }
+
+    /**
+     * Copies the cards of the template
+     * @param capacity the minimal length of the returned array
+     * @return a new array starting with the ordinals of the cards
+     */
+    byte[] copyCards(int capacity) {
+        return Arrays.copyOf(this.cards, Math.max(capacity, this.cards.length));
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -2,14 +2,22 @@ package maumau.board.deck;
 
 import maumau.cards.Card;
 import maumau.cards.MauMauCard;
-import maumau.cards.CardColor;
-import maumau.cards.CardType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class MauMauDeck implements Deck, DeckBackdoor, TCPDeck {
-    private final List<Card> deck;
+    //the deck only stores the ordinals of the cards (see MauMauCard.getOrdinal())
+    //the deck is always upside-down: the card at index size - 1 is the top card
+    private byte[] cards;
+    private int size;
+
+    //every deck has its own generator, so games don't contend on a shared one
+    private final RandomGenerator random;
+    private final ShuffleMode shuffleMode;
 
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -22,30 +30,86 @@ public class MauMauDeck implements Deck, DeckBackdoor, TCPDeck {
      * The deck is shuffled after it's filled with all cards.
      */
     public MauMauDeck() {
-        this(new ArrayList<>());
+        this(new SplittableRandom());
+    }
 
-        //add every card to the deck
-        for(int i = 0; i < CardColor.values().length; i++) {
-            for(int j = 0; j < CardType.values().length; j++) {
-                this.deck.add(new MauMauCard(CardColor.values()[i], CardType.values()[j]));
-            }
-        }
+    /**
+     * Creates a standard MauMau deck which is shuffled with a fixed seed.
+     * Two decks created with the same seed always have the same order.
+     * @param seed the seed of the random generator used for every shuffle of this deck
+     */
+    public MauMauDeck(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates a standard MauMau deck which is shuffled with the given random generator.
+     * @param random the random generator used for every shuffle of this deck.
+     *               It's owned by this deck and shouldn't be shared with other threads.
+     */
+    public MauMauDeck(RandomGenerator random) {
+        this(random, ShuffleMode.ON_REFILL);
+    }
+
+    /**
+     * Creates a standard MauMau deck.
+     * @param random the random generator used for every shuffle of this deck.
+     *               It's owned by this deck and shouldn't be shared with other threads.
+     * @param shuffleMode when the deck does its shuffle work
+     */
+    public MauMauDeck(RandomGenerator random, ShuffleMode shuffleMode) {
+        this(DeckTemplate.STANDARD, random, shuffleMode);
+    }
+
+    /**
+     * Creates a deck from a template which is shuffled with a random seed.
+     * @param template the composition of the deck, e.g. {@link DeckTemplate#SKAT}
+     */
+    public MauMauDeck(DeckTemplate template) {
+        this(template, new SplittableRandom(), ShuffleMode.ON_REFILL);
+    }
+
+    /**
+     * Creates a deck from a template.
+     * @param template the composition of the deck, e.g. {@link DeckTemplate#SKAT}
+     * @param random the random generator used for every shuffle of this deck.
+     *               It's owned by this deck and shouldn't be shared with other threads.
+     * @param shuffleMode when the deck does its shuffle work
+     */
+    public MauMauDeck(DeckTemplate template, RandomGenerator random, ShuffleMode shuffleMode) {
+        this.random = random;
+        this.shuffleMode = shuffleMode;
+
+        //add every card of the template to the deck
+        this.cards = template.copyCards(template.size());
+        this.size = template.size();
 
         //shuffle the deck
-        this.shuffleDeck();
+        if(this.shuffleMode == ShuffleMode.ON_REFILL) {
+            this.shuffleDeck();
+        }
     }
 
     /**
-     * Shuffles the deck
+     * Shuffles the deck (Fisher-Yates shuffle, every order is equally likely)
      */
     private void shuffleDeck() {
-        Card copiedCard;
+        shuffle(this.cards, this.size, this.random);
+    }
 
-        for(int i = 0; i < this.deck.size(); i++) {
-            int randomIndex = (int) (Math.random() * this.deck.size());
-            copiedCard = this.deck.get(randomIndex);
-            this.deck.set(randomIndex,this.deck.get(i));
-            this.deck.set(i,copiedCard);
+    /**
+     * Shuffles the first cards of an array of card ordinals like a deck is shuffled, e.g. for simulated games
+     * @param length the number of cards to shuffle, the cards behind them stay in place
+     */
+    public static void shuffle(byte[] cards, int length, RandomGenerator random) {
+        byte copiedCard;
+
+        for(int i = length - 1; i > 0; i--) {
+            //pick one of the cards which weren't shuffled yet, including the current one
+            int randomIndex = random.nextInt(i + 1);
+            copiedCard = cards[randomIndex];
+            cards[randomIndex] = cards[i];
+            cards[i] = copiedCard;
         }
     }
 
@@ -58,12 +122,18 @@ public class MauMauDeck implements Deck, DeckBackdoor, TCPDeck {
 
     @Override
     public Card drawCard() throws EmptyDeckException {
-        //because the deck is always upside-down, the card to draw is the last card in the list
-        final int TOP_CARD = this.deck.size() - 1;
-
         //if at least one card is left a card can be drawn
-        if(this.deck.size() > 0) {
-            return this.deck.remove(TOP_CARD);
+        if(this.size > 0) {
+            if(this.shuffleMode == ShuffleMode.ON_DRAW) {
+                //bring a random card to the top - that's one step of the Fisher-Yates shuffle
+                int randomIndex = this.random.nextInt(this.size);
+                byte copiedCard = this.cards[randomIndex];
+                this.cards[randomIndex] = this.cards[this.size - 1];
+                this.cards[this.size - 1] = copiedCard;
+            }
+
+            //because the deck is always upside-down, the card to draw is the last card in the array
+            return MauMauCard.fromOrdinal(this.cards[--this.size]);
 
         } else { //if the deck is empty an exception is thrown
             throw new EmptyDeckException();
@@ -72,8 +142,34 @@ public class MauMauDeck implements Deck, DeckBackdoor, TCPDeck {
 
     @Override
     public void addCardsToDeck(List<Card> cards) {
-        this.deck.addAll(cards);
-        this.shuffleDeck();
+        this.ensureCapacity(this.size + cards.size());
+        for(Card card : cards) {
+            this.cards[this.size++] = (byte) card.getOrdinal();
+        }
+        if(this.shuffleMode == ShuffleMode.ON_REFILL) {
+            this.shuffleDeck();
+        }
+    }
+
+    @Override
+    public void addCardsToDeck(byte[] ordinals, int offset, int length) {
+        this.ensureCapacity(this.size + length);
+        System.arraycopy(ordinals, offset, this.cards, this.size, length);
+        this.size += length;
+        if(this.shuffleMode == ShuffleMode.ON_REFILL) {
+            this.shuffleDeck();
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity > this.cards.length) {
+            this.cards = Arrays.copyOf(this.cards, Math.max(capacity, this.cards.length * 2));
+        }
     }
 
 
@@ -81,9 +177,17 @@ public class MauMauDeck implements Deck, DeckBackdoor, TCPDeck {
     //                                                      network                                                   //
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Creates a list of the cards currently in the deck. The list is a copy and isn't backed by the deck.
+     * @return the cards, the last card in the list is the top card
+     */
     @Override
     public List<Card> getDeckAsList() {
-        return this.deck;
+        List<Card> deckList = new ArrayList<>(this.size);
+        for(int i = 0; i < this.size; i++) {
+            deckList.add(MauMauCard.fromOrdinal(this.cards[i]));
+        }
+        return deckList;
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -95,9 +199,15 @@ public class MauMauDeck implements Deck, DeckBackdoor, TCPDeck {
      * @param deck The list of cards making up the deck.
      *             The last card in the list is the first card drawn.
      *             The list won't get shuffled.
+     *             The list is copied, later changes of the list don't affect the deck.
      */
     public MauMauDeck(List<Card> deck) {
-        this.deck = deck;
+        this.random = new SplittableRandom();
+        this.shuffleMode = ShuffleMode.ON_REFILL;
+        this.cards = new byte[Math.max(deck.size(), MauMauCard.NUMBER_OF_CARDS)];
+        for(Card card : deck) {
+            this.cards[this.size++] = (byte) card.getOrdinal();
+        }
     }
 
 
@@ -108,6 +218,6 @@ public class MauMauDeck implements Deck, DeckBackdoor, TCPDeck {
 
     @Override
     public List<Card> getDeck() {
-        return this.deck;
+        return this.getDeckAsList();
     }
 }
@@ -0,0 +1,21 @@
+package maumau.board.deck;
+
+/**
+ * When a {@link MauMauDeck} does its shuffle work.
+ * In both modes every card left on the deck is equally likely to be drawn next.
+ */
+public enum ShuffleMode {
+    /**
+     * The deck is shuffled when it's created and every time cards are added.
+     * Cards are drawn from the top, so the order of the deck is the order in which the cards are drawn.
+     */
+    ON_REFILL,
+
+    /**
+     * The deck is never shuffled as a whole. Instead, every draw picks a random card from the cards left
+     * (one step of a Fisher-Yates shuffle) and adding cards just appends them.
+     * The order of the deck doesn't tell which card is drawn next, so a deck in this mode can't be mirrored
+     * to a remote player by sending its order. It's meant for local games like simulations.
+     */
+    ON_DRAW
+}
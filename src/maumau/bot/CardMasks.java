@@ -0,0 +1,58 @@
+package maumau.bot;
+
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+
+/**
+ * Helpers for the card masks of the search (see {@link maumau.cards.CardSet#getMask()}). They work on colors and
+ * cards as ordinals, so the playouts don't create any objects.
+ */
+final class CardMasks {
+    private static final int NUMBER_OF_COLORS = CardColor.values().length;
+    //the cards of a color have neighbouring ordinals
+    private static final long COLOR_MASK = (1L << MauMauCard.NUMBER_OF_TYPES) - 1;
+
+    static final long JACKS = ofType(CardType.JACK);
+
+    private CardMasks() {
+    }
+
+    /**
+     * @return the mask of the cards of a type in all colors
+     */
+    static long ofType(CardType type) {
+        long mask = 0;
+        for(int color = 0; color < NUMBER_OF_COLORS; color++) {
+            mask |= 1L << color * MauMauCard.NUMBER_OF_TYPES + type.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * Like {@link maumau.game.Strategy#mostFrequentColor(long)}, as color ordinal
+     * @return the ordinal of the color of most cards of a card mask, the first color if it's empty
+     */
+    static int mostFrequentColor(long cards) {
+        int best = 0;
+        int bestCount = -1;
+        for(int color = 0; color < NUMBER_OF_COLORS; color++) {
+            final int count = Long.bitCount(cards >>> color * MauMauCard.NUMBER_OF_TYPES & COLOR_MASK);
+            if(count > bestCount) {
+                best = color;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the ordinal of the n-th card (counted from 0) of a card mask
+     */
+    static int nthCard(long cards, int n) {
+        for(int i = 0; i < n; i++) {
+            cards &= cards - 1;
+        }
+        return Long.numberOfTrailingZeros(cards);
+    }
+}
@@ -0,0 +1,214 @@
+package maumau.bot;
+
+import maumau.board.deck.DeckTemplate;
+import maumau.board.deck.MauMauDeck;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+import maumau.game.GameState;
+import maumau.player.TurnRing;
+import maumau.verifier.MauMauRules;
+import maumau.verifier.Rules;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * What a player on turn knows about a game: his hand, the discard pile, the wish, the seven stack and how many cards
+ * the deck and the other hands hold - but not which of the unseen cards are where.
+ * The search plays every iteration on a determinization, a guess of the hidden cards which agrees with all of this.
+ */
+public final class InformationSet {
+    private static final Rules RULES = new MauMauRules();
+
+    private final int seat;
+    private final int numberOfSeats;
+    private final long hand;
+    private final int topCard;
+    private final int wish;
+    private final int sevenStack;
+    private final long discardPile;
+    private final int deckSize;
+    private final int[] handSizes;
+    //the cards in the deck and the other hands
+    private final long unseenCards;
+
+    /**
+     * The sizes of the other hands are corrected so that the unseen cards fill the deck and those hands exactly,
+     * e.g. if they were counted from moves which were partly missed
+     * @param seat the seat on turn
+     * @param hand the card mask of its hand
+     * @param wishedColor the wished color, ignored unless the top card is a jack
+     * @param discardPile the card mask of the cards below the top card
+     * @param handSizes the number of cards of every seat, the entry of the seat on turn is ignored
+     * @param cards the card mask of all cards of the game (see {@link #cardsOf(DeckTemplate)})
+     * @throws IllegalArgumentException if the number of seats isn't supported
+     */
+    public InformationSet(int seat, long hand, Card topCard, CardColor wishedColor, int sevenStack, long discardPile,
+                          int deckSize, int[] handSizes, long cards) {
+        if(handSizes.length < TurnRing.MIN_SEATS || handSizes.length > TurnRing.MAX_SEATS) {
+            throw new IllegalArgumentException("a game has 2 to 8 seats, not " + handSizes.length);
+        }
+        this.seat = seat;
+        this.numberOfSeats = handSizes.length;
+        this.hand = hand;
+        this.topCard = topCard.getOrdinal();
+        this.wish = wishedColor == null || topCard.getType() != CardType.JACK
+                ? PlayoutState.NO_WISH : wishedColor.ordinal();
+        this.sevenStack = sevenStack;
+        this.discardPile = discardPile & ~hand & ~(1L << this.topCard);
+        this.unseenCards = cards & ~hand & ~this.discardPile & ~(1L << this.topCard);
+
+        final int unseen = Long.bitCount(this.unseenCards);
+        this.deckSize = Math.max(0, Math.min(deckSize, unseen));
+        this.handSizes = handSizes.clone();
+        this.handSizes[seat] = Long.bitCount(hand);
+        this.balanceHandSizes(unseen - this.deckSize);
+    }
+
+    /**
+     * The view of a seat on a complete game, e.g. to let the search play a simulated game
+     */
+    public static InformationSet of(GameState state, int seat) {
+        final int[] handSizes = new int[state.getNumberOfSeats()];
+        long cards = state.getDiscardPile() | 1L << state.getTopCard().getOrdinal();
+        for(int other = 0; other < handSizes.length; other++) {
+            handSizes[other] = state.getHandSize(other);
+            cards |= state.getHand(other);
+        }
+        for(int i = 0; i < state.getDeckSize(); i++) {
+            cards |= 1L << state.getDeckCard(i).getOrdinal();
+        }
+        return new InformationSet(seat, state.getHand(seat), state.getTopCard(), state.getWishedColor(),
+                state.getSevenStack(), state.getDiscardPile(), state.getDeckSize(), handSizes, cards);
+    }
+
+    /**
+     * @return the card mask of all cards of a deck
+     * @throws IllegalArgumentException if the template is a shoe, the search can't tell equal cards apart
+     */
+    public static long cardsOf(DeckTemplate template) {
+        long cards = 0;
+        for(byte card : template.getOrdinals()) {
+            if((cards & 1L << card) != 0) {
+                throw new IllegalArgumentException("the search doesn't support shoes: " + template);
+            }
+            cards |= 1L << card;
+        }
+        return cards;
+    }
+
+    private void balanceHandSizes(int otherCards) {
+        int missing = otherCards;
+        for(int other = 0; other < this.numberOfSeats; other++) {
+            if(other != this.seat) {
+                this.handSizes[other] = Math.max(0, this.handSizes[other]);
+                missing -= this.handSizes[other];
+            }
+        }
+        //takes from and gives to the other seats in turn order
+        for(int other = this.nextOther(this.seat); missing != 0; other = this.nextOther(other)) {
+            if(missing > 0) {
+                this.handSizes[other]++;
+                missing--;
+            } else if(this.handSizes[other] > 0) {
+                this.handSizes[other]--;
+                missing++;
+            }
+        }
+    }
+
+    private int nextOther(int other) {
+        final int next = (other + 1) % this.numberOfSeats;
+        return next == this.seat ? (next + 1) % this.numberOfSeats : next;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                              determinization                                                   //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Deals the unseen cards at random to the deck and the other hands
+     * @param state gets the guessed game, the seat of this set is on turn
+     */
+    void determinize(PlayoutState state, RandomGenerator random) {
+        int count = 0;
+        for(long remaining = this.unseenCards; remaining != 0; remaining &= remaining - 1) {
+            state.deck[count++] = (byte) Long.numberOfTrailingZeros(remaining);
+        }
+        MauMauDeck.shuffle(state.deck, count, random);
+        for(int other = 0; other < this.numberOfSeats; other++) {
+            long hand = 0;
+            if(other == this.seat) {
+                hand = this.hand;
+            } else {
+                for(int i = 0; i < this.handSizes[other]; i++) {
+                    hand |= 1L << state.deck[--count];
+                }
+            }
+            state.hands[other] = hand;
+        }
+        state.deckSize = count;
+        state.discardPile = this.discardPile;
+        state.topCard = this.topCard;
+        state.wish = this.wish;
+        state.sevenStack = this.sevenStack;
+        state.currentSeat = this.seat;
+        state.numberOfSeats = this.numberOfSeats;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public int getSeat() {
+        return this.seat;
+    }
+
+    public int getNumberOfSeats() {
+        return this.numberOfSeats;
+    }
+
+    /**
+     * @return the card mask of the hand of the seat on turn
+     */
+    public long getHand() {
+        return this.hand;
+    }
+
+    public Card getTopCard() {
+        return MauMauCard.fromOrdinal(this.topCard);
+    }
+
+    int getTopCardOrdinal() {
+        return this.topCard;
+    }
+
+    /**
+     * @return the card mask of the cards of the hand which may be played
+     */
+    public long getPlayableMask() {
+        final CardColor wishedColor = this.wish == PlayoutState.NO_WISH ? null : CardColor.values()[this.wish];
+        return this.hand & RULES.playableMask(this.getTopCard(), wishedColor);
+    }
+
+    public int getDeckSize() {
+        return this.deckSize;
+    }
+
+    /**
+     * @return the corrected number of cards of a seat
+     */
+    public int getHandSize(int seat) {
+        return this.handSizes[seat];
+    }
+
+    /**
+     * @return the card mask of the cards in the deck and the other hands
+     */
+    public long getUnseenCards() {
+        return this.unseenCards;
+    }
+}
@@ -0,0 +1,236 @@
+package maumau.bot;
+
+import logging.Logger;
+import maumau.board.ProvokedEmptyDeckException;
+import maumau.board.deck.DeckTemplate;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.CardSet;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+import maumau.game.Strategy;
+import maumau.player.MauMauPlayer;
+import maumau.player.MoveListener;
+import maumau.player.NotPlayersTurnException;
+import maumau.player.PlayerHasNoSuchCardException;
+import maumau.player.PlayerViolatesGameRulesException;
+import maumau.player.VisulizablePlayer;
+import network.ProtocolThreads;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A computer player. It plays the seat of a {@link MauMauPlayer}, which keeps doing the rules and the network, and
+ * chooses the moves with a {@link MonteCarloSearch}.
+ *
+ * The bot only knows what the player could see at the table: its hand, the discard pile and the number of cards of
+ * the deck and the other hands, which it counts from the moves. After {@link #start()} it moves by itself whenever
+ * its seat is on turn; without starting it {@link #playTurn()} makes one move on demand.
+ */
+public class MonteCarloBot implements VisulizablePlayer, MoveListener {
+    private static final Logger LOG = Logger.getLogger(MonteCarloBot.class);
+
+    private final MauMauPlayer player;
+    private final MonteCarloSearch search;
+    private final long cards;
+
+    //guarded by itself, counted from the moves
+    private final int[] handSizes;
+
+    private final AtomicBoolean moving;
+    private volatile boolean started;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                              constructors                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a bot for a game with a standard deck
+     */
+    public MonteCarloBot(MauMauPlayer player) {
+        this(player, DeckTemplate.STANDARD, new MonteCarloSearch());
+    }
+
+    /**
+     * Creates a bot for a player who has his start cards but didn't move yet
+     * @param template the deck of the game, shoes aren't supported
+     * @param search the search, e.g. with another time budget
+     */
+    public MonteCarloBot(MauMauPlayer player, DeckTemplate template, MonteCarloSearch search) {
+        this.player = player;
+        this.search = search;
+        this.cards = InformationSet.cardsOf(template);
+
+        this.handSizes = new int[player.getNumberOfSeats()];
+        Arrays.fill(this.handSizes, player.getPlayerHand().size());
+        this.moving = new AtomicBoolean();
+
+        this.player.subscribeMoveListener(this);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  moves                                                         //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Lets the bot move by itself from now on, starting right away if its seat is on turn
+     */
+    public void start() {
+        this.started = true;
+        this.playIfOnTurn();
+    }
+
+    /**
+     * Stops moving by itself after the current move
+     */
+    public void stop() {
+        this.started = false;
+    }
+
+    /**
+     * Searches a move and makes it. If the deck runs empty when the bot draws, it plays a fitting card instead.
+     * @return true if the bot has won with this move
+     * @throws ProvokedEmptyDeckException if the bot can neither draw nor play
+     */
+    public boolean playTurn() throws NotPlayersTurnException, ProvokedEmptyDeckException {
+        final InformationSet informationSet = this.observe();
+        final int move = this.search.chooseMove(informationSet);
+        try {
+            if(move == Strategy.DRAW) {
+                try {
+                    this.player.drawCard();
+                    return false;
+                } catch (ProvokedEmptyDeckException e) {
+                    if(!e.getCouldHavePlayed()) {
+                        throw e;
+                    }
+                    final int fittingCard = Long.numberOfTrailingZeros(informationSet.getPlayableMask());
+                    return this.play(informationSet.getHand(), fittingCard);
+                }
+            }
+            return this.play(informationSet.getHand(), move);
+        } catch (PlayerHasNoSuchCardException | PlayerViolatesGameRulesException e) {
+            //the search only chooses cards of the hand which fit
+            throw new IllegalStateException("the bot chose a card it can't play", e);
+        }
+    }
+
+    private boolean play(long hand, int card) throws NotPlayersTurnException, PlayerHasNoSuchCardException,
+            PlayerViolatesGameRulesException, ProvokedEmptyDeckException {
+        final Card playedCard = MauMauCard.fromOrdinal(card);
+        //the same wish as in the playouts of the search
+        final CardColor wishedColor = playedCard.getType() == CardType.JACK
+                ? Strategy.mostFrequentColor(hand & ~(1L << card)) : null;
+        return this.player.playCard(playedCard, wishedColor);
+    }
+
+    private InformationSet observe() {
+        final long hand = new CardSet(this.player.getPlayerHand()).getMask();
+        final List<Card> discardPile = this.player.getDiscardPile();
+        //the first card is the top card
+        final long below = new CardSet(discardPile.subList(1, discardPile.size())).getMask();
+        final int[] handSizes;
+        synchronized (this.handSizes) {
+            handSizes = this.handSizes.clone();
+        }
+        return new InformationSet(this.player.getTurnPosition(), hand, discardPile.get(0),
+                this.player.getWishedColor(), this.player.getSevenStackCount(), below,
+                this.player.getDeck().size(), handSizes, this.cards);
+    }
+
+    @Override
+    public void moveMade(int seat, Card playedCard, CardColor wishedColor, int drawnCards) {
+        synchronized (this.handSizes) {
+            this.handSizes[seat] += drawnCards - (playedCard == null ? 0 : 1);
+        }
+        this.search.moveMade(seat, playedCard);
+        //the moves of the bot itself are made in a loop until the turn is passed on
+        if(seat != this.player.getTurnPosition()) {
+            this.playIfOnTurn();
+        }
+    }
+
+    private void playIfOnTurn() {
+        if(this.started && this.isOnTurn() && !this.isGameOver() && this.moving.compareAndSet(false, true)) {
+            ProtocolThreads.execute(this::playTurns);
+        }
+    }
+
+    private void playTurns() {
+        try {
+            while(this.started && this.isOnTurn() && !this.isGameOver()) {
+                this.playTurn();
+            }
+        } catch (NotPlayersTurnException | ProvokedEmptyDeckException | RuntimeException e) {
+            LOG.warn("the bot at seat " + this.player.getTurnPosition() + " can't move", e);
+            this.moving.set(false);
+            return;
+        }
+        this.moving.set(false);
+        //a move of another player may have arrived before the flag was cleared
+        this.playIfOnTurn();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  getter                                                        //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean isOnTurn() {
+        return this.player.getCurrentSeat() == this.player.getTurnPosition();
+    }
+
+    /**
+     * @return true if a hand is empty
+     */
+    public boolean isGameOver() {
+        if(this.player.getPlayerHand().isEmpty()) {
+            return true;
+        }
+        synchronized (this.handSizes) {
+            for(int seat = 0; seat < this.handSizes.length; seat++) {
+                if(seat != this.player.getTurnPosition() && this.handSizes[seat] <= 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public MauMauPlayer getPlayer() {
+        return this.player;
+    }
+
+    public MonteCarloSearch getSearch() {
+        return this.search;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  player                                                        //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void drawCard() throws ProvokedEmptyDeckException, NotPlayersTurnException {
+        this.player.drawCard();
+    }
+
+    @Override
+    public boolean playCard(Card card, CardColor wishedColor) throws NotPlayersTurnException,
+            PlayerHasNoSuchCardException, PlayerViolatesGameRulesException, ProvokedEmptyDeckException {
+        return this.player.playCard(card, wishedColor);
+    }
+
+    @Override
+    public Card getDiscardPileCard() {
+        return this.player.getDiscardPileCard();
+    }
+
+    @Override
+    public List<Card> getPlayerHand() {
+        return this.player.getPlayerHand();
+    }
+}
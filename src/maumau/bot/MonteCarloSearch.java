@@ -0,0 +1,275 @@
+package maumau.bot;
+
+import maumau.cards.Card;
+import maumau.game.GameState;
+import maumau.game.Strategy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Chooses moves with a determinized Monte Carlo tree search (information set MCTS): every iteration deals the unseen
+ * cards at random, walks down the tree with the moves which are legal in this deal, adds one move and plays the rest
+ * of the game with a fast random policy.
+ *
+ * Every thread builds its own tree on its own {@link PlayoutState}, so the iterations run without locks and without
+ * allocations except the new tree node. The trees are merged at the root by adding the visits of the moves.
+ * After a move the trees are kept: {@link #moveMade(int, Card)} descends to the subtree of the move, so the next search
+ * starts with the statistics of the previous ones.
+ */
+public class MonteCarloSearch {
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 2;
+    public static final int DEFAULT_MAX_THREADS = 4;
+    /**
+     * A playout is stopped after this many moves and counts as a draw, e.g. when nobody can play
+     */
+    public static final int DEFAULT_MAX_PLAYOUT_MOVES = 200;
+
+    private static final double EXPLORATION = 0.7;
+    private static final int ITERATIONS_PER_CLOCK_CHECK = 16;
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Worker[] workers;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private long timeBudgetNanos = DEFAULT_TIME_BUDGET_MILLIS * NANOS_PER_MILLI;
+    private int maxIterations = Integer.MAX_VALUE;
+    private int maxPlayoutMoves = DEFAULT_MAX_PLAYOUT_MOVES;
+    private long lastIterations;
+
+    public MonteCarloSearch() {
+        this(Math.min(DEFAULT_MAX_THREADS, Runtime.getRuntime().availableProcessors()), System.nanoTime());
+    }
+
+    /**
+     * @param threads the number of trees which are searched in parallel
+     * @param seed the seed of the random generators of the threads
+     */
+    public MonteCarloSearch(int threads, long seed) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("a search needs at least one thread: " + threads);
+        }
+        this.workers = new Worker[threads];
+        for(int i = 0; i < threads; i++) {
+            this.workers[i] = new Worker(new SplittableRandom(seed + i * SEED_GAMMA));
+        }
+    }
+
+    /**
+     * @param millis the wall clock time of a search, each thread uses this time
+     */
+    public void setTimeBudget(long millis) {
+        this.timeBudgetNanos = millis * NANOS_PER_MILLI;
+    }
+
+    /**
+     * Limits the iterations of a search additionally to the time, e.g. to get the same moves for the same seed
+     * @param maxIterations the iterations of all threads together
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public void setMaxPlayoutMoves(int maxPlayoutMoves) {
+        this.maxPlayoutMoves = maxPlayoutMoves;
+    }
+
+    /**
+     * @param pool the pool the threads of a search run on, by default the common pool
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  search                                                        //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Searches the best card of the seat on turn. If nothing fits there's nothing to search and drawing is returned
+     * immediately.
+     * @return the ordinal of the card to play or {@link Strategy#DRAW}. If the card is a jack the wish should be
+     *          {@link Strategy#mostFrequentColor(long)} of the remaining hand, like in the playouts.
+     */
+    public synchronized int chooseMove(InformationSet informationSet) {
+        this.lastIterations = 0;
+        final long playable = informationSet.getPlayableMask();
+        if(playable == 0) {
+            return Strategy.DRAW;
+        }
+
+        //a tree which doesn't end in the current situation was built for another game or missed a move
+        final int observation = informationSet.getTopCardOrdinal() | informationSet.getSeat() << Byte.SIZE;
+        for(Worker worker : this.workers) {
+            final int rootObservation = worker.root.getObservation();
+            if(rootObservation != SearchNode.UNKNOWN && rootObservation != observation) {
+                worker.root = SearchNode.root();
+            }
+        }
+
+        final long deadline = System.nanoTime() + this.timeBudgetNanos;
+        final int iterationsPerWorker = (int) Math.min(Integer.MAX_VALUE,
+                ((long) this.maxIterations + this.workers.length - 1) / this.workers.length);
+        if(this.workers.length == 1) {
+            this.workers[0].search(informationSet, deadline, iterationsPerWorker, this.maxPlayoutMoves);
+        } else {
+            final ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[this.workers.length];
+            for(int i = 0; i < tasks.length; i++) {
+                final Worker worker = this.workers[i];
+                tasks[i] = this.pool.submit(() ->
+                        worker.search(informationSet, deadline, iterationsPerWorker, this.maxPlayoutMoves));
+            }
+            for(ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+
+        //the move which was chosen most often
+        final long[] visitsPerAction = new long[SearchNode.DRAW + 1];
+        for(Worker worker : this.workers) {
+            worker.root.addVisitsTo(visitsPerAction);
+            this.lastIterations += worker.iterations;
+        }
+        int best = Long.numberOfTrailingZeros(playable);
+        for(long remaining = playable; remaining != 0; remaining &= remaining - 1) {
+            final int action = Long.numberOfTrailingZeros(remaining);
+            if(visitsPerAction[action] > visitsPerAction[best]) {
+                best = action;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Drawing while a card fits is allowed but hardly ever good, so the search only draws if it has to
+     * @return the actions the search considers
+     */
+    private static long legalActions(long playable) {
+        return playable == 0 ? SearchNode.DRAW_BIT : playable;
+    }
+
+    /**
+     * Moves the roots of the trees to the move of a player, so the next search reuses what was searched below it
+     * @param seat the seat which moved
+     * @param playedCard the played card, null if the player drew a card
+     */
+    public synchronized void moveMade(int seat, Card playedCard) {
+        final int action = playedCard == null ? SearchNode.DRAW : playedCard.getOrdinal();
+        for(Worker worker : this.workers) {
+            final SearchNode child = worker.root.getChild(action);
+            worker.root = child != null && child.getSeat() == seat ? child : SearchNode.root();
+        }
+    }
+
+    /**
+     * Forgets the trees, e.g. before a new game
+     */
+    public synchronized void reset() {
+        for(Worker worker : this.workers) {
+            worker.root = SearchNode.root();
+        }
+    }
+
+    /**
+     * @return the iterations of all threads in the last search
+     */
+    public synchronized long getLastIterations() {
+        return this.lastIterations;
+    }
+
+    /**
+     * @return the iterations below the roots of all trees, i.e. the statistics a search starts with
+     */
+    synchronized long getRootVisits() {
+        long visits = 0;
+        for(Worker worker : this.workers) {
+            visits += worker.root.getVisits();
+        }
+        return visits;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  worker                                                        //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The tree and the scratch space of one thread
+     */
+    private static final class Worker {
+        private static final int INITIAL_PATH_LENGTH = 64;
+
+        private final SplittableRandom random;
+        private final PlayoutState state = new PlayoutState();
+        private SearchNode[] path = new SearchNode[INITIAL_PATH_LENGTH];
+        private SearchNode root = SearchNode.root();
+        private int iterations;
+
+        Worker(SplittableRandom random) {
+            this.random = random;
+        }
+
+        void search(InformationSet informationSet, long deadline, int maxIterations, int maxPlayoutMoves) {
+            this.iterations = 0;
+            while(this.iterations < maxIterations) {
+                this.iterate(informationSet, maxPlayoutMoves);
+                this.iterations++;
+                if(this.iterations % ITERATIONS_PER_CLOCK_CHECK == 0 && System.nanoTime() - deadline >= 0) {
+                    return;
+                }
+            }
+        }
+
+        private void iterate(InformationSet informationSet, int maxPlayoutMoves) {
+            final PlayoutState state = this.state;
+            informationSet.determinize(state, this.random);
+
+            SearchNode node = this.root;
+            int depth = 0;
+            this.path[depth++] = node;
+            //selection down to the first untried move, which is added to the tree
+            while(state.getWinner() == GameState.NO_WINNER) {
+                final long legalActions = legalActions(state.getPlayableMask());
+                node.markAvailable(legalActions);
+                final long untried = node.getUntriedActions(legalActions);
+                final boolean expand = untried != 0;
+                if(expand) {
+                    final int action = SearchNode.randomAction(untried, this.random);
+                    final int seat = state.currentSeat;
+                    this.apply(action);
+                    node = node.expand(action, seat, SearchNode.observe(state));
+                } else {
+                    node = node.select(legalActions, EXPLORATION);
+                    this.apply(node.getAction());
+                }
+
+                if(depth == this.path.length) {
+                    this.path = Arrays.copyOf(this.path, depth * 2);
+                }
+                this.path[depth++] = node;
+                if(expand) {
+                    break;
+                }
+            }
+
+            final int winner = state.playOut(this.random, maxPlayoutMoves);
+            final double draw = 1.0 / state.numberOfSeats;
+            for(int i = 0; i < depth; i++) {
+                final SearchNode visited = this.path[i];
+                visited.update(winner == GameState.NO_WINNER ? draw : winner == visited.getSeat() ? 1 : 0);
+                this.path[i] = null;
+            }
+        }
+
+        private void apply(int action) {
+            if(action == SearchNode.DRAW) {
+                this.state.draw(this.random);
+            } else {
+                this.state.play(action, this.random);
+            }
+        }
+    }
+}
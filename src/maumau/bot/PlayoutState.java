@@ -0,0 +1,147 @@
+package maumau.bot;
+
+import maumau.board.deck.MauMauDeck;
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+import maumau.game.GameState;
+import maumau.player.TurnRing;
+import maumau.verifier.MauMauRules;
+import maumau.verifier.Rules;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A mutable game state for the playouts of the search.
+ * It follows the same rules as {@link GameState} but changes in place, so a search thread allocates one state and
+ * plays all its determinizations and random games on it without creating any objects.
+ * Jacks always wish the color the player holds most often, the search doesn't branch on the wish.
+ */
+final class PlayoutState {
+    static final int NO_WISH = -1;
+
+    private static final Rules RULES = new MauMauRules();
+    private static final CardColor[] COLORS = CardColor.values();
+
+    private static final int SEVEN = CardType.SEVEN.ordinal();
+    private static final int EIGHT = CardType.EIGHT.ordinal();
+    private static final int JACK = CardType.JACK.ordinal();
+    private static final int SEVEN_PENALTY = 2;
+
+    final long[] hands = new long[TurnRing.MAX_SEATS];
+    //the top of the deck is the card with the highest index
+    final byte[] deck = new byte[MauMauCard.NUMBER_OF_CARDS];
+    int deckSize;
+    //the cards below the top card
+    long discardPile;
+    int topCard;
+    int wish = NO_WISH;
+    int sevenStack;
+    int currentSeat;
+    int numberOfSeats;
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   moves                                                        //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The player on turn plays a card of {@link #getPlayableMask()}
+     * @param card the ordinal of the card
+     */
+    void play(int card, RandomGenerator random) {
+        final int seat = this.currentSeat;
+        this.hands[seat] &= ~(1L << card);
+        this.discardPile |= 1L << this.topCard;
+        this.topCard = card;
+        this.wish = NO_WISH;
+
+        int skippedSeats = 0;
+        final int type = card % MauMauCard.NUMBER_OF_TYPES;
+        if(type == SEVEN) {
+            this.sevenStack++;
+        } else if(type == EIGHT) {
+            skippedSeats = 1;
+        } else if(type == JACK) {
+            this.wish = CardMasks.mostFrequentColor(this.hands[seat]);
+        } else if(this.sevenStack > 0) {
+            //answering a seven with another card costs two cards per seven
+            this.take(seat, this.sevenStack * SEVEN_PENALTY, random);
+            this.sevenStack = 0;
+        }
+        this.currentSeat = (seat + skippedSeats + 1) % this.numberOfSeats;
+    }
+
+    /**
+     * The player on turn draws a card or takes the penalty of the open seven stack
+     */
+    void draw(RandomGenerator random) {
+        this.take(this.currentSeat, this.sevenStack > 0 ? this.sevenStack * SEVEN_PENALTY : 1, random);
+        this.sevenStack = 0;
+        this.currentSeat = (this.currentSeat + 1) % this.numberOfSeats;
+    }
+
+    private void take(int seat, int numberOfCards, RandomGenerator random) {
+        for(int i = 0; i < numberOfCards; i++) {
+            if(this.deckSize == 0 && !this.refill(random)) {
+                return;
+            }
+            this.hands[seat] |= 1L << this.deck[--this.deckSize];
+        }
+    }
+
+    private boolean refill(RandomGenerator random) {
+        for(long remaining = this.discardPile; remaining != 0; remaining &= remaining - 1) {
+            this.deck[this.deckSize++] = (byte) Long.numberOfTrailingZeros(remaining);
+        }
+        this.discardPile = 0;
+        MauMauDeck.shuffle(this.deck, this.deckSize, random);
+        return this.deckSize > 0;
+    }
+
+    /**
+     * Plays the game to its end: a random card that fits, a jack only if nothing else fits, and a card is drawn only
+     * if the hand has no fitting card at all
+     * @param maxMoves the game is stopped after this many moves
+     * @return the seat of the winner, {@link GameState#NO_WINNER} if the game was stopped
+     */
+    int playOut(RandomGenerator random, int maxMoves) {
+        for(int move = 0; move < maxMoves; move++) {
+            final int winner = this.getWinner();
+            if(winner != GameState.NO_WINNER) {
+                return winner;
+            }
+            final long playable = this.getPlayableMask();
+            if(playable == 0) {
+                this.draw(random);
+            } else {
+                final long others = playable & ~CardMasks.JACKS;
+                final long choice = others != 0 ? others : playable;
+                this.play(CardMasks.nthCard(choice, random.nextInt(Long.bitCount(choice))), random);
+            }
+        }
+        return this.getWinner();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the card mask of the cards the player on turn may play
+     */
+    long getPlayableMask() {
+        final CardColor wishedColor = this.wish == NO_WISH ? null : COLORS[this.wish];
+        return this.hands[this.currentSeat] & RULES.playableMask(MauMauCard.fromOrdinal(this.topCard), wishedColor);
+    }
+
+    int getWinner() {
+        for(int seat = 0; seat < this.numberOfSeats; seat++) {
+            if(this.hands[seat] == 0) {
+                return seat;
+            }
+        }
+        return GameState.NO_WINNER;
+    }
+}
@@ -0,0 +1,179 @@
+package maumau.bot;
+
+import maumau.cards.MauMauCard;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A node of an information set search tree. A node stands for a sequence of moves, not for a state: the moves below it
+ * are the moves which were legal in at least one determinization that reached it. That's why a child counts how often
+ * it was available besides how often it was chosen.
+ * A tree belongs to one search thread, so nodes aren't thread-safe.
+ */
+final class SearchNode {
+    /**
+     * The action of drawing a card, the other actions are card ordinals
+     */
+    static final int DRAW = MauMauCard.NUMBER_OF_CARDS;
+    static final long DRAW_BIT = 1L << DRAW;
+
+    //the observation of a fresh root isn't known
+    static final int UNKNOWN = -1;
+
+    private static final int INITIAL_CHILDREN = 4;
+
+    private final int action;
+    //the seat which made the move
+    private final int seat;
+    //the public outcome of the move: the top card and the seat on turn afterwards
+    private final int observation;
+
+    private SearchNode[] children;
+    private int numberOfChildren;
+    private long expandedActions;
+
+    private int visits;
+    private int availability;
+    private double reward;
+
+    private SearchNode(int action, int seat, int observation) {
+        this.action = action;
+        this.seat = seat;
+        this.observation = observation;
+    }
+
+    static SearchNode root() {
+        return new SearchNode(DRAW, 0, UNKNOWN);
+    }
+
+    static int observe(PlayoutState state) {
+        return state.topCard | state.currentSeat << Byte.SIZE;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   tree                                                         //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the legal actions of a determinization which have no child yet
+     */
+    long getUntriedActions(long legalActions) {
+        return legalActions & ~this.expandedActions;
+    }
+
+    /**
+     * Adds the child of an action
+     * @param seat the seat which makes the move
+     * @param observation the observation after the move (see {@link #observe(PlayoutState)})
+     */
+    SearchNode expand(int action, int seat, int observation) {
+        final SearchNode child = new SearchNode(action, seat, observation);
+        if(this.children == null) {
+            this.children = new SearchNode[INITIAL_CHILDREN];
+        } else if(this.numberOfChildren == this.children.length) {
+            this.children = Arrays.copyOf(this.children, this.children.length * 2);
+        }
+        this.children[this.numberOfChildren++] = child;
+        this.expandedActions |= 1L << action;
+        child.availability = 1;
+        return child;
+    }
+
+    /**
+     * Counts every child of a legal action as available once more
+     * @param legalActions the actions of the current determinization
+     */
+    void markAvailable(long legalActions) {
+        for(int i = 0; i < this.numberOfChildren; i++) {
+            if((legalActions & 1L << this.children[i].action) != 0) {
+                this.children[i].availability++;
+            }
+        }
+    }
+
+    /**
+     * Chooses the child with the best upper confidence bound among the legal actions
+     * @param legalActions the actions of the current determinization, all of them have children
+     * @param exploration the weight of the exploration term
+     */
+    SearchNode select(long legalActions, double exploration) {
+        SearchNode best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < this.numberOfChildren; i++) {
+            final SearchNode child = this.children[i];
+            if((legalActions & 1L << child.action) == 0) {
+                continue;
+            }
+            final double value = child.reward / child.visits
+                    + exploration * Math.sqrt(Math.log(child.availability) / child.visits);
+            if(value > bestValue) {
+                best = child;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return a random action of a mask
+     */
+    static int randomAction(long actions, RandomGenerator random) {
+        return CardMasks.nthCard(actions, random.nextInt(Long.bitCount(actions)));
+    }
+
+    /**
+     * @return the child of an action, null if the action was never tried
+     */
+    SearchNode getChild(int action) {
+        if((this.expandedActions & 1L << action) == 0) {
+            return null;
+        }
+        for(int i = 0; i < this.numberOfChildren; i++) {
+            if(this.children[i].action == action) {
+                return this.children[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the visits of the children to a table indexed by action
+     */
+    void addVisitsTo(long[] visitsPerAction) {
+        for(int i = 0; i < this.numberOfChildren; i++) {
+            visitsPerAction[this.children[i].action] += this.children[i].visits;
+        }
+    }
+
+    /**
+     * Counts a finished iteration
+     * @param reward the reward of the seat which made the move of this node
+     */
+    void update(double reward) {
+        this.visits++;
+        this.reward += reward;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    int getAction() {
+        return this.action;
+    }
+
+    int getSeat() {
+        return this.seat;
+    }
+
+    int getObservation() {
+        return this.observation;
+    }
+
+    int getVisits() {
+        return this.visits;
+    }
+}
@@ -15,4 +15,12 @@ public interface Card {
      * @return the type of the card
      */
     CardType getType();
+
+    /**
+     * Get the position of the card in the registry of all cards (see {@link MauMauCard#ordinal(CardColor, CardType)})
+     * @return the ordinal of the card (0 - 51)
+     */
+    default int getOrdinal() {
+        return MauMauCard.ordinal(this.getColor(), this.getType());
+    }
 }
@@ -0,0 +1,273 @@
+package maumau.cards;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of cards stored as a 64-bit mask.
+ * Bit n is set if the card with the ordinal n (see {@link Card#getOrdinal()}) is part of the set.
+ * Adding, removing and looking up a card doesn't allocate anything and takes constant time.
+ * Iterating the set always returns the cards ordered by their ordinal.
+ *
+ * When several decks are combined to a shoe a hand may hold a card more than once. Those extra copies are stored
+ * in additional masks, which are only allocated once the first card is held twice.
+ */
+public final class CardSet implements Iterable<Card> {
+    private long mask;
+
+    //extraMasks[k] has bit n set if the card with the ordinal n is held at least k + 2 times
+    //null as long as no card is held twice
+    private long[] extraMasks;
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                               constructors                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates an empty set
+     */
+    public CardSet() {
+        this(0L);
+    }
+
+    /**
+     * Creates a set from a mask
+     * @param mask the mask where bit n stands for the card with the ordinal n
+     */
+    public CardSet(long mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Creates a set containing the given cards
+     * @param cards the cards to add
+     */
+    public CardSet(Collection<? extends Card> cards) {
+        this();
+        this.addAll(cards);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  methods                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add a card to the set. If the card already is in the set another copy of the card is added.
+     * @param card the card to add
+     * @return false if the card already was in the set
+     */
+    public boolean add(Card card) {
+        final long bit = bit(card);
+        if((this.mask & bit) == 0) {
+            this.mask |= bit;
+            return true;
+        }
+
+        this.addExtraCopy(bit);
+        return false;
+    }
+
+    private void addExtraCopy(long bit) {
+        if(this.extraMasks == null) {
+            this.extraMasks = new long[1];
+        }
+        for(int k = 0; k < this.extraMasks.length; k++) {
+            if((this.extraMasks[k] & bit) == 0) {
+                this.extraMasks[k] |= bit;
+                return;
+            }
+        }
+        this.extraMasks = Arrays.copyOf(this.extraMasks, this.extraMasks.length + 1);
+        this.extraMasks[this.extraMasks.length - 1] = bit;
+    }
+
+    /**
+     * Add several cards to the set
+     * @param cards the cards to add
+     */
+    public void addAll(Collection<? extends Card> cards) {
+        for(Card card : cards) {
+            this.add(card);
+        }
+    }
+
+    /**
+     * Remove a card from the set. If the set holds several copies of the card only one copy is removed.
+     * @param card the card to remove
+     * @return false if the card wasn't in the set
+     */
+    public boolean remove(Card card) {
+        final long bit = bit(card);
+        if((this.mask & bit) == 0) {
+            return false;
+        }
+
+        //the copy with the highest count is removed, so that every mask stays a subset of the one before
+        if(this.extraMasks != null) {
+            for(int k = this.extraMasks.length - 1; k >= 0; k--) {
+                if((this.extraMasks[k] & bit) != 0) {
+                    this.extraMasks[k] &= ~bit;
+                    return true;
+                }
+            }
+        }
+        this.mask &= ~bit;
+        return true;
+    }
+
+    /**
+     * @param card the card to look for
+     * @return if the card is in the set
+     */
+    public boolean contains(Card card) {
+        return (this.mask & bit(card)) != 0;
+    }
+
+    /**
+     * @param card the card to look for
+     * @return how many copies of the card are in the set
+     */
+    public int count(Card card) {
+        return this.count(card.getOrdinal());
+    }
+
+    private int count(int ordinal) {
+        final long bit = 1L << ordinal;
+        if((this.mask & bit) == 0) {
+            return 0;
+        }
+
+        int count = 1;
+        if(this.extraMasks != null) {
+            for(long extraMask : this.extraMasks) {
+                if((extraMask & bit) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of cards in the set (every copy of a card is counted)
+     */
+    public int size() {
+        int size = Long.bitCount(this.mask);
+        if(this.extraMasks != null) {
+            for(long extraMask : this.extraMasks) {
+                size += Long.bitCount(extraMask);
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return this.mask == 0;
+    }
+
+    public void clear() {
+        this.mask = 0;
+        this.extraMasks = null;
+    }
+
+    /**
+     * @return the mask where bit n stands for the card with the ordinal n (no matter how many copies are held)
+     */
+    public long getMask() {
+        return this.mask;
+    }
+
+    /**
+     * Creates a list of the cards in the set. The list isn't backed by the set.
+     * @return the cards ordered by their ordinal as unmodifiable list, copies of a card follow each other
+     */
+    public List<Card> toList() {
+        List<Card> cards = new ArrayList<>(this.size());
+        for(Card card : this) {
+            cards.add(card);
+        }
+        return Collections.unmodifiableList(cards);
+    }
+
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<>() {
+            private long remaining = CardSet.this.mask;
+            private int copiesLeft = 0;
+            private int ordinal;
+
+            @Override
+            public boolean hasNext() {
+                return this.copiesLeft > 0 || this.remaining != 0;
+            }
+
+            @Override
+            public Card next() {
+                if(this.copiesLeft == 0) {
+                    if(this.remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    this.ordinal = Long.numberOfTrailingZeros(this.remaining);
+                    //clear the lowest set bit
+                    this.remaining &= this.remaining - 1;
+                    this.copiesLeft = CardSet.this.extraMasks == null ? 1 : CardSet.this.count(this.ordinal);
+                }
+                this.copiesLeft--;
+                return MauMauCard.fromOrdinal(this.ordinal);
+            }
+        };
+    }
+
+    private static long bit(Card card) {
+        return 1L << card.getOrdinal();
+    }
+
+    private long extraMask(int k) {
+        return this.extraMasks != null && k < this.extraMasks.length ? this.extraMasks[k] : 0L;
+    }
+
+    private int numberOfExtraMasks() {
+        return this.extraMasks == null ? 0 : this.extraMasks.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(!(o instanceof CardSet)) {
+            return false;
+        }
+        final CardSet other = (CardSet) o;
+        if(other.mask != this.mask) {
+            return false;
+        }
+
+        final int numberOfExtraMasks = Math.max(this.numberOfExtraMasks(), other.numberOfExtraMasks());
+        for(int k = 0; k < numberOfExtraMasks; k++) {
+            if(this.extraMask(k) != other.extraMask(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = this.mask;
+        for(int k = 0; k < this.numberOfExtraMasks(); k++) {
+            //empty masks must not change the hash, because they don't change equality
+            hash += Long.rotateLeft(this.extraMasks[k], k + 1);
+        }
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return this.toList().toString();
+    }
+}
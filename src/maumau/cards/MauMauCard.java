@@ -1,14 +1,111 @@
 package maumau.cards;
 
-public class MauMauCard implements Card{
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A MauMau card.
+ * There are exactly 52 instances of this class - one per combination of color and type. They are created once when
+ * the class is loaded and shared by every deck, hand, board and protocol engine in the JVM.
+ * Use {@link #of(CardColor, CardType)} or {@link #fromOrdinal(int)} to get a card.
+ */
+public final class MauMauCard implements Card {
+    /**
+     * Number of different card types per color (2-10, Jack, Queen, King, Ace)
+     */
+    public static final int NUMBER_OF_TYPES = CardType.values().length;
+
+    /**
+     * Number of different cards (13 types * 4 colors)
+     */
+    public static final int NUMBER_OF_CARDS = CardColor.values().length * NUMBER_OF_TYPES;
+
+    private static final MauMauCard[] REGISTRY = new MauMauCard[NUMBER_OF_CARDS];
+
+    static {
+        for(CardColor color : CardColor.values()) {
+            for(CardType type : CardType.values()) {
+                MauMauCard card = new MauMauCard(color, type);
+                REGISTRY[card.ordinal] = card;
+            }
+        }
+    }
+
+    private static final List<Card> ALL_CARDS = Collections.unmodifiableList(Arrays.asList(REGISTRY));
+
     private final CardColor color;
     private final CardType type;
+    private final int ordinal;
 
-    public MauMauCard(CardColor color, CardType type) {
+    private MauMauCard(CardColor color, CardType type) {
         this.color = color;
         this.type = type;
+        this.ordinal = ordinal(color, type);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                 registry                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the canonical card of a color and type
+     * @param color the color of the card
+     * @param type the type of the card
+     * @return the shared card instance
+     */
+    public static MauMauCard of(CardColor color, CardType type) {
+        return REGISTRY[ordinal(color, type)];
+    }
+
+    /**
+     * Get the canonical card with the given ordinal
+     * @param ordinal the ordinal of the card (0 - 51)
+     * @return the shared card instance
+     * @throws IllegalArgumentException if there is no card with this ordinal
+     */
+    public static MauMauCard fromOrdinal(int ordinal) {
+        if(ordinal < 0 || ordinal >= NUMBER_OF_CARDS) {
+            throw new IllegalArgumentException("Unknown card ordinal: " + ordinal);
+        }
+        return REGISTRY[ordinal];
+    }
+
+    /**
+     * Get the canonical instance of any card implementation
+     * @param card the card
+     * @return the shared card instance with the same color and type
+     */
+    public static MauMauCard of(Card card) {
+        if(card instanceof MauMauCard) {
+            return (MauMauCard) card;
+        }
+        return of(card.getColor(), card.getType());
+    }
+
+    /**
+     * Computes the ordinal of a card: the cards are ordered by color first and by type second
+     * @param color the color of the card
+     * @param type the type of the card
+     * @return the ordinal (0 - 51)
+     */
+    public static int ordinal(CardColor color, CardType type) {
+        return color.ordinal() * NUMBER_OF_TYPES + type.ordinal();
     }
 
+    /**
+     * @return all 52 cards ordered by their ordinal as unmodifiable list
+     */
+    public static List<Card> allCards() {
+        return ALL_CARDS;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                 getter                                                         //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
     @Override
     public CardColor getColor() {
         return this.color;
@@ -18,4 +115,31 @@ public class MauMauCard implements Card{
     public CardType getType() {
         return this.type;
     }
+
+    @Override
+    public int getOrdinal() {
+        return this.ordinal;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof Card)) {
+            return false;
+        }
+        Card card = (Card) o;
+        return this.color == card.getColor() && this.type == card.getType();
+    }
+
+    @Override
+    public int hashCode() {
+        return this.ordinal;
+    }
+
+    @Override
+    public String toString() {
+        return this.type + " " + this.color;
+    }
 }
@@ -0,0 +1,77 @@
+package maumau.game;
+
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Simple strategies without lookahead, e.g. as baseline opponents of a simulation
+ */
+public enum BasicStrategy implements Strategy {
+    /**
+     * Plays a random playable card, draws only if nothing fits
+     */
+    RANDOM {
+        @Override
+        public int chooseCard(GameState state, RandomGenerator random) {
+            final long playable = state.getPlayableMask();
+            if(playable == 0) {
+                return DRAW;
+            }
+            return nthCard(playable, random.nextInt(Long.bitCount(playable)));
+        }
+    },
+
+    /**
+     * Keeps jacks as long as another card fits and prefers the color it holds most often
+     */
+    GREEDY {
+        @Override
+        public int chooseCard(GameState state, RandomGenerator random) {
+            final long playable = state.getPlayableMask();
+            if(playable == 0) {
+                return DRAW;
+            }
+            final long others = playable & ~JACKS;
+            if(others == 0) {
+                return Long.numberOfTrailingZeros(playable);
+            }
+
+            final long hand = state.getHand(state.getCurrentSeat());
+            final long colorMask = (1L << MauMauCard.NUMBER_OF_TYPES) - 1;
+            int best = Long.numberOfTrailingZeros(others);
+            int bestCount = -1;
+            for(long remaining = others; remaining != 0; remaining &= remaining - 1) {
+                final int card = Long.numberOfTrailingZeros(remaining);
+                final int color = card / MauMauCard.NUMBER_OF_TYPES;
+                final int count = Long.bitCount(hand >>> color * MauMauCard.NUMBER_OF_TYPES & colorMask);
+                if(count > bestCount) {
+                    best = card;
+                    bestCount = count;
+                }
+            }
+            return best;
+        }
+    };
+
+    private static final long JACKS = jacks();
+
+    private static long jacks() {
+        long jacks = 0;
+        for(int color = 0; color < MauMauCard.NUMBER_OF_CARDS / MauMauCard.NUMBER_OF_TYPES; color++) {
+            jacks |= 1L << color * MauMauCard.NUMBER_OF_TYPES + CardType.JACK.ordinal();
+        }
+        return jacks;
+    }
+
+    /**
+     * @return the ordinal of the n-th card (counted from 0) of a card mask
+     */
+    static int nthCard(long cards, int n) {
+        for(int i = 0; i < n; i++) {
+            cards &= cards - 1;
+        }
+        return Long.numberOfTrailingZeros(cards);
+    }
+}
@@ -0,0 +1,173 @@
+package maumau.game;
+
+import maumau.board.MauMauBoard;
+import maumau.board.deck.DeckTemplate;
+import maumau.cards.Card;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Plays complete games between strategies without network or UI, e.g. to check the balance of a rule variant.
+ * The games are split across a fork/join pool. Every game gets its own random generator derived from the seed and
+ * its number, so a simulation gives the same statistics for the same seed - whatever the number of threads.
+ */
+public class GameSimulator {
+    /**
+     * Games are stopped after this many moves, e.g. when nobody can play and the deck is empty
+     */
+    public static final int DEFAULT_MAX_MOVES = 1_000;
+
+    //a task plays at most this many games itself, larger ranges are split
+    private static final int GAMES_PER_TASK = 1_024;
+    //the progress is reported after each batch
+    private static final long GAMES_PER_BATCH = 1L << 16;
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final DeckTemplate template;
+    private final int startCardNumber;
+    private final Strategy[] strategies;
+    private final long seed;
+
+    private int maxMoves = DEFAULT_MAX_MOVES;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * @param template the deck of every game, shoes aren't supported (see {@link GameState})
+     * @param seed the seed the random generators of all games are derived from
+     * @param strategies one strategy per seat, seat 0 has the first turn
+     */
+    public GameSimulator(DeckTemplate template, int startCardNumber, long seed, Strategy... strategies) {
+        this.template = template;
+        this.startCardNumber = startCardNumber;
+        this.seed = seed;
+        this.strategies = strategies.clone();
+    }
+
+    public void setMaxMoves(int maxMoves) {
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * @param pool the pool the games run on, by default the common pool
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                 simulation                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public SimulationStatistics simulate(long numberOfGames) {
+        return this.simulate(numberOfGames, statistics -> { });
+    }
+
+    /**
+     * Plays the games in batches and reports the statistics of all games so far after every batch
+     * @param progress gets a copy of the statistics after every batch
+     * @return the statistics of all games
+     */
+    public SimulationStatistics simulate(long numberOfGames, Consumer<SimulationStatistics> progress) {
+        final SimulationStatistics total = new SimulationStatistics(this.strategies.length);
+        for(long first = 0; first < numberOfGames; first += GAMES_PER_BATCH) {
+            final long last = Math.min(numberOfGames, first + GAMES_PER_BATCH);
+            total.merge(this.pool.invoke(new SimulationTask(this, first, last)));
+            progress.accept(total.copy());
+        }
+        return total;
+    }
+
+    /**
+     * Plays one game
+     * @param gameNumber the number of the game within the simulation, it determines the random generator
+     * @param statistics gets the result of the game
+     */
+    void play(long gameNumber, SimulationStatistics statistics) {
+        final SplittableRandom random = new SplittableRandom(this.seed + gameNumber * SEED_GAMMA);
+        GameState state = GameState.deal(this.template, this.strategies.length, this.startCardNumber, random);
+
+        int moves = 0;
+        int reshuffles = 0;
+        while(!state.isOver() && moves < this.maxMoves) {
+            final Strategy strategy = this.strategies[state.getCurrentSeat()];
+            final int card = strategy.chooseCard(state, random);
+
+            final GameState next;
+            if(card == Strategy.DRAW) {
+                next = state.draw(random);
+            } else {
+                final Card playedCard = MauMauCard.fromOrdinal(card);
+                next = state.play(playedCard, playedCard.getType() == CardType.JACK
+                        ? strategy.chooseWish(state, card, random) : null, random);
+            }
+
+            if(!next.hasSameDeckAs(state)) {
+                reshuffles++;
+            }
+            state = next;
+            moves++;
+        }
+        statistics.record(state.getWinner(), moves, reshuffles);
+    }
+
+    //tasks only live in the pool, they are never serialized
+    @SuppressWarnings("serial")
+    private static final class SimulationTask extends RecursiveTask<SimulationStatistics> {
+        private final GameSimulator simulator;
+        private final long first;
+        private final long last;
+
+        SimulationTask(GameSimulator simulator, long first, long last) {
+            this.simulator = simulator;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected SimulationStatistics compute() {
+            if(this.last - this.first <= GAMES_PER_TASK) {
+                final SimulationStatistics statistics = new SimulationStatistics(this.simulator.strategies.length);
+                for(long game = this.first; game < this.last; game++) {
+                    this.simulator.play(game, statistics);
+                }
+                return statistics;
+            }
+
+            final long middle = (this.first + this.last) >>> 1;
+            final SimulationTask left = new SimulationTask(this.simulator, this.first, middle);
+            left.fork();
+            final SimulationStatistics statistics = new SimulationTask(this.simulator, middle, this.last).compute();
+            statistics.merge(left.join());
+            return statistics;
+        }
+    }
+
+
+    /**
+     * Simulates games between greedy players: [number of games] [number of seats] [deck variant]
+     */
+    public static void main(String[] args) {
+        final long numberOfGames = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        final int numberOfSeats = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        final DeckTemplate template = DeckTemplate.forName(args.length > 2 ? args[2] : "standard");
+
+        final Strategy[] strategies = new Strategy[numberOfSeats];
+        Arrays.fill(strategies, BasicStrategy.GREEDY);
+        final GameSimulator simulator = new GameSimulator(template, MauMauBoard.DEFAULT_START_CARD_NUMBER,
+                System.nanoTime(), strategies);
+
+        final long start = System.nanoTime();
+        final SimulationStatistics statistics = simulator.simulate(numberOfGames, progress ->
+                System.out.println(progress.getNumberOfGames() + " games played"));
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.print(statistics);
+        System.out.printf("%.0f games per second%n", statistics.getNumberOfGames() / seconds);
+    }
+}
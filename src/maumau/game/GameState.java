@@ -0,0 +1,437 @@
+package maumau.game;
+
+import maumau.board.deck.DeckTemplate;
+import maumau.board.deck.MauMauDeck;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+import maumau.verifier.MauMauRules;
+import maumau.verifier.Rules;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * The complete state of a game as an immutable value: the hands of all seats, the order of the deck, the discard
+ * pile, the top card, the wished color, the seven stack and the seat on turn.
+ *
+ * Hands and the discard pile are card masks (see {@link maumau.cards.CardSet}), the deck is packed with six bits per
+ * card and the small values share one int. A move creates a new state; the deck array is shared by all states until
+ * the discard pile is shuffled back into it. So copying a state is copying its reference, and equality and hashing
+ * look at a few longs.
+ *
+ * The moves follow the rules of {@link maumau.player.MauMauPlayer}. Only decks without duplicate cards can be
+ * represented, i.e. no shoes.
+ */
+public final class GameState {
+    public static final int NO_WINNER = -1;
+
+    private static final Rules RULES = new MauMauRules();
+
+    private static final int BITS_PER_CARD = 6;
+    private static final int CARDS_PER_WORD = Long.SIZE / BITS_PER_CARD;
+    private static final int CARD_MASK = (1 << BITS_PER_CARD) - 1;
+    private static final int SEVEN_PENALTY = 2;
+
+    //layout of the packed int
+    private static final int TOP_CARD_SHIFT = 0;
+    private static final int WISH_SHIFT = 6;
+    private static final int SEVENS_SHIFT = 9;
+    private static final int SEAT_SHIFT = 12;
+    private static final int SEATS_SHIFT = 15;
+    private static final int DECK_SIZE_SHIFT = 18;
+    private static final int THREE_BITS = 0b111;
+    private static final int NO_WISH = CardColor.values().length;
+
+    //never changed after construction
+    private final long[] hands;
+    //shared between states, never changed; the top of the deck is the card with the highest index
+    private final long[] deck;
+    //the cards below the top card
+    private final long discardPile;
+    private final int packed;
+    private int hash;
+
+    private GameState(long[] hands, long[] deck, long discardPile, int packed) {
+        this.hands = hands;
+        this.deck = deck;
+        this.discardPile = discardPile;
+        this.packed = packed;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                 factories                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Shuffles a deck, deals the start cards and turns up the first card of the discard pile. Seat 0 has the first turn.
+     * @throws IllegalArgumentException if the template is a shoe or the deck is too small for the table
+     */
+    public static GameState deal(DeckTemplate template, int numberOfSeats, int startCardNumber, RandomGenerator random) {
+        final byte[] cards = template.getOrdinals();
+        if(cards.length > MauMauCard.NUMBER_OF_CARDS) {
+            throw new IllegalArgumentException("a game state can't hold a shoe: " + template);
+        }
+        checkSeats(numberOfSeats);
+        if(numberOfSeats * startCardNumber + 1 > cards.length) {
+            throw new IllegalArgumentException(cards.length + " cards aren't enough for " + numberOfSeats
+                    + " players with " + startCardNumber + " cards each");
+        }
+        MauMauDeck.shuffle(cards, cards.length, random);
+
+        int deckSize = cards.length;
+        final long[] hands = new long[numberOfSeats];
+        for(int i = 0; i < startCardNumber; i++) {
+            for(int seat = 0; seat < numberOfSeats; seat++) {
+                hands[seat] |= 1L << cards[--deckSize];
+            }
+        }
+        final int topCard = cards[--deckSize];
+        return new GameState(hands, pack(cards, deckSize), 0L, pack(topCard, NO_WISH, 0, 0, numberOfSeats, deckSize));
+    }
+
+    /**
+     * Creates a state from its parts, e.g. a position of a test or a guess of the hidden cards
+     * @param hands the card masks of all seats
+     * @param deckOrder the ordinals of the deck, the top card last
+     * @param topCard the top card of the discard pile
+     * @param discardPile the mask of the cards below the top card
+     * @param wishedColor the color wished with the top card, null if it isn't a jack or nothing was wished
+     * @throws IllegalArgumentException if a card is at more than one place
+     */
+    public static GameState create(long[] hands, byte[] deckOrder, Card topCard, long discardPile,
+                                   CardColor wishedColor, int sevenStack, int currentSeat) {
+        checkSeats(hands.length);
+        long seen = 1L << topCard.getOrdinal();
+        if((seen & discardPile) != 0) {
+            throw new IllegalArgumentException("the top card is in the discard pile as well");
+        }
+        seen |= discardPile;
+        for(long hand : hands) {
+            if((seen & hand) != 0) {
+                throw new IllegalArgumentException("a card is at more than one place");
+            }
+            seen |= hand;
+        }
+        for(byte card : deckOrder) {
+            if((seen & 1L << card) != 0) {
+                throw new IllegalArgumentException("a card is at more than one place");
+            }
+            seen |= 1L << card;
+        }
+
+        final int wish = wishedColor == null || topCard.getType() != CardType.JACK ? NO_WISH : wishedColor.ordinal();
+        return new GameState(hands.clone(), pack(deckOrder, deckOrder.length), discardPile,
+                pack(topCard.getOrdinal(), wish, sevenStack, currentSeat, hands.length, deckOrder.length));
+    }
+
+    private static void checkSeats(int numberOfSeats) {
+        if(numberOfSeats < 2 || numberOfSeats > 8) {
+            throw new IllegalArgumentException("a game has 2 to 8 seats, not " + numberOfSeats);
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   moves                                                        //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The player on turn plays a card
+     * @param wishedColor the wished color if the card is a jack, otherwise ignored
+     * @param random shuffles the discard pile into the deck if a seven penalty empties the deck
+     * @return the state after the move
+     * @throws IllegalArgumentException if the player doesn't have the card or the rules don't allow it
+     * @throws IllegalStateException if the game is over
+     */
+    public GameState play(Card card, CardColor wishedColor, RandomGenerator random) {
+        this.checkRunning();
+        final int seat = this.getCurrentSeat();
+        final long bit = 1L << card.getOrdinal();
+        if((this.hands[seat] & bit) == 0) {
+            throw new IllegalArgumentException("seat " + seat + " doesn't have " + card);
+        }
+        if((this.getPlayableMask() & bit) == 0) {
+            throw new IllegalArgumentException(card + " can't be played on " + this.getTopCard());
+        }
+
+        final long[] hands = this.hands.clone();
+        hands[seat] &= ~bit;
+        final Move move = new Move(this, hands);
+        move.discardPile |= 1L << this.getTopCardOrdinal();
+
+        int wish = NO_WISH;
+        int skippedSeats = 0;
+        switch(card.getType()) {
+            case SEVEN -> move.sevenStack++;
+            case EIGHT -> skippedSeats = 1;
+            case JACK -> wish = wishedColor == null ? NO_WISH : wishedColor.ordinal();
+            default -> {
+                //answering a seven with another card costs two cards per seven
+                if(move.sevenStack > 0) {
+                    move.draw(seat, move.sevenStack * SEVEN_PENALTY, random);
+                    move.sevenStack = 0;
+                }
+            }
+        }
+        return move.toState(card.getOrdinal(), wish, this.nextSeat(skippedSeats));
+    }
+
+    /**
+     * The player on turn draws a card - or takes the penalty of the open seven stack instead - and ends his turn.
+     * An empty deck is refilled with the discard pile; if that is empty too, fewer cards are drawn.
+     * @param random shuffles the discard pile into the deck
+     * @return the state after the move
+     * @throws IllegalStateException if the game is over
+     */
+    public GameState draw(RandomGenerator random) {
+        this.checkRunning();
+        final int seat = this.getCurrentSeat();
+        final Move move = new Move(this, this.hands.clone());
+        move.draw(seat, move.sevenStack > 0 ? move.sevenStack * SEVEN_PENALTY : 1, random);
+        move.sevenStack = 0;
+        return move.toState(this.getTopCardOrdinal(), this.getWishIndex(), this.nextSeat(0));
+    }
+
+    private void checkRunning() {
+        if(this.isOver()) {
+            throw new IllegalStateException("the game is over");
+        }
+    }
+
+    private int nextSeat(int skippedSeats) {
+        return (this.getCurrentSeat() + skippedSeats + 1) % this.getNumberOfSeats();
+    }
+
+    /**
+     * The mutable parts of a state while a move is applied
+     */
+    private static final class Move {
+        private final long[] hands;
+        private long[] deck;
+        private int deckSize;
+        private long discardPile;
+        private int sevenStack;
+
+        Move(GameState state, long[] hands) {
+            this.hands = hands;
+            this.deck = state.deck;
+            this.deckSize = state.getDeckSize();
+            this.discardPile = state.discardPile;
+            this.sevenStack = state.getSevenStack();
+        }
+
+        void draw(int seat, int numberOfCards, RandomGenerator random) {
+            for(int i = 0; i < numberOfCards; i++) {
+                if(this.deckSize == 0 && !this.refill(random)) {
+                    return;
+                }
+                this.hands[seat] |= 1L << cardAt(this.deck, --this.deckSize);
+            }
+        }
+
+        //the deck array is shared with older states, so a refilled deck is a new array
+        private boolean refill(RandomGenerator random) {
+            if(this.discardPile == 0) {
+                return false;
+            }
+            final byte[] cards = new byte[Long.bitCount(this.discardPile)];
+            long remaining = this.discardPile;
+            for(int i = 0; remaining != 0; i++) {
+                cards[i] = (byte) Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+            }
+            MauMauDeck.shuffle(cards, cards.length, random);
+            this.deck = pack(cards, cards.length);
+            this.deckSize = cards.length;
+            this.discardPile = 0;
+            return true;
+        }
+
+        GameState toState(int topCard, int wish, int currentSeat) {
+            return new GameState(this.hands, this.deck, this.discardPile,
+                    pack(topCard, wish, this.sevenStack, currentSeat, this.hands.length, this.deckSize));
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public int getNumberOfSeats() {
+        return (this.packed >>> SEATS_SHIFT & THREE_BITS) + 1;
+    }
+
+    public int getCurrentSeat() {
+        return this.packed >>> SEAT_SHIFT & THREE_BITS;
+    }
+
+    /**
+     * @return the card mask of the hand of a seat
+     */
+    public long getHand(int seat) {
+        return this.hands[seat];
+    }
+
+    public int getHandSize(int seat) {
+        return Long.bitCount(this.hands[seat]);
+    }
+
+    public Card getTopCard() {
+        return MauMauCard.fromOrdinal(this.getTopCardOrdinal());
+    }
+
+    private int getTopCardOrdinal() {
+        return this.packed >>> TOP_CARD_SHIFT & CARD_MASK;
+    }
+
+    /**
+     * @return the color wished with the top card, null if the top card isn't a jack or nothing was wished
+     */
+    public CardColor getWishedColor() {
+        final int wish = this.getWishIndex();
+        return wish == NO_WISH ? null : CardColor.values()[wish];
+    }
+
+    private int getWishIndex() {
+        return this.packed >>> WISH_SHIFT & THREE_BITS;
+    }
+
+    /**
+     * @return the number of sevens played in a row right before
+     */
+    public int getSevenStack() {
+        return this.packed >>> SEVENS_SHIFT & THREE_BITS;
+    }
+
+    public int getDeckSize() {
+        return this.packed >>> DECK_SIZE_SHIFT & CARD_MASK;
+    }
+
+    /**
+     * @param index 0 is the bottom card of the deck, {@link #getDeckSize()} - 1 the top card
+     */
+    public Card getDeckCard(int index) {
+        if(index < 0 || index >= this.getDeckSize()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return MauMauCard.fromOrdinal(cardAt(this.deck, index));
+    }
+
+    /**
+     * @return true if no move between the states shuffled the discard pile into the deck
+     */
+    public boolean hasSameDeckAs(GameState other) {
+        return this.deck == other.deck;
+    }
+
+    /**
+     * @return the card mask of the discard pile below the top card
+     */
+    public long getDiscardPile() {
+        return this.discardPile;
+    }
+
+    /**
+     * @return the card mask of the cards the player on turn may play
+     */
+    public long getPlayableMask() {
+        return this.hands[this.getCurrentSeat()] & RULES.playableMask(this.getTopCard(), this.getWishedColor());
+    }
+
+    /**
+     * @return the seat of the player without cards, {@link #NO_WINNER} while the game is running
+     */
+    public int getWinner() {
+        for(int seat = 0; seat < this.hands.length; seat++) {
+            if(this.hands[seat] == 0) {
+                return seat;
+            }
+        }
+        return NO_WINNER;
+    }
+
+    public boolean isOver() {
+        return this.getWinner() != NO_WINNER;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  packing                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private static int pack(int topCard, int wish, int sevenStack, int currentSeat, int numberOfSeats, int deckSize) {
+        return topCard << TOP_CARD_SHIFT | wish << WISH_SHIFT | sevenStack << SEVENS_SHIFT | currentSeat << SEAT_SHIFT
+                | (numberOfSeats - 1) << SEATS_SHIFT | deckSize << DECK_SIZE_SHIFT;
+    }
+
+    private static long[] pack(byte[] cards, int length) {
+        final long[] words = new long[(length + CARDS_PER_WORD - 1) / CARDS_PER_WORD];
+        for(int i = 0; i < length; i++) {
+            words[i / CARDS_PER_WORD] |= (long) cards[i] << (i % CARDS_PER_WORD * BITS_PER_CARD);
+        }
+        return words;
+    }
+
+    private static int cardAt(long[] deck, int index) {
+        return (int) (deck[index / CARDS_PER_WORD] >>> (index % CARDS_PER_WORD * BITS_PER_CARD)) & CARD_MASK;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                 equality                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof GameState other)) {
+            return false;
+        }
+        return this.packed == other.packed && this.discardPile == other.discardPile
+                && Arrays.equals(this.hands, other.hands) && this.deckEquals(other);
+    }
+
+    //only the cards which are still in the deck count
+    private boolean deckEquals(GameState other) {
+        if(this.deck == other.deck) {
+            return true;
+        }
+        final int deckSize = this.getDeckSize();
+        final int fullWords = deckSize / CARDS_PER_WORD;
+        for(int i = 0; i < fullWords; i++) {
+            if(this.deck[i] != other.deck[i]) {
+                return false;
+            }
+        }
+        final int rest = deckSize % CARDS_PER_WORD;
+        if(rest == 0) {
+            return true;
+        }
+        final long mask = (1L << rest * BITS_PER_CARD) - 1;
+        return (this.deck[fullWords] & mask) == (other.deck[fullWords] & mask);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+        if(hash == 0) {
+            //the deck is determined by the other cards up to its order, so it's left out
+            hash = 31 * (31 * this.packed + Long.hashCode(this.discardPile)) + Arrays.hashCode(this.hands);
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "seat " + this.getCurrentSeat() + " on turn, top card " + this.getTopCard()
+                + (this.getWishedColor() == null ? "" : " (wish " + this.getWishedColor() + ")")
+                + ", " + this.getDeckSize() + " cards in the deck";
+    }
+}
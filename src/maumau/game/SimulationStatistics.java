@@ -0,0 +1,115 @@
+package maumau.game;
+
+/**
+ * Aggregated results of simulated games. Every simulation task counts its own games, the counts are merged at the end.
+ */
+public final class SimulationStatistics {
+    private final long[] winsBySeat;
+    private long numberOfGames;
+    private long unfinishedGames;
+    private long totalMoves;
+    private int minMoves = Integer.MAX_VALUE;
+    private int maxMoves;
+    private long reshuffles;
+
+    SimulationStatistics(int numberOfSeats) {
+        this.winsBySeat = new long[numberOfSeats];
+    }
+
+    /**
+     * @param winner the seat of the winner, {@link GameState#NO_WINNER} if the game hit the move limit
+     * @param moves the number of moves of the game
+     * @param reshuffles how often the discard pile was shuffled into the deck
+     */
+    void record(int winner, int moves, int reshuffles) {
+        this.numberOfGames++;
+        if(winner == GameState.NO_WINNER) {
+            this.unfinishedGames++;
+        } else {
+            this.winsBySeat[winner]++;
+        }
+        this.totalMoves += moves;
+        this.minMoves = Math.min(this.minMoves, moves);
+        this.maxMoves = Math.max(this.maxMoves, moves);
+        this.reshuffles += reshuffles;
+    }
+
+    void merge(SimulationStatistics other) {
+        for(int seat = 0; seat < this.winsBySeat.length; seat++) {
+            this.winsBySeat[seat] += other.winsBySeat[seat];
+        }
+        this.numberOfGames += other.numberOfGames;
+        this.unfinishedGames += other.unfinishedGames;
+        this.totalMoves += other.totalMoves;
+        this.minMoves = Math.min(this.minMoves, other.minMoves);
+        this.maxMoves = Math.max(this.maxMoves, other.maxMoves);
+        this.reshuffles += other.reshuffles;
+    }
+
+    SimulationStatistics copy() {
+        final SimulationStatistics copy = new SimulationStatistics(this.winsBySeat.length);
+        copy.merge(this);
+        return copy;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public long getNumberOfGames() {
+        return this.numberOfGames;
+    }
+
+    /**
+     * @return the number of games which were stopped at the move limit
+     */
+    public long getUnfinishedGames() {
+        return this.unfinishedGames;
+    }
+
+    public long getWins(int seat) {
+        return this.winsBySeat[seat];
+    }
+
+    /**
+     * @return the share of all games the seat won (0 - 1)
+     */
+    public double getWinRate(int seat) {
+        return this.numberOfGames == 0 ? 0 : (double) this.winsBySeat[seat] / this.numberOfGames;
+    }
+
+    public double getAverageGameLength() {
+        return this.numberOfGames == 0 ? 0 : (double) this.totalMoves / this.numberOfGames;
+    }
+
+    public int getMinGameLength() {
+        return this.numberOfGames == 0 ? 0 : this.minMoves;
+    }
+
+    public int getMaxGameLength() {
+        return this.maxMoves;
+    }
+
+    public long getReshuffles() {
+        return this.reshuffles;
+    }
+
+    public long getTotalMoves() {
+        return this.totalMoves;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(this.numberOfGames).append(" games, ").append(this.unfinishedGames).append(" unfinished\n");
+        builder.append(String.format("moves per game: %.1f (%d - %d)%n", this.getAverageGameLength(),
+                this.getMinGameLength(), this.maxMoves));
+        builder.append(String.format("reshuffles per game: %.2f%n",
+                this.numberOfGames == 0 ? 0 : (double) this.reshuffles / this.numberOfGames));
+        for(int seat = 0; seat < this.winsBySeat.length; seat++) {
+            builder.append(String.format("seat %d wins: %.2f %%%n", seat, 100 * this.getWinRate(seat)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package maumau.game;
+
+import maumau.cards.CardColor;
+import maumau.cards.MauMauCard;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides the moves of a seat in a simulated game. A strategy is shared by all games which run in parallel, so it
+ * mustn't keep state between calls; all randomness has to come from the given generator to keep games reproducible.
+ */
+public interface Strategy {
+    /**
+     * Returned instead of a card ordinal to draw a card
+     */
+    int DRAW = -1;
+
+    /**
+     * @param state the game, the seat of the strategy is on turn
+     * @return the ordinal of a card from {@link GameState#getPlayableMask()} or {@link #DRAW}
+     */
+    int chooseCard(GameState state, RandomGenerator random);
+
+    /**
+     * Chooses the color to wish after playing a jack. By default the color the seat holds most often.
+     * @param state the game before the jack is played
+     * @param jack the ordinal of the jack
+     * @return the wished color, null for no wish
+     */
+    default CardColor chooseWish(GameState state, int jack, RandomGenerator random) {
+        final long hand = state.getHand(state.getCurrentSeat()) & ~(1L << jack);
+        return mostFrequentColor(hand);
+    }
+
+    /**
+     * @return the color of most cards of a card mask, the first color if it's empty
+     */
+    static CardColor mostFrequentColor(long cards) {
+        //the cards of a color have neighbouring ordinals
+        final long colorMask = (1L << MauMauCard.NUMBER_OF_TYPES) - 1;
+        CardColor best = null;
+        int bestCount = -1;
+        for(CardColor color : CardColor.values()) {
+            final int count = Long.bitCount(cards >>> color.ordinal() * MauMauCard.NUMBER_OF_TYPES & colorMask);
+            if(count > bestCount) {
+                best = color;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+}
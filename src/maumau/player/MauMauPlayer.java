@@ -1,5 +1,6 @@
 package maumau.player;
 
+import logging.Logger;
 import maumau.board.Board;
 import maumau.board.MauMauBoard;
 import maumau.board.ProvokedEmptyDeckException;
@@ -8,6 +9,7 @@ import maumau.board.deck.Deck;
 import maumau.board.deck.TCPDeck;
 import maumau.cards.Card;
 import maumau.cards.CardColor;
+import maumau.cards.CardSet;
 import maumau.cards.CardType;
 import maumau.verifier.MauMauRules;
 import maumau.verifier.Rules;
@@ -18,19 +20,31 @@ import java.util.List;
 
 public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, PlayerBackdoor,
         GameSessionEstablishedListener, RemoteChangeablePlayer {
+    private static final Logger LOG = Logger.getLogger(MauMauPlayer.class);
+
+    //foreach seven on the stack two cards must be drawn
+    private static final int SEVEN_PENALTY = 2;
+
     private final String name;
-    private final List<Card> hand;
+    private final CardSet hand;
     private final int turnIndex;
     private final Rules verifier;
     private final TCPNetworkBoard board;
 
-    private int currentPlayerIndex;
+    //guarded by itself, remote moves pass the turn on the threads of the protocol engines
+    private final TurnRing turnRing;
     private int sevenStackCount;
+    //set while the game is played with the seven rule of older protocol versions, see useLegacySevenRule()
+    private volatile boolean legacySevenRule;
     private CardColor latestColorWish;
+    //the move of a remote player until his turn is passed on
+    private Card remoteMove;
+    private int remoteDrawnCards;
 
 
     private TCPProtocolEngine protocolEngine;
     private List<BoardChangedListener> boardChangedListenerList;
+    private List<MoveListener> moveListenerList;
     private String partnerName;
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -41,16 +55,28 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
      * Just for testing purposes
      */
     public MauMauPlayer(String name, int turnPosition, List<Card> hand, TCPNetworkBoard board) {
+        this(name, turnPosition, TurnRing.MIN_SEATS, hand, board);
+    }
+
+    /**
+     * Just for testing purposes
+     */
+    public MauMauPlayer(String name, int turnPosition, int numberOfSeats, List<Card> hand, TCPNetworkBoard board) {
+        if(turnPosition < 0 || turnPosition >= numberOfSeats) {
+            throw new IllegalArgumentException("turn position " + turnPosition + " at a table with " + numberOfSeats
+                    + " seats");
+        }
         this.name = name;
-        this.hand = hand;
+        this.hand = new CardSet(hand);
         this.turnIndex = turnPosition;
         this.verifier = new MauMauRules();
         this.board = board;
 
-        this.currentPlayerIndex = 0;
+        this.turnRing = new TurnRing(numberOfSeats);
         this.sevenStackCount = 0;
 
         this.boardChangedListenerList = new ArrayList<>();
+        this.moveListenerList = new ArrayList<>();
     }
 
     /**
@@ -61,7 +87,23 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
     }
 
     public MauMauPlayer(String name, int turnPosition) {
-        this(name, turnPosition, new ArrayList<>(), new MauMauBoard());
+        this(name, turnPosition, new MauMauBoard());
+    }
+
+    /**
+     * Creates a player who plays on the given board, e.g. one with a skat deck or a different number of start cards.
+     * The player draws the start cards from the board.
+     */
+    public MauMauPlayer(String name, int turnPosition, TCPNetworkBoard board) {
+        this(name, turnPosition, TurnRing.MIN_SEATS, board);
+    }
+
+    /**
+     * Creates a player at a table with more than two seats. Seat 0 has the first turn.
+     * The player draws the start cards from the board.
+     */
+    public MauMauPlayer(String name, int turnPosition, int numberOfSeats, TCPNetworkBoard board) {
+        this(name, turnPosition, numberOfSeats, new ArrayList<>(), board);
         this.drawStartCards();
     }
 
@@ -79,11 +121,15 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
     public void drawCard() throws NotPlayersTurnException, ProvokedEmptyDeckException {
         //if it's the players turn
         if(this.isPlayersTurn()) {
-            //try to draw a card from the deck
+            //try to draw a card from the deck, with open sevens the player takes his penalty instead
             try {
-                this.hand.add(this.board.drawCard());
-                this.increasePlayerIndex();
-                //this.increasePlayerIndex();
+                int drawnCards = 1;
+                if(this.sevenStackCount > 0 && !this.legacySevenRule) {
+                    drawnCards = this.drawSevenPenalty(this.hand);
+                } else {
+                    this.hand.add(this.board.drawCard());
+                }
+                this.endTurn(null, 0, drawnCards);
             } catch (ProvokedEmptyDeckException e) {
                 //if the deck is empty and can't be refilled the player either has to play a card or his turn ends
                 //because ha can't play a card.
@@ -95,24 +141,29 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
             throw new NotPlayersTurnException();
         }
 
-        this.protocolEngine.drawCard();
+        //a player without a protocol engine plays locally, e.g. in tests
+        if(this.protocolEngine != null) {
+            this.protocolEngine.drawCard();
+        }
     }
 
     @Override
     public boolean playCard(Card card, CardColor wishedColor) throws NotPlayersTurnException, PlayerHasNoSuchCardException, PlayerViolatesGameRulesException, ProvokedEmptyDeckException {
         boolean hasWon = false;
+        int skippedSeats = 0;
+        int drawnCards = 0;
         //if it's the players turn
         if(this.isPlayersTurn()) {
             //try play this card. Fails if the player doesn't have this card
             try {
-                //may throw an exception when the card can't be found in the players hand
-                int cardIndex = this.getCardIndex(card);
+                //throws an exception when the card can't be found in the players hand
+                this.checkHasCard(card);
 
                 if(this.verifier.canPlayCard(card, this.board.getLastPlayedCard(), this.latestColorWish)) {
                     //if the card is allowed to play
 
                     this.board.playCard(card);
-                    this.hand.remove(cardIndex);
+                    this.hand.remove(card);
 
                     //here are special rules implemented
 
@@ -120,33 +171,19 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
                         //if the card is a seven the seven stack count is incremented
                         case SEVEN -> this.sevenStackCount++;
 
-                        //if the card is an eight the player index is incremented yet already so that on the end of the
-                        //method it was incremented twice
-                        case EIGHT -> this.increasePlayerIndex();
+                        //if the card is an eight the next player is skipped
+                        case EIGHT -> skippedSeats = 1;
 
                         case JACK -> this.latestColorWish = wishedColor;
 
 
-                        default -> {
-                            //if it's not a seven this play may end a seven streak
-                            if(this.sevenStackCount > 0) {
-                                //foreach seven stack count must be drawn two cards
-                                final int numCardsForSeven = 2;
-                                for(int i = 0; i < sevenStackCount * numCardsForSeven; i++) {
-                                    try {
-                                        drawCard();
-                                    } catch (ProvokedEmptyDeckException e) {
-                                        //if the player is lucky, there are not enough cards left to draw
-                                        throw new ProvokedEmptyDeckException();
-                                    }
-                                }
-                                this.sevenStackCount = 0;
-                            }
-                        }
+                        //if it's not a seven this play may end a seven streak.
+                        //The penalty is drawn within this turn, the remote players draw it when they get the move
+                        default -> drawnCards = this.drawSevenPenalty(this.hand);
                     }
 
-                    //at the end the player index gets incremented
-                    this.increasePlayerIndex();
+                    //at the end the turn is passed on
+                    this.endTurn(card, skippedSeats, drawnCards);
 
                     //check if the player has won
                     if(this.hasWon()) {
@@ -166,7 +203,9 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
         }
 
 
-        this.protocolEngine.playCard(card, wishedColor);
+        if(this.protocolEngine != null) {
+            this.protocolEngine.playCard(card, wishedColor);
+        }
 
 
 
@@ -196,6 +235,11 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
         this.boardChangedListenerList.add(listener);
     }
 
+    @Override
+    public void subscribeMoveListener(MoveListener listener) {
+        this.moveListenerList.add(listener);
+    }
+
 
 
     @Override
@@ -203,6 +247,23 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
         return this.turnIndex == 0;
     }
 
+    @Override
+    public int getTurnPosition() {
+        return this.turnIndex;
+    }
+
+    @Override
+    public int getNumberOfSeats() {
+        return this.turnRing.getNumberOfSeats();
+    }
+
+    @Override
+    public int getCurrentSeat() {
+        synchronized (this.turnRing) {
+            return this.turnRing.getCurrentSeat();
+        }
+    }
+
     @Override
     public TCPDeck getDeck() {
         return this.board.getDeck();
@@ -214,14 +275,25 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
 
     @Override
     public void updateDeck() {
+        this.remoteMove = null;
+        if(this.sevenStackCount > 0 && !this.legacySevenRule) {
+            this.remoteDrawnCards = this.drawSevenPenalty(null);
+            return;
+        }
         try {
             this.board.drawCard();
+            this.remoteDrawnCards = 1;
         } catch (ProvokedEmptyDeckException ignored) {
+            //the remote player couldn't draw either - the boards are still in sync
+            this.remoteDrawnCards = 0;
+            LOG.debug(() -> this.name + ": remote player tried to draw from an empty deck");
         }
     }
 
     @Override
     public void updateDiscardPile(Card card) {
+        this.remoteMove = card;
+        this.remoteDrawnCards = 0;
         this.board.playCard(card);
     }
 
@@ -241,19 +313,44 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
     }
 
     @Override
-    public void incrementCurrentPlayerIndex() {
-        this.increasePlayerIndex();
+    public void takeSevenPenalty() {
+        this.remoteDrawnCards = this.drawSevenPenalty(null);
+    }
+
+    @Override
+    public void useLegacySevenRule() {
+        this.legacySevenRule = true;
+    }
+
+    @Override
+    public void passTurn(int skippedSeats) {
+        this.endTurn(this.remoteMove, skippedSeats, this.remoteDrawnCards);
+    }
+
+    @Override
+    public boolean awaitTurnOf(int seat, long timeoutInMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutInMillis;
+        synchronized (this.turnRing) {
+            while(this.turnRing.getCurrentSeat() != seat) {
+                final long left = deadline - System.currentTimeMillis();
+                if(left <= 0) {
+                    return false;
+                }
+                this.turnRing.wait(left);
+            }
+            return true;
+        }
     }
 
     @Override
     public void notifyBoardChanged() {
         //if there are any listeners
         if(this.boardChangedListenerList.size() > 0) {
-            new Thread(() -> {
+            ProtocolThreads.execute(() -> {
                 for(BoardChangedListener listener : boardChangedListenerList) {
                     listener.boardChanged();
                 }
-            }).start();
+            });
         }
     }
 
@@ -271,43 +368,74 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
     //                                               private helper                                                   //
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private int getCardIndex(Card card) throws PlayerHasNoSuchCardException {
-        for (int i = 0; i < this.hand.size(); i++) {
-            if(card.getColor() == this.hand.get(i).getColor() && card.getType() == this.hand.get(i).getType()){
-                return i;
+    /**
+     * Passes the turn on and tells the move listeners about the move
+     * @param playedCard the played card, null if a card was drawn
+     */
+    private void endTurn(Card playedCard, int skippedSeats, int drawnCards) {
+        final int seat = this.advanceTurn(skippedSeats);
+        final CardColor wishedColor = playedCard != null && playedCard.getType() == CardType.JACK
+                ? this.latestColorWish : null;
+        for(MoveListener listener : this.moveListenerList) {
+            listener.moveMade(seat, playedCard, wishedColor, drawnCards);
+        }
+    }
+
+    /**
+     * @return the seat which was on turn
+     */
+    private int advanceTurn(int skippedSeats) {
+        synchronized (this.turnRing) {
+            final int seat = this.turnRing.getCurrentSeat();
+            this.turnRing.advance(skippedSeats);
+            this.turnRing.notifyAll();
+            return seat;
+        }
+    }
+
+    /**
+     * Draws two cards per seven on the stack and closes the stack. If the deck runs empty fewer cards are drawn.
+     * With the legacy seven rule the stack is only closed.
+     * @param hand the hand which gets the cards, null if a remote player draws them
+     * @return the number of drawn cards
+     */
+    private int drawSevenPenalty(CardSet hand) {
+        final int numberOfCards = this.legacySevenRule ? 0 : this.sevenStackCount * SEVEN_PENALTY;
+        this.sevenStackCount = 0;
+        int drawnCards = 0;
+        try {
+            for(; drawnCards < numberOfCards; drawnCards++) {
+                final Card card = this.board.drawCard();
+                if(hand != null) {
+                    hand.add(card);
+                }
             }
+        } catch (ProvokedEmptyDeckException ignored) {
+            //if the player is lucky, there are not enough cards left to draw
+            LOG.debug(() -> this.name + ": the deck ran empty while drawing the seven penalty");
+        }
+        return drawnCards;
+    }
+
+    private void checkHasCard(Card card) throws PlayerHasNoSuchCardException {
+        if(!this.hand.contains(card)) {
+            throw new PlayerHasNoSuchCardException();
         }
-        throw new PlayerHasNoSuchCardException();
     }
 
     private boolean isPlayersTurn() {
-        return this.turnIndex == this.currentPlayerIndex;
+        return this.turnIndex == this.getCurrentSeat();
     }
 
     private boolean hasWon() {
-        return this.hand.size() == 0;
+        return this.hand.isEmpty();
     }
 
     private boolean hasFittingCard() {
         final Card topCard = this.board.getLastPlayedCard();
-        boolean hasCard = false;
-        boolean doFurtherSearch = true;
-        int index = 0;
-        int LIST_INDEX_DIFFERENCE = 1;
-
-        while(doFurtherSearch) {
-            if(topCard.getColor() == this.hand.get(index).getColor() || this.hand.get(index).getType() == CardType.JACK) {
-                doFurtherSearch = false;
-                hasCard = true;
-            } else {
-                //if the last card from the players hand was searched
-                if (index == this.hand.size() - LIST_INDEX_DIFFERENCE) {
-                    doFurtherSearch = false;
-                }
-            }
-            index++;
-        }
-        return hasCard;
+
+        //one lookup checks the whole hand
+        return (this.hand.getMask() & this.verifier.playableMask(topCard, this.latestColorWish)) != 0;
     }
 
 
@@ -322,7 +450,28 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
 
     @Override
     public List<Card> getPlayerHand() {
-        return this.hand;
+        return this.hand.toList();
+    }
+
+    /**
+     * @return the color wished with the last jack, null if there was none
+     */
+    public CardColor getWishedColor() {
+        return this.latestColorWish;
+    }
+
+    /**
+     * @return the number of sevens played in a row right before
+     */
+    public int getSevenStackCount() {
+        return this.sevenStackCount;
+    }
+
+    /**
+     * @return the cards of the discard pile, the first card in the list is the top card
+     */
+    public List<Card> getDiscardPile() {
+        return this.board.getDiscardPile();
     }
 
 
@@ -332,7 +481,7 @@ public class MauMauPlayer implements VisulizablePlayer, TCPNetworkPlayer, Player
 
     @Override
     public void increasePlayerIndex() {
-        this.currentPlayerIndex = (this.currentPlayerIndex == 1) ? 0 : 1;
+        this.advanceTurn(0);
     }
 
 
@@ -0,0 +1,20 @@
+package maumau.player;
+
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+
+/**
+ * Gets every move of a game after the turn was passed on - the moves of the local player as well as those of remote
+ * players, e.g. to follow the game without polling the board.
+ */
+public interface MoveListener {
+
+    /**
+     * Called on the thread which made the move, for remote moves the thread of the protocol engine
+     * @param seat the turn position of the player who moved
+     * @param playedCard the played card, null if the player drew a card
+     * @param wishedColor the wished color if a jack was played, otherwise null
+     * @param drawnCards the number of cards the player drew, e.g. the penalty of a seven stack
+     */
+    void moveMade(int seat, Card playedCard, CardColor wishedColor, int drawnCards);
+}
@@ -17,7 +17,39 @@ public interface RemoteChangeablePlayer extends TCPNetworkPlayer {
 
     void resetSevenStackCount();
 
-    void incrementCurrentPlayerIndex();
+    /**
+     * The remote player answered the open sevens with another card: two cards per seven are taken from the deck and
+     * the stack is closed. A remote draw ({@link #updateDeck()}) takes the penalty by itself.
+     */
+    void takeSevenPenalty();
+
+    /**
+     * Plays the rest of the game with the seven rule of the protocol versions before
+     * {@link network.MauMauTCPProtocolEngine#PROTOCOL_VERSION_SEVEN_PENALTY}: a draw takes a single card even with
+     * open sevens and another card closes the stack without a penalty. Called by a protocol engine which negotiated
+     * such a version, so both boards follow the rule the remote engine knows.
+     */
+    void useLegacySevenRule();
+
+    /**
+     * Passes the turn on after a move of a remote player
+     * @param skippedSeats the number of seats which lose their turn, e.g. 1 after an eight
+     */
+    void passTurn(int skippedSeats);
+
+    /**
+     * Waits until a seat is on turn. At a table with more than two seats the moves of different players arrive on
+     * different connections, so a move may arrive before the move it answers.
+     * @return false if the seat wasn't on turn in time
+     */
+    boolean awaitTurnOf(int seat, long timeoutInMillis) throws InterruptedException;
+
+    int getCurrentSeat();
+
+    /**
+     * Subscribes a listener which gets every move of the game, local and remote ones
+     */
+    void subscribeMoveListener(MoveListener listener);
 
     void notifyBoardChanged();
 
@@ -13,5 +13,15 @@ public interface TCPNetworkPlayer extends VisulizablePlayer {
 
     boolean hasFirstTurn();
 
+    /**
+     * @return the seat of the player, 0 has the first turn
+     */
+    int getTurnPosition();
+
+    /**
+     * @return the number of seats at the table of the player
+     */
+    int getNumberOfSeats();
+
     TCPDeck getDeck();
 }
@@ -0,0 +1,75 @@
+package maumau.player;
+
+/**
+ * The seats of a table in the order of their turns. Passing the turn on - also past skipped seats and in either
+ * direction - is one modulo operation, whatever the size of the table.
+ */
+public final class TurnRing {
+    public static final int MIN_SEATS = 2;
+    public static final int MAX_SEATS = 8;
+
+    public static final int CLOCKWISE = 1;
+    public static final int COUNTERCLOCKWISE = -1;
+
+    private final int numberOfSeats;
+    private int currentSeat;
+    private int direction = CLOCKWISE;
+
+    /**
+     * Creates a ring whose seat 0 has the first turn
+     * @throws IllegalArgumentException if the table is smaller than {@link #MIN_SEATS} or larger than {@link #MAX_SEATS}
+     */
+    public TurnRing(int numberOfSeats) {
+        if(numberOfSeats < MIN_SEATS || numberOfSeats > MAX_SEATS) {
+            throw new IllegalArgumentException("tables have " + MIN_SEATS + " to " + MAX_SEATS + " seats, not " + numberOfSeats);
+        }
+        this.numberOfSeats = numberOfSeats;
+    }
+
+    /**
+     * Passes the turn to the next seat
+     * @return the seat on turn now
+     */
+    public int advance() {
+        return this.advance(0);
+    }
+
+    /**
+     * Passes the turn on, past the given number of seats
+     * @param skippedSeats the number of seats which lose their turn, e.g. 1 after an eight
+     * @return the seat on turn now
+     */
+    public int advance(int skippedSeats) {
+        this.currentSeat = Math.floorMod(this.currentSeat + this.direction * (skippedSeats + 1), this.numberOfSeats);
+        return this.currentSeat;
+    }
+
+    /**
+     * Changes the direction the turn is passed on
+     */
+    public void reverse() {
+        this.direction = -this.direction;
+    }
+
+    /**
+     * @return the seat which gets the turn next if nobody is skipped
+     */
+    public int getNextSeat() {
+        return Math.floorMod(this.currentSeat + this.direction, this.numberOfSeats);
+    }
+
+    public int getCurrentSeat() {
+        return this.currentSeat;
+    }
+
+    public int getNumberOfSeats() {
+        return this.numberOfSeats;
+    }
+
+    /**
+     * @return {@link #CLOCKWISE} or {@link #COUNTERCLOCKWISE}
+     */
+    public int getDirection() {
+        return this.direction;
+    }
+}
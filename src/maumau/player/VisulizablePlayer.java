@@ -20,7 +20,8 @@ public interface VisulizablePlayer extends Player{
     Card getDiscardPileCard();
 
     /**
-     * @return the hand of the player
+     * @return the hand of the player as unmodifiable list, ordered by the card ordinals.
+     *          The list is a snapshot and doesn't change when the hand changes.
      */
     List<Card> getPlayerHand();
 
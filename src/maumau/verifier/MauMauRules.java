@@ -3,12 +3,56 @@ package maumau.verifier;
 import maumau.cards.Card;
 import maumau.cards.CardColor;
 import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
 
 public class MauMauRules implements Rules {
+    //column of the table which is used when no color was wished
+    private static final int NO_WISHED_COLOR_INDEX = CardColor.values().length;
+
+    //for each last played card (row) and wished color (column) a mask of the cards which can be played
+    //bit n of a mask stands for the card with the ordinal n (see Card.getOrdinal())
+    private static final long[][] PLAYABLE_MASKS = computePlayableMasks();
 
 
     @Override
     public boolean canPlayCard(Card cardToBePlayed, Card lastPlayedCard, CardColor wishedColor) {
+        return (this.playableMask(lastPlayedCard, wishedColor) & (1L << cardToBePlayed.getOrdinal())) != 0;
+    }
+
+    @Override
+    public long playableMask(Card lastPlayedCard, CardColor wishedColor) {
+        final int wishedColorIndex = wishedColor == null ? NO_WISHED_COLOR_INDEX : wishedColor.ordinal();
+        return PLAYABLE_MASKS[lastPlayedCard.getOrdinal()][wishedColorIndex];
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  rule table                                                    //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Evaluates the rules once for every combination of card to be played, last played card and wished color
+     * @return the table of masks
+     */
+    private static long[][] computePlayableMasks() {
+        final long[][] masks = new long[MauMauCard.NUMBER_OF_CARDS][NO_WISHED_COLOR_INDEX + 1];
+
+        for(Card lastPlayedCard : MauMauCard.allCards()) {
+            for(int wishedColorIndex = 0; wishedColorIndex <= NO_WISHED_COLOR_INDEX; wishedColorIndex++) {
+                final CardColor wishedColor = wishedColorIndex == NO_WISHED_COLOR_INDEX
+                        ? null : CardColor.values()[wishedColorIndex];
+
+                for(Card cardToBePlayed : MauMauCard.allCards()) {
+                    if(evaluateRules(cardToBePlayed, lastPlayedCard, wishedColor)) {
+                        masks[lastPlayedCard.getOrdinal()][wishedColorIndex] |= 1L << cardToBePlayed.getOrdinal();
+                    }
+                }
+            }
+        }
+        return masks;
+    }
+
+    private static boolean evaluateRules(Card cardToBePlayed, Card lastPlayedCard, CardColor wishedColor) {
         boolean result = false;
 
         if(cardToBePlayed.getType() == CardType.JACK) {
@@ -23,4 +23,16 @@ public interface Rules {
      */
     boolean canPlayCard(Card cardToBePlayed, Card lastPlayedCard, CardColor wishedColor);
 
+    /**
+     * Get all cards which can be played without violating the game rules.
+     * To check a whole hand at once, the mask can be combined with the hand mask (see {@link maumau.cards.CardSet}).
+     *
+     * @param lastPlayedCard the last card played (top card on the discard pile)
+     * @param wishedColor the color that can only be played, because someone played a jack before
+     *                    if no jack was played -> null
+     *
+     * @return a mask where bit n is set if the card with the ordinal n can be played
+     */
+    long playableMask(Card lastPlayedCard, CardColor wishedColor);
+
 }
@@ -0,0 +1,93 @@
+package network;
+
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.MauMauCard;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The compact version of the protocol: a card is sent as one byte (its ordinal, see {@link Card#getOrdinal()}).
+ * Every message starts with a header byte: the upper bits hold the method, the lowest three bits the wished color.
+ * A play costs 2 bytes, a draw 1 byte and the deck 1 byte per card.
+ */
+class CompactMessageCodec implements MessageCodec {
+    private final static int METHOD_SHIFT = 3;
+    private final static int WISHED_COLOR_MASK = 0b111;
+    private final static CardColor[] COLORS = CardColor.values();
+    private final static int WISHED_COLOR_IS_NULL = COLORS.length;
+
+    @Override
+    public int getVersion() {
+        return MauMauTCPProtocolEngine.PROTOCOL_VERSION_COMPACT;
+    }
+
+    @Override
+    public void writeDeck(DataOutputStream dos, List<Card> deck) throws IOException {
+        dos.writeShort(deck.size());
+        for(Card card : deck) {
+            this.writeCard(dos, card);
+        }
+    }
+
+    @Override
+    public List<Card> readDeck(DataInputStream dis) throws IOException {
+        final int numberOfCardsToRead = dis.readUnsignedShort();
+        final List<Card> deck = new ArrayList<>(numberOfCardsToRead);
+
+        for(int i = 0; i < numberOfCardsToRead; i++) {
+            deck.add(this.readCard(dis));
+        }
+        return deck;
+    }
+
+    @Override
+    public void writeCard(DataOutputStream dos, Card card) throws IOException {
+        dos.writeByte(card.getOrdinal());
+    }
+
+    @Override
+    public Card readCard(DataInputStream dis) throws IOException {
+        final int ordinal = dis.readUnsignedByte();
+        if(ordinal >= MauMauCard.NUMBER_OF_CARDS) {
+            throw new IOException("unknown card: " + ordinal);
+        }
+        return MauMauCard.fromOrdinal(ordinal);
+    }
+
+    @Override
+    public void writePlayCard(DataOutputStream dos, Card card, CardColor wishedColor) throws IOException {
+        dos.writeByte(this.header(ProtocolMessage.METHOD_PLAY, wishedColor));
+        this.writeCard(dos, card);
+    }
+
+    @Override
+    public void writeDraw(DataOutputStream dos) throws IOException {
+        dos.writeByte(this.header(ProtocolMessage.METHOD_DRAW, null));
+    }
+
+    @Override
+    public void readMessage(DataInputStream dis, ProtocolMessage message) throws IOException {
+        message.clear();
+        final int header = dis.readUnsignedByte();
+        message.method = header >>> METHOD_SHIFT;
+
+        if(message.method == ProtocolMessage.METHOD_PLAY) {
+            final int wishedColor = header & WISHED_COLOR_MASK;
+            if(wishedColor > WISHED_COLOR_IS_NULL) {
+                throw new IOException("unknown wished color: " + wishedColor);
+            }
+            message.wishedColor = wishedColor == WISHED_COLOR_IS_NULL ? null : COLORS[wishedColor];
+            message.card = this.readCard(dis);
+        }
+    }
+
+    private int header(int method, CardColor wishedColor) {
+        final int wishedColorBits = wishedColor == null ? WISHED_COLOR_IS_NULL : wishedColor.ordinal();
+        return (method << METHOD_SHIFT) | wishedColorBits;
+    }
+}
@@ -0,0 +1,13 @@
+package network;
+
+/**
+ * Listener notified when the connection of a protocol engine breaks
+ */
+public interface ConnectionLostListener {
+
+    /**
+     * @param resumable true if the game can be continued by handing a new connection to the same protocol engine
+     *                  (see {@link TCPProtocolEngine#canResumeSession()})
+     */
+    void connectionLost(boolean resumable);
+}
@@ -0,0 +1,418 @@
+package network;
+
+import logging.Logger;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.MauMauCard;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The framed version of the protocol. Every message is one frame:
+ * <pre>
+ *     [length: u16][type: u8][sequence: i32][payload]
+ * </pre>
+ * The length counts everything after itself. Cards are encoded like in the compact version (one byte per card),
+ * a wished color is one byte (the ordinal of the color, {@link #NO_WISHED_COLOR} if no color was wished).
+ *
+ * Because the receiver always knows where a frame ends, a frame with an unknown type is skipped instead of
+ * desynchronizing the stream. A broken move or a gap in the sequence numbers is a protocol error: the connection is
+ * dropped and the move isn't acknowledged, so it's sent again when the session is resumed.
+ * Both directions reuse one buffer each, so sending and receiving a move doesn't allocate anything.
+ *
+ * Sent moves are kept in a {@link ReplayBuffer} until the remote engine acknowledges them. When a dropped connection
+ * is resumed both engines tell each other the last frame they received (see {@link #writeHello(DataOutputStream, long)})
+ * and send only the moves the other one missed. Control frames (hello and acknowledgement) have the sequence number
+ * {@link #CONTROL_SEQUENCE} and are never replayed.
+ *
+ * An engine which has nothing to send writes heartbeat frames, so the remote engine can tell a quiet player from a
+ * dead connection.
+ */
+class FramedMessageCodec implements MessageCodec {
+    private static final Logger LOG = Logger.getLogger(FramedMessageCodec.class);
+
+    static final int TYPE_DECK = 1;
+    static final int TYPE_CARD = 2;
+    static final int TYPE_PLAY = 3;
+    static final int TYPE_DRAW = 4;
+    static final int TYPE_HELLO = 5;
+    static final int TYPE_ACK = 6;
+    static final int TYPE_HEARTBEAT = 7;
+
+    //type and sequence number
+    static final int HEADER_SIZE = 5;
+    static final int MAX_FRAME_LENGTH = 0xFFFF;
+
+    static final int NO_WISHED_COLOR = 0xFF;
+    static final int CONTROL_SEQUENCE = -1;
+
+    //number of sent moves which can be replayed
+    static final int REPLAY_CAPACITY = 64;
+    //received moves after which an acknowledgement is sent even if the local player doesn't move
+    static final int ACK_INTERVAL = 16;
+    private static final CardColor[] COLORS = CardColor.values();
+
+    private byte[] outFrame = new byte[64];
+    private byte[] inFrame = new byte[64];
+    private int inFrameLength;
+    private int inFrameType;
+    private int inFrameSequence;
+
+    private int nextSequence;
+    private final ReplayBuffer replayBuffer = new ReplayBuffer(REPLAY_CAPACITY);
+    //written by the reading thread, read by the writing thread
+    private volatile int lastReceivedSequence = -1;
+    private int lastAcknowledgedSequence = -1;
+    private boolean duplicateFrame;
+
+    //time of the last frame of any type, used to notice a silent remote engine
+    private volatile long lastFrameNanos = System.nanoTime();
+
+    private long partnerSessionId;
+    private int partnerLastReceivedSequence = -1;
+
+    @Override
+    public int getVersion() {
+        return MauMauTCPProtocolEngine.PROTOCOL_VERSION_FRAMED;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                    writing                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void writeDeck(DataOutputStream dos, List<Card> deck) throws IOException {
+        final int payloadSize = 2 + deck.size();
+        if(HEADER_SIZE + payloadSize > MAX_FRAME_LENGTH) {
+            throw new IOException("deck too big for one frame: " + deck.size() + " cards");
+        }
+
+        int position = this.beginFrame(TYPE_DECK, payloadSize);
+        this.outFrame[position++] = (byte) (deck.size() >>> 8);
+        this.outFrame[position++] = (byte) deck.size();
+        for(Card card : deck) {
+            this.outFrame[position++] = (byte) card.getOrdinal();
+        }
+        this.writeFrame(dos, position);
+    }
+
+    @Override
+    public void writeCard(DataOutputStream dos, Card card) throws IOException {
+        int position = this.beginFrame(TYPE_CARD, 1);
+        this.outFrame[position++] = (byte) card.getOrdinal();
+        this.writeFrame(dos, position);
+    }
+
+    @Override
+    public void writePlayCard(DataOutputStream dos, Card card, CardColor wishedColor) throws IOException {
+        int position = this.beginFrame(TYPE_PLAY, 2);
+        this.outFrame[position++] = (byte) card.getOrdinal();
+        this.outFrame[position++] = (byte) (wishedColor == null ? NO_WISHED_COLOR : wishedColor.ordinal());
+        this.writeMove(dos, position);
+    }
+
+    @Override
+    public void writeDraw(DataOutputStream dos) throws IOException {
+        this.writeMove(dos, this.beginFrame(TYPE_DRAW, 0));
+    }
+
+    @Override
+    public void writeAcknowledgement(DataOutputStream dos) throws IOException {
+        final int sequence = this.lastReceivedSequence;
+        if(sequence <= this.lastAcknowledgedSequence) {
+            return;
+        }
+
+        int position = this.beginControlFrame(TYPE_ACK, 4);
+        position = this.putInt(position, sequence);
+        this.writeFrame(dos, position);
+        this.lastAcknowledgedSequence = sequence;
+    }
+
+    @Override
+    public boolean needsAcknowledgement() {
+        return this.lastReceivedSequence - this.lastAcknowledgedSequence >= ACK_INTERVAL;
+    }
+
+    /**
+     * Writes an empty control frame which shows the remote engine that this engine is still alive
+     */
+    void writeHeartbeat(DataOutputStream dos) throws IOException {
+        this.writeFrame(dos, this.beginControlFrame(TYPE_HEARTBEAT, 0));
+    }
+
+    /**
+     * Writes the hello frame which starts or resumes a session
+     * @param sessionId the id of the session, 0 if this engine doesn't know the session id yet
+     */
+    void writeHello(DataOutputStream dos, long sessionId) throws IOException {
+        int position = this.beginControlFrame(TYPE_HELLO, 12);
+        position = this.putInt(position, (int) (sessionId >>> 32));
+        position = this.putInt(position, (int) sessionId);
+        position = this.putInt(position, this.lastReceivedSequence);
+        this.writeFrame(dos, position);
+        //everything up to here is acknowledged by the hello
+        this.lastAcknowledgedSequence = this.lastReceivedSequence;
+    }
+
+    /**
+     * Sends the moves the remote engine missed, must be called after {@link #readHello(DataInputStream)}
+     * @throws IOException if the missed moves were already dropped from the replay buffer
+     */
+    void replayMissedFrames(DataOutputStream dos) throws IOException {
+        this.replayBuffer.acknowledge(this.partnerLastReceivedSequence);
+        this.replayBuffer.replayAfter(this.partnerLastReceivedSequence, this.nextSequence, dos);
+    }
+
+    //moves are kept until the remote engine acknowledges them
+    private void writeMove(DataOutputStream dos, int end) throws IOException {
+        this.replayBuffer.add(this.nextSequence - 1, this.outFrame, end);
+        this.writeFrame(dos, end);
+    }
+
+    private int beginFrame(int type, int payloadSize) {
+        return this.beginFrame(type, payloadSize, this.nextSequence++);
+    }
+
+    private int beginControlFrame(int type, int payloadSize) {
+        return this.beginFrame(type, payloadSize, CONTROL_SEQUENCE);
+    }
+
+    /**
+     * Writes length, type and sequence number into the out buffer
+     * @return the position of the payload
+     */
+    private int beginFrame(int type, int payloadSize, int sequence) {
+        final int frameLength = HEADER_SIZE + payloadSize;
+        if(this.outFrame.length < 2 + frameLength) {
+            this.outFrame = new byte[2 + frameLength];
+        }
+
+        final byte[] frame = this.outFrame;
+        frame[0] = (byte) (frameLength >>> 8);
+        frame[1] = (byte) frameLength;
+        frame[2] = (byte) type;
+        frame[3] = (byte) (sequence >>> 24);
+        frame[4] = (byte) (sequence >>> 16);
+        frame[5] = (byte) (sequence >>> 8);
+        frame[6] = (byte) sequence;
+        return 7;
+    }
+
+    private int putInt(int position, int value) {
+        this.outFrame[position++] = (byte) (value >>> 24);
+        this.outFrame[position++] = (byte) (value >>> 16);
+        this.outFrame[position++] = (byte) (value >>> 8);
+        this.outFrame[position++] = (byte) value;
+        return position;
+    }
+
+    //the whole frame is handed over at once, the engine decides when the stream is flushed
+    private void writeFrame(DataOutputStream dos, int end) throws IOException {
+        dos.write(this.outFrame, 0, end);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                    reading                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reads the hello frame of the remote engine, see {@link #getPartnerSessionId()} and
+     * {@link #getPartnerLastReceivedSequence()}
+     */
+    void readHello(DataInputStream dis) throws IOException {
+        this.readFrame(dis, TYPE_HELLO);
+        if(this.inFrameLength != 12) {
+            throw new IOException("hello frame has wrong length: " + this.inFrameLength);
+        }
+        this.partnerSessionId = ((long) this.intAt(0) << 32) | (this.intAt(4) & 0xFFFFFFFFL);
+        this.partnerLastReceivedSequence = this.intAt(8);
+    }
+
+    @Override
+    public List<Card> readDeck(DataInputStream dis) throws IOException {
+        this.readFrame(dis, TYPE_DECK);
+        if(this.inFrameLength < 2) {
+            throw new IOException("deck frame too short: " + this.inFrameLength);
+        }
+
+        final int numberOfCards = ((this.inFrame[0] & 0xFF) << 8) | (this.inFrame[1] & 0xFF);
+        if(this.inFrameLength != 2 + numberOfCards) {
+            throw new IOException("deck frame announces " + numberOfCards + " cards but has " + (this.inFrameLength - 2));
+        }
+
+        final List<Card> deck = new ArrayList<>(numberOfCards);
+        for(int i = 0; i < numberOfCards; i++) {
+            deck.add(this.cardAt(2 + i));
+        }
+        this.frameReceived();
+        return deck;
+    }
+
+    @Override
+    public Card readCard(DataInputStream dis) throws IOException {
+        this.readFrame(dis, TYPE_CARD);
+        if(this.inFrameLength != 1) {
+            throw new IOException("card frame has wrong length: " + this.inFrameLength);
+        }
+        final Card card = this.cardAt(0);
+        this.frameReceived();
+        return card;
+    }
+
+    /**
+     * Reads the next move. Frames which aren't moves are skipped.
+     * @throws IOException if a move frame is broken
+     */
+    @Override
+    public void readMessage(DataInputStream dis, ProtocolMessage message) throws IOException {
+        while(true) {
+            message.clear();
+            this.readFrame(dis);
+            if(this.duplicateFrame) {
+                LOG.debug(() -> "skipped frame " + this.inFrameSequence + " which was already received");
+                continue;
+            }
+
+            switch (this.inFrameType) {
+                case TYPE_ACK -> {
+                    if(this.inFrameLength == 4) {
+                        this.replayBuffer.acknowledge(this.intAt(0));
+                    }
+                }
+                case TYPE_HEARTBEAT -> {
+                    //only updates the time of the last frame
+                }
+                case TYPE_PLAY -> {
+                    this.decodePlayCard(message);
+                    this.frameReceived();
+                    return;
+                }
+                case TYPE_DRAW -> {
+                    message.method = ProtocolMessage.METHOD_DRAW;
+                    this.frameReceived();
+                    return;
+                }
+                default -> LOG.warn("skipped frame " + this.inFrameSequence + " of unexpected type " + this.inFrameType);
+            }
+            this.frameReceived();
+        }
+    }
+
+    private void decodePlayCard(ProtocolMessage message) throws IOException {
+        if(this.inFrameLength != 2) {
+            throw new IOException("play frame " + this.inFrameSequence + " has wrong length " + this.inFrameLength);
+        }
+        final int wishedColor = this.inFrame[1] & 0xFF;
+        if(wishedColor >= COLORS.length && wishedColor != NO_WISHED_COLOR) {
+            throw new IOException("play frame " + this.inFrameSequence + " has unknown color " + wishedColor);
+        }
+
+        message.card = this.cardAt(0);
+        message.method = ProtocolMessage.METHOD_PLAY;
+        message.wishedColor = wishedColor == NO_WISHED_COLOR ? null : COLORS[wishedColor];
+    }
+
+    //reads a frame which must have the given type
+    private void readFrame(DataInputStream dis, int expectedType) throws IOException {
+        this.readFrame(dis);
+        if(this.inFrameType != expectedType) {
+            throw new IOException("expected frame type " + expectedType + " but got " + this.inFrameType);
+        }
+    }
+
+    /**
+     * Reads a whole frame: the payload is copied into the in buffer, type and sequence number are remembered.
+     * The frame counts as received - and gets acknowledged - only after {@link #frameReceived()}.
+     * @throws IOException if frames between the last received one and this one are missing
+     */
+    private void readFrame(DataInputStream dis) throws IOException {
+        final int frameLength = dis.readUnsignedShort();
+        if(frameLength < HEADER_SIZE) {
+            throw new IOException("frame too short: " + frameLength);
+        }
+
+        this.inFrameType = dis.readUnsignedByte();
+        this.inFrameSequence = dis.readInt();
+        this.inFrameLength = frameLength - HEADER_SIZE;
+        if(this.inFrame.length < this.inFrameLength) {
+            this.inFrame = new byte[this.inFrameLength];
+        }
+        dis.readFully(this.inFrame, 0, this.inFrameLength);
+        this.lastFrameNanos = System.nanoTime();
+
+        this.duplicateFrame = false;
+        if(this.inFrameSequence == CONTROL_SEQUENCE) {
+            return;
+        }
+        if(this.inFrameSequence <= this.lastReceivedSequence) {
+            //sent again after a resumption
+            this.duplicateFrame = true;
+            return;
+        }
+        if(this.inFrameSequence != this.lastReceivedSequence + 1) {
+            throw new IOException("expected frame " + (this.lastReceivedSequence + 1) + " but got frame "
+                    + this.inFrameSequence);
+        }
+    }
+
+    //called once the frame was decoded, so a broken frame is neither acknowledged nor skipped on a resumption
+    private void frameReceived() {
+        if(this.inFrameSequence != CONTROL_SEQUENCE) {
+            this.lastReceivedSequence = this.inFrameSequence;
+        }
+    }
+
+    private int intAt(int index) {
+        return ((this.inFrame[index] & 0xFF) << 24) | ((this.inFrame[index + 1] & 0xFF) << 16)
+                | ((this.inFrame[index + 2] & 0xFF) << 8) | (this.inFrame[index + 3] & 0xFF);
+    }
+
+    private Card cardAt(int index) throws IOException {
+        final int ordinal = this.inFrame[index] & 0xFF;
+        if(ordinal >= MauMauCard.NUMBER_OF_CARDS) {
+            throw new IOException("unknown card: " + ordinal);
+        }
+        return MauMauCard.fromOrdinal(ordinal);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                    session                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    long getPartnerSessionId() {
+        return this.partnerSessionId;
+    }
+
+    /**
+     * @return the last frame the remote engine received before the hello, -1 if it received nothing
+     */
+    int getPartnerLastReceivedSequence() {
+        return this.partnerLastReceivedSequence;
+    }
+
+    /**
+     * @return the last frame received from the remote engine, -1 if nothing was received
+     */
+    int getLastReceivedSequence() {
+        return this.lastReceivedSequence;
+    }
+
+    /**
+     * @return the value of {@link System#nanoTime()} when the last frame was received
+     */
+    long getLastFrameNanos() {
+        return this.lastFrameNanos;
+    }
+
+    int getNumberOfUnacknowledgedMoves() {
+        return this.replayBuffer.size();
+    }
+}
@@ -0,0 +1,148 @@
+package network;
+
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The first version of the protocol: every value is sent as 4-byte int.
+ * A card consists of two ints (color and type), so a play costs 16 bytes.
+ * It's the encoding of the engines from before the version negotiation, so they can still join a game.
+ */
+class LegacyMessageCodec implements MessageCodec {
+    private final static int WISHED_COLOR_IS_NULL_INT = 4;
+
+    @Override
+    public int getVersion() {
+        return MauMauTCPProtocolEngine.PROTOCOL_VERSION_LEGACY;
+    }
+
+    @Override
+    public void writeDeck(DataOutputStream dos, List<Card> deck) throws IOException {
+        dos.writeInt(deck.size());
+        for(Card card : deck) {
+            this.writeCard(dos, card);
+        }
+    }
+
+    @Override
+    public List<Card> readDeck(DataInputStream dis) throws IOException {
+        final int numberOfCardsToRead = dis.readInt();
+        final List<Card> deck = new ArrayList<>(numberOfCardsToRead);
+
+        for(int i = 0; i < numberOfCardsToRead; i++) {
+            deck.add(this.readCard(dis));
+        }
+        return deck;
+    }
+
+    @Override
+    public void writeCard(DataOutputStream dos, Card card) throws IOException {
+        dos.writeInt(this.getIntForColor(card.getColor()));
+        dos.writeInt(this.getIntForType(card.getType()));
+    }
+
+    @Override
+    public Card readCard(DataInputStream dis) throws IOException {
+        final CardColor color = this.getColorFromInt(dis.readInt());
+        final CardType type = this.getTypeFromInt(dis.readInt());
+        return MauMauCard.of(color, type);
+    }
+
+    @Override
+    public void writePlayCard(DataOutputStream dos, Card card, CardColor wishedColor) throws IOException {
+        dos.writeInt(ProtocolMessage.METHOD_PLAY);
+        this.writeCard(dos, card);
+
+        if(wishedColor != null) {
+            dos.writeInt(this.getIntForColor(wishedColor));
+        } else {
+            dos.writeInt(WISHED_COLOR_IS_NULL_INT);
+        }
+    }
+
+    @Override
+    public void writeDraw(DataOutputStream dos) throws IOException {
+        dos.writeInt(ProtocolMessage.METHOD_DRAW);
+    }
+
+    @Override
+    public void readMessage(DataInputStream dis, ProtocolMessage message) throws IOException {
+        message.clear();
+        message.method = dis.readInt();
+
+        if(message.method == ProtocolMessage.METHOD_PLAY) {
+            message.card = this.readCard(dis);
+            final int wishedColorInt = dis.readInt();
+            message.wishedColor = wishedColorInt == WISHED_COLOR_IS_NULL_INT ? null : this.getColorFromInt(wishedColorInt);
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   mapping                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private int getIntForColor(CardColor color) {
+        return switch (color) {
+            case CLUBS -> 0;
+            case SPADES -> 1;
+            case HEART -> 2;
+            case DIAMONDS -> 3;
+        };
+    }
+
+    private int getIntForType(CardType type) {
+        return switch (type) {
+            case TWO -> 2;
+            case THREE -> 3;
+            case FOUR -> 4;
+            case FIVE -> 5;
+            case SIX -> 6;
+            case SEVEN -> 7;
+            case EIGHT -> 8;
+            case NINE -> 9;
+            case TEN -> 10;
+            case JACK -> 11;
+            case QUEEN -> 12;
+            case KING -> 13;
+            case ACE -> 14;
+        };
+    }
+
+    private CardColor getColorFromInt(int color) throws IOException {
+        return switch (color) {
+            case 0 -> CardColor.CLUBS;
+            case 1 -> CardColor.SPADES;
+            case 2 -> CardColor.HEART;
+            case 3 -> CardColor.DIAMONDS;
+            default -> throw new IOException("unknown card color: " + color);
+        };
+    }
+
+    private CardType getTypeFromInt(int type) throws IOException {
+        return switch (type) {
+            case 2 -> CardType.TWO;
+            case 3 -> CardType.THREE;
+            case 4 -> CardType.FOUR;
+            case 5 -> CardType.FIVE;
+            case 6 -> CardType.SIX;
+            case 7 -> CardType.SEVEN;
+            case 8 -> CardType.EIGHT;
+            case 9 -> CardType.NINE;
+            case 10 -> CardType.TEN;
+            case 11 -> CardType.JACK;
+            case 12 -> CardType.QUEEN;
+            case 13 -> CardType.KING;
+            case 14 -> CardType.ACE;
+            default -> throw new IOException("unknown card type: " + type);
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package network;
+
+import network.io.ByteRingBuffer;
+
+/**
+ * An in-memory connection between two protocol engines in the same JVM: two ring buffers, one per direction,
+ * behind the same blocking stream contract as a socket - without ports, syscalls or kernel buffers.
+ * Many engine pairs can run complete sessions side by side, e.g. to load test the protocol and the game logic.
+ */
+public final class LoopbackConnection {
+    /**
+     * Size of the buffer of each direction
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    private final LoopbackEndpoint firstEnd;
+    private final LoopbackEndpoint secondEnd;
+
+    public LoopbackConnection() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public LoopbackConnection(int bufferSize) {
+        final ByteRingBuffer firstToSecond = new ByteRingBuffer(bufferSize);
+        final ByteRingBuffer secondToFirst = new ByteRingBuffer(bufferSize);
+        this.firstEnd = new LoopbackEndpoint(secondToFirst, firstToSecond);
+        this.secondEnd = new LoopbackEndpoint(firstToSecond, secondToFirst);
+    }
+
+    /**
+     * Starts the protocol of both engines on a new loopback connection
+     * @return the connection, e.g. to close it
+     */
+    public static LoopbackConnection connect(TCPProtocolEngine first, TCPProtocolEngine second) {
+        final LoopbackConnection connection = new LoopbackConnection();
+        first.handleConnection(connection.firstEnd.getInputStream(), connection.firstEnd.getOutputStream());
+        second.handleConnection(connection.secondEnd.getInputStream(), connection.secondEnd.getOutputStream());
+        return connection;
+    }
+
+    public LoopbackEndpoint getFirstEnd() {
+        return this.firstEnd;
+    }
+
+    public LoopbackEndpoint getSecondEnd() {
+        return this.secondEnd;
+    }
+
+    /**
+     * Closes both ends
+     */
+    public void close() {
+        this.firstEnd.close();
+        this.secondEnd.close();
+    }
+}
@@ -0,0 +1,99 @@
+package network;
+
+import network.io.BoundedOutputStream;
+import network.io.ByteRingBuffer;
+import network.io.OverflowPolicy;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * One end of a {@link LoopbackConnection}. Like a socket it offers a blocking input stream, which ends when the
+ * connection is closed, and an output stream to the other end.
+ */
+public final class LoopbackEndpoint {
+    private final ByteRingBuffer inbound;
+    private final ByteRingBuffer outbound;
+    private final InputStream inputStream = new EndpointInputStream();
+    private final BoundedOutputStream outputStream;
+
+    LoopbackEndpoint(ByteRingBuffer inbound, ByteRingBuffer outbound) {
+        this.inbound = inbound;
+        this.outbound = outbound;
+        this.outputStream = new EndpointOutputStream(outbound);
+    }
+
+    public InputStream getInputStream() {
+        return this.inputStream;
+    }
+
+    /**
+     * @return the stream to the other end. By default it blocks while the other end doesn't read.
+     */
+    public BoundedOutputStream getOutputStream() {
+        return this.outputStream;
+    }
+
+    public boolean isOpen() {
+        return !this.outbound.isClosed();
+    }
+
+    /**
+     * Closes the connection in both directions. The other end can still read what was sent before.
+     */
+    public void close() {
+        this.inbound.close();
+        this.outbound.close();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  streams                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private class EndpointInputStream extends InputStream {
+        private final byte[] single = new byte[1];
+
+        @Override
+        public int read() throws IOException {
+            final int n = this.read(this.single, 0, 1);
+            return n < 0 ? -1 : this.single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return inbound.take(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            return inbound.size();
+        }
+
+        @Override
+        public void close() {
+            LoopbackEndpoint.this.close();
+        }
+    }
+
+    private class EndpointOutputStream extends BoundedOutputStream {
+        EndpointOutputStream(ByteRingBuffer outbound) {
+            super(outbound, OverflowPolicy.BLOCK);
+        }
+
+        @Override
+        protected void dataQueued() {
+            //the reader of the other end waits for data by itself
+        }
+
+        @Override
+        protected void overflowed() {
+            LoopbackEndpoint.this.close();
+        }
+
+        @Override
+        public void close() {
+            LoopbackEndpoint.this.close();
+        }
+    }
+}
@@ -4,31 +4,123 @@ import maumau.board.ProvokedEmptyDeckException;
 import maumau.board.deck.MauMauDeck;
 import maumau.cards.Card;
 import maumau.cards.CardColor;
-import maumau.cards.CardType;
-import maumau.cards.MauMauCard;
+import logging.Logger;
 import maumau.player.*;
+import network.io.BoundedOutputStream;
+import network.io.OutboundQueue;
+import network.io.OverflowPolicy;
+import network.journal.GameJournal;
+import network.journal.JournalSession;
 
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 public class MauMauTCPProtocolEngine implements TCPProtocolEngine, Runnable {
+    private static final Logger LOG = Logger.getLogger(MauMauTCPProtocolEngine.class);
+
+    /**
+     * Every value is sent as 4-byte int, a card consists of two ints (color and type)
+     */
+    public static final int PROTOCOL_VERSION_LEGACY = 1;
+
+    /**
+     * A card is sent as one byte, the method and the wished color share one header byte
+     */
+    public static final int PROTOCOL_VERSION_COMPACT = 2;
+
+    /**
+     * Every message is a length-prefixed frame with a type and a sequence number (see {@link FramedMessageCodec})
+     */
+    public static final int PROTOCOL_VERSION_FRAMED = 3;
+
+    /**
+     * Framed like {@link #PROTOCOL_VERSION_FRAMED}, but open sevens are answered within one move: a draw takes the
+     * whole penalty and another card is played after the penalty was drawn. The remote engine draws the penalty when
+     * it gets the move. Before, a draw took a single card and another card closed the stack without a penalty.
+     */
+    public static final int PROTOCOL_VERSION_SEVEN_PENALTY = 4;
+
+    public static final int LATEST_PROTOCOL_VERSION = PROTOCOL_VERSION_SEVEN_PENALTY;
+
+    public static final long DEFAULT_HEARTBEAT_INTERVAL_IN_MILLIS = 5_000;
+    public static final long DEFAULT_IDLE_TIMEOUT_IN_MILLIS = 20_000;
+
+    //at a table with more than two seats a move may overtake the moves before it, it waits this long for its turn
+    private static final long MOVE_ORDER_TIMEOUT_IN_MILLIS = 10_000;
+
+    //separates the name and the protocol version in the hello. A player name doesn't contain it, so the plain name a
+    //baseline engine sends as hello never does either
+    private static final char HELLO_VERSION_SEPARATOR = '\u0000';
+
+    //stands in for the stream while there is no connection, moves are only kept for the replay then
+    private static final DataOutputStream DISCONNECTED = new DataOutputStream(OutputStream.nullOutputStream());
 
     private final RemoteChangeablePlayer player;
     private final String playerName;
+    private final int maxProtocolVersion;
     private final List<GameSessionEstablishedListener> gameSessionEstablishedListenerList;
+    private final List<ConnectionLostListener> connectionLostListenerList;
 
     private InputStream is;
-    private OutputStream os;
+    private BoundedOutputStream os;
+    private DataInputStream dis;
+    private DataOutputStream dos = DISCONNECTED;
+
+    //moves of the local player and acknowledgements of the protocol thread are written concurrently
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    //the negotiated protocol version and its codec
+    private int protocolVersion;
+    private MessageCodec codec;
+    private final ProtocolMessage receivedMessage = new ProtocolMessage();
 
-    private Thread protocolThread;
+    private Future<?> protocolTask;
 
     private String partnerName;
+    //-1 for the other seat of a two-player table
+    private int remoteSeat = -1;
+    //0 as long as no session was established
+    private long sessionId;
+    private volatile boolean connected;
+
+    //heartbeats and timeouts, only used with the framed protocol
+    private long heartbeatIntervalInMillis = DEFAULT_HEARTBEAT_INTERVAL_IN_MILLIS;
+    private long idleTimeoutInMillis = DEFAULT_IDLE_TIMEOUT_IN_MILLIS;
+    private long turnTimeoutInMillis = 0;
+    private volatile long lastWriteNanos;
+    //0 while the local player is on turn
+    private volatile long remoteTurnStartedNanos;
+    //timeouts of an old connection see that they are outdated
+    private volatile int connectionNumber;
+
+    //a slow remote engine fills this queue instead of blocking the thread of the local player
+    private int outboundQueueCapacity = OutboundQueue.DEFAULT_CAPACITY;
+    private OverflowPolicy outboundOverflowPolicy = OverflowPolicy.DISCONNECT;
+
+    //records the moves of the session if a journal is set
+    private GameJournal journal;
+    private volatile JournalSession journalSession;
 
     public MauMauTCPProtocolEngine(RemoteChangeablePlayer player, String playerName) {
+        this(player, playerName, LATEST_PROTOCOL_VERSION);
+    }
+
+    /**
+     * @param maxProtocolVersion the highest protocol version this engine offers to the remote engine.
+     *                           The remote engine may choose a lower one.
+     */
+    public MauMauTCPProtocolEngine(RemoteChangeablePlayer player, String playerName, int maxProtocolVersion) {
         this.player = player;
         this.playerName = playerName;
+        this.maxProtocolVersion = maxProtocolVersion;
         this.gameSessionEstablishedListenerList = new ArrayList<>();
+        this.connectionLostListenerList = new ArrayList<>();
     }
 
     @Override
@@ -36,87 +128,157 @@ public class MauMauTCPProtocolEngine implements TCPProtocolEngine, Runnable {
         this.gameSessionEstablishedListenerList.add(listener);
     }
 
+    @Override
+    public void subscribeConnectionLostListener(ConnectionLostListener listener) {
+        this.connectionLostListenerList.add(listener);
+    }
+
     private void notifyListeners(String partnerName) {
         for(GameSessionEstablishedListener listener : this.gameSessionEstablishedListenerList) {
-            new Thread(() -> listener.gameSessionEstablished(partnerName)).start();
+            ProtocolThreads.execute(() -> listener.gameSessionEstablished(partnerName));
+        }
+    }
+
+    private void notifyConnectionLost(boolean resumable) {
+        for(ConnectionLostListener listener : this.connectionLostListenerList) {
+            ProtocolThreads.execute(() -> listener.connectionLost(resumable));
         }
     }
 
     @Override
     public void handleConnection(InputStream is, OutputStream os) {
+        if(this.codec != null && !this.canResumeSession()) {
+            //the old session can't be continued, the handshake starts a new one
+            this.codec = null;
+            this.sessionId = 0;
+        }
         this.is = is;
-        this.os = os;
+        //streams of the game server are queued already
+        this.os = os instanceof BoundedOutputStream queued ? queued
+                : new OutboundQueue(os, this.outboundQueueCapacity, this.outboundOverflowPolicy);
 
-        this.protocolThread = new Thread(this);
-        this.protocolThread.start();
+        this.protocolTask = ProtocolThreads.submit(this);
     }
 
     @Override
-    public void run() {
-        this.log("protocol engine started");
+    public boolean canResumeSession() {
+        return !this.connected && this.sessionId != 0 && this.codec instanceof FramedMessageCodec;
+    }
 
-        DataInputStream dis = new DataInputStream(this.is);
-        DataOutputStream dos = new DataOutputStream(this.os);
+    /**
+     * @param heartbeatIntervalInMillis after this time without sending anything the engine sends a heartbeat
+     */
+    public void setHeartbeatInterval(long heartbeatIntervalInMillis) {
+        this.heartbeatIntervalInMillis = heartbeatIntervalInMillis;
+    }
 
-        //exchange names
-        try {
-            dos.writeUTF(this.playerName);
-            this.partnerName = dis.readUTF();
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * @param idleTimeoutInMillis after this time without receiving anything - not even a heartbeat - the connection
+     *                            is closed. The session can be resumed afterwards.
+     */
+    public void setIdleTimeout(long idleTimeoutInMillis) {
+        this.idleTimeoutInMillis = idleTimeoutInMillis;
+    }
+
+    /**
+     * @param turnTimeoutInMillis after this time without a move of the remote player, counted from the end of the
+     *                            local player's turn, the connection is closed. 0 waits forever.
+     */
+    public void setTurnTimeout(long turnTimeoutInMillis) {
+        this.turnTimeoutInMillis = turnTimeoutInMillis;
+    }
+
+    /**
+     * Configures the queue between the local player and streams of new connections which aren't queued already.
+     * With {@link OverflowPolicy#DISCONNECT} a stalled remote engine loses the connection instead of stalling the
+     * game; a framed session can be resumed afterwards.
+     * @param capacity the number of bytes which may wait to be sent
+     */
+    public void setOutboundQueue(int capacity, OverflowPolicy overflowPolicy) {
+        this.outboundQueueCapacity = capacity;
+        this.outboundOverflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Records the sessions of this engine - the initial board and every move of both players - in a journal, which
+     * may be shared with other engines. Must be set before the connection is handled.
+     * At a table with more than two seats an engine only sees the moves of its remote seat, so the journal is set on
+     * the {@link TableProtocolEngine} of the player there.
+     * @throws IllegalStateException if the player sits at a table with more than two seats
+     */
+    public void setJournal(GameJournal journal) {
+        if(this.player.getNumberOfSeats() > 2) {
+            throw new IllegalStateException("at a table with " + this.player.getNumberOfSeats()
+                    + " seats the journal is set on the table protocol engine");
         }
+        this.journal = journal;
+    }
+
+    /**
+     * @return the queue of the current connection - e.g. for its depth -, null before the first connection
+     */
+    public BoundedOutputStream getOutboundQueue() {
+        return this.os;
+    }
+
+    /**
+     * Sets the seat of the remote player at a table with more than two seats, where every player has one engine per
+     * other seat (see {@link TableProtocolEngine})
+     */
+    public void setRemoteSeat(int remoteSeat) {
+        this.remoteSeat = remoteSeat;
+    }
+
+    public int getRemoteSeat() {
+        if(this.remoteSeat >= 0) {
+            return this.remoteSeat;
+        }
+        return this.player.hasFirstTurn() ? 1 : 0;
+    }
+
+    /**
+     * @return the id both engines agreed on, 0 if no session was established or the protocol version has no sessions
+     */
+    public long getSessionId() {
+        return this.sessionId;
+    }
 
+    @Override
+    public void run() {
+        this.log("protocol engine started");
+
+        final boolean resumed;
+        this.writeLock.lock();
         try {
-            //the first player sends his board to the other player
-            if(this.player.hasFirstTurn()) {
-                System.out.println("I'm here");
-                //send the deck
-                final int numberOfCardsToSend = this.player.getDeck().getDeckAsList().size();
-                dos.writeInt(numberOfCardsToSend);
-                for(int i = 0; i < numberOfCardsToSend; i++) {
-                    dos.writeInt(this.getIntForColor(this.player.getDeck().getDeckAsList().get(i).getColor()));
-                    System.out.print("Sending: " + this.player.getDeck().getDeckAsList().get(i).getColor().toString());
-                    dos.writeInt(this.getIntForType(this.player.getDeck().getDeckAsList().get(i).getType()));
-                    System.out.print(" | " + this.player.getDeck().getDeckAsList().get(i).getType().toString() + "\n");
-                }
-
-                //send the discard pile card
-                dos.writeInt(this.getIntForColor(this.player.getDiscardPileCard().getColor()));
-                dos.writeInt(this.getIntForType(this.player.getDiscardPileCard().getType()));
-                System.out.println("Sending DPC: " + this.player.getDiscardPileCard().getColor() + " | " + this.player.getDiscardPileCard().getType());
-
-            } else {
-                System.out.println("And I'm here");
-                //receive the deck
-                final int numberOfCardsToRead = dis.readInt();
-                final List<Card> remoteDeck = new ArrayList<>();
-
-                CardColor currentCardColor;
-                CardType currentCardType;
-
-                for(int i = 0; i < numberOfCardsToRead; i++) {
-                    currentCardColor = this.getColorFromInt(dis.readInt());
-                    System.out.print("Received: " + currentCardColor.toString());
-                    currentCardType = this.getTypeFromInt(dis.readInt());
-                    System.out.print(" | " + currentCardType.toString() + "\n");
-                    remoteDeck.add(new MauMauCard(currentCardColor, currentCardType));
-                }
-
-                //receive the discard pile card
-                CardColor DPCcolor = this.getColorFromInt(dis.readInt());
-                CardType DPCType = this.getTypeFromInt(dis.readInt());
-                System.out.println("Received DPC: " + DPCcolor + " | " + DPCType);
-                Card discardPileCard = new MauMauCard(DPCcolor, DPCType);
-
-                this.player.synchronizeDeck(new MauMauDeck(remoteDeck));
-                this.player.synchronizeFirstDiscardPileCard(discardPileCard);
+            //buffered, so a message leaves in one write when the engine flushes at the end of a turn
+            this.dis = new DataInputStream(new BufferedInputStream(this.is));
+            this.dos = new DataOutputStream(new BufferedOutputStream(this.os));
+
+            resumed = this.exchangeHello();
+            if(!resumed) {
+                this.synchronizeBoard();
+                this.openJournalSession();
             }
+            this.connected = true;
         } catch (IOException e) {
-            e.printStackTrace();
+            this.logError("establishing the session failed", e);
+            this.dos = DISCONNECTED;
+            this.closeStreams();
+            this.notifyConnectionLost(this.canResumeSession());
+            return;
+        } finally {
+            this.writeLock.unlock();
         }
 
-
-        this.notifyListeners(this.partnerName);
+        if(resumed) {
+            this.log("session resumed");
+        } else {
+            this.startRemoteTurn();
+            this.notifyListeners(this.partnerName);
+        }
+        if(this.codec instanceof FramedMessageCodec framedCodec) {
+            this.startTimers(framedCodec);
+        }
 
         try {
             boolean again = true;
@@ -124,22 +286,306 @@ public class MauMauTCPProtocolEngine implements TCPProtocolEngine, Runnable {
                 again = this.read();
             }
         } catch (IOException e) {
+            this.logError("connection lost: " + e.getMessage());
+        }
+
+        this.writeLock.lock();
+        try {
+            this.connected = false;
+            this.dos = DISCONNECTED;
+        } finally {
+            this.writeLock.unlock();
+        }
+        this.closeStreams();
+
+        final boolean resumable = this.canResumeSession();
+        if(resumable) {
+            this.log("session can be resumed on a new connection");
+        } else {
             this.logError("exception was thrown in protocol engine - fatal error");
         }
+        this.notifyConnectionLost(resumable);
+    }
+
+    /**
+     * Exchanges names, the highest protocol version each side supports and - since the framed version - the session.
+     * The version rides along with the name in one string, because a baseline engine reads nothing but the name
+     * before the board. A hello without a version comes from such an engine, both sides use the first version then.
+     * @return true if a lost session was resumed
+     */
+    private boolean exchangeHello() throws IOException {
+        //an engine limited to the first version says hello like a baseline engine
+        this.dos.writeUTF(this.maxProtocolVersion == PROTOCOL_VERSION_LEGACY ? this.playerName
+                : this.playerName + HELLO_VERSION_SEPARATOR + this.maxProtocolVersion);
+        this.flush();
+        final String partnerHello = this.dis.readUTF();
+        final int separator = partnerHello.lastIndexOf(HELLO_VERSION_SEPARATOR);
+        final int partnerProtocolVersion;
+        if(separator < 0) {
+            this.partnerName = partnerHello;
+            partnerProtocolVersion = PROTOCOL_VERSION_LEGACY;
+        } else {
+            this.partnerName = partnerHello.substring(0, separator);
+            try {
+                partnerProtocolVersion = Integer.parseInt(partnerHello.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                throw new IOException("malformed hello of the remote engine");
+            }
+        }
+
+        //both sides choose the highest version both of them support
+        final int protocolVersion = Math.min(this.maxProtocolVersion, partnerProtocolVersion);
+        if(protocolVersion < PROTOCOL_VERSION_FRAMED && this.player.getNumberOfSeats() > 2) {
+            //a move lost on one connection would leave the other seats waiting for it
+            throw new IOException("a table with " + this.player.getNumberOfSeats()
+                    + " seats needs resumable sessions, the remote engine only supports protocol version "
+                    + partnerProtocolVersion);
+        }
+        if(this.codec == null) {
+            this.protocolVersion = protocolVersion;
+            this.codec = this.createCodec(protocolVersion);
+            this.log("using protocol version " + protocolVersion);
+            if(protocolVersion < PROTOCOL_VERSION_SEVEN_PENALTY) {
+                //the remote engine takes the penalty of open sevens the old way
+                this.player.useLegacySevenRule();
+            }
+        } else if(this.protocolVersion != protocolVersion) {
+            throw new IOException("session can't be resumed with protocol version " + protocolVersion);
+        }
+
+        if(this.codec instanceof FramedMessageCodec framedCodec) {
+            return this.exchangeSession(framedCodec);
+        }
+        return false;
+    }
 
+    /**
+     * The player with the lower seat chooses the id of a new session. To resume a session both engines send its id and the
+     * last frame they received, then each engine sends the moves the other one missed.
+     * @return true if a lost session was resumed
+     */
+    private boolean exchangeSession(FramedMessageCodec framedCodec) throws IOException {
+        final boolean resuming = this.sessionId != 0;
+        final boolean leading = this.player.getTurnPosition() < this.getRemoteSeat();
+        final long offeredSessionId = resuming || !leading ? this.sessionId : newSessionId();
+
+        framedCodec.writeHello(this.dos, offeredSessionId);
+        this.flush();
+        framedCodec.readHello(this.dis);
+        final long partnerSessionId = framedCodec.getPartnerSessionId();
+
+        if(!resuming) {
+            if(framedCodec.getPartnerLastReceivedSequence() != -1) {
+                throw new IOException("remote engine wants to resume a session this engine doesn't know");
+            }
+            if(offeredSessionId != 0 && partnerSessionId != 0 && offeredSessionId != partnerSessionId) {
+                throw new IOException("both engines started a different session");
+            }
+            this.sessionId = offeredSessionId != 0 ? offeredSessionId : partnerSessionId;
+            if(this.sessionId == 0) {
+                throw new IOException("no engine started a session");
+            }
+            this.logDebug(() -> "session " + Long.toHexString(this.sessionId) + " started");
+            return false;
+        }
+
+        if(partnerSessionId != this.sessionId) {
+            throw new IOException("remote engine doesn't know session " + Long.toHexString(this.sessionId));
+        }
+        framedCodec.replayMissedFrames(this.dos);
+        this.flush();
+        return true;
     }
 
-    private boolean read() throws IOException {
-        DataInputStream dis = new DataInputStream(this.is);
+    private static long newSessionId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while(id == 0);
+        return id;
+    }
+
+    /**
+     * The first player sends his board to the other player
+     */
+    private void synchronizeBoard() throws IOException {
+        if(this.player.hasFirstTurn()) {
+            //send the deck
+            //the list is created on demand, so it's only requested once
+            final List<Card> deckToSend = this.player.getDeck().getDeckAsList();
+            this.codec.writeDeck(this.dos, deckToSend);
+            this.logDebug(() -> "sent deck: " + deckToSend);
+
+            //send the discard pile card
+            final Card discardPileCard = this.player.getDiscardPileCard();
+            this.codec.writeCard(this.dos, discardPileCard);
+            this.logDebug(() -> "sent discard pile card: " + discardPileCard);
+
+            //the whole board leaves in one write
+            this.flush();
+
+        } else if(this.getRemoteSeat() == 0) {
+            //receive the deck
+            final List<Card> remoteDeck = this.codec.readDeck(this.dis);
+            this.logDebug(() -> "received deck: " + remoteDeck);
+
+            //receive the discard pile card
+            final Card discardPileCard = this.codec.readCard(this.dis);
+            this.logDebug(() -> "received discard pile card: " + discardPileCard);
+
+            this.player.synchronizeDeck(new MauMauDeck(remoteDeck));
+            this.player.synchronizeFirstDiscardPileCard(discardPileCard);
+        }
+        //otherwise neither player has the first turn, both get the board from the first player
+    }
+
+    //after the board was synchronized, so the journal gets the deck both players start with
+    private void openJournalSession() {
+        if(this.journal != null) {
+            this.journalSession = this.journal.openSession(this.sessionId, this.player.getTurnPosition(),
+                    this.player.getNumberOfSeats(), this.player.getDeck().getDeckAsList(),
+                    this.player.getDiscardPileCard());
+        }
+    }
+
+    //write lock must be held
+    private void flush() throws IOException {
+        this.dos.flush();
+        this.lastWriteNanos = System.nanoTime();
+    }
+
+    private void closeStreams() {
+        try {
+            this.os.close();
+            this.is.close();
+        } catch (IOException ignore) {
+            //the connection is gone anyway
+        }
+    }
 
-        final int method = dis.readInt();
-        System.out.println("Method Received: " + method);
+    private boolean read() throws IOException {
+        this.codec.readMessage(this.dis, this.receivedMessage);
+        this.remoteTurnStartedNanos = 0;
+        //checked first, so that nothing is allocated for every message when debugging is disabled
+        if(LOG.isDebugEnabled()) {
+            this.logDebug(() -> "method received: " + this.receivedMessage.method);
+        }
 
-        switch (method) {
-            case 0 : this.deserializePlayCard(); return true;
-            case 1 : this.deserializeDraw(); return true;
+        switch (this.receivedMessage.method) {
+            case ProtocolMessage.METHOD_PLAY : this.deserializePlayCard(this.receivedMessage); break;
+            case ProtocolMessage.METHOD_DRAW : this.deserializeDraw(); break;
             default: return false;
         }
+
+        //the remote player made many moves in a row, so the local player can't acknowledge them with his next move
+        if(this.codec.needsAcknowledgement()) {
+            this.writeLock.lock();
+            try {
+                this.codec.writeAcknowledgement(this.dos);
+                this.flush();
+            } finally {
+                this.writeLock.unlock();
+            }
+        }
+        return true;
+    }
+
+    private MessageCodec createCodec(int protocolVersion) {
+        if(protocolVersion >= PROTOCOL_VERSION_FRAMED) {
+            return new FramedMessageCodec();
+        }
+        if(protocolVersion >= PROTOCOL_VERSION_COMPACT) {
+            return new CompactMessageCodec();
+        }
+        return new LegacyMessageCodec();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                    timers                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Schedules heartbeat, idle and turn checks for the current connection on the shared timing wheel.
+     * A check reschedules itself for the moment the next check could fail, so nothing is rescheduled per message.
+     */
+    private void startTimers(FramedMessageCodec framedCodec) {
+        final int connection = ++this.connectionNumber;
+        this.lastWriteNanos = System.nanoTime();
+
+        if(this.heartbeatIntervalInMillis > 0) {
+            this.scheduleCheck(() -> this.checkHeartbeat(connection, framedCodec), this.heartbeatIntervalInMillis);
+        }
+        if(this.idleTimeoutInMillis > 0) {
+            this.scheduleCheck(() -> this.checkIdle(connection, framedCodec), this.idleTimeoutInMillis);
+        }
+        if(this.turnTimeoutInMillis > 0) {
+            this.scheduleCheck(() -> this.checkTurn(connection), this.turnTimeoutInMillis);
+        }
+    }
+
+    private void scheduleCheck(Runnable check, long delayInMillis) {
+        ProtocolThreads.timer().schedule(check, delayInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isCurrentConnection(int connection) {
+        return this.connected && this.connectionNumber == connection;
+    }
+
+    private void checkHeartbeat(int connection, FramedMessageCodec framedCodec) {
+        if(!this.isCurrentConnection(connection)) {
+            return;
+        }
+
+        final long silentMillis = (System.nanoTime() - this.lastWriteNanos) / 1_000_000;
+        if(silentMillis < this.heartbeatIntervalInMillis) {
+            this.scheduleCheck(() -> this.checkHeartbeat(connection, framedCodec), this.heartbeatIntervalInMillis - silentMillis);
+            return;
+        }
+
+        this.writeLock.lock();
+        try {
+            framedCodec.writeHeartbeat(this.dos);
+            this.flush();
+        } catch (IOException e) {
+            //the protocol thread notices the broken connection
+            this.logDebug(() -> "sending a heartbeat failed: " + e.getMessage());
+        } finally {
+            this.writeLock.unlock();
+        }
+        this.scheduleCheck(() -> this.checkHeartbeat(connection, framedCodec), this.heartbeatIntervalInMillis);
+    }
+
+    private void checkIdle(int connection, FramedMessageCodec framedCodec) {
+        if(!this.isCurrentConnection(connection)) {
+            return;
+        }
+
+        final long silentMillis = (System.nanoTime() - framedCodec.getLastFrameNanos()) / 1_000_000;
+        if(silentMillis < this.idleTimeoutInMillis) {
+            this.scheduleCheck(() -> this.checkIdle(connection, framedCodec), this.idleTimeoutInMillis - silentMillis);
+            return;
+        }
+
+        this.logError("remote engine is silent for " + silentMillis + " ms - closing the connection");
+        //the protocol thread stops reading and reports the lost connection
+        this.closeStreams();
+    }
+
+    private void checkTurn(int connection) {
+        if(!this.isCurrentConnection(connection)) {
+            return;
+        }
+
+        final long turnStarted = this.remoteTurnStartedNanos;
+        final long turnMillis = turnStarted == 0 ? 0 : (System.nanoTime() - turnStarted) / 1_000_000;
+        if(turnMillis < this.turnTimeoutInMillis) {
+            this.scheduleCheck(() -> this.checkTurn(connection), this.turnTimeoutInMillis - turnMillis);
+            return;
+        }
+
+        this.logError("remote player didn't move for " + turnMillis + " ms - closing the connection");
+        this.closeStreams();
     }
 
 
@@ -163,147 +609,156 @@ public class MauMauTCPProtocolEngine implements TCPProtocolEngine, Runnable {
     //                                                serialization                                                   //
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private final static int METHOD_PLAY = 0;
-    private final static int METHOD_DRAW = 1;
-
-    private final static int WISHED_COLOR_IS_NULL_INT = 4;
-
     private void serializePlayCard(Card card, CardColor wishedColor) {
-        DataOutputStream dos = new DataOutputStream(this.os);
-
+        this.writeLock.lock();
         try {
-            dos.writeInt(METHOD_PLAY);
-            dos.writeInt(this.getIntForColor(card.getColor()));
-            dos.writeInt(this.getIntForType(card.getType()));
-
-            if(wishedColor != null) {
-                dos.writeInt(this.getIntForColor(wishedColor));
-            } else {
-                dos.writeInt(WISHED_COLOR_IS_NULL_INT);
+            //the move is made even if it can't be sent
+            this.journalPlay(this.player.getTurnPosition(), card, wishedColor);
+            if(this.checkSessionStarted()) {
+                //the acknowledgement of the received moves rides along with the move
+                this.codec.writeAcknowledgement(this.dos);
+                this.codec.writePlayCard(this.dos, card, wishedColor);
+                //playing a card ends the turn
+                this.flush();
+                this.startRemoteTurn();
             }
-
-
         } catch (IOException e) {
-            e.printStackTrace();
+            this.sendingFailed("sending a played card failed", e);
+        } finally {
+            this.writeLock.unlock();
         }
     }
 
     private void serializeDraw() {
-        DataOutputStream dos = new DataOutputStream(this.os);
-
+        this.writeLock.lock();
         try {
-            dos.writeInt(METHOD_DRAW);
+            this.journalDraw(this.player.getTurnPosition());
+            if(this.checkSessionStarted()) {
+                this.codec.writeAcknowledgement(this.dos);
+                this.codec.writeDraw(this.dos);
+                //drawing a card ends the turn
+                this.flush();
+                this.startRemoteTurn();
+            }
         } catch (IOException e) {
-            e.printStackTrace();
+            this.sendingFailed("sending a drawn card failed", e);
+        } finally {
+            this.writeLock.unlock();
         }
     }
 
-
-    private int getIntForColor(CardColor color) {
-        return switch (color) {
-            case CLUBS -> 0;
-            case SPADES -> 1;
-            case HEART -> 2;
-            case DIAMONDS -> 3;
-        };
+    private boolean checkSessionStarted() {
+        if(this.codec == null) {
+            this.logError("no connection to the remote engine yet - the move isn't sent");
+            return false;
+        }
+        return true;
     }
 
-    private int getIntForType(CardType type) {
-        return switch (type) {
-            case TWO -> 2;
-            case THREE -> 3;
-            case FOUR -> 4;
-            case FIVE -> 5;
-            case SIX -> 6;
-            case SEVEN -> 7;
-            case EIGHT -> 8;
-            case NINE -> 9;
-            case TEN -> 10;
-            case JACK -> 11;
-            case QUEEN -> 12;
-            case KING -> 13;
-            case ACE -> 14;
-        };
+    private void sendingFailed(String message, IOException e) {
+        if(this.codec instanceof FramedMessageCodec) {
+            //the move is in the replay buffer
+            this.log(message + " - it's sent again when the session is resumed");
+        } else {
+            this.logError(message, e);
+        }
+        //the reading thread may not notice a broken connection before the next timeout, so the connection lost
+        //listeners learn about the seat now - at a bigger table the other seats would wait for the move otherwise
+        this.closeStreams();
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     //                                               deserialization                                                  //
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private void deserializePlayCard() throws IOException {
-        DataInputStream dis = new DataInputStream(this.is);
-
-        final int cardColorInt = dis.readInt();
-        final int cardTypeInt = dis.readInt();
-        final int wishedColorInt = dis.readInt();
-
-        final CardColor color = this.getColorFromInt(cardColorInt);
-        final CardType type = this.getTypeFromInt(cardTypeInt);
-        final CardColor wishedColor = wishedColorInt == WISHED_COLOR_IS_NULL_INT ? null : this.getColorFromInt(wishedColorInt);
-
-        final Card card = new MauMauCard(color,type);
+    private void deserializePlayCard(ProtocolMessage message) throws IOException {
+        this.awaitRemoteTurn();
+        final Card card = message.card;
+        int skippedSeats = 0;
+        this.journalPlay(this.getRemoteSeat(), card, message.wishedColor);
 
         this.player.updateDiscardPile(card);
 
-        switch (type) {
+        switch (card.getType()) {
             case SEVEN -> this.player.incrementSevenStackCount();
-            case EIGHT -> this.player.incrementCurrentPlayerIndex();
-            case JACK -> this.player.updateLastWishedColor(wishedColor);
-            default -> {
-                this.player.resetSevenStackCount();
-            }
+            case EIGHT -> skippedSeats = 1;
+            case JACK -> this.player.updateLastWishedColor(message.wishedColor);
+            default -> this.player.takeSevenPenalty();
         }
 
-        this.player.incrementCurrentPlayerIndex();
+        this.player.passTurn(skippedSeats);
 
         this.player.notifyBoardChanged();
     }
 
-    private void deserializeDraw() {
+    private void deserializeDraw() throws IOException {
+        this.awaitRemoteTurn();
+        this.journalDraw(this.getRemoteSeat());
         this.player.updateDeck();
-        this.player.incrementCurrentPlayerIndex();
-    }
-
-    private CardColor getColorFromInt(int color) {
-        return switch (color) {
-            case 0 -> CardColor.CLUBS;
-            case 1 -> CardColor.SPADES;
-            case 2 -> CardColor.HEART;
-            case 3 -> CardColor.DIAMONDS;
-            default -> throw new IllegalStateException("Unexpected value: " + color);
-        };
-    }
-
-    private CardType getTypeFromInt(int type) {
-        return switch (type) {
-            case 2 -> CardType.TWO;
-            case 3 -> CardType.THREE;
-            case 4 -> CardType.FOUR;
-            case 5 -> CardType.FIVE;
-            case 6 -> CardType.SIX;
-            case 7 -> CardType.SEVEN;
-            case 8 -> CardType.EIGHT;
-            case 9 -> CardType.NINE;
-            case 10 -> CardType.TEN;
-            case 11 -> CardType.JACK;
-            case 12 -> CardType.QUEEN;
-            case 13 -> CardType.KING;
-            case 14 -> CardType.ACE;
-            default -> throw new IllegalStateException("Unexpected value: " + type);
-        };
-    }
-    
+        this.player.passTurn(0);
+    }
+
+    /**
+     * At a table with more than two seats the move of the previous player may still be on its way on another
+     * connection. Two players always see their moves in order.
+     */
+    private void awaitRemoteTurn() throws IOException {
+        if(this.player.getNumberOfSeats() == 2) {
+            return;
+        }
+        try {
+            if(!this.player.awaitTurnOf(this.getRemoteSeat(), MOVE_ORDER_TIMEOUT_IN_MILLIS)) {
+                throw new IOException("move of seat " + this.getRemoteSeat() + " arrived out of turn");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the turn of the remote player");
+        }
+    }
+
+    //the turn timeout only runs while the remote player is on turn
+    private void startRemoteTurn() {
+        this.remoteTurnStartedNanos = this.player.getCurrentSeat() == this.getRemoteSeat() ? System.nanoTime() : 0;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                    journal                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void journalPlay(int seat, Card card, CardColor wishedColor) {
+        final JournalSession session = this.journalSession;
+        if(session != null) {
+            session.recordPlay(seat, card, wishedColor);
+        }
+    }
+
+    private void journalDraw(int seat) {
+        final JournalSession session = this.journalSession;
+        if(session != null) {
+            session.recordDraw(seat);
+        }
+    }
+
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     //                                                    logging                                                     //
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     private void log(String message) {
-        System.out.println(this.produceLogString(message));
+        LOG.info(() -> this.produceLogString(message));
+    }
+
+    private void logDebug(Supplier<String> message) {
+        LOG.debug(() -> this.produceLogString(message.get()));
     }
 
     private void logError(String message) {
-        System.err.println(this.produceLogString(message));
+        LOG.error(this.produceLogString(message));
+    }
+
+    private void logError(String message, Throwable cause) {
+        LOG.error(this.produceLogString(message), cause);
     }
 
     private String produceLogString(String message) {
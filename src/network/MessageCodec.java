@@ -0,0 +1,55 @@
+package network;
+
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encodes and decodes the messages of the MauMau protocol.
+ * Which codec is used is negotiated by the protocol engines when the connection is established.
+ */
+interface MessageCodec {
+
+    /**
+     * @return the protocol version this codec implements
+     */
+    int getVersion();
+
+    void writeDeck(DataOutputStream dos, List<Card> deck) throws IOException;
+
+    List<Card> readDeck(DataInputStream dis) throws IOException;
+
+    void writeCard(DataOutputStream dos, Card card) throws IOException;
+
+    Card readCard(DataInputStream dis) throws IOException;
+
+    /**
+     * @param wishedColor the wished color, null if no color was wished
+     */
+    void writePlayCard(DataOutputStream dos, Card card, CardColor wishedColor) throws IOException;
+
+    void writeDraw(DataOutputStream dos) throws IOException;
+
+    /**
+     * Reads the next message.
+     * @param message the message to fill, its method is set to the received method even if the method is unknown
+     */
+    void readMessage(DataInputStream dis, ProtocolMessage message) throws IOException;
+
+    /**
+     * Confirms the received messages to the remote engine if the protocol version knows acknowledgements
+     */
+    default void writeAcknowledgement(DataOutputStream dos) throws IOException {
+    }
+
+    /**
+     * @return true if so many messages were received that they should be acknowledged right away
+     */
+    default boolean needsAcknowledgement() {
+        return false;
+    }
+}
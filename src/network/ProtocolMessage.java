@@ -0,0 +1,27 @@
+package network;
+
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+
+/**
+ * A message received from the remote player.
+ * The protocol engine reuses one instance for every message, so reading a message doesn't allocate anything.
+ */
+class ProtocolMessage {
+    static final int METHOD_PLAY = 0;
+    static final int METHOD_DRAW = 1;
+
+    int method;
+
+    //only set if the method is METHOD_PLAY
+    Card card;
+
+    //only set if a jack was played and a color was wished, otherwise null
+    CardColor wishedColor;
+
+    void clear() {
+        this.method = -1;
+        this.card = null;
+        this.wishedColor = null;
+    }
+}
@@ -0,0 +1,104 @@
+package network;
+
+import logging.Logger;
+import network.timer.HashedTimingWheel;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor which runs the protocol engines and the listener notifications of all games in the JVM.
+ *
+ * On a runtime with virtual threads (Java 21+) every task gets its own virtual thread: a protocol engine blocked
+ * in a read parks without holding an OS thread. On older runtimes a cached pool of daemon threads is used, so threads
+ * are reused instead of created for every move.
+ *
+ * Virtual threads can be switched off with the system property "maumau.threads" (-Dmaumau.threads=platform).
+ */
+public final class ProtocolThreads {
+    private static final Logger LOG = Logger.getLogger(ProtocolThreads.class);
+
+    private static final String THREADS_PROPERTY = "maumau.threads";
+
+    private static final boolean VIRTUAL;
+    private static final ExecutorService EXECUTOR;
+
+    static {
+        ExecutorService executor = null;
+        if(!"platform".equalsIgnoreCase(System.getProperty(THREADS_PROPERTY))) {
+            executor = createVirtualThreadExecutor();
+        }
+        VIRTUAL = executor != null;
+        EXECUTOR = VIRTUAL ? executor : Executors.newCachedThreadPool(new DaemonThreadFactory());
+
+        LOG.debug(() -> VIRTUAL ? "using virtual threads" : "using a pool of platform threads");
+    }
+
+    private ProtocolThreads() {
+    }
+
+    /**
+     * Runs a task asynchronously
+     * @param task the task
+     */
+    public static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Runs a task asynchronously
+     * @param task the task
+     * @return a future which can be used to wait for the task or to interrupt it
+     */
+    public static Future<?> submit(Runnable task) {
+        return EXECUTOR.submit(task);
+    }
+
+    /**
+     * @return the timing wheel shared by all sessions for heartbeats and timeouts (100 ms precision).
+     * The tasks of expired timeouts run on this executor.
+     */
+    public static HashedTimingWheel timer() {
+        return TimerHolder.TIMER;
+    }
+
+    /**
+     * @return true if every task runs on its own virtual thread
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL;
+    }
+
+    //the project is compiled for Java 17, so the Java 21 factory method is looked up at runtime
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    //the wheel thread is only started when the first session needs it
+    private static class TimerHolder {
+        private static final HashedTimingWheel TIMER =
+                new HashedTimingWheel(100, TimeUnit.MILLISECONDS, 512, ProtocolThreads::execute);
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "maumau-protocol-" + this.threadNumber.incrementAndGet());
+            //a game must not keep the JVM alive after the UI was closed
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
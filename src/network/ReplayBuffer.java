@@ -0,0 +1,94 @@
+package network;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Keeps copies of the last sent moves until the remote engine acknowledges them, so they can be sent again after a
+ * dropped connection. The frames are stored in a fixed number of preallocated slots; when all slots are taken the
+ * oldest frame is dropped and a resumption which needs it isn't possible any more.
+ */
+final class ReplayBuffer {
+    /**
+     * The biggest frame which fits into a slot - a move frame has at most 9 bytes
+     */
+    static final int SLOT_SIZE = 16;
+
+    private final byte[][] frames;
+    private final int[] lengths;
+
+    //slot and sequence number of the oldest frame
+    private int head;
+    private int firstSequence;
+    private int count;
+
+    ReplayBuffer(int capacity) {
+        this.frames = new byte[capacity][SLOT_SIZE];
+        this.lengths = new int[capacity];
+    }
+
+    /**
+     * Stores a copy of a frame. The sequence numbers of the stored frames must follow each other without gaps.
+     */
+    synchronized void add(int sequence, byte[] frame, int length) {
+        if(length > SLOT_SIZE) {
+            throw new IllegalArgumentException("frame too big for the replay buffer: " + length);
+        }
+        if(this.count == 0) {
+            this.firstSequence = sequence;
+        } else if(sequence != this.firstSequence + this.count) {
+            throw new IllegalStateException("expected frame " + (this.firstSequence + this.count) + " but got " + sequence);
+        }
+        if(this.count == this.frames.length) {
+            this.dropOldest();
+        }
+
+        final int slot = (this.head + this.count) % this.frames.length;
+        System.arraycopy(frame, 0, this.frames[slot], 0, length);
+        this.lengths[slot] = length;
+        this.count++;
+    }
+
+    /**
+     * Drops all frames up to and including the given sequence number, the remote engine has received them
+     */
+    synchronized void acknowledge(int sequence) {
+        while(this.count > 0 && this.firstSequence <= sequence) {
+            this.dropOldest();
+        }
+    }
+
+    /**
+     * Writes all stored frames after the given sequence number
+     * @param lastReceivedSequence the last frame the remote engine received
+     * @param nextSequence the sequence number of the next frame which will be sent
+     * @throws IOException if frames the remote engine is missing were already dropped
+     */
+    synchronized void replayAfter(int lastReceivedSequence, int nextSequence, OutputStream out) throws IOException {
+        final int firstMissing = lastReceivedSequence + 1;
+        if(firstMissing > nextSequence) {
+            throw new IOException("remote engine received frame " + lastReceivedSequence + " which was never sent");
+        }
+        if(firstMissing == nextSequence) {
+            return;
+        }
+        if(this.count == 0 || firstMissing < this.firstSequence) {
+            throw new IOException("frame " + firstMissing + " can't be sent again");
+        }
+
+        for(int i = firstMissing - this.firstSequence; i < this.count; i++) {
+            final int slot = (this.head + i) % this.frames.length;
+            out.write(this.frames[slot], 0, this.lengths[slot]);
+        }
+    }
+
+    synchronized int size() {
+        return this.count;
+    }
+
+    private void dropOldest() {
+        this.head = (this.head + 1) % this.frames.length;
+        this.firstSequence++;
+        this.count--;
+    }
+}
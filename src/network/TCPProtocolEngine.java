@@ -9,5 +9,16 @@ public interface TCPProtocolEngine extends Player {
 
     void subscribeGameSessionEstablishedListener(GameSessionEstablishedListener listener);
 
+    void subscribeConnectionLostListener(ConnectionLostListener listener);
+
+    /**
+     * Starts the protocol on a connection. If the engine lost the connection of a session which can be resumed
+     * (see {@link #canResumeSession()}), the session is continued on the new connection.
+     */
     void handleConnection(InputStream is, OutputStream os);
+
+    /**
+     * @return true if the connection was lost and the remote engine can continue the session without a new board
+     */
+    boolean canResumeSession();
 }
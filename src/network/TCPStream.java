@@ -1,12 +1,19 @@
 package network;
 
+import logging.Logger;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class TCPStream implements Runnable {
+    private static final Logger LOG = Logger.getLogger(TCPStream.class);
+
     private final int port;
     private final boolean isServer;
     private final String playerName;
@@ -22,11 +29,27 @@ public class TCPStream implements Runnable {
 
     public final int WAIT_LOOP_IN_MILLIS = 30000; // 30 sec - standard wait time
 
+    public static final int DEFAULT_CONNECT_TIMEOUT_IN_MILLIS = 2000;
+    public static final int DEFAULT_INITIAL_BACKOFF_IN_MILLIS = 5;
+    public static final int DEFAULT_MAX_BACKOFF_IN_MILLIS = 1000;
+
     private TCPServer tcpServer = null;
     private TCPClient tcpClient = null;
-    private int waitInMillis = WAIT_LOOP_IN_MILLIS;
+    private int acceptTimeoutInMillis = WAIT_LOOP_IN_MILLIS;
+    private int connectTimeoutInMillis = DEFAULT_CONNECT_TIMEOUT_IN_MILLIS;
+    private long connectDeadlineInMillis = 0;
+    private int initialBackoffInMillis = DEFAULT_INITIAL_BACKOFF_IN_MILLIS;
+    private int maxBackoffInMillis = DEFAULT_MAX_BACKOFF_IN_MILLIS;
     private String remoteEngine = "localhost";
 
+    //the thread which is establishing the connection, null when it's done
+    private volatile Thread connectingThread;
+    private volatile boolean killed = false;
+
+    //connection setup metrics
+    private volatile int connectionAttempts;
+    private volatile long setupTimeInNanos = -1;
+
 
 
 
@@ -51,12 +74,11 @@ public class TCPStream implements Runnable {
 
     @Override
     public void run() {
+        this.connectingThread = Thread.currentThread();
+        final long start = System.nanoTime();
         try {
             if(this.isServer) {
-                StringBuilder sb = new StringBuilder();
-                sb.append(this.getClass().getSimpleName());
-                sb.append(": note: this implementation will only accept *one* connection attempt as server");
-                System.out.println(sb);
+                LOG.info("note: this stream accepts *one* connection - network.server.GameServer hosts many sessions");
 
                 this.tcpServer = new TCPServer();
                 this.socket = this.tcpServer.getConnectedClientSocket();
@@ -64,12 +86,49 @@ public class TCPStream implements Runnable {
                 this.tcpClient = new TCPClient();
                 this.socket = this.tcpClient.getSocket();
             }
+            //the engine flushes whole turns, so there is nothing to gain from waiting for more data
+            this.socket.setTcpNoDelay(true);
+
+            this.setupTimeInNanos = System.nanoTime() - start;
+            LOG.info(() -> "(" + this.playerName + "): connected after " + this.connectionAttempts + " attempt(s) in "
+                    + this.getSetupTimeInMillis() + " ms");
 
             if(this.listener != null) {
                 this.listener.streamCreated(this);
             }
         } catch (IOException e) {
-            this.listener.streamCreationFailed();
+            LOG.info(() -> "(" + this.playerName + "): no connection after " + this.connectionAttempts
+                    + " attempt(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms: " + e.getMessage());
+            if(this.listener != null) {
+                this.listener.streamCreationFailed();
+            }
+        } finally {
+            this.connectingThread = null;
+            //a kill which came in during the last attempt must not stay in the interrupt flag
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Cancels establishing the connection. Waiting for a client or for the next connection attempt ends immediately
+     * and the listener is told that the stream couldn't be created.
+     */
+    public void kill() {
+        this.killed = true;
+
+        final Thread thread = this.connectingThread;
+        if(thread != null) {
+            thread.interrupt();
+        }
+        try {
+            if(this.tcpServer != null) {
+                this.tcpServer.kill();
+            }
+            if(this.tcpClient != null) {
+                this.tcpClient.kill();
+            }
+        } catch (IOException e) {
+            LOG.debug(() -> "(" + this.playerName + "): killing the connection attempt failed: " + e.getMessage());
         }
     }
 
@@ -77,7 +136,7 @@ public class TCPStream implements Runnable {
     public void checkConnected() throws IOException {
         if(this.socket == null) {
             String s = "no socket yet - should call connect first";
-            System.out.println(s);
+            LOG.warn(s);
             throw new IOException(s);
         }
     }
@@ -98,6 +157,39 @@ public class TCPStream implements Runnable {
         this.listener = listener;
     }
 
+    /**
+     * @param acceptTimeoutInMillis how long the server waits for a client, 0 waits forever
+     */
+    public void setAcceptTimeout(int acceptTimeoutInMillis) {
+        this.acceptTimeoutInMillis = acceptTimeoutInMillis;
+    }
+
+    /**
+     * @param connectTimeoutInMillis how long a single connection attempt of the client may take
+     */
+    public void setConnectTimeout(int connectTimeoutInMillis) {
+        this.connectTimeoutInMillis = connectTimeoutInMillis;
+    }
+
+    /**
+     * @param connectDeadlineInMillis how long the client keeps trying to connect, 0 tries until the stream is killed
+     */
+    public void setConnectDeadline(long connectDeadlineInMillis) {
+        this.connectDeadlineInMillis = connectDeadlineInMillis;
+    }
+
+    /**
+     * The client waits between two attempts. The wait starts at the initial backoff and doubles after every failed
+     * attempt up to the maximum; a random part of it is left out, so clients don't retry in lockstep.
+     */
+    public void setBackoff(int initialBackoffInMillis, int maxBackoffInMillis) {
+        if(initialBackoffInMillis < 1 || maxBackoffInMillis < initialBackoffInMillis) {
+            throw new IllegalArgumentException("invalid backoff: " + initialBackoffInMillis + " - " + maxBackoffInMillis);
+        }
+        this.initialBackoffInMillis = initialBackoffInMillis;
+        this.maxBackoffInMillis = maxBackoffInMillis;
+    }
+
 
 
 
@@ -120,6 +212,20 @@ public class TCPStream implements Runnable {
         return this.isServer;
     }
 
+    /**
+     * @return the number of connection attempts of the client (the server counts its accept as one attempt)
+     */
+    public int getConnectionAttempts() {
+        return this.connectionAttempts;
+    }
+
+    /**
+     * @return the time it took to establish the connection, -1 if there is no connection
+     */
+    public long getSetupTimeInMillis() {
+        return this.setupTimeInNanos < 0 ? -1 : this.setupTimeInNanos / 1_000_000;
+    }
+
 
 
 
@@ -137,74 +243,86 @@ public class TCPStream implements Runnable {
             if(this. serverSocket == null) {
                 this.serverSocket = new ServerSocket(port);
             }
+            //killed before the server socket existed
+            if(killed) {
+                this.kill();
+            }
 
-            //debug information
-            StringBuilder sb = new StringBuilder();
-            sb.append(this.getClass().getSimpleName());
-            sb.append(" (");
-            sb.append(playerName);
-            sb.append("): ");
-            sb.append("connected");
-            System.out.println(sb);
+            LOG.debug(() -> "(" + playerName + "): waiting for a client on port " + port);
 
             //wait for client to connect
-            this.serverSocket.setSoTimeout(waitInMillis);
-            Socket connectedSocket = this.serverSocket.accept();
-
-            //debug information
-            sb = new StringBuilder();
-            sb.append(this.getClass().getSimpleName());
-            sb.append(" (");
-            sb.append(playerName);
-            sb.append("): ");
-            sb.append("connected");
-            System.out.println(sb);
+            connectionAttempts++;
+            this.serverSocket.setSoTimeout(acceptTimeoutInMillis);
+            Socket connectedSocket;
+            try {
+                connectedSocket = this.serverSocket.accept();
+            } finally {
+                //only one client is accepted, the port is free again for the next game
+                this.serverSocket.close();
+            }
+
+            LOG.info(() -> "(" + playerName + "): connected");
 
             return connectedSocket;
         }
 
         public void kill() throws IOException {
-            this.serverSocket.close();
+            if(this.serverSocket != null) {
+                this.serverSocket.close();
+            }
         }
     }
 
     private class TCPClient {
-        private boolean killed = false;
+        //the socket of the running attempt, closed to cancel the attempt
+        private volatile Socket pendingSocket;
 
         public Socket getSocket() throws IOException {
-            while(!this.killed) {
+            final long deadline = connectDeadlineInMillis > 0
+                    ? System.nanoTime() + connectDeadlineInMillis * 1_000_000 : Long.MAX_VALUE;
+            long backoff = initialBackoffInMillis;
+
+            while(!killed) {
+                final Socket attempt = new Socket();
+                this.pendingSocket = attempt;
                 try {
-                    //debug information
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(this.getClass().getSimpleName());
-                    sb.append(" (");
-                    sb.append(playerName);
-                    sb.append("): ");
-                    sb.append("try to connect localhost port ");
-                    sb.append(port);
-                    System.out.println(sb);
-
-                    return new Socket(TCPStream.this.remoteEngine, port);
+                    connectionAttempts++;
+                    LOG.debug(() -> "(" + playerName + "): try to connect " + remoteEngine + " port " + port);
+
+                    attempt.connect(new InetSocketAddress(remoteEngine, port), connectTimeoutInMillis);
+                    return attempt;
 
                 } catch (IOException e) {
-                    //debug information
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(this.getClass().getSimpleName());
-                    sb.append(" (");
-                    sb.append(playerName);
-                    sb.append("): ");
-                    sb.append("connection failed / wait and re-try");
-                    sb.append(port);
-                    System.out.println(sb);
+                    attempt.close();
+                    if(killed) {
+                        break;
+                    }
+
+                    //somewhere between half and the full backoff, so clients which failed together don't retry together
+                    final long wait = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                    if(System.nanoTime() + wait * 1_000_000 > deadline) {
+                        throw new IOException("no connection to " + remoteEngine + " port " + port + " before the deadline");
+                    }
+                    LOG.debug(() -> "(" + playerName + "): connection failed / re-try in " + wait + " ms");
 
                     try {
-                        Thread.sleep(waitInMillis);
-                    } catch (InterruptedException ignore) {
-                        //ignore
+                        Thread.sleep(wait);
+                    } catch (InterruptedException interrupted) {
+                        throw new InterruptedIOException("connection attempt was killed");
                     }
+                    backoff = Math.min(backoff * 2, maxBackoffInMillis);
+                } finally {
+                    this.pendingSocket = null;
                 }
             }
             throw new IOException("thread was killed before establishing a connection");
         }
+
+        public void kill() throws IOException {
+            final Socket socket = this.pendingSocket;
+            if(socket != null) {
+                socket.close();
+            }
+        }
     }
 }
@@ -0,0 +1,220 @@
+package network;
+
+import maumau.board.ProvokedEmptyDeckException;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.player.NotPlayersTurnException;
+import maumau.player.RemoteChangeablePlayer;
+import network.journal.GameJournal;
+import network.journal.JournalSession;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The protocol engine of a player at a table with two to eight seats. Every player mirrors the whole game, so the
+ * players are connected with each other: this engine holds one {@link MauMauTCPProtocolEngine} per other seat and
+ * sends every local move to all of them. The player at seat 0 sends the board to everybody.
+ * At a table with more than two seats the sessions must be resumable: a move which didn't reach one seat is sent
+ * again once its connection is handed over anew. The connection lost listeners are notified as soon as a seat
+ * drops, the engine of each seat (see {@link #getEngine(int)}) tells if it is the one to be reconnected.
+ */
+public class TableProtocolEngine implements TCPProtocolEngine {
+    private final RemoteChangeablePlayer player;
+    //indexed by seat, null at the seat of the local player
+    private final MauMauTCPProtocolEngine[] engines;
+
+    private final List<GameSessionEstablishedListener> gameSessionEstablishedListenerList = new ArrayList<>();
+    private final AtomicInteger numberOfEstablishedSeats = new AtomicInteger();
+    private final String[] partnerNames;
+
+    //records the game of the local player if a journal is set
+    private GameJournal journal;
+    private volatile JournalSession journalSession;
+
+    public TableProtocolEngine(RemoteChangeablePlayer player, String playerName) {
+        this(player, playerName, MauMauTCPProtocolEngine.LATEST_PROTOCOL_VERSION);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a table with more than two seats is limited to a protocol version whose
+     *                                  sessions can't be resumed
+     */
+    public TableProtocolEngine(RemoteChangeablePlayer player, String playerName, int maxProtocolVersion) {
+        if(player.getNumberOfSeats() > 2 && maxProtocolVersion < MauMauTCPProtocolEngine.PROTOCOL_VERSION_FRAMED) {
+            throw new IllegalArgumentException("a table with " + player.getNumberOfSeats()
+                    + " seats needs resumable sessions: " + maxProtocolVersion);
+        }
+        this.player = player;
+        this.engines = new MauMauTCPProtocolEngine[player.getNumberOfSeats()];
+        this.partnerNames = new String[this.engines.length];
+
+        for(int seat = 0; seat < this.engines.length; seat++) {
+            if(seat == player.getTurnPosition()) {
+                continue;
+            }
+            final int remoteSeat = seat;
+            final MauMauTCPProtocolEngine engine = new MauMauTCPProtocolEngine(player, playerName, maxProtocolVersion);
+            engine.setRemoteSeat(remoteSeat);
+            engine.subscribeGameSessionEstablishedListener(partnerName -> this.seatEstablished(remoteSeat, partnerName));
+            this.engines[seat] = engine;
+        }
+    }
+
+    /**
+     * Starts the protocol with the player at the given seat
+     */
+    public void handleConnection(int seat, InputStream is, OutputStream os) {
+        this.getEngine(seat).handleConnection(is, os);
+    }
+
+    /**
+     * Only possible at a table with two seats, bigger tables need one connection per seat
+     * (see {@link #handleConnection(int, InputStream, OutputStream)})
+     * @throws IllegalStateException if the table has more than two seats
+     */
+    @Override
+    public void handleConnection(InputStream is, OutputStream os) {
+        if(this.engines.length != 2) {
+            throw new IllegalStateException("a table with " + this.engines.length
+                    + " seats needs one connection per seat");
+        }
+        this.handleConnection(this.player.hasFirstTurn() ? 1 : 0, is, os);
+    }
+
+    /**
+     * @return the engine connected with the given seat
+     * @throws IllegalArgumentException if it's the seat of the local player or there is no such seat
+     */
+    public MauMauTCPProtocolEngine getEngine(int seat) {
+        if(seat < 0 || seat >= this.engines.length || this.engines[seat] == null) {
+            throw new IllegalArgumentException("no remote player at seat " + seat);
+        }
+        return this.engines[seat];
+    }
+
+    /**
+     * Records the game of the local player - the initial board and the moves of all seats - as one session in a
+     * journal, which may be shared with other engines. Must be set before the connections are handled.
+     * The session starts once the board is known: at seat 0 with the first connected seat, at the other seats once
+     * seat 0 sent the board.
+     */
+    public void setJournal(GameJournal journal) {
+        if(this.journal == null) {
+            this.player.subscribeMoveListener(this::journalMove);
+        }
+        this.journal = journal;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  listeners                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The listener is notified once all seats are connected, with the names of the other players in seat order
+     */
+    @Override
+    public void subscribeGameSessionEstablishedListener(GameSessionEstablishedListener listener) {
+        this.gameSessionEstablishedListenerList.add(listener);
+    }
+
+    @Override
+    public void subscribeConnectionLostListener(ConnectionLostListener listener) {
+        for(MauMauTCPProtocolEngine engine : this.engines) {
+            if(engine != null) {
+                engine.subscribeConnectionLostListener(listener);
+            }
+        }
+    }
+
+    private void seatEstablished(int seat, String partnerName) {
+        this.partnerNames[seat] = partnerName;
+        //a resumed session doesn't notify again, so every seat counts once
+        final int establishedSeats = this.numberOfEstablishedSeats.incrementAndGet();
+        if(seat == 0 || this.player.hasFirstTurn() && establishedSeats == 1) {
+            this.openJournalSession(seat);
+        }
+        if(establishedSeats != this.engines.length - 1) {
+            return;
+        }
+
+        final List<String> names = new ArrayList<>();
+        for(String name : this.partnerNames) {
+            if(name != null) {
+                names.add(name);
+            }
+        }
+        final String partners = String.join(", ", names);
+        for(GameSessionEstablishedListener listener : this.gameSessionEstablishedListenerList) {
+            listener.gameSessionEstablished(partners);
+        }
+    }
+
+    /**
+     * @return true if the connection to at least one seat was lost and the session with this seat can be resumed
+     */
+    @Override
+    public boolean canResumeSession() {
+        for(MauMauTCPProtocolEngine engine : this.engines) {
+            if(engine != null && engine.canResumeSession()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   moves                                                        //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void drawCard() throws ProvokedEmptyDeckException, NotPlayersTurnException {
+        for(MauMauTCPProtocolEngine engine : this.engines) {
+            if(engine != null) {
+                engine.drawCard();
+            }
+        }
+    }
+
+    @Override
+    public boolean playCard(Card card, CardColor wishedColor) {
+        for(MauMauTCPProtocolEngine engine : this.engines) {
+            if(engine != null) {
+                engine.playCard(card, wishedColor);
+            }
+        }
+        return false;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                    journal                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    //the board comes from seat 0, so it's complete once the session with the given seat is established
+    private void openJournalSession(int seat) {
+        if(this.journal != null) {
+            this.journalSession = this.journal.openSession(this.getEngine(seat).getSessionId(),
+                    this.player.getTurnPosition(), this.engines.length, this.player.getDeck().getDeckAsList(),
+                    this.player.getDiscardPileCard());
+        }
+    }
+
+    //the player tells about every move once, no matter which connection it came from
+    private void journalMove(int seat, Card playedCard, CardColor wishedColor, int drawnCards) {
+        final JournalSession session = this.journalSession;
+        if(session == null) {
+            return;
+        }
+        if(playedCard != null) {
+            session.recordPlay(seat, playedCard, wishedColor);
+        } else {
+            session.recordDraw(seat);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package network.io;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An output stream which only puts the bytes into a bounded queue; another thread sends them to the consumer.
+ * So a writer never waits for a slow consumer - unless the queue is full and the {@link OverflowPolicy} says so.
+ *
+ * Every write call is one message: it's queued completely or not at all. A message bigger than the whole queue is
+ * queued in parts and always waits for free space.
+ */
+public abstract class BoundedOutputStream extends java.io.OutputStream {
+    protected final ByteRingBuffer queue;
+    private volatile OverflowPolicy overflowPolicy;
+    private final byte[] single = new byte[1];
+
+    private final AtomicLong queuedMessages = new AtomicLong();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private volatile int highWaterMark;
+
+    protected BoundedOutputStream(ByteRingBuffer queue, OverflowPolicy overflowPolicy) {
+        this.queue = queue;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Called before the writer waits for free space and after bytes were queued
+     */
+    protected abstract void dataQueued();
+
+    /**
+     * Called when a message didn't fit and the policy is {@link OverflowPolicy#DISCONNECT}
+     */
+    protected abstract void overflowed();
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  writing                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void write(int b) throws IOException {
+        this.single[0] = (byte) b;
+        this.write(this.single, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if(len == 0) {
+            return;
+        }
+
+        if(len > this.queue.capacity()) {
+            this.writeInParts(b, off, len);
+        } else if(!this.queue.put(b, off, len, 0, TimeUnit.MILLISECONDS)) {
+            //the queue is full
+            switch (this.overflowPolicy) {
+                case BLOCK -> {
+                    this.dataQueued();
+                    this.queue.put(b, off, len);
+                }
+                case DROP -> {
+                    this.droppedMessages.incrementAndGet();
+                    return;
+                }
+                case DISCONNECT -> {
+                    this.overflowed();
+                    throw new IOException("outbound queue is full - connection closed");
+                }
+            }
+        }
+
+        this.queuedMessages.incrementAndGet();
+        final int depth = this.queue.size();
+        if(depth > this.highWaterMark) {
+            this.highWaterMark = depth;
+        }
+        this.dataQueued();
+    }
+
+    private void writeInParts(byte[] b, int off, int len) throws IOException {
+        while(len > 0) {
+            final int part = Math.min(len, this.queue.capacity());
+            this.dataQueued();
+            this.queue.put(b, off, part);
+            off += part;
+            len -= part;
+        }
+        this.highWaterMark = this.queue.capacity();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  metrics                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the number of bytes waiting to be sent
+     */
+    public int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    /**
+     * @return the highest number of bytes which were waiting at the same time
+     */
+    public int getHighWaterMark() {
+        return this.highWaterMark;
+    }
+
+    public int getCapacity() {
+        return this.queue.capacity();
+    }
+
+    public long getQueuedMessages() {
+        return this.queuedMessages.get();
+    }
+
+    /**
+     * @return the number of messages dropped because of {@link OverflowPolicy#DROP}
+     */
+    public long getDroppedMessages() {
+        return this.droppedMessages.get();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+}
@@ -0,0 +1,323 @@
+package network.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded FIFO buffer of bytes which is filled by one thread and emptied by another one.
+ * Every operation exists in a blocking variant (for protocol engines reading and writing streams) and
+ * in a non-blocking variant (for I/O threads which must never wait).
+ * The buffer is allocated once and reused for its whole lifetime.
+ */
+public final class ByteRingBuffer {
+    private final byte[] buffer;
+    //view on the buffer used to hand segments to channels without allocating
+    private final ByteBuffer view;
+
+    //index of the next byte to read
+    private int head;
+    private int size;
+    private boolean closed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = this.lock.newCondition();
+    private final Condition notFull = this.lock.newCondition();
+
+    public ByteRingBuffer(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.buffer = new byte[capacity];
+        this.view = ByteBuffer.wrap(this.buffer);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   writing                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Copies as many bytes as fit into the buffer without waiting
+     * @param src the bytes to copy, its position is moved forward by the number of copied bytes
+     * @return the number of copied bytes
+     * @throws IOException if the buffer is closed
+     */
+    public int offer(ByteBuffer src) throws IOException {
+        this.lock.lock();
+        try {
+            this.checkOpen();
+            final int length = Math.min(src.remaining(), this.buffer.length - this.size);
+            int copied = 0;
+            while(copied < length) {
+                final int tail = (this.head + this.size) % this.buffer.length;
+                final int chunk = Math.min(length - copied, this.buffer.length - tail);
+                src.get(this.buffer, tail, chunk);
+                this.size += chunk;
+                copied += chunk;
+            }
+            if(copied > 0) {
+                this.notEmpty.signalAll();
+            }
+            return copied;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Copies as many bytes as fit into the buffer without waiting
+     * @return the number of copied bytes
+     * @throws IOException if the buffer is closed
+     */
+    public int offer(byte[] src, int offset, int length) throws IOException {
+        this.lock.lock();
+        try {
+            this.checkOpen();
+            final int copied = Math.min(length, this.buffer.length - this.size);
+            this.copyIn(src, offset, copied);
+            return copied;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Copies all bytes into the buffer and waits for free space if necessary
+     * @throws IOException if the buffer is closed
+     * @throws InterruptedIOException if the thread was interrupted while waiting
+     */
+    public void put(byte[] src, int offset, int length) throws IOException {
+        this.lock.lock();
+        try {
+            while(length > 0) {
+                this.checkOpen();
+                final int copied = Math.min(length, this.buffer.length - this.size);
+                if(copied == 0) {
+                    this.notFull.await();
+                    continue;
+                }
+                this.copyIn(src, offset, copied);
+                offset += copied;
+                length -= copied;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for free space");
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Copies all bytes into the buffer if they fit within the given time
+     * @return false if the bytes didn't fit in time, nothing was copied then
+     * @throws IOException if the buffer is closed
+     * @throws InterruptedIOException if the thread was interrupted while waiting
+     */
+    public boolean put(byte[] src, int offset, int length, long timeout, TimeUnit unit) throws IOException {
+        if(length > this.buffer.length) {
+            throw new IllegalArgumentException("more bytes than the capacity: " + length);
+        }
+
+        this.lock.lock();
+        try {
+            long nanos = unit.toNanos(timeout);
+            while(true) {
+                this.checkOpen();
+                if(this.buffer.length - this.size >= length) {
+                    this.copyIn(src, offset, length);
+                    return true;
+                }
+                if(nanos <= 0) {
+                    return false;
+                }
+                nanos = this.notFull.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for free space");
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    //lock must be held and the bytes must fit
+    private void copyIn(byte[] src, int offset, int length) {
+        int copied = 0;
+        while(copied < length) {
+            final int tail = (this.head + this.size) % this.buffer.length;
+            final int chunk = Math.min(length - copied, this.buffer.length - tail);
+            System.arraycopy(src, offset + copied, this.buffer, tail, chunk);
+            this.size += chunk;
+            copied += chunk;
+        }
+        if(copied > 0) {
+            this.notEmpty.signalAll();
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   reading                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Copies bytes out of the buffer and waits until at least one byte is available
+     * @return the number of copied bytes, -1 if the buffer is closed and empty
+     * @throws InterruptedIOException if the thread was interrupted while waiting
+     */
+    public int take(byte[] dst, int offset, int length) throws IOException {
+        if(length == 0) {
+            return 0;
+        }
+
+        this.lock.lock();
+        try {
+            while(this.size == 0) {
+                if(this.closed) {
+                    return -1;
+                }
+                this.notEmpty.await();
+            }
+            return this.copyOut(dst, offset, length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for data");
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Copies bytes out of the buffer without waiting
+     * @return the number of copied bytes, -1 if the buffer is closed and empty
+     */
+    public int poll(byte[] dst, int offset, int length) {
+        this.lock.lock();
+        try {
+            if(this.size == 0) {
+                return this.closed ? -1 : 0;
+            }
+            return this.copyOut(dst, offset, length);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes as many bytes as the channel accepts without waiting
+     * @param channel a non-blocking channel
+     * @return the number of written bytes
+     * @throws IOException if writing to the channel failed
+     */
+    public int drainTo(WritableByteChannel channel) throws IOException {
+        this.lock.lock();
+        try {
+            int written = 0;
+            while(this.size > 0) {
+                final int chunk = Math.min(this.size, this.buffer.length - this.head);
+                this.view.limit(this.head + chunk).position(this.head);
+                final int n = channel.write(this.view);
+                this.consume(n);
+                written += n;
+                if(n < chunk) {
+                    break;
+                }
+            }
+            return written;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    //lock must be held
+    private int copyOut(byte[] dst, int offset, int length) {
+        final int toCopy = Math.min(length, this.size);
+        int copied = 0;
+        while(copied < toCopy) {
+            final int chunk = Math.min(toCopy - copied, this.buffer.length - this.head);
+            System.arraycopy(this.buffer, this.head, dst, offset + copied, chunk);
+            this.consume(chunk);
+            copied += chunk;
+        }
+        return copied;
+    }
+
+    //lock must be held
+    private void consume(int length) {
+        this.head = (this.head + length) % this.buffer.length;
+        this.size -= length;
+        if(length > 0) {
+            this.notFull.signalAll();
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   state                                                        //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Closes the buffer. Bytes which are already in the buffer can still be read.
+     * Waiting threads wake up: readers get the remaining bytes and then -1, writers get an IOException.
+     */
+    public void close() {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.notEmpty.signalAll();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public boolean isClosed() {
+        this.lock.lock();
+        try {
+            return this.closed;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes which can be read
+     */
+    public int size() {
+        this.lock.lock();
+        try {
+            return this.size;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes which can be written without waiting
+     */
+    public int free() {
+        this.lock.lock();
+        try {
+            return this.buffer.length - this.size;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return this.buffer.length;
+    }
+
+    //lock must be held
+    private void checkOpen() throws IOException {
+        if(this.closed) {
+            throw new IOException("buffer is closed");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package network.io;
+
+import logging.Logger;
+import network.ProtocolThreads;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Decouples the writer of a blocking stream (e.g. a socket stream) from the consumer: the writer queues its messages,
+ * a task on {@link ProtocolThreads} writes them to the target stream and flushes it whenever the queue is empty.
+ */
+public class OutboundQueue extends BoundedOutputStream {
+    private static final Logger LOG = Logger.getLogger(OutboundQueue.class);
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final OutputStream target;
+    private volatile IOException failure;
+
+    public OutboundQueue(OutputStream target, int capacity, OverflowPolicy overflowPolicy) {
+        super(new ByteRingBuffer(capacity), overflowPolicy);
+        this.target = target;
+        ProtocolThreads.execute(this::drain);
+    }
+
+    private void drain() {
+        final byte[] buffer = new byte[Math.min(8 * 1024, this.queue.capacity())];
+        try {
+            int n;
+            while((n = this.queue.take(buffer, 0, buffer.length)) >= 0) {
+                this.target.write(buffer, 0, n);
+                if(this.queue.size() == 0) {
+                    this.target.flush();
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug(() -> "writing to the target stream failed: " + e.getMessage());
+            this.failure = e;
+            this.queue.close();
+        }
+
+        try {
+            this.target.close();
+        } catch (IOException ignore) {
+            //the queue is closed anyway
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        final IOException failure = this.failure;
+        if(failure != null) {
+            throw new IOException("target stream failed", failure);
+        }
+        super.write(b, off, len);
+    }
+
+    @Override
+    protected void dataQueued() {
+        //the drain task waits for data by itself
+    }
+
+    @Override
+    protected void overflowed() {
+        this.queue.close();
+        //unblocks the drain task if it hangs in a write to the slow consumer
+        try {
+            this.target.close();
+        } catch (IOException ignore) {
+            //closed anyway
+        }
+    }
+
+    /**
+     * Bytes which are already queued are still sent, then the target stream is closed
+     */
+    @Override
+    public void close() {
+        this.queue.close();
+    }
+}
@@ -0,0 +1,23 @@
+package network.io;
+
+/**
+ * What a {@link BoundedOutputStream} does with a message which doesn't fit into its full queue
+ */
+public enum OverflowPolicy {
+    /**
+     * The writing thread waits until the consumer caught up. For connections whose messages must all arrive and
+     * whose writer may wait, e.g. a relay thread.
+     */
+    BLOCK,
+
+    /**
+     * The message is dropped and counted. For consumers which can live with gaps, e.g. spectators.
+     */
+    DROP,
+
+    /**
+     * The connection is closed and the writer gets an IOException. For players: a game can't go on with lost moves,
+     * but a framed session can be resumed later without them.
+     */
+    DISCONNECT
+}
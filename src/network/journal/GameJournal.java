@@ -0,0 +1,210 @@
+package network.journal;
+
+import logging.Logger;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * An append-only journal of the moves of many game sessions, e.g. of all sessions of a game server.
+ *
+ * The journal writes to memory-mapped segment files of a fixed size in one directory. A move is one record of
+ * {@link JournalSegment#SLOT_SIZE} bytes: a slot is reserved with an atomic add and the record is written into the
+ * mapping, so a move costs no system call and no lock. When a segment is full the next writer maps a new one.
+ * The pages reach the disk when the operating system writes them back, when a segment is full or with
+ * {@link #flush()} - a crash of the process loses only the records which were being written, a crash of the machine
+ * the moves since then. A record whose writer died stays uncommitted and the reader skips it.
+ *
+ * The records can be read with {@link JournalReader}.
+ */
+public class GameJournal implements Closeable {
+    private static final Logger LOG = Logger.getLogger(GameJournal.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".mmj";
+
+    //a card ordinal is one byte, so the largest deck has 255 cards
+    private static final int MAX_DECK_SIZE = 0xFF;
+    private static final int MIN_SEGMENT_SIZE = JournalSegment.HEADER_SIZE + JournalSegment.sessionLength(MAX_DECK_SIZE);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final AtomicLong sessionIds;
+
+    private volatile JournalSegment segment;
+    //set if the journal was closed or a new segment couldn't be created, moves are dropped then
+    private volatile boolean closed;
+
+    /**
+     * Opens a journal with segments of {@link #DEFAULT_SEGMENT_SIZE}
+     */
+    public GameJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a journal in a directory. Existing segments are kept, the journal continues with a new segment.
+     * @param segmentSize the size of a segment file in bytes
+     * @throws IOException if the directory or the first segment can't be created
+     */
+    public GameJournal(Path directory, int segmentSize) throws IOException {
+        if(segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("a segment needs at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+        final long firstNumber = lastSegmentNumber(directory) + 1;
+        this.segment = JournalSegment.create(segmentPath(directory, firstNumber), firstNumber, segmentSize);
+        //the ids stay unique when the journal is opened again
+        this.sessionIds = new AtomicLong(firstNumber << Integer.SIZE);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  sessions                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Starts the journal of a session with its initial board
+     * @param protocolSessionId the id of the protocol session, 0 if there is none
+     * @param seat the seat of the player whose engine records the session
+     * @param deck the deck in the order of {@link maumau.board.deck.TCPDeck#getDeckAsList()}
+     * @param topCard the first card of the discard pile
+     * @return the session to record the moves with
+     */
+    public JournalSession openSession(long protocolSessionId, int seat, int numberOfSeats, List<Card> deck,
+                                      Card topCard) {
+        if(deck.size() > MAX_DECK_SIZE) {
+            throw new IllegalArgumentException("a deck with " + deck.size() + " cards can't be journaled");
+        }
+        final JournalSession session = new JournalSession(this, this.sessionIds.incrementAndGet());
+
+        final byte[] deckOrdinals = new byte[deck.size()];
+        for(int i = 0; i < deckOrdinals.length; i++) {
+            deckOrdinals[i] = (byte) deck.get(i).getOrdinal();
+        }
+        final int length = JournalSegment.sessionLength(deckOrdinals.length);
+        final long timestamp = System.currentTimeMillis();
+        for(JournalSegment segment = this.segment; !this.closed; segment = this.segment) {
+            final int offset = segment.claim(length);
+            if(offset >= 0) {
+                segment.writeSession(offset, session.getId(), protocolSessionId, seat, numberOfSeats,
+                        topCard.getOrdinal(), deckOrdinals, timestamp);
+                break;
+            }
+            this.rollOver(segment);
+        }
+        return session;
+    }
+
+    //called by JournalSession, allocates nothing
+    void writeMove(byte type, long sessionId, int seat, int moveNumber, Card card, CardColor wishedColor) {
+        final int cardOrdinal = card == null ? JournalSegment.NONE : card.getOrdinal();
+        final int wish = wishedColor == null ? JournalSegment.NONE : wishedColor.ordinal();
+        final long timestamp = System.currentTimeMillis();
+        for(JournalSegment segment = this.segment; !this.closed; segment = this.segment) {
+            final int offset = segment.claim(JournalSegment.SLOT_SIZE);
+            if(offset >= 0) {
+                segment.writeMove(offset, type, sessionId, seat, moveNumber, cardOrdinal, wish, timestamp);
+                return;
+            }
+            this.rollOver(segment);
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  segments                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Replaces a full segment, unless another writer did that already
+     */
+    private synchronized void rollOver(JournalSegment full) {
+        if(this.segment != full || this.closed) {
+            return;
+        }
+        final long number = full.getNumber() + 1;
+        try {
+            this.segment = JournalSegment.create(segmentPath(this.directory, number), number, this.segmentSize);
+        } catch (IOException e) {
+            //the games go on without the journal
+            LOG.error("creating journal segment " + number + " failed - the journal is closed", e);
+            this.closed = true;
+        }
+        //writers which still write into the full segment only touch the mapping, it stays valid
+        full.force();
+    }
+
+    /**
+     * Writes the pages of the current segment to the disk
+     */
+    public synchronized void flush() {
+        if(!this.closed) {
+            this.segment.force();
+        }
+    }
+
+    /**
+     * Flushes the journal, later moves aren't recorded
+     */
+    @Override
+    public synchronized void close() {
+        if(!this.closed) {
+            this.closed = true;
+            this.segment.force();
+        }
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * @return the segment files of a journal directory in the order they were written
+     */
+    public static List<Path> listSegments(Path directory) throws IOException {
+        try(Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> segmentNumber(file) >= 0)
+                    .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+                    .toList();
+        }
+    }
+
+    private static long lastSegmentNumber(Path directory) throws IOException {
+        final List<Path> segments = listSegments(directory);
+        return segments.isEmpty() ? 0 : segmentNumber(segments.get(segments.size() - 1));
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    //-1 if the file isn't a segment
+    private static long segmentNumber(Path file) {
+        final String name = file.getFileName().toString();
+        if(!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
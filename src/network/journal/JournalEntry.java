@@ -0,0 +1,139 @@
+package network.journal;
+
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+
+import java.util.List;
+
+/**
+ * A record of a {@link GameJournal} as read by {@link JournalReader}: the start of a session or a move
+ */
+public final class JournalEntry {
+    public enum Type {
+        SESSION, PLAY, DRAW
+    }
+
+    private final Type type;
+    private final long sessionId;
+    private final int seat;
+    private final long timestamp;
+
+    //moves
+    private final int moveNumber;
+    private final Card card;
+    private final CardColor wishedColor;
+
+    //sessions
+    private final long protocolSessionId;
+    private final int numberOfSeats;
+    private final List<Card> deck;
+    private final Card topCard;
+
+    private JournalEntry(Type type, long sessionId, int seat, long timestamp, int moveNumber, Card card,
+                         CardColor wishedColor, long protocolSessionId, int numberOfSeats, List<Card> deck,
+                         Card topCard) {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.seat = seat;
+        this.timestamp = timestamp;
+        this.moveNumber = moveNumber;
+        this.card = card;
+        this.wishedColor = wishedColor;
+        this.protocolSessionId = protocolSessionId;
+        this.numberOfSeats = numberOfSeats;
+        this.deck = deck;
+        this.topCard = topCard;
+    }
+
+    static JournalEntry move(Type type, long sessionId, int seat, long timestamp, int moveNumber, Card card,
+                             CardColor wishedColor) {
+        return new JournalEntry(type, sessionId, seat, timestamp, moveNumber, card, wishedColor, 0, 0, null, null);
+    }
+
+    static JournalEntry session(long sessionId, int seat, long timestamp, long protocolSessionId, int numberOfSeats,
+                                List<Card> deck, Card topCard) {
+        return new JournalEntry(Type.SESSION, sessionId, seat, timestamp, 0, null, null, protocolSessionId,
+                numberOfSeats, deck, topCard);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * @return the id of the session within its journal (see {@link JournalSession#getId()})
+     */
+    public long getSessionId() {
+        return this.sessionId;
+    }
+
+    /**
+     * @return the seat which made the move, for a session the seat of the recording player
+     */
+    public int getSeat() {
+        return this.seat;
+    }
+
+    /**
+     * @return the time of the record in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * @return the number of the move within its session, starting with 1
+     */
+    public int getMoveNumber() {
+        return this.moveNumber;
+    }
+
+    /**
+     * @return the played card, null if it's not a played card
+     */
+    public Card getCard() {
+        return this.card;
+    }
+
+    public CardColor getWishedColor() {
+        return this.wishedColor;
+    }
+
+    public long getProtocolSessionId() {
+        return this.protocolSessionId;
+    }
+
+    public int getNumberOfSeats() {
+        return this.numberOfSeats;
+    }
+
+    /**
+     * @return the initial deck of a session, the last card is the top card
+     */
+    public List<Card> getDeck() {
+        return this.deck;
+    }
+
+    /**
+     * @return the first card of the discard pile of a session
+     */
+    public Card getTopCard() {
+        return this.topCard;
+    }
+
+    @Override
+    public String toString() {
+        if(this.type == Type.SESSION) {
+            return "session " + this.sessionId + " (seat " + this.seat + " of " + this.numberOfSeats + ", top card "
+                    + this.topCard + ", " + this.deck.size() + " cards)";
+        }
+        return "session " + this.sessionId + " move " + this.moveNumber + ": seat " + this.seat + " "
+                + (this.type == Type.PLAY ? "plays " + this.card + (this.wishedColor != null ? " wishing "
+                + this.wishedColor : "") : "draws");
+    }
+}
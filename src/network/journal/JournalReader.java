@@ -0,0 +1,96 @@
+package network.journal;
+
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.MauMauCard;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the records of a {@link GameJournal}, e.g. to audit or replay its games. A segment which is still written may
+ * be read. Records which aren't committed yet, e.g. because their writer died, are skipped and every committed record
+ * up to the end of the segment is read.
+ */
+public final class JournalReader {
+    private static final CardColor[] COLORS = CardColor.values();
+
+    private JournalReader() {
+    }
+
+    /**
+     * @return the records of all segments of a journal directory in the order they were written
+     */
+    public static List<JournalEntry> read(Path directory) throws IOException {
+        final List<JournalEntry> entries = new ArrayList<>();
+        for(Path segment : GameJournal.listSegments(directory)) {
+            readSegment(segment, entries);
+        }
+        return entries;
+    }
+
+    /**
+     * Adds the records of one segment file to a list
+     * @throws IOException if the file isn't a journal segment
+     */
+    public static void readSegment(Path file, List<JournalEntry> entries) throws IOException {
+        final MappedByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if(buffer.capacity() < JournalSegment.HEADER_SIZE
+                || buffer.getInt(JournalSegment.MAGIC_OFFSET) != JournalSegment.MAGIC) {
+            throw new IOException(file + " isn't a journal segment");
+        }
+        if(buffer.getShort(JournalSegment.VERSION_OFFSET) != JournalSegment.VERSION) {
+            throw new IOException(file + " has the unknown version " + buffer.getShort(JournalSegment.VERSION_OFFSET));
+        }
+
+        int offset = JournalSegment.HEADER_SIZE;
+        while(offset <= buffer.capacity() - JournalSegment.SLOT_SIZE) {
+            final byte type = buffer.get(offset + JournalSegment.TYPE_OFFSET);
+            final long sessionId = buffer.getLong(offset + JournalSegment.SESSION_ID_OFFSET);
+            final int seat = buffer.get(offset + JournalSegment.SEAT_OFFSET);
+            final long timestamp = buffer.getLong(offset + JournalSegment.TIMESTAMP_OFFSET);
+            switch (type) {
+                case JournalSegment.TYPE_PLAY, JournalSegment.TYPE_DRAW -> {
+                    entries.add(JournalEntry.move(type == JournalSegment.TYPE_PLAY
+                                    ? JournalEntry.Type.PLAY : JournalEntry.Type.DRAW, sessionId, seat, timestamp,
+                            buffer.getInt(offset + JournalSegment.MOVE_NUMBER_OFFSET),
+                            card(buffer.get(offset + JournalSegment.CARD_OFFSET)),
+                            color(buffer.get(offset + JournalSegment.WISH_OFFSET))));
+                    offset += JournalSegment.SLOT_SIZE;
+                }
+                case JournalSegment.TYPE_SESSION -> {
+                    final int deckSize = buffer.getShort(offset + JournalSegment.DECK_SIZE_OFFSET);
+                    final List<Card> deck = new ArrayList<>(deckSize);
+                    for(int i = 0; i < deckSize; i++) {
+                        deck.add(card(buffer.get(offset + JournalSegment.deckOffset(i))));
+                    }
+                    entries.add(JournalEntry.session(sessionId, seat, timestamp,
+                            buffer.getLong(offset + JournalSegment.PROTOCOL_SESSION_ID_OFFSET),
+                            buffer.get(offset + JournalSegment.SEATS_OFFSET), deck,
+                            card(buffer.get(offset + JournalSegment.TOP_CARD_OFFSET))));
+                    offset += JournalSegment.sessionLength(deckSize);
+                }
+                //the zeros after the last record, a record which isn't committed or the deck slots of such a session
+                default -> offset += JournalSegment.SLOT_SIZE;
+            }
+        }
+    }
+
+    private static Card card(byte ordinal) {
+        return ordinal == JournalSegment.NONE ? null : MauMauCard.fromOrdinal(ordinal);
+    }
+
+    private static CardColor color(byte ordinal) {
+        return ordinal == JournalSegment.NONE ? null : COLORS[ordinal];
+    }
+}
@@ -0,0 +1,185 @@
+package network.journal;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One memory-mapped file of a {@link GameJournal}. The file gets its full size when it's created and is filled from
+ * the front; writers reserve their slots with one atomic add and write into the mapping without a system call.
+ *
+ * Layout (little endian): a header of {@link #HEADER_SIZE} bytes, then records of one or more slots of
+ * {@link #SLOT_SIZE} bytes. The first byte of a record is its type. It's written last, so a record with type 0 isn't
+ * committed yet - or never will be, if its writer died. The first byte of every further slot of a record is
+ * {@link #TYPE_DECK}, so a reader can skip an uncommitted record slot by slot and go on with the records after it.
+ */
+final class JournalSegment {
+    static final int MAGIC = 0x4A4D4D31; //"1MMJ" in the file
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int SLOT_SIZE = 32;
+
+    //header
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int SLOT_SIZE_OFFSET = 6;
+    static final int NUMBER_OFFSET = 8;
+    static final int CREATED_OFFSET = 16;
+
+    //record types
+    //a record which isn't committed or the zeros after the last record
+    static final byte TYPE_UNCOMMITTED = 0;
+    static final byte TYPE_SESSION = 1;
+    static final byte TYPE_PLAY = 2;
+    static final byte TYPE_DRAW = 3;
+    //a further slot of a session record, which holds a part of the deck
+    static final byte TYPE_DECK = 4;
+
+    //fields of a record
+    static final int TYPE_OFFSET = 0;
+    static final int SEAT_OFFSET = 1;
+    //move: card and wish, 0xFF for none
+    static final int CARD_OFFSET = 2;
+    static final int WISH_OFFSET = 3;
+    static final int MOVE_NUMBER_OFFSET = 4;
+    //session: number of seats, top card of the discard pile and number of cards of the deck
+    static final int SEATS_OFFSET = 2;
+    static final int TOP_CARD_OFFSET = 3;
+    static final int DECK_SIZE_OFFSET = 4;
+    static final int SESSION_ID_OFFSET = 8;
+    static final int TIMESTAMP_OFFSET = 16;
+    //session: id of the protocol session, 0 for protocol versions without sessions
+    static final int PROTOCOL_SESSION_ID_OFFSET = 24;
+    //deck slots: the cards follow the type
+    static final int DECK_OFFSET = 1;
+    static final int CARDS_PER_DECK_SLOT = SLOT_SIZE - DECK_OFFSET;
+
+    static final byte NONE = (byte) 0xFF;
+
+    private final Path path;
+    private final long number;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicInteger position;
+
+    private JournalSegment(Path path, long number, MappedByteBuffer buffer) {
+        this.path = path;
+        this.number = number;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+        this.position = new AtomicInteger(HEADER_SIZE);
+    }
+
+    /**
+     * Creates and maps a new segment file
+     * @param size the size of the file in bytes
+     * @throws IOException if the file exists already or can't be created
+     */
+    static JournalSegment create(Path path, long number, int size) throws IOException {
+        final MappedByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            //the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort(VERSION_OFFSET, VERSION);
+        buffer.putShort(SLOT_SIZE_OFFSET, (short) SLOT_SIZE);
+        buffer.putLong(NUMBER_OFFSET, number);
+        buffer.putLong(CREATED_OFFSET, System.currentTimeMillis());
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        return new JournalSegment(path, number, buffer);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  writing                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reserves space for a record
+     * @param length a multiple of {@link #SLOT_SIZE}
+     * @return the offset of the record, -1 if the segment is full
+     */
+    int claim(int length) {
+        //a full segment stays full, so the position may run past the end without harm
+        final int offset = this.position.getAndAdd(length);
+        return offset <= this.capacity - length ? offset : -1;
+    }
+
+    void writeMove(int offset, byte type, long sessionId, int seat, int moveNumber, int card, int wish,
+                   long timestamp) {
+        final MappedByteBuffer buffer = this.buffer;
+        buffer.put(offset + SEAT_OFFSET, (byte) seat);
+        buffer.put(offset + CARD_OFFSET, (byte) card);
+        buffer.put(offset + WISH_OFFSET, (byte) wish);
+        buffer.putInt(offset + MOVE_NUMBER_OFFSET, moveNumber);
+        buffer.putLong(offset + SESSION_ID_OFFSET, sessionId);
+        buffer.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+        this.commit(offset, type);
+    }
+
+    void writeSession(int offset, long sessionId, long protocolSessionId, int seat, int numberOfSeats, int topCard,
+                      byte[] deck, long timestamp) {
+        final MappedByteBuffer buffer = this.buffer;
+        buffer.put(offset + SEAT_OFFSET, (byte) seat);
+        buffer.put(offset + SEATS_OFFSET, (byte) numberOfSeats);
+        buffer.put(offset + TOP_CARD_OFFSET, (byte) topCard);
+        buffer.putShort(offset + DECK_SIZE_OFFSET, (short) deck.length);
+        buffer.putLong(offset + SESSION_ID_OFFSET, sessionId);
+        buffer.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+        buffer.putLong(offset + PROTOCOL_SESSION_ID_OFFSET, protocolSessionId);
+        for(int i = 0; i < deck.length; i += CARDS_PER_DECK_SLOT) {
+            final int slot = offset + SLOT_SIZE + i / CARDS_PER_DECK_SLOT * SLOT_SIZE;
+            buffer.put(slot + TYPE_OFFSET, TYPE_DECK);
+            buffer.put(slot + DECK_OFFSET, deck, i, Math.min(CARDS_PER_DECK_SLOT, deck.length - i));
+        }
+        this.commit(offset, TYPE_SESSION);
+    }
+
+    //the type makes the record visible, so it's written after the other fields
+    private void commit(int offset, byte type) {
+        VarHandle.releaseFence();
+        this.buffer.put(offset + TYPE_OFFSET, type);
+    }
+
+    /**
+     * Writes the changed pages to the disk, which is a system call - unlike the writes of the records
+     */
+    void force() {
+        this.buffer.force();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the length in bytes of a session record with a deck of the given size: one slot for the fields and
+     * the slots for the deck
+     */
+    static int sessionLength(int deckSize) {
+        return SLOT_SIZE + (deckSize + CARDS_PER_DECK_SLOT - 1) / CARDS_PER_DECK_SLOT * SLOT_SIZE;
+    }
+
+    /**
+     * @return the offset of a card of the deck within a session record
+     */
+    static int deckOffset(int index) {
+        return SLOT_SIZE + index / CARDS_PER_DECK_SLOT * SLOT_SIZE + DECK_OFFSET + index % CARDS_PER_DECK_SLOT;
+    }
+
+    Path getPath() {
+        return this.path;
+    }
+
+    long getNumber() {
+        return this.number;
+    }
+}
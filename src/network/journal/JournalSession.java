@@ -0,0 +1,46 @@
+package network.journal;
+
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The journal of one game session. The moves of the local and the remote players may be recorded from different
+ * threads, every move gets the next move number of the session.
+ */
+public final class JournalSession {
+    private final GameJournal journal;
+    private final long id;
+    private final AtomicInteger moveNumbers;
+
+    JournalSession(GameJournal journal, long id) {
+        this.journal = journal;
+        this.id = id;
+        this.moveNumbers = new AtomicInteger();
+    }
+
+    /**
+     * Records a played card
+     * @param wishedColor the wished color of a jack, otherwise null
+     */
+    public void recordPlay(int seat, Card card, CardColor wishedColor) {
+        this.journal.writeMove(JournalSegment.TYPE_PLAY, this.id, seat, this.moveNumbers.incrementAndGet(), card,
+                wishedColor);
+    }
+
+    /**
+     * Records a drawn card or a taken seven penalty
+     */
+    public void recordDraw(int seat) {
+        this.journal.writeMove(JournalSegment.TYPE_DRAW, this.id, seat, this.moveNumbers.incrementAndGet(), null,
+                null);
+    }
+
+    /**
+     * @return the id of the session within its journal
+     */
+    public long getId() {
+        return this.id;
+    }
+}
@@ -0,0 +1,331 @@
+package network.lobby;
+
+import logging.Logger;
+import maumau.board.deck.DeckTemplate;
+import network.ProtocolThreads;
+import network.server.Broadcast;
+import network.server.GameServer;
+import network.server.ServerSession;
+import network.server.SessionFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A lobby which runs on a {@link network.server.GameServer}: players connect to one port, say which game they want
+ * to play (see {@link LobbyClient}) and wait in a queue per deck variant and number of players. As soon as a queue
+ * holds enough players they are taken out together and get their turn positions. From then on the lobby relays the
+ * bytes between their sessions, so their protocol engines talk to each other as if they were connected directly.
+ *
+ * Spectators can watch a running game: everything a player sends is also published once to the {@link Broadcast} of
+ * the game, which shares it with all spectators.
+ */
+public class Lobby implements SessionFactory {
+    private static final Logger LOG = Logger.getLogger(Lobby.class);
+
+    //every player has one connection to the lobby, bigger tables connect their players with each other
+    //(see network.TableProtocolEngine)
+    static final int MAX_PLAYERS_PER_GAME = 2;
+
+    private static final int RELAY_BUFFER_SIZE = 4096;
+
+    //guarded by this
+    private final Map<String, ArrayDeque<WaitingPlayer>> queues = new HashMap<>();
+    private final Map<Long, Table> runningGames = new HashMap<>();
+    private final Map<String, Table> newestGames = new HashMap<>();
+    private int numberOfWaitingPlayers;
+    private long numberOfGames;
+
+
+    /**
+     * Runs a lobby on the given port or on {@link LobbyClient#DEFAULT_LOBBY_PORT}
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final int port = args.length > 0 ? Integer.parseInt(args[0]) : LobbyClient.DEFAULT_LOBBY_PORT;
+        final GameServer server = new GameServer(port, new Lobby());
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        Thread.currentThread().join();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   sessions                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void sessionOpened(ServerSession session) {
+        //the request is read with blocking streams, so it mustn't happen on the I/O thread
+        ProtocolThreads.execute(() -> this.join(session));
+    }
+
+    private void join(ServerSession session) {
+        final WaitingPlayer player;
+        try {
+            //not buffered - nothing after the request may be taken from the stream
+            final DataInputStream dis = new DataInputStream(session.getInputStream());
+            final String name = dis.readUTF();
+            final String variant = dis.readUTF();
+            final int playersPerGame = dis.readUnsignedByte();
+            if(playersPerGame == LobbyClient.SPECTATOR) {
+                this.spectate(session, name, variant, dis.readLong());
+                return;
+            }
+
+            final String rejection = this.checkRequest(variant, playersPerGame);
+            if(rejection != null) {
+                this.reject(session, name, rejection);
+                return;
+            }
+            player = new WaitingPlayer(session, name, variant, playersPerGame);
+        } catch (IOException e) {
+            LOG.debug(() -> session + " left before joining a queue");
+            session.close();
+            return;
+        }
+
+        final Table table = this.enqueue(player);
+        if(table != null) {
+            this.startGame(table);
+        }
+    }
+
+    private void reject(ServerSession session, String name, String rejection) throws IOException {
+        LOG.info(() -> session + " (" + name + ") rejected: " + rejection);
+        final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+        dos.writeByte(LobbyClient.STATUS_REJECTED);
+        dos.writeUTF(rejection);
+        //the reason is still queued, a plain close would drop it
+        session.closeWhenSent();
+    }
+
+    private String checkRequest(String variant, int playersPerGame) {
+        if(DeckTemplate.forName(variant) == null) {
+            return "unknown deck variant: " + variant;
+        }
+        if(playersPerGame < 2 || playersPerGame > MAX_PLAYERS_PER_GAME) {
+            return "games for " + playersPerGame + " players aren't supported";
+        }
+        return null;
+    }
+
+    /**
+     * Puts a player into the queue of his game
+     * @return a new game if the queue is full now, otherwise null
+     */
+    private synchronized Table enqueue(WaitingPlayer player) {
+        final ArrayDeque<WaitingPlayer> queue = this.queues.computeIfAbsent(player.queueKey(), key -> new ArrayDeque<>());
+        queue.addLast(player);
+        this.numberOfWaitingPlayers++;
+
+        while(queue.size() >= player.playersPerGame) {
+            final List<WaitingPlayer> table = new ArrayList<>(player.playersPerGame);
+            for(int i = 0; i < player.playersPerGame; i++) {
+                final WaitingPlayer next = queue.pollFirst();
+                this.numberOfWaitingPlayers--;
+                //players who left while waiting are only noticed here, so leaving costs nothing
+                if(next.session.isOpen()) {
+                    table.add(next);
+                }
+            }
+
+            if(table.size() == player.playersPerGame) {
+                final Table game = new Table(++this.numberOfGames, player.variant, table);
+                this.runningGames.put(game.id, game);
+                this.newestGames.put(game.variant, game);
+                return game;
+            }
+            //somebody left - the others keep their places at the front of the queue
+            for(int i = table.size() - 1; i >= 0; i--) {
+                queue.addFirst(table.get(i));
+                this.numberOfWaitingPlayers++;
+            }
+        }
+        return null;
+    }
+
+    private void startGame(Table table) {
+        final List<WaitingPlayer> players = table.players;
+        LOG.info(() -> "new " + table.variant + " game " + table.id + ": " + players.get(0).name + " vs. "
+                + players.get(1).name);
+
+        try {
+            //the players get their turn positions in the order they joined
+            for(int turnPosition = 0; turnPosition < players.size(); turnPosition++) {
+                final DataOutputStream dos = new DataOutputStream(players.get(turnPosition).session.getOutputStream());
+                dos.writeByte(LobbyClient.STATUS_MATCHED);
+                dos.writeLong(table.id);
+                dos.writeByte(turnPosition);
+                this.writePlayerNames(dos, table);
+            }
+        } catch (IOException e) {
+            LOG.debug(() -> "a player left before the game started");
+            this.closeTable(table);
+            return;
+        }
+
+        ProtocolThreads.execute(() -> this.relay(table, 0, 1));
+        ProtocolThreads.execute(() -> this.relay(table, 1, 0));
+    }
+
+    private void writePlayerNames(DataOutputStream dos, Table table) throws IOException {
+        dos.writeByte(table.players.size());
+        for(WaitingPlayer player : table.players) {
+            dos.writeUTF(player.name);
+        }
+    }
+
+    /**
+     * Copies everything one player sends to the other player and to the spectators until one of the players leaves
+     */
+    private void relay(Table table, int fromPosition, int toPosition) {
+        final ServerSession from = table.players.get(fromPosition).session;
+        final ServerSession to = table.players.get(toPosition).session;
+        final byte[] buffer = new byte[RELAY_BUFFER_SIZE];
+        final InputStream in = from.getInputStream();
+        final OutputStream out = to.getOutputStream();
+        try {
+            int n;
+            while((n = in.read(buffer, 0, buffer.length)) >= 0) {
+                out.write(buffer, 0, n);
+                this.publish(table, fromPosition, buffer, n);
+            }
+        } catch (IOException e) {
+            LOG.debug(() -> "relay from " + from + " to " + to + " stopped: " + e.getMessage());
+        }
+        this.closeTable(table);
+    }
+
+    /**
+     * Encodes a relayed chunk once for all spectators: [turn position: u8][length: u16][bytes]
+     */
+    private void publish(Table table, int fromPosition, byte[] buffer, int length) {
+        final ByteBuffer header = ByteBuffer.allocate(LobbyClient.SPECTATOR_HEADER_SIZE);
+        header.put((byte) fromPosition).putShort((short) length).flip();
+        table.broadcast.publish(header, ByteBuffer.wrap(Arrays.copyOf(buffer, length)));
+    }
+
+    private void closeTable(Table table) {
+        synchronized (this) {
+            if(this.runningGames.remove(table.id) == null) {
+                return;
+            }
+            this.newestGames.remove(table.variant, table);
+        }
+
+        for(WaitingPlayer player : table.players) {
+            player.session.close();
+        }
+        //the spectators still get the end of the game
+        table.broadcast.close();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  spectators                                                    //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Lets a spectator watch a running game
+     * @param gameId the id of the game, 0 for the newest game of the variant
+     */
+    private void spectate(ServerSession session, String name, String variant, long gameId) throws IOException {
+        final Table table;
+        synchronized (this) {
+            table = gameId == 0 ? this.newestGames.get(variant) : this.runningGames.get(gameId);
+        }
+        if(table == null) {
+            this.reject(session, name, gameId == 0 ? "no running " + variant + " game" : "no running game " + gameId);
+            return;
+        }
+
+        final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+        dos.writeByte(LobbyClient.STATUS_MATCHED);
+        dos.writeLong(table.id);
+        dos.writeUTF(table.variant);
+        this.writePlayerNames(dos, table);
+
+        if(table.broadcast.attach(session)) {
+            LOG.info(() -> session + " (" + name + ") watches game " + table.id);
+        } else {
+            //the game ended in the meantime, it runs too long to be replayed or the spectator was evicted
+            session.closeWhenSent();
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the number of players in all queues, players who left are counted until their turn would have come
+     */
+    public synchronized int getNumberOfWaitingPlayers() {
+        return this.numberOfWaitingPlayers;
+    }
+
+    /**
+     * @return the number of games started by the lobby
+     */
+    public synchronized long getNumberOfGames() {
+        return this.numberOfGames;
+    }
+
+    /**
+     * @return the number of spectators of a running game, 0 if there is no such game
+     */
+    public int getNumberOfSpectators(long gameId) {
+        final Table table;
+        synchronized (this) {
+            table = this.runningGames.get(gameId);
+        }
+        return table == null ? 0 : table.broadcast.getNumberOfObservers();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                private classes                                                 //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class WaitingPlayer {
+        private final ServerSession session;
+        private final String name;
+        private final String variant;
+        private final int playersPerGame;
+
+        WaitingPlayer(ServerSession session, String name, String variant, int playersPerGame) {
+            this.session = session;
+            this.name = name;
+            this.variant = variant;
+            this.playersPerGame = playersPerGame;
+        }
+
+        String queueKey() {
+            return this.variant + "/" + this.playersPerGame;
+        }
+    }
+
+    private static class Table {
+        private final long id;
+        private final String variant;
+        private final List<WaitingPlayer> players;
+        private final Broadcast broadcast = new Broadcast();
+
+        Table(long id, String variant, List<WaitingPlayer> players) {
+            this.id = id;
+            this.variant = variant;
+            this.players = players;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package network.lobby;
+
+import maumau.board.MauMauBoard;
+import maumau.board.deck.DeckTemplate;
+import maumau.player.MauMauPlayer;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The client side of the {@link Lobby}. A client sends one request and waits until the lobby found a game:
+ * <pre>
+ *     client: [name: UTF][deck variant: UTF][players per game: u8]
+ *     lobby:  [STATUS_MATCHED][game id: i64][turn position: u8][number of players: u8][names of all players: UTF...]
+ *        or:  [STATUS_REJECTED][reason: UTF]
+ * </pre>
+ * After a match the connection belongs to the protocol engine of the player, the lobby relays it to the other players.
+ *
+ * A spectator asks for a running game instead and gets everything the players send, from the start of the game:
+ * <pre>
+ *     client: [name: UTF][deck variant: UTF][SPECTATOR][game id: i64, 0 for the newest game of the variant]
+ *     lobby:  [STATUS_MATCHED][game id: i64][deck variant: UTF][number of players: u8][names of all players: UTF...]
+ *             [turn position of the sender: u8][length: u16][bytes]...
+ *        or:  [STATUS_REJECTED][reason: UTF]
+ * </pre>
+ */
+public final class LobbyClient {
+    public static final int DEFAULT_LOBBY_PORT = 7778;
+
+    static final int STATUS_MATCHED = 0;
+    static final int STATUS_REJECTED = 1;
+
+    //sent instead of the number of players
+    static final int SPECTATOR = 0;
+    static final int SPECTATOR_HEADER_SIZE = 3;
+
+    private LobbyClient() {
+    }
+
+    /**
+     * Joins the queue of a game and waits until enough players joined
+     * @param playerName the name of the local player
+     * @param variant the name of the deck template (see {@link DeckTemplate#forName(String)})
+     * @param playersPerGame the number of players of the game
+     * @return the game the lobby found
+     * @throws IOException if the lobby rejected the request or the connection broke
+     */
+    public static LobbyMatch join(InputStream is, OutputStream os, String playerName, String variant, int playersPerGame)
+            throws IOException {
+        final DataOutputStream dos = new DataOutputStream(os);
+        dos.writeUTF(playerName);
+        dos.writeUTF(variant);
+        dos.writeByte(playersPerGame);
+        dos.flush();
+
+        //not buffered - the bytes after the answer belong to the protocol engine
+        final DataInputStream dis = new DataInputStream(is);
+        readStatus(dis);
+        final long gameId = dis.readLong();
+        final int turnPosition = dis.readUnsignedByte();
+        return new LobbyMatch(gameId, turnPosition, readPlayerNames(dis), DeckTemplate.forName(variant));
+    }
+
+    /**
+     * Starts watching a running game
+     * @param spectatorName the name of the spectator
+     * @param variant the deck variant of the game, only used to find the newest game if no id is given
+     * @param gameId the id of the game (see {@link LobbyMatch#getGameId()}), 0 for the newest game of the variant
+     * @return the moves of the game
+     * @throws IOException if the lobby rejected the request or the connection broke
+     */
+    public static SpectatorFeed spectate(InputStream is, OutputStream os, String spectatorName, String variant,
+                                         long gameId) throws IOException {
+        final DataOutputStream dos = new DataOutputStream(os);
+        dos.writeUTF(spectatorName);
+        dos.writeUTF(variant);
+        dos.writeByte(SPECTATOR);
+        dos.writeLong(gameId);
+        dos.flush();
+
+        final DataInputStream dis = new DataInputStream(new BufferedInputStream(is));
+        readStatus(dis);
+        final long id = dis.readLong();
+        final DeckTemplate deckTemplate = DeckTemplate.forName(dis.readUTF());
+        return new SpectatorFeed(dis, id, readPlayerNames(dis), deckTemplate);
+    }
+
+    private static void readStatus(DataInputStream dis) throws IOException {
+        final int status = dis.readUnsignedByte();
+        if(status == STATUS_REJECTED) {
+            throw new IOException("lobby rejected the request: " + dis.readUTF());
+        }
+        if(status != STATUS_MATCHED) {
+            throw new IOException("unknown lobby status: " + status);
+        }
+    }
+
+    private static List<String> readPlayerNames(DataInputStream dis) throws IOException {
+        final int numberOfPlayers = dis.readUnsignedByte();
+        final List<String> playerNames = new ArrayList<>(numberOfPlayers);
+        for(int i = 0; i < numberOfPlayers; i++) {
+            playerNames.add(dis.readUTF());
+        }
+        return playerNames;
+    }
+
+    /**
+     * Creates the local player of a game found by the lobby
+     * @param playerName the name of the local player
+     * @param match the game
+     * @return a player with the turn position of the match, playing with the deck variant of the match
+     */
+    public static MauMauPlayer createPlayer(String playerName, LobbyMatch match) {
+        final MauMauBoard board = new MauMauBoard(match.getDeckTemplate(), MauMauBoard.DEFAULT_START_CARD_NUMBER);
+        return new MauMauPlayer(playerName, match.getTurnPosition(), board);
+    }
+}
@@ -0,0 +1,51 @@
+package network.lobby;
+
+import maumau.board.deck.DeckTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The game the lobby found for a player
+ */
+public final class LobbyMatch {
+    private final long gameId;
+    private final int turnPosition;
+    private final List<String> playerNames;
+    private final DeckTemplate deckTemplate;
+
+    LobbyMatch(long gameId, int turnPosition, List<String> playerNames, DeckTemplate deckTemplate) {
+        this.gameId = gameId;
+        this.turnPosition = turnPosition;
+        this.playerNames = Collections.unmodifiableList(playerNames);
+        this.deckTemplate = deckTemplate;
+    }
+
+    /**
+     * @return the id of the game in the lobby, spectators use it to watch the game
+     */
+    public long getGameId() {
+        return this.gameId;
+    }
+
+    /**
+     * @return the turn position of the local player (0 has the first turn)
+     */
+    public int getTurnPosition() {
+        return this.turnPosition;
+    }
+
+    /**
+     * @return the names of all players of the game ordered by their turn positions
+     */
+    public List<String> getPlayerNames() {
+        return this.playerNames;
+    }
+
+    /**
+     * @return the deck the player with the first turn has to create
+     */
+    public DeckTemplate getDeckTemplate() {
+        return this.deckTemplate;
+    }
+}
@@ -0,0 +1,77 @@
+package network.lobby;
+
+import maumau.board.deck.DeckTemplate;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The bytes the players of a watched game send, in the order the lobby relayed them. Every player's bytes form the
+ * same stream its protocol engine wrote - starting with the handshake -, so they can be decoded with the codec of the
+ * negotiated protocol version.
+ */
+public final class SpectatorFeed implements AutoCloseable {
+    private final DataInputStream dis;
+    private final long gameId;
+    private final List<String> playerNames;
+    private final DeckTemplate deckTemplate;
+
+    //of the chunk read last
+    private int turnPosition = -1;
+
+    SpectatorFeed(DataInputStream dis, long gameId, List<String> playerNames, DeckTemplate deckTemplate) {
+        this.dis = dis;
+        this.gameId = gameId;
+        this.playerNames = Collections.unmodifiableList(playerNames);
+        this.deckTemplate = deckTemplate;
+    }
+
+    /**
+     * Reads the next chunk of bytes one of the players sent
+     * @param buffer has to hold at least 65535 bytes
+     * @return the number of bytes, -1 if the game is over
+     * @throws IOException if the connection broke
+     */
+    public int readChunk(byte[] buffer) throws IOException {
+        final int position;
+        try {
+            position = this.dis.readUnsignedByte();
+        } catch (EOFException e) {
+            return -1;
+        }
+        final int length = this.dis.readUnsignedShort();
+        this.dis.readFully(buffer, 0, length);
+        this.turnPosition = position;
+        return length;
+    }
+
+    /**
+     * @return the turn position of the player who sent the chunk read last
+     */
+    public int getTurnPosition() {
+        return this.turnPosition;
+    }
+
+    public long getGameId() {
+        return this.gameId;
+    }
+
+    /**
+     * @return the names of all players of the game ordered by their turn positions
+     */
+    public List<String> getPlayerNames() {
+        return this.playerNames;
+    }
+
+    public DeckTemplate getDeckTemplate() {
+        return this.deckTemplate;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.dis.close();
+    }
+}
@@ -0,0 +1,152 @@
+package network.server;
+
+import logging.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Sends the same messages to many sessions, e.g. the moves of a game to its spectators.
+ * A message is encoded once by the publisher; every observer only gets its own view of the same read-only buffers
+ * (see {@link ServerSession#sendShared(ByteBuffer[], long)}), so a message costs the same memory for one observer as
+ * for hundreds. An observer whose queue grows beyond the limit is evicted and closed instead of slowing down the others.
+ * Observers attaching later get all messages published so far first. The history counts against the same limit, so it
+ * is only kept as long as it fits: after that the broadcast refuses new observers instead of holding the whole stream.
+ */
+public final class Broadcast {
+    private static final Logger LOG = Logger.getLogger(Broadcast.class);
+
+    public static final long DEFAULT_MAX_QUEUED_BYTES = 64 * 1024;
+
+    private final long maxQueuedBytes;
+
+    //guarded by this
+    private final List<ServerSession> observers = new ArrayList<>();
+    private final List<ByteBuffer[]> history = new ArrayList<>();
+    private long historyBytes;
+    //false once the history outgrew the limit and was dropped
+    private boolean replayable = true;
+    private long numberOfEvictedObservers;
+    private boolean closed;
+
+    public Broadcast() {
+        this(DEFAULT_MAX_QUEUED_BYTES);
+    }
+
+    /**
+     * @param maxQueuedBytes the number of bytes which may wait for an observer before it is evicted
+     */
+    public Broadcast(long maxQueuedBytes) {
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+    /**
+     * Sends one message to all observers
+     * @param message the parts of the message, e.g. a header and a payload - they mustn't be changed afterwards
+     */
+    public synchronized void publish(ByteBuffer... message) {
+        if(this.closed) {
+            return;
+        }
+        final ByteBuffer[] shared = new ByteBuffer[message.length];
+        for(int i = 0; i < message.length; i++) {
+            shared[i] = message[i].asReadOnlyBuffer();
+        }
+        this.keep(shared);
+
+        final Iterator<ServerSession> iterator = this.observers.iterator();
+        while(iterator.hasNext()) {
+            final ServerSession observer = iterator.next();
+            if(!observer.sendShared(shared, this.maxQueuedBytes)) {
+                iterator.remove();
+                //observers which left are only noticed here
+                if(observer.isOpen()) {
+                    this.evict(observer);
+                }
+            }
+        }
+    }
+
+    private void keep(ByteBuffer[] message) {
+        if(!this.replayable) {
+            return;
+        }
+        for(ByteBuffer buffer : message) {
+            this.historyBytes += buffer.remaining();
+        }
+        if(this.historyBytes > this.maxQueuedBytes) {
+            //no observer could take the replay anymore
+            this.history.clear();
+            this.replayable = false;
+            LOG.debug(() -> "broadcast history exceeds " + this.maxQueuedBytes + " bytes - new observers are refused");
+            return;
+        }
+        this.history.add(message);
+    }
+
+    /**
+     * Adds an observer. It gets every message published so far before the new ones.
+     * An observer which can't take the whole history is evicted, a cut-off replay would be useless to it.
+     * @return false if the broadcast is closed already, its history is too long to be replayed or the observer was evicted
+     */
+    public synchronized boolean attach(ServerSession observer) {
+        if(this.closed || !this.replayable) {
+            return false;
+        }
+        for(ByteBuffer[] message : this.history) {
+            if(!observer.sendShared(message, this.maxQueuedBytes)) {
+                if(observer.isOpen()) {
+                    this.evict(observer);
+                }
+                return false;
+            }
+        }
+        this.observers.add(observer);
+        return true;
+    }
+
+    public synchronized void detach(ServerSession observer) {
+        this.observers.remove(observer);
+    }
+
+    /**
+     * Ends the broadcast: every observer is closed as soon as it got all messages
+     */
+    public synchronized void close() {
+        this.closed = true;
+        for(ServerSession observer : this.observers) {
+            observer.closeWhenSent();
+        }
+        this.observers.clear();
+        this.history.clear();
+        this.historyBytes = 0;
+    }
+
+    private void evict(ServerSession observer) {
+        this.numberOfEvictedObservers++;
+        LOG.info(() -> observer + " evicted from the broadcast - it doesn't read fast enough");
+        observer.close();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public synchronized int getNumberOfObservers() {
+        return this.observers.size();
+    }
+
+    public synchronized long getNumberOfEvictedObservers() {
+        return this.numberOfEvictedObservers;
+    }
+
+    /**
+     * @return the number of messages kept for observers attaching later
+     */
+    public synchronized int getNumberOfMessages() {
+        return this.history.size();
+    }
+}
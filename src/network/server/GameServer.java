@@ -0,0 +1,241 @@
+package network.server;
+
+import logging.Logger;
+import network.ProtocolThreads;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A non-blocking server which hosts many game sessions in one process.
+ * One acceptor thread accepts the connections and hands them round-robin to a small fixed set of I/O threads.
+ * The game of every session is created by the {@link SessionFactory}.
+ */
+public class GameServer implements Runnable, AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(GameServer.class);
+
+    public static final int DEFAULT_NUMBER_OF_IO_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    private final int port;
+    private final int numberOfIoThreads;
+    private final SessionFactory sessionFactory;
+    //0 never closes silent sessions
+    private long idleTimeoutInMillis;
+
+    private final Map<Long, ServerSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong();
+    private final ArrayList<IoWorker> workers = new ArrayList<>();
+    private int nextWorker;
+
+    private ServerSocketChannel serverChannel;
+    private Selector acceptSelector;
+    private Thread acceptThread;
+    private volatile boolean running;
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                              constructor                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public GameServer(int port, SessionFactory sessionFactory) {
+        this(port, DEFAULT_NUMBER_OF_IO_THREADS, sessionFactory);
+    }
+
+    /**
+     * @param port the port to listen on, 0 chooses a free port (see {@link #getLocalPort()})
+     * @param numberOfIoThreads the number of threads which read from and write to the clients
+     */
+    public GameServer(int port, int numberOfIoThreads, SessionFactory sessionFactory) {
+        if(numberOfIoThreads < 1) {
+            throw new IllegalArgumentException("at least one I/O thread is needed: " + numberOfIoThreads);
+        }
+        this.port = port;
+        this.numberOfIoThreads = numberOfIoThreads;
+        this.sessionFactory = sessionFactory;
+    }
+
+
+    /**
+     * Closes sessions whose clients don't send anything for the given time. Clients using the framed protocol send
+     * heartbeats, so only dead connections are closed. Must be called before {@link #start()}.
+     * @param idleTimeoutInMillis the allowed silence, 0 keeps silent sessions open forever
+     */
+    public void setIdleTimeout(long idleTimeoutInMillis) {
+        this.idleTimeoutInMillis = idleTimeoutInMillis;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   methods                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Binds the port and starts the acceptor and the I/O threads
+     * @throws IOException if the port can't be bound
+     */
+    public synchronized void start() throws IOException {
+        if(this.running) {
+            throw new IllegalStateException("server is already running");
+        }
+
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(this.port));
+        this.serverChannel.configureBlocking(false);
+        this.acceptSelector = Selector.open();
+        this.serverChannel.register(this.acceptSelector, SelectionKey.OP_ACCEPT);
+
+        for(int i = 0; i < this.numberOfIoThreads; i++) {
+            final IoWorker worker = new IoWorker("maumau-io-" + i);
+            this.workers.add(worker);
+            worker.start();
+        }
+
+        this.running = true;
+        this.acceptThread = new Thread(this, "maumau-accept");
+        this.acceptThread.start();
+
+        LOG.info(() -> "server listening on port " + this.getLocalPort() + " with " + this.numberOfIoThreads + " I/O threads");
+    }
+
+    @Override
+    public void run() {
+        while(this.running) {
+            try {
+                this.acceptSelector.select();
+                this.acceptSelector.selectedKeys().clear();
+
+                SocketChannel channel;
+                while((channel = this.serverChannel.accept()) != null) {
+                    this.accept(channel);
+                }
+            } catch (IOException e) {
+                if(this.running) {
+                    LOG.error("accepting a connection failed", e);
+                }
+            }
+        }
+    }
+
+    private void accept(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        //moves are tiny, they should leave right away
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+        final IoWorker worker = this.workers.get(this.nextWorker);
+        this.nextWorker = (this.nextWorker + 1) % this.workers.size();
+
+        final ServerSession session = new ServerSession(this.nextSessionId.incrementAndGet(), channel, worker, this);
+        this.sessions.put(session.getId(), session);
+        //registered before the factory runs, so the engine can write immediately
+        worker.register(session);
+
+        LOG.debug(() -> session + " accepted from " + session.getRemoteAddress());
+        if(this.idleTimeoutInMillis > 0) {
+            this.scheduleIdleCheck(session, this.idleTimeoutInMillis);
+        }
+        this.sessionFactory.sessionOpened(session);
+    }
+
+    //one deadline per session on the shared timing wheel, it's moved only when it expires
+    private void scheduleIdleCheck(ServerSession session, long delayInMillis) {
+        ProtocolThreads.timer().schedule(() -> this.checkIdle(session), delayInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void checkIdle(ServerSession session) {
+        if(!session.isOpen()) {
+            return;
+        }
+
+        final long silentMillis = (System.nanoTime() - session.lastReadNanos) / 1_000_000;
+        if(silentMillis < this.idleTimeoutInMillis) {
+            this.scheduleIdleCheck(session, this.idleTimeoutInMillis - silentMillis);
+            return;
+        }
+
+        LOG.info(() -> session + " is silent for " + silentMillis + " ms - closed");
+        session.close();
+    }
+
+    void sessionClosed(ServerSession session) {
+        if(this.sessions.remove(session.getId()) != null) {
+            LOG.debug(() -> session + " closed");
+            this.sessionFactory.sessionClosed(session);
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes all sessions
+     */
+    @Override
+    public synchronized void close() {
+        if(!this.running) {
+            return;
+        }
+        this.running = false;
+
+        this.acceptSelector.wakeup();
+        try {
+            this.acceptThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            this.acceptSelector.close();
+            this.serverChannel.close();
+        } catch (IOException e) {
+            LOG.warn("closing the server channel failed", e);
+        }
+
+        for(ServerSession session : this.sessions.values()) {
+            session.close();
+        }
+        for(IoWorker worker : this.workers) {
+            worker.stop();
+        }
+        try {
+            for(IoWorker worker : this.workers) {
+                worker.join(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.workers.clear();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the bound port, -1 if the server isn't running
+     */
+    public int getLocalPort() {
+        if(this.serverChannel == null || !this.serverChannel.isOpen()) {
+            return -1;
+        }
+        return this.serverChannel.socket().getLocalPort();
+    }
+
+    public int getNumberOfSessions() {
+        return this.sessions.size();
+    }
+
+    public ServerSession getSession(long id) {
+        return this.sessions.get(id);
+    }
+
+    public boolean isRunning() {
+        return this.running;
+    }
+}
@@ -0,0 +1,217 @@
+package network.server;
+
+import logging.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An I/O thread of the {@link GameServer}. It owns one selector and serves every session registered with it.
+ * Other threads never touch the selection keys, they queue a task and wake the selector up instead.
+ */
+final class IoWorker implements Runnable {
+    private static final Logger LOG = Logger.getLogger(IoWorker.class);
+
+    private static final int MAX_GATHERED_BUFFERS = 64;
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    //shared by all sessions of this worker, the bytes are copied into the inbound buffer of the session right away
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(ServerSession.BUFFER_SIZE);
+    //the shared buffers of one gathering write
+    private final ByteBuffer[] gatherBuffers = new ByteBuffer[MAX_GATHERED_BUFFERS];
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    IoWorker(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        this.thread.start();
+    }
+
+    void stop() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    void join(long millis) throws InterruptedException {
+        this.thread.join(millis);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                              requests of other threads                                         //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    void register(ServerSession session) {
+        this.execute(() -> {
+            try {
+                session.key = session.getChannel().register(this.selector, SelectionKey.OP_READ, session);
+            } catch (ClosedChannelException e) {
+                session.close();
+            }
+        });
+    }
+
+    void requestWrite(ServerSession session) {
+        if(session.writeRequested.compareAndSet(false, true)) {
+            this.execute(() -> this.addInterest(session, SelectionKey.OP_WRITE));
+        }
+    }
+
+    void resumeRead(ServerSession session) {
+        this.execute(() -> this.addInterest(session, SelectionKey.OP_READ));
+    }
+
+    private void execute(Runnable task) {
+        this.tasks.add(task);
+        this.selector.wakeup();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   I/O thread                                                   //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void run() {
+        while(this.running) {
+            try {
+                this.selector.select();
+            } catch (IOException e) {
+                LOG.error("selecting failed", e);
+                break;
+            }
+
+            Runnable task;
+            while((task = this.tasks.poll()) != null) {
+                task.run();
+            }
+
+            final Iterator<SelectionKey> selectedKeys = this.selector.selectedKeys().iterator();
+            while(selectedKeys.hasNext()) {
+                final SelectionKey key = selectedKeys.next();
+                selectedKeys.remove();
+
+                final ServerSession session = (ServerSession) key.attachment();
+                try {
+                    if(key.isValid() && key.isReadable()) {
+                        this.read(session);
+                    }
+                    if(key.isValid() && key.isWritable()) {
+                        this.write(session);
+                    }
+                } catch (IOException | CancelledKeyException e) {
+                    LOG.debug(() -> session + " closed: " + e.getMessage());
+                    session.close();
+                }
+            }
+        }
+
+        for(SelectionKey key : this.selector.keys()) {
+            ((ServerSession) key.attachment()).close();
+        }
+        try {
+            this.selector.close();
+        } catch (IOException ignore) {
+            //the worker is stopped anyway
+        }
+    }
+
+    private void read(ServerSession session) throws IOException {
+        final int free = session.getInbound().free();
+        if(free == 0) {
+            //the protocol engine is behind - stop reading until it has taken some bytes
+            this.removeInterest(session, SelectionKey.OP_READ);
+            session.readPaused.set(true);
+            //the engine may have taken bytes in the meantime without seeing the flag
+            if(session.getInbound().free() > 0 && session.readPaused.compareAndSet(true, false)) {
+                this.addInterest(session, SelectionKey.OP_READ);
+            }
+            return;
+        }
+
+        this.readBuffer.clear().limit(Math.min(free, this.readBuffer.capacity()));
+        final int n = session.getChannel().read(this.readBuffer);
+        if(n < 0) {
+            LOG.debug(() -> session + " closed by the client");
+            session.close();
+            return;
+        }
+        session.lastReadNanos = System.nanoTime();
+        this.readBuffer.flip();
+        session.getInbound().offer(this.readBuffer);
+    }
+
+    private void write(ServerSession session) throws IOException {
+        session.getOutbound().drainTo(session.getChannel());
+        if(session.getOutbound().size() == 0) {
+            this.writeShared(session);
+        }
+
+        if(!session.hasPendingWrites()) {
+            if(session.closeWhenSent) {
+                session.close();
+                return;
+            }
+            this.removeInterest(session, SelectionKey.OP_WRITE);
+            session.writeRequested.set(false);
+            //bytes written after the check above would not be requested again
+            if(session.hasPendingWrites() && session.writeRequested.compareAndSet(false, true)) {
+                this.addInterest(session, SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private void writeShared(ServerSession session) throws IOException {
+        synchronized (session.sharedBuffers) {
+            while(!session.sharedBuffers.isEmpty()) {
+                int n = 0;
+                long gathered = 0;
+                for(ByteBuffer buffer : session.sharedBuffers) {
+                    this.gatherBuffers[n++] = buffer;
+                    gathered += buffer.remaining();
+                    if(n == this.gatherBuffers.length) {
+                        break;
+                    }
+                }
+
+                final long written = session.getChannel().write(this.gatherBuffers, 0, n);
+                Arrays.fill(this.gatherBuffers, 0, n, null);
+                session.sharedBytes -= written;
+                while(!session.sharedBuffers.isEmpty() && !session.sharedBuffers.peekFirst().hasRemaining()) {
+                    session.sharedBuffers.pollFirst();
+                }
+                if(written < gathered) {
+                    //the socket buffer is full
+                    break;
+                }
+            }
+        }
+    }
+
+    private void addInterest(ServerSession session, int operation) {
+        if(session.key != null && session.key.isValid()) {
+            session.key.interestOps(session.key.interestOps() | operation);
+        }
+    }
+
+    private void removeInterest(ServerSession session, int operation) {
+        if(session.key != null && session.key.isValid()) {
+            session.key.interestOps(session.key.interestOps() & ~operation);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package network.server;
+
+import maumau.player.MauMauPlayer;
+import network.MauMauTCPProtocolEngine;
+import network.io.OverflowPolicy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hosts one game per session: the server side of every session is a {@link MauMauPlayer} with the first turn,
+ * connected to the client through its own {@link MauMauTCPProtocolEngine}.
+ */
+public class ProtocolEngineSessionFactory implements SessionFactory {
+    private final String hostName;
+    private final Map<ServerSession, MauMauPlayer> players = new ConcurrentHashMap<>();
+
+    public ProtocolEngineSessionFactory(String hostName) {
+        this.hostName = hostName;
+    }
+
+    @Override
+    public void sessionOpened(ServerSession session) {
+        //creates a new board, so every session plays with its own deck
+        final MauMauPlayer player = new MauMauPlayer(this.hostName, 0);
+        final MauMauTCPProtocolEngine protocolEngine = new MauMauTCPProtocolEngine(player, this.hostName);
+        player.setProtocolEngine(protocolEngine);
+        this.players.put(session, player);
+
+        //a client which doesn't read must not stall the server side player
+        session.getOutputStream().setOverflowPolicy(OverflowPolicy.DISCONNECT);
+        protocolEngine.handleConnection(session.getInputStream(), session.getOutputStream());
+    }
+
+    @Override
+    public void sessionClosed(ServerSession session) {
+        this.players.remove(session);
+    }
+
+    /**
+     * @return the server side player of the session, null if the session is closed
+     */
+    public MauMauPlayer getPlayer(ServerSession session) {
+        return this.players.get(session);
+    }
+}
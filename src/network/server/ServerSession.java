@@ -0,0 +1,244 @@
+package network.server;
+
+import network.io.BoundedOutputStream;
+import network.io.ByteRingBuffer;
+import network.io.OverflowPolicy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One client connection of the {@link GameServer}.
+ * The I/O thread of the session moves bytes between the socket channel and two ring buffers; the protocol engine of
+ * the session sees them as ordinary blocking streams.
+ */
+public final class ServerSession {
+    /**
+     * Size of the inbound and of the outbound buffer of every session
+     */
+    public static final int BUFFER_SIZE = 8 * 1024;
+
+    private final long id;
+    private final SocketChannel channel;
+    private final IoWorker worker;
+    private final GameServer server;
+
+    private final ByteRingBuffer inbound = new ByteRingBuffer(BUFFER_SIZE);
+    private final ByteRingBuffer outbound = new ByteRingBuffer(BUFFER_SIZE);
+    private final InputStream inputStream = new SessionInputStream();
+    private final BoundedOutputStream outputStream = new SessionOutputStream();
+
+    //buffers shared with other sessions, sent after the outbound buffer; guarded by itself
+    final ArrayDeque<ByteBuffer> sharedBuffers = new ArrayDeque<>();
+    long sharedBytes;
+
+    //only used by the I/O thread
+    SelectionKey key;
+
+    //set if reading from the channel was paused because the inbound buffer was full
+    final AtomicBoolean readPaused = new AtomicBoolean();
+    //set if the I/O thread was asked to write the outbound buffer
+    final AtomicBoolean writeRequested = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    //set if the session is closed as soon as everything queued was sent
+    volatile boolean closeWhenSent;
+    //time of the last bytes received from the client
+    volatile long lastReadNanos = System.nanoTime();
+
+    ServerSession(long id, SocketChannel channel, IoWorker worker, GameServer server) {
+        this.id = id;
+        this.channel = channel;
+        this.worker = worker;
+        this.server = server;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   getter                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * @return the stream of the bytes sent by the client. It blocks until data arrives and ends when the connection
+     * is closed.
+     */
+    public InputStream getInputStream() {
+        return this.inputStream;
+    }
+
+    /**
+     * @return the stream to the client. What a write does while the outbound buffer is full depends on the
+     * {@link OverflowPolicy} of the stream, by default it blocks.
+     */
+    public BoundedOutputStream getOutputStream() {
+        return this.outputStream;
+    }
+
+    public SocketAddress getRemoteAddress() {
+        try {
+            return this.channel.getRemoteAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public boolean isOpen() {
+        return !this.closed.get();
+    }
+
+    /**
+     * Queues read-only buffers which are shared with other sessions, e.g. the messages of a {@link Broadcast}.
+     * The bytes aren't copied: the session only keeps its own view of every buffer and the I/O thread sends them
+     * with gathering writes after the bytes of the output stream which are queued already.
+     * @param maxQueuedBytes the number of shared bytes which may wait to be sent
+     * @return false if the session is closed or the buffers don't fit, nothing was queued then
+     */
+    public boolean sendShared(ByteBuffer[] buffers, long maxQueuedBytes) {
+        long length = 0;
+        for(ByteBuffer buffer : buffers) {
+            length += buffer.remaining();
+        }
+
+        synchronized (this.sharedBuffers) {
+            if(!this.isOpen() || this.sharedBytes + length > maxQueuedBytes) {
+                return false;
+            }
+            for(ByteBuffer buffer : buffers) {
+                this.sharedBuffers.addLast(buffer.duplicate());
+            }
+            this.sharedBytes += length;
+        }
+        this.worker.requestWrite(this);
+        return true;
+    }
+
+    /**
+     * @return the number of shared bytes which wait to be sent
+     */
+    public long getSharedBytes() {
+        synchronized (this.sharedBuffers) {
+            return this.sharedBytes;
+        }
+    }
+
+    /**
+     * Closes the connection as soon as everything which is queued was sent
+     */
+    public void closeWhenSent() {
+        this.closeWhenSent = true;
+        this.worker.requestWrite(this);
+    }
+
+    /**
+     * Closes the connection. Bytes which were already received can still be read.
+     */
+    public void close() {
+        if(!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.inbound.close();
+        this.outbound.close();
+        synchronized (this.sharedBuffers) {
+            this.sharedBuffers.clear();
+            this.sharedBytes = 0;
+        }
+        try {
+            this.channel.close();
+        } catch (IOException ignore) {
+            //nothing left to do
+        }
+        this.server.sessionClosed(this);
+    }
+
+    @Override
+    public String toString() {
+        return "session " + this.id;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                 I/O thread                                                     //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    ByteRingBuffer getInbound() {
+        return this.inbound;
+    }
+
+    ByteRingBuffer getOutbound() {
+        return this.outbound;
+    }
+
+    boolean hasPendingWrites() {
+        return this.outbound.size() > 0 || this.getSharedBytes() > 0;
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  streams                                                       //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private class SessionInputStream extends InputStream {
+        private final byte[] single = new byte[1];
+
+        @Override
+        public int read() throws IOException {
+            final int n = this.read(this.single, 0, 1);
+            return n < 0 ? -1 : this.single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = inbound.take(b, off, len);
+            //there is free space again, so the I/O thread can continue reading
+            if(n > 0 && readPaused.compareAndSet(true, false)) {
+                worker.resumeRead(ServerSession.this);
+            }
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return inbound.size();
+        }
+
+        @Override
+        public void close() {
+            ServerSession.this.close();
+        }
+    }
+
+    private class SessionOutputStream extends BoundedOutputStream {
+        SessionOutputStream() {
+            super(outbound, OverflowPolicy.BLOCK);
+        }
+
+        @Override
+        protected void dataQueued() {
+            worker.requestWrite(ServerSession.this);
+        }
+
+        @Override
+        protected void overflowed() {
+            ServerSession.this.close();
+        }
+
+        @Override
+        public void close() {
+            ServerSession.this.close();
+        }
+    }
+}
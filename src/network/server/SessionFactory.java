@@ -0,0 +1,21 @@
+package network.server;
+
+/**
+ * Creates the game of a session when a client connects to the {@link GameServer}.
+ * Every session gets its own game, nothing is shared between the sessions.
+ */
+public interface SessionFactory {
+    /**
+     * Called once for every accepted connection, before the first byte of the client is read.
+     * Must not block - the protocol engine of the session runs on its own thread.
+     * @param session the new session
+     */
+    void sessionOpened(ServerSession session);
+
+    /**
+     * Called once when the connection of a session is closed
+     * @param session the closed session
+     */
+    default void sessionClosed(ServerSession session) {
+    }
+}
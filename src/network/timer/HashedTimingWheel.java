@@ -0,0 +1,237 @@
+package network.timer;
+
+import logging.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedules a large number of timeouts with one thread.
+ *
+ * The time is divided into ticks, the wheel has one bucket per tick and goes round. A timeout is put into the
+ * bucket of its deadline together with the number of rounds the wheel has to turn until then. Scheduling and
+ * cancelling cost O(1), on every tick only one bucket is looked at. A timeout runs at most one tick late.
+ *
+ * The tasks are handed to an executor, so a slow task doesn't delay the others.
+ */
+public final class HashedTimingWheel {
+    private static final Logger LOG = Logger.getLogger(HashedTimingWheel.class);
+
+    //number of new timeouts moved into the wheel per tick, the others wait for the next tick
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+
+    //scheduling and cancelling threads hand their timeouts over, only the wheel thread touches the buckets
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numberOfPendingTimeouts = new AtomicInteger();
+
+    private final Thread thread;
+    private final long startTime;
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * @param tickDuration the precision of the timeouts
+     * @param wheelSize the number of buckets, rounded up to a power of two. Should be about the longest usual
+     *                  timeout divided by the tick duration.
+     * @param executor runs the tasks of the expired timeouts
+     */
+    public HashedTimingWheel(long tickDuration, TimeUnit unit, int wheelSize, Executor executor) {
+        if(tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tick duration and wheel size must be positive");
+        }
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        //a power of two, so the bucket of a tick is found with a mask
+        int size = 1;
+        while(size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for(int i = 0; i < size; i++) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.executor = executor;
+
+        this.startTime = System.nanoTime();
+        this.thread = new Thread(this::run, "maumau-timer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                   methods                                                      //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Runs a task once after a delay
+     * @return the timeout which can be cancelled
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if(!this.running) {
+            throw new IllegalStateException("timing wheel is stopped");
+        }
+
+        final long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay)) - this.startTime;
+        final Timeout timeout = new Timeout(this, task, deadline);
+        this.numberOfPendingTimeouts.incrementAndGet();
+        this.newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the wheel, pending timeouts never run
+     */
+    public void stop() {
+        this.running = false;
+        this.thread.interrupt();
+    }
+
+    /**
+     * @return the number of timeouts which neither ran nor were cancelled
+     */
+    public int getNumberOfPendingTimeouts() {
+        return this.numberOfPendingTimeouts.get();
+    }
+
+    void cancelled(Timeout timeout) {
+        this.numberOfPendingTimeouts.decrementAndGet();
+        this.cancelledTimeouts.add(timeout);
+    }
+
+    void execute(Runnable task) {
+        this.numberOfPendingTimeouts.decrementAndGet();
+        try {
+            this.executor.execute(task);
+        } catch (RuntimeException e) {
+            LOG.error("a timeout task couldn't be started", e);
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //                                                  wheel thread                                                  //
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void run() {
+        while(this.running) {
+            if(!this.waitForNextTick()) {
+                break;
+            }
+
+            this.removeCancelledTimeouts();
+            this.transferNewTimeouts();
+            this.wheel[(int) (this.tick & this.mask)].expireTimeouts();
+            this.tick++;
+        }
+    }
+
+    /**
+     * @return false if the wheel was stopped while waiting
+     */
+    private boolean waitForNextTick() {
+        final long deadline = this.tickNanos * (this.tick + 1);
+        while(true) {
+            final long sleepNanos = deadline - (System.nanoTime() - this.startTime);
+            if(sleepNanos <= 0) {
+                return true;
+            }
+            try {
+                Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                if(!this.running) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void transferNewTimeouts() {
+        for(int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final Timeout timeout = this.newTimeouts.poll();
+            if(timeout == null) {
+                return;
+            }
+            if(timeout.isCancelled()) {
+                continue;
+            }
+
+            final long expiryTick = timeout.deadline / this.tickNanos;
+            timeout.remainingRounds = (expiryTick - this.tick) / this.wheel.length;
+            //a deadline in the past is served by the current tick
+            final long targetTick = Math.max(expiryTick, this.tick);
+            this.wheel[(int) (targetTick & this.mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while((timeout = this.cancelledTimeouts.poll()) != null) {
+            if(timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of the timeouts of one tick
+     */
+    static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if(this.head == null) {
+                this.head = this.tail = timeout;
+            } else {
+                this.tail.next = timeout;
+                timeout.previous = this.tail;
+                this.tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if(timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                this.head = timeout.next;
+            }
+            if(timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                this.tail = timeout.previous;
+            }
+            timeout.next = null;
+            timeout.previous = null;
+            timeout.bucket = null;
+        }
+
+        //a timeout in the bucket of the current tick with no rounds left is due before the end of the tick
+        void expireTimeouts() {
+            Timeout timeout = this.head;
+            while(timeout != null) {
+                final Timeout next = timeout.next;
+                if(timeout.remainingRounds <= 0) {
+                    this.remove(timeout);
+                    timeout.expire();
+                } else if(timeout.isCancelled()) {
+                    this.remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+}
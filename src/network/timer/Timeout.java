@@ -0,0 +1,62 @@
+package network.timer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A task scheduled on a {@link HashedTimingWheel}
+ */
+public final class Timeout {
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final HashedTimingWheel wheel;
+    private final Runnable task;
+    //nanoseconds since the start of the wheel
+    final long deadline;
+    private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+
+    //only used by the thread of the wheel
+    long remainingRounds;
+    Timeout next;
+    Timeout previous;
+    HashedTimingWheel.Bucket bucket;
+
+    Timeout(HashedTimingWheel wheel, Runnable task, long deadline) {
+        this.wheel = wheel;
+        this.task = task;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Cancels the task if it didn't run yet
+     * @return false if the task already ran or was cancelled before
+     */
+    public boolean cancel() {
+        if(!this.state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+            return false;
+        }
+        this.wheel.cancelled(this);
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return this.state.get() == STATE_CANCELLED;
+    }
+
+    public boolean isExpired() {
+        return this.state.get() == STATE_EXPIRED;
+    }
+
+    /**
+     * Runs the task unless it was cancelled
+     * @return true if the task was handed to the executor
+     */
+    boolean expire() {
+        if(!this.state.compareAndSet(STATE_PENDING, STATE_EXPIRED)) {
+            return false;
+        }
+        this.wheel.execute(this.task);
+        return true;
+    }
+}
@@ -18,7 +18,8 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Scanner;
 
-public class MauMauUI implements TCPStreamStatusListener, GameSessionEstablishedListener, BoardChangedListener {
+public class MauMauUI implements TCPStreamStatusListener, GameSessionEstablishedListener, BoardChangedListener,
+        ConnectionLostListener {
     private final String EXIT = "exit";
     private final String OPEN = "open";
     private final String CONNECT = "connect";
@@ -343,7 +344,7 @@ public class MauMauUI implements TCPStreamStatusListener, GameSessionEstablished
             }
 
             //card determined by user input
-            Card card = new MauMauCard(cardColor, cardType);
+            Card card = MauMauCard.of(cardColor, cardType);
 
             //play the card
             this.localPlayer.playCard(card, wishedColor);
@@ -447,6 +448,16 @@ public class MauMauUI implements TCPStreamStatusListener, GameSessionEstablished
 
     @Override
     public void streamCreated(TCPStream tcpStream) {
+        //the game goes on where the lost connection left it
+        if(this.protocolEngine != null && this.protocolEngine.canResumeSession()) {
+            this.outStream.println("TCP connection established - the game is resumed.");
+            try {
+                this.protocolEngine.handleConnection(tcpStream.getInputStream(), tcpStream.getOutputStream());
+            } catch (Exception e) {
+            }
+            return;
+        }
+
         this.outStream.println("TCP connection established - the game will start quite soon.");
 
         //set up players
@@ -464,6 +475,7 @@ public class MauMauUI implements TCPStreamStatusListener, GameSessionEstablished
         this.protocolEngine = new MauMauTCPProtocolEngine(this.localPlayer, this.playerName);
         this.localPlayer.setProtocolEngine(this.protocolEngine);
         this.protocolEngine.subscribeGameSessionEstablishedListener(this);
+        this.protocolEngine.subscribeConnectionLostListener(this);
 
         try {
             this.protocolEngine.handleConnection(tcpStream.getInputStream(), tcpStream.getOutputStream());
@@ -491,6 +503,17 @@ public class MauMauUI implements TCPStreamStatusListener, GameSessionEstablished
         this.doPrint();
     }
 
+    @Override
+    public void connectionLost(boolean resumable) {
+        this.tcpStream = null;
+        if(resumable) {
+            this.outStream.println("Connection lost - connect / open again to continue the game.");
+        } else {
+            this.gameSessionIsEstablished = false;
+            this.outStream.println("Connection lost - the game is over.");
+        }
+    }
+
     @Override
     public void boardChanged() {
         this.doPrint();
@@ -4,6 +4,7 @@ import maumau.cards.Card;
 import maumau.player.VisulizablePlayer;
 
 import java.io.PrintStream;
+import java.util.List;
 import java.util.Objects;
 
 public class GameVisualizer implements VisualizerBackdoor {
@@ -94,8 +95,11 @@ public class GameVisualizer implements VisualizerBackdoor {
      * Prints the board with the discard pile, deck, and the hand from the local player
      */
     public void printView() {
+        //the hand is created on demand by the player, so it's only requested once
+        final List<Card> hand = this.playerView.getPlayerHand();
+
         //determine the height of the array based on the number of cards on the player hand
-        final int NUMBER_OF_CARD_ROWS = this.playerView.getPlayerHand().size() / this.NUMBER_OF_CARDS_IN_ROW + 1;
+        final int NUMBER_OF_CARD_ROWS = hand.size() / this.NUMBER_OF_CARDS_IN_ROW + 1;
 
         final int BORDER_HEIGHT = 1 +                                            //symbol thickness
                 this.SPACE_TO_VIEW_BOARDER_TOP +                                 //space
@@ -122,8 +126,8 @@ public class GameVisualizer implements VisualizerBackdoor {
         int startYHandCards = this.HAND_TEXT_Y + 1;
 
         //Add all hand cards
-        for(int i = 0; i < this.playerView.getPlayerHand().size(); i++) {
-            this.insertArrayToArrayAtPosition(view, this.getCard(this.playerView.getPlayerHand().get(i)), startXHandCards, startYHandCards, this.CARD_WIDTH, this.CARD_HEIGHT);
+        for(int i = 0; i < hand.size(); i++) {
+            this.insertArrayToArrayAtPosition(view, this.getCard(hand.get(i)), startXHandCards, startYHandCards, this.CARD_WIDTH, this.CARD_HEIGHT);
 
 
             if(i % 5 == 4) {
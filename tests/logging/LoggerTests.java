@@ -0,0 +1,52 @@
+package logging;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LoggerTests {
+
+    /**
+     * Tests if messages below the configured level are never built
+     */
+    @Test
+    public void disabledMessageNotBuilt() {
+        final LogLevel previousLevel = Logger.getLevel();
+        Logger logger = Logger.getLogger(LoggerTests.class);
+
+        try {
+            Logger.setLevel(LogLevel.INFO);
+            Assert.assertFalse(logger.isDebugEnabled());
+            logger.debug(() -> {
+                Assert.fail("the message of a disabled level was built");
+                return "";
+            });
+
+            Logger.setLevel(LogLevel.OFF);
+            Assert.assertFalse(logger.isEnabled(LogLevel.ERROR));
+        } finally {
+            Logger.setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Tests if messages of the configured level and above are passed on
+     */
+    @Test
+    public void enabledMessageBuilt() {
+        final LogLevel previousLevel = Logger.getLevel();
+        Logger logger = Logger.getLogger(LoggerTests.class);
+        final boolean[] built = {false};
+
+        try {
+            Logger.setLevel(LogLevel.DEBUG);
+            logger.debug(() -> {
+                built[0] = true;
+                return "debug message from " + LoggerTests.class.getSimpleName();
+            });
+            Assert.assertTrue(built[0]);
+            Assert.assertTrue(logger.isEnabled(LogLevel.ERROR));
+        } finally {
+            Logger.setLevel(previousLevel);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package maumau.board;
 
 import maumau.board.deck.Deck;
+import maumau.board.deck.DeckTemplate;
 import maumau.board.deck.MauMauDeck;
 import maumau.board.deck.TCPDeck;
 import maumau.cards.Card;
@@ -22,12 +23,12 @@ public class BoardTest {
     @Test
     public void drawCardTest() throws ProvokedEmptyDeckException {
         List<Card> deckCards = new ArrayList<>();
-        Card deckCard = new MauMauCard(CardColor.CLUBS, CardType.TWO);
+        Card deckCard = MauMauCard.of(CardColor.CLUBS, CardType.TWO);
         deckCards.add(deckCard);
 
         List<Card> discardPile = new ArrayList<>();
         //just a card, so no card is drawn
-        discardPile.add(new MauMauCard(CardColor.SPADES, CardType.TWO));
+        discardPile.add(MauMauCard.of(CardColor.SPADES, CardType.TWO));
 
         TCPDeck deck = new MauMauDeck(deckCards);
 
@@ -52,13 +53,26 @@ public class BoardTest {
     }
 
 
+    /**
+     * Tests if a board can be configured with another number of start cards
+     */
+    @Test
+    public void configuredStartCardNumberCardsDrawn() {
+        final int startCardNumber = 5;
+        BoardBackdoor board = new MauMauBoard(DeckTemplate.SKAT, startCardNumber);
+
+        Assert.assertEquals(board.getStartCardNumber(), startCardNumber);
+        Assert.assertEquals(board.getStartCards().size(), startCardNumber);
+    }
+
+
     /**
      * Tests if a played card is added to the discard pile
      */
     @Test
     public void cardIsPlayed() {
         Board board = new MauMauBoard();
-        Card cardToBePlayed = new MauMauCard(CardColor.SPADES, CardType.TWO);
+        Card cardToBePlayed = MauMauCard.of(CardColor.SPADES, CardType.TWO);
         board.playCard(cardToBePlayed);
 
         Card lastPlayedCard = board.getLastPlayedCard();
@@ -76,11 +90,11 @@ public class BoardTest {
     public void discardPileCorrectlyAddedToDeck() throws ProvokedEmptyDeckException {
         List<Card> discardPile = new ArrayList<>();
         //the card which should remain after the discard pile is partially added to the deck
-        Card remainingCard = new MauMauCard(CardColor.SPADES, CardType.TWO);
+        Card remainingCard = MauMauCard.of(CardColor.SPADES, CardType.TWO);
         discardPile.add(remainingCard);
 
         //this card is currently on the discard pile, but it should be added to the deck later
-        Card deckCard = new MauMauCard(CardColor.CLUBS, CardType.THREE);
+        Card deckCard = MauMauCard.of(CardColor.CLUBS, CardType.THREE);
         discardPile.add(deckCard);
 
         //new board with empty deck
@@ -113,8 +127,8 @@ public class BoardTest {
         //two cards are on the deck
         //one is drawn so that the discard pile isn't empty
         //the second on can be drawn to make sure that the exception isn't thrown to early
-        deckCards.add(new MauMauCard(CardColor.SPADES, CardType.FOUR));
-        deckCards.add(new MauMauCard(CardColor.CLUBS, CardType.FIVE));
+        deckCards.add(MauMauCard.of(CardColor.SPADES, CardType.FOUR));
+        deckCards.add(MauMauCard.of(CardColor.CLUBS, CardType.FIVE));
         TCPDeck deck = new MauMauDeck(deckCards);
         Board board = new MauMauBoard(deck);
 
@@ -127,4 +141,37 @@ public class BoardTest {
 
         Assert.assertThrows(ProvokedEmptyDeckException.class, board::drawCard);
     }
+
+    /**
+     * Tests if every card except the top card is moved into the deck when a big discard pile is recycled
+     * @throws ProvokedEmptyDeckException shouldn't be thrown
+     */
+    @Test
+    public void bigDiscardPileRecycled() throws ProvokedEmptyDeckException {
+        //new board with empty deck and empty discard pile
+        BoardBackdoor board = new MauMauBoard(new MauMauDeck(new ArrayList<>()), new ArrayList<>());
+
+        //play every card twice so that the pile grows beyond one deck
+        for(int i = 0; i < 2; i++) {
+            for(Card card : MauMauCard.allCards()) {
+                board.playCard(card);
+            }
+        }
+        final int discardPileSize = board.getDiscardPile().size();
+        final Card topCard = board.getLastPlayedCard();
+
+        int drawnCards = 0;
+        try {
+            while(true) {
+                board.drawCard();
+                drawnCards++;
+            }
+        } catch (ProvokedEmptyDeckException e) {
+            //expected once every recycled card was drawn
+        }
+
+        Assert.assertEquals(drawnCards, discardPileSize - 1);
+        Assert.assertEquals(board.getDiscardPile().size(), 1);
+        Assert.assertSame(board.getLastPlayedCard(), topCard);
+    }
 }
@@ -2,13 +2,17 @@ package maumau.board.deck;
 
 import maumau.cards.Card;
 import maumau.cards.CardColor;
+import maumau.cards.CardSet;
 import maumau.cards.CardType;
 import maumau.cards.MauMauCard;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 public class DeckTests {
 
@@ -58,7 +62,7 @@ public class DeckTests {
     @Test
     public void addCardsTest() {
         List<Card> cardsToAdd = new ArrayList<>();
-        Card card = new MauMauCard(CardColor.SPADES, CardType.ACE);
+        Card card = MauMauCard.of(CardColor.SPADES, CardType.ACE);
         cardsToAdd.add(card);
 
         //the deck gets an empty list, so no other cards are left except the one added
@@ -68,4 +72,124 @@ public class DeckTests {
         Assert.assertEquals(card.getColor(), deck.getDeck().get(0).getColor());
         Assert.assertEquals(card.getType(), deck.getDeck().get(0).getType());
     }
+
+    /**
+     * Tests if cards added as ordinals are copied into the deck and the list view matches the deck
+     * @throws EmptyDeckException shouldn't be thrown
+     */
+    @Test
+    public void addCardOrdinalsTest() throws EmptyDeckException {
+        Card card = MauMauCard.of(CardColor.HEART, CardType.SEVEN);
+        byte[] ordinals = {0, (byte) card.getOrdinal(), 0};
+
+        DeckBackdoor deck = new MauMauDeck(new ArrayList<>());
+        deck.addCardsToDeck(ordinals, 1, 1);
+
+        Assert.assertEquals(deck.size(), 1);
+        Assert.assertEquals(deck.getDeck().get(0), card);
+        Assert.assertSame(deck.drawCard(), card);
+        Assert.assertEquals(deck.size(), 0);
+    }
+
+    /**
+     * Tests if two decks with the same seed have the same order
+     */
+    @Test
+    public void sameSeedSameDeckTest() {
+        final long seed = 4711;
+        DeckBackdoor deck = new MauMauDeck(seed);
+        DeckBackdoor sameDeck = new MauMauDeck(seed);
+
+        Assert.assertEquals(deck.getDeck(), sameDeck.getDeck());
+    }
+
+    /**
+     * Tests if shuffling keeps every card exactly once
+     */
+    @Test
+    public void shuffledDeckContainsAllCardsTest() {
+        DeckBackdoor deck = new MauMauDeck();
+
+        Set<Card> cards = new HashSet<>(deck.getDeck());
+
+        Assert.assertEquals(deck.size(), MauMauCard.NUMBER_OF_CARDS);
+        Assert.assertEquals(cards.size(), MauMauCard.NUMBER_OF_CARDS);
+    }
+
+    /**
+     * Tests if shuffling the first cards of an array of ordinals keeps them and leaves the cards behind them in place
+     */
+    @Test
+    public void shuffleOfOrdinalsTest() {
+        final byte[] ordinals = new byte[MauMauCard.NUMBER_OF_CARDS];
+        for(int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = (byte) i;
+        }
+        MauMauDeck.shuffle(ordinals, 10, new SplittableRandom(1));
+
+        long shuffled = 0;
+        for(int i = 0; i < 10; i++) {
+            shuffled |= 1L << ordinals[i];
+        }
+        Assert.assertEquals(shuffled, (1L << 10) - 1);
+        for(int i = 10; i < ordinals.length; i++) {
+            Assert.assertEquals(ordinals[i], i);
+        }
+    }
+
+    /**
+     * Tests if a deck shuffled on draw returns every card exactly once and also draws added cards
+     * @throws EmptyDeckException shouldn't be thrown
+     */
+    @Test
+    public void shuffleOnDrawTest() throws EmptyDeckException {
+        DeckBackdoor deck = new MauMauDeck(new SplittableRandom(42), ShuffleMode.ON_DRAW);
+
+        Set<Card> drawnCards = new HashSet<>();
+        while(deck.size() > 0) {
+            drawnCards.add(deck.drawCard());
+        }
+        Assert.assertEquals(drawnCards.size(), MauMauCard.NUMBER_OF_CARDS);
+
+        List<Card> cardsToAdd = new ArrayList<>(drawnCards);
+        deck.addCardsToDeck(cardsToAdd);
+        //adding doesn't shuffle in this mode
+        Assert.assertEquals(deck.getDeck(), cardsToAdd);
+
+        drawnCards.clear();
+        while(deck.size() > 0) {
+            drawnCards.add(deck.drawCard());
+        }
+        Assert.assertEquals(drawnCards.size(), MauMauCard.NUMBER_OF_CARDS);
+    }
+
+    /**
+     * Tests if a skat deck only consists of the 32 cards from seven to ace
+     */
+    @Test
+    public void skatDeckTest() {
+        DeckBackdoor deck = new MauMauDeck(DeckTemplate.SKAT);
+
+        Set<Card> cards = new HashSet<>(deck.getDeck());
+        Assert.assertEquals(deck.size(), 32);
+        Assert.assertEquals(cards.size(), 32);
+        for(Card card : cards) {
+            Assert.assertTrue(card.getType().compareTo(CardType.SEVEN) >= 0);
+        }
+    }
+
+    /**
+     * Tests if a shoe contains every card of the template once per deck
+     */
+    @Test
+    public void shoeTest() {
+        final int numberOfDecks = 3;
+        DeckBackdoor deck = new MauMauDeck(DeckTemplate.STANDARD.shoe(numberOfDecks));
+
+        CardSet cards = new CardSet(deck.getDeck());
+        Assert.assertEquals(deck.size(), numberOfDecks * MauMauCard.NUMBER_OF_CARDS);
+        for(Card card : MauMauCard.allCards()) {
+            Assert.assertEquals(cards.count(card), numberOfDecks);
+        }
+    }
 }
@@ -0,0 +1,196 @@
+package maumau.bot;
+
+import maumau.board.MauMauBoard;
+import maumau.board.deck.DeckTemplate;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+import maumau.game.GameState;
+import maumau.game.Strategy;
+import maumau.player.MauMauPlayer;
+import network.LoopbackConnection;
+import network.MauMauTCPProtocolEngine;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MonteCarloSearchTests {
+
+    /**
+     * Tests if a determinization keeps everything the seat on turn knows and deals exactly the unseen cards
+     */
+    @Test
+    public void determinizationKeepsWhatThePlayerKnows() {
+        SplittableRandom random = new SplittableRandom(1);
+        GameState state = GameState.deal(DeckTemplate.STANDARD, 3, 5, random).draw(random).draw(random);
+        InformationSet informationSet = InformationSet.of(state, 2);
+        PlayoutState playout = new PlayoutState();
+
+        for(int i = 0; i < 100; i++) {
+            informationSet.determinize(playout, random);
+            Assert.assertEquals(playout.hands[2], state.getHand(2));
+            Assert.assertEquals(playout.topCard, state.getTopCard().getOrdinal());
+            Assert.assertEquals(playout.discardPile, state.getDiscardPile());
+            Assert.assertEquals(playout.deckSize, state.getDeckSize());
+            Assert.assertEquals(playout.currentSeat, 2);
+
+            long unseen = 0;
+            for(int seat = 0; seat < 2; seat++) {
+                Assert.assertEquals(Long.bitCount(playout.hands[seat]), state.getHandSize(seat));
+                Assert.assertEquals(unseen & playout.hands[seat], 0L);
+                unseen |= playout.hands[seat];
+            }
+            for(int j = 0; j < playout.deckSize; j++) {
+                unseen |= 1L << playout.deck[j];
+            }
+            Assert.assertEquals(unseen, informationSet.getUnseenCards());
+        }
+    }
+
+    /**
+     * Tests if hand sizes which don't match the unseen cards are corrected
+     */
+    @Test
+    public void handSizesAreBalanced() {
+        final Card top = card(CardColor.HEART, CardType.TWO);
+        final long hand = mask(card(CardColor.HEART, CardType.THREE));
+        final long cards = InformationSet.cardsOf(DeckTemplate.STANDARD);
+        //50 unseen cards, 40 of them in the deck
+        InformationSet informationSet = new InformationSet(0, hand, top, null, 0, 0L, 40, new int[] {1, 3, 3}, cards);
+
+        Assert.assertEquals(informationSet.getHandSize(0), 1);
+        Assert.assertEquals(informationSet.getHandSize(1) + informationSet.getHandSize(2), 10);
+        Assert.assertEquals(informationSet.getDeckSize(), 40);
+    }
+
+    /**
+     * Tests if the search finds the only winning line: an eight skips the opponent with his last card
+     */
+    @Test
+    public void eightSkipsTheOpponentBeforeHeWins() {
+        final Card eight = card(CardColor.SPADES, CardType.EIGHT);
+        final Card five = card(CardColor.SPADES, CardType.FIVE);
+        final Card ace = card(CardColor.SPADES, CardType.ACE);
+        final byte[] deck = {(byte) card(CardColor.CLUBS, CardType.KING).getOrdinal()};
+        GameState state = GameState.create(new long[] {mask(eight) | mask(five), mask(ace)}, deck,
+                card(CardColor.SPADES, CardType.TWO), 0L, null, 0, 0);
+        MonteCarloSearch search = new MonteCarloSearch(1, 42L);
+        search.setMaxIterations(2_000);
+        search.setTimeBudget(10_000);
+
+        Assert.assertEquals(search.chooseMove(InformationSet.of(state, 0)), eight.getOrdinal());
+    }
+
+    /**
+     * Tests if the search draws without searching when nothing fits
+     */
+    @Test
+    public void drawsWithoutSearchingIfNothingFits() {
+        SplittableRandom random = new SplittableRandom(3);
+        GameState state = GameState.deal(DeckTemplate.STANDARD, 2, 5, random);
+        while(state.getPlayableMask() != 0) {
+            state = GameState.deal(DeckTemplate.STANDARD, 2, 5, random);
+        }
+        MonteCarloSearch search = new MonteCarloSearch(1, 3L);
+
+        Assert.assertEquals(search.chooseMove(InformationSet.of(state, 0)), Strategy.DRAW);
+        Assert.assertEquals(search.getLastIterations(), 0L);
+    }
+
+    /**
+     * Tests if the searches of both seats play legal moves to the end of a game and if the trees are reused between
+     * the turns
+     */
+    @Test
+    public void searchesPlayAGameAndReuseTheirTrees() {
+        SplittableRandom random = new SplittableRandom(5);
+        GameState state = GameState.deal(DeckTemplate.STANDARD, 2, 5, random);
+        MonteCarloSearch[] searches = {new MonteCarloSearch(2, 5L), new MonteCarloSearch(1, 6L)};
+        boolean reused = false;
+
+        for(int move = 0; move < 500 && !state.isOver(); move++) {
+            final int seat = state.getCurrentSeat();
+            reused |= searches[seat].getRootVisits() > 0;
+            searches[seat].setMaxIterations(500);
+            final int choice = searches[seat].chooseMove(InformationSet.of(state, seat));
+            final Card card = choice == Strategy.DRAW ? null : MauMauCard.fromOrdinal(choice);
+            for(MonteCarloSearch search : searches) {
+                search.moveMade(seat, card);
+            }
+            //GameState.play() throws if the card isn't allowed
+            state = card == null ? state.draw(random)
+                    : state.play(card, Strategy.mostFrequentColor(state.getHand(seat) & ~mask(card)), random);
+        }
+        Assert.assertTrue(state.isOver());
+        Assert.assertTrue(reused);
+    }
+
+    /**
+     * Tests the card mask helpers of the playouts
+     */
+    @Test
+    public void cardMaskHelpers() {
+        Assert.assertEquals(CardMasks.JACKS, mask(card(CardColor.CLUBS, CardType.JACK))
+                | mask(card(CardColor.SPADES, CardType.JACK)) | mask(card(CardColor.HEART, CardType.JACK))
+                | mask(card(CardColor.DIAMONDS, CardType.JACK)));
+
+        final long hand = mask(card(CardColor.SPADES, CardType.TWO)) | mask(card(CardColor.HEART, CardType.SEVEN))
+                | mask(card(CardColor.HEART, CardType.ACE));
+        Assert.assertEquals(CardMasks.mostFrequentColor(hand), CardColor.HEART.ordinal());
+        Assert.assertEquals(CardMasks.mostFrequentColor(hand), Strategy.mostFrequentColor(hand).ordinal());
+        Assert.assertEquals(CardMasks.mostFrequentColor(0), 0);
+        Assert.assertEquals(CardMasks.nthCard(hand, 0), card(CardColor.SPADES, CardType.TWO).getOrdinal());
+        Assert.assertEquals(CardMasks.nthCard(hand, 2), card(CardColor.HEART, CardType.ACE).getOrdinal());
+    }
+
+    /**
+     * Tests if two bots play against each other over a connection by themselves
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void botsPlayOverALoopbackConnection() throws Exception {
+        MauMauPlayer[] players = new MauMauPlayer[2];
+        MonteCarloBot[] bots = new MonteCarloBot[2];
+        MauMauTCPProtocolEngine[] engines = new MauMauTCPProtocolEngine[2];
+        CountDownLatch established = new CountDownLatch(2);
+        for(int seat = 0; seat < 2; seat++) {
+            players[seat] = new MauMauPlayer("Bot " + seat, seat, new MauMauBoard());
+            engines[seat] = new MauMauTCPProtocolEngine(players[seat], "Bot " + seat);
+            players[seat].setProtocolEngine(engines[seat]);
+            engines[seat].subscribeGameSessionEstablishedListener(name -> established.countDown());
+            MonteCarloSearch search = new MonteCarloSearch(1, seat);
+            search.setTimeBudget(1);
+            bots[seat] = new MonteCarloBot(players[seat], DeckTemplate.STANDARD, search);
+        }
+        LoopbackConnection connection = LoopbackConnection.connect(engines[0], engines[1]);
+        Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch moves = new CountDownLatch(20);
+        players[0].subscribeMoveListener((seat, card, wish, drawnCards) -> moves.countDown());
+        for(MonteCarloBot bot : bots) {
+            bot.start();
+        }
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while(!moves.await(10, TimeUnit.MILLISECONDS) && !bots[0].isGameOver()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        for(MonteCarloBot bot : bots) {
+            bot.stop();
+        }
+        connection.close();
+        Assert.assertTrue(moves.getCount() == 0 || bots[0].isGameOver());
+    }
+
+    private static MauMauCard card(CardColor color, CardType type) {
+        return MauMauCard.of(color, type);
+    }
+
+    private static long mask(Card card) {
+        return 1L << card.getOrdinal();
+    }
+}
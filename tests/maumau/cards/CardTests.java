@@ -0,0 +1,117 @@
+package maumau.cards;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class CardTests {
+
+    /**
+     * Tests if every color and type combination is always mapped to the same card instance
+     */
+    @Test
+    public void sameCardInstanceReturned() {
+        for(CardColor color : CardColor.values()) {
+            for(CardType type : CardType.values()) {
+                Card card = MauMauCard.of(color, type);
+
+                Assert.assertSame(card, MauMauCard.of(color, type));
+                Assert.assertSame(card, MauMauCard.fromOrdinal(card.getOrdinal()));
+                Assert.assertEquals(card.getColor(), color);
+                Assert.assertEquals(card.getType(), type);
+            }
+        }
+    }
+
+    /**
+     * Tests if the registry holds exactly 52 different cards
+     */
+    @Test
+    public void registryHoldsAllCards() {
+        Set<Card> cards = new HashSet<>(MauMauCard.allCards());
+
+        Assert.assertEquals(cards.size(), MauMauCard.NUMBER_OF_CARDS);
+        Assert.assertEquals(cards.size(), 52);
+    }
+
+    /**
+     * Tests if an unknown ordinal is rejected
+     */
+    @Test
+    public void unknownOrdinalRejected() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> MauMauCard.fromOrdinal(MauMauCard.NUMBER_OF_CARDS));
+        Assert.assertThrows(IllegalArgumentException.class, () -> MauMauCard.fromOrdinal(-1));
+    }
+
+    /**
+     * Tests adding, removing and looking up cards in a card set
+     */
+    @Test
+    public void cardSetAddRemoveContains() {
+        final Card aceOfSpades = MauMauCard.of(CardColor.SPADES, CardType.ACE);
+        final Card twoOfClubs = MauMauCard.of(CardColor.CLUBS, CardType.TWO);
+        CardSet cardSet = new CardSet();
+
+        Assert.assertTrue(cardSet.add(aceOfSpades));
+        Assert.assertTrue(cardSet.add(twoOfClubs));
+        Assert.assertEquals(cardSet.size(), 2);
+        Assert.assertTrue(cardSet.contains(aceOfSpades));
+
+        Assert.assertTrue(cardSet.remove(aceOfSpades));
+        Assert.assertFalse(cardSet.remove(aceOfSpades));
+        Assert.assertFalse(cardSet.contains(aceOfSpades));
+        Assert.assertEquals(cardSet.size(), 1);
+    }
+
+    /**
+     * Tests if a card set counts several copies of the same card (a hand from a shoe of several decks)
+     */
+    @Test
+    public void cardSetHoldsCopies() {
+        final Card aceOfSpades = MauMauCard.of(CardColor.SPADES, CardType.ACE);
+        final Card twoOfClubs = MauMauCard.of(CardColor.CLUBS, CardType.TWO);
+        CardSet cardSet = new CardSet();
+
+        Assert.assertTrue(cardSet.add(aceOfSpades));
+        //the second copy is added, but it's not a new card in the set
+        Assert.assertFalse(cardSet.add(aceOfSpades));
+        Assert.assertFalse(cardSet.add(aceOfSpades));
+        cardSet.add(twoOfClubs);
+        Assert.assertEquals(cardSet.size(), 4);
+        Assert.assertEquals(cardSet.count(aceOfSpades), 3);
+        Assert.assertEquals(cardSet.toList().size(), 4);
+        Assert.assertEquals(cardSet.getMask(), (1L << aceOfSpades.getOrdinal()) | (1L << twoOfClubs.getOrdinal()));
+
+        Assert.assertTrue(cardSet.remove(aceOfSpades));
+        Assert.assertTrue(cardSet.remove(aceOfSpades));
+        Assert.assertTrue(cardSet.contains(aceOfSpades));
+        Assert.assertTrue(cardSet.remove(aceOfSpades));
+        Assert.assertFalse(cardSet.contains(aceOfSpades));
+
+        //empty extra masks don't make two sets different
+        CardSet sameCardSet = new CardSet();
+        sameCardSet.add(twoOfClubs);
+        Assert.assertEquals(cardSet, sameCardSet);
+        Assert.assertEquals(cardSet.hashCode(), sameCardSet.hashCode());
+    }
+
+    /**
+     * Tests if a card set is always iterated ordered by the card ordinals
+     */
+    @Test
+    public void cardSetIteratedInOrdinalOrder() {
+        CardSet cardSet = new CardSet();
+        for(int i = MauMauCard.NUMBER_OF_CARDS - 1; i >= 0; i--) {
+            cardSet.add(MauMauCard.fromOrdinal(i));
+        }
+
+        int expectedOrdinal = 0;
+        for(Card card : cardSet) {
+            Assert.assertEquals(card.getOrdinal(), expectedOrdinal++);
+        }
+        Assert.assertEquals(expectedOrdinal, MauMauCard.NUMBER_OF_CARDS);
+        Assert.assertEquals(cardSet.toList(), MauMauCard.allCards());
+    }
+}
@@ -0,0 +1,56 @@
+package maumau.game;
+
+import maumau.board.deck.DeckTemplate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class GameSimulatorTests {
+
+    /**
+     * Tests if the same seed gives the same statistics on one thread and on many
+     */
+    @Test
+    public void sameSeedGivesSameStatistics() {
+        GameSimulator simulator = new GameSimulator(DeckTemplate.STANDARD, 5, 42L,
+                BasicStrategy.GREEDY, BasicStrategy.RANDOM, BasicStrategy.RANDOM);
+        SimulationStatistics parallel = simulator.simulate(20_000);
+
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        try {
+            simulator.setPool(singleThread);
+            SimulationStatistics sequential = simulator.simulate(20_000);
+
+            Assert.assertEquals(sequential.getTotalMoves(), parallel.getTotalMoves());
+            Assert.assertEquals(sequential.getReshuffles(), parallel.getReshuffles());
+            for(int seat = 0; seat < 3; seat++) {
+                Assert.assertEquals(sequential.getWins(seat), parallel.getWins(seat));
+            }
+        } finally {
+            singleThread.shutdown();
+        }
+    }
+
+    /**
+     * Tests if every game is counted once, either with a winner or as unfinished, and if the progress is reported
+     */
+    @Test
+    public void everyGameIsCounted() {
+        GameSimulator simulator = new GameSimulator(DeckTemplate.SKAT, 5, 7L,
+                BasicStrategy.RANDOM, BasicStrategy.RANDOM);
+        simulator.setMaxMoves(30);
+        List<Long> progress = new ArrayList<>();
+        SimulationStatistics statistics = simulator.simulate(100_000, batch -> progress.add(batch.getNumberOfGames()));
+
+        Assert.assertEquals(statistics.getNumberOfGames(), 100_000L);
+        Assert.assertEquals(statistics.getWins(0) + statistics.getWins(1) + statistics.getUnfinishedGames(), 100_000L);
+        Assert.assertTrue(statistics.getUnfinishedGames() > 0);
+        Assert.assertTrue(statistics.getMaxGameLength() <= 30);
+        Assert.assertTrue(statistics.getMinGameLength() >= 1);
+        Assert.assertEquals(progress.get(progress.size() - 1), Long.valueOf(100_000L));
+        Assert.assertTrue(progress.size() > 1);
+    }
+}
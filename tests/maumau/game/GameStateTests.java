@@ -0,0 +1,151 @@
+package maumau.game;
+
+import maumau.board.deck.DeckTemplate;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.SplittableRandom;
+
+public class GameStateTests {
+
+    private static long mask(Card... cards) {
+        long mask = 0;
+        for(Card card : cards) {
+            mask |= 1L << card.getOrdinal();
+        }
+        return mask;
+    }
+
+    private static Card card(CardColor color, CardType type) {
+        return MauMauCard.of(color, type);
+    }
+
+    /**
+     * Tests if every card of the deck is at exactly one place after dealing
+     */
+    @Test
+    public void dealingKeepsEveryCard() {
+        GameState state = GameState.deal(DeckTemplate.SKAT, 3, 5, new SplittableRandom(1));
+
+        long seen = mask(state.getTopCard()) | state.getDiscardPile();
+        for(int seat = 0; seat < 3; seat++) {
+            Assert.assertEquals(state.getHandSize(seat), 5);
+            Assert.assertEquals(seen & state.getHand(seat), 0L);
+            seen |= state.getHand(seat);
+        }
+        for(int i = 0; i < state.getDeckSize(); i++) {
+            long bit = mask(state.getDeckCard(i));
+            Assert.assertEquals(seen & bit, 0L);
+            seen |= bit;
+        }
+        Assert.assertEquals(Long.bitCount(seen), DeckTemplate.SKAT.size());
+        Assert.assertEquals(state.getCurrentSeat(), 0);
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> GameState.deal(DeckTemplate.STANDARD.shoe(2), 2, 5, new SplittableRandom()));
+    }
+
+    /**
+     * Tests if a move creates a new state and leaves the old one as it was
+     */
+    @Test
+    public void movesDontChangeTheOldState() {
+        GameState state = GameState.deal(DeckTemplate.STANDARD, 2, 5, new SplittableRandom(2));
+        long hand = state.getHand(0);
+        int deckSize = state.getDeckSize();
+
+        GameState next = state.draw(new SplittableRandom());
+        Assert.assertEquals(state.getHand(0), hand);
+        Assert.assertEquals(state.getDeckSize(), deckSize);
+        Assert.assertEquals(next.getHandSize(0), 6);
+        Assert.assertEquals(next.getDeckSize(), deckSize - 1);
+        Assert.assertEquals(next.getCurrentSeat(), 1);
+    }
+
+    /**
+     * Tests if an eight skips the next seat, a jack sets the wish and an answered seven costs two cards
+     */
+    @Test
+    public void specialCardsFollowTheRules() {
+        Card eight = card(CardColor.HEART, CardType.EIGHT);
+        Card jack = card(CardColor.CLUBS, CardType.JACK);
+        Card seven = card(CardColor.HEART, CardType.SEVEN);
+        Card spadesFour = card(CardColor.SPADES, CardType.FOUR);
+        byte[] deck = {(byte) card(CardColor.DIAMONDS, CardType.TWO).getOrdinal(),
+                (byte) card(CardColor.DIAMONDS, CardType.THREE).getOrdinal()};
+        long[] hands = {mask(eight, jack), mask(seven, card(CardColor.HEART, CardType.ACE)),
+                mask(spadesFour, card(CardColor.CLUBS, CardType.TEN))};
+        GameState state = GameState.create(hands,
+                deck, card(CardColor.HEART, CardType.TWO), 0L, null, 0, 0);
+
+        state = state.play(eight, null, new SplittableRandom());
+        Assert.assertEquals(state.getCurrentSeat(), 2);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> GameState.create(new long[] {mask(jack), mask(jack)},
+                new byte[0], eight, 0L, null, 0, 0));
+        GameState drawn = state.draw(new SplittableRandom());
+        Assert.assertEquals(drawn.getCurrentSeat(), 0);
+
+        GameState wished = drawn.play(jack, CardColor.SPADES, new SplittableRandom());
+        Assert.assertEquals(wished.getWishedColor(), CardColor.SPADES);
+        Assert.assertEquals(wished.getPlayableMask(), 0L);
+        Assert.assertTrue(wished.isOver());
+        Assert.assertEquals(wished.getWinner(), 0);
+        Assert.assertThrows(IllegalStateException.class, () -> wished.draw(new SplittableRandom()));
+
+        //Bob plays a seven, Carl answers with another heart and takes two cards
+        Card heartFour = card(CardColor.HEART, CardType.FOUR);
+        GameState sevenState = GameState.create(
+                new long[] {mask(jack), mask(seven, card(CardColor.CLUBS, CardType.ACE)), mask(heartFour, spadesFour)},
+                deck, card(CardColor.HEART, CardType.TWO), 0L, null, 0, 1);
+        sevenState = sevenState.play(seven, null, new SplittableRandom());
+        Assert.assertEquals(sevenState.getSevenStack(), 1);
+        sevenState = sevenState.play(heartFour, null, new SplittableRandom());
+        Assert.assertEquals(sevenState.getSevenStack(), 0);
+        Assert.assertEquals(sevenState.getHandSize(2), 3);
+        Assert.assertEquals(sevenState.getDeckSize(), 0);
+        Assert.assertEquals(sevenState.getCurrentSeat(), 0);
+    }
+
+    /**
+     * Tests if the discard pile is shuffled into an empty deck and a seven penalty is taken by drawing
+     */
+    @Test
+    public void emptyDeckIsRefilled() {
+        Card top = card(CardColor.HEART, CardType.TWO);
+        long discardPile = mask(card(CardColor.CLUBS, CardType.TWO), card(CardColor.CLUBS, CardType.THREE),
+                card(CardColor.CLUBS, CardType.FOUR));
+        long[] hands = {mask(card(CardColor.SPADES, CardType.ACE)), mask(card(CardColor.SPADES, CardType.KING))};
+        GameState state = GameState.create(hands, new byte[0], top, discardPile, null, 1, 0);
+
+        GameState next = state.draw(new SplittableRandom(3));
+        Assert.assertEquals(next.getHandSize(0), 3);
+        Assert.assertEquals(next.getDeckSize(), 1);
+        Assert.assertEquals(next.getDiscardPile(), 0L);
+        Assert.assertEquals(next.getSevenStack(), 0);
+        Assert.assertEquals(next.getTopCard(), top);
+    }
+
+    /**
+     * Tests if the same moves with the same randomness lead to equal states
+     */
+    @Test
+    public void equalGamesHaveEqualStates() {
+        GameState first = GameState.deal(DeckTemplate.STANDARD, 4, 5, new SplittableRandom(4));
+        GameState second = GameState.deal(DeckTemplate.STANDARD, 4, 5, new SplittableRandom(4));
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(first.hashCode(), second.hashCode());
+
+        SplittableRandom firstRandom = new SplittableRandom(5);
+        SplittableRandom secondRandom = new SplittableRandom(5);
+        for(int i = 0; i < 10; i++) {
+            first = first.draw(firstRandom);
+            second = second.draw(secondRandom);
+        }
+        Assert.assertEquals(first, second);
+        Assert.assertNotEquals(first, GameState.deal(DeckTemplate.STANDARD, 4, 5, new SplittableRandom(4)));
+    }
+}
@@ -0,0 +1,66 @@
+package maumau.player;
+
+import maumau.board.MauMauBoard;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+
+public class TurnRingTests {
+
+    /**
+     * Tests if the turn goes around the table and wraps after the last seat
+     */
+    @Test
+    public void turnGoesAroundTheTable() {
+        TurnRing ring = new TurnRing(4);
+        Assert.assertEquals(ring.getCurrentSeat(), 0);
+        Assert.assertEquals(ring.advance(), 1);
+        Assert.assertEquals(ring.advance(), 2);
+        Assert.assertEquals(ring.advance(), 3);
+        Assert.assertEquals(ring.advance(), 0);
+    }
+
+    /**
+     * Tests if skipped seats lose their turn, also when more seats are skipped than the table has
+     */
+    @Test
+    public void skippedSeatsLoseTheirTurn() {
+        TurnRing ring = new TurnRing(3);
+        Assert.assertEquals(ring.advance(1), 2);
+        Assert.assertEquals(ring.advance(1), 1);
+
+        TurnRing twoSeats = new TurnRing(2);
+        //an eight at a table of two gives the same player another turn
+        Assert.assertEquals(twoSeats.advance(1), 0);
+
+        TurnRing eightSeats = new TurnRing(8);
+        Assert.assertEquals(eightSeats.advance(20), 5);
+    }
+
+    /**
+     * Tests if the turn goes the other way round after the direction was reversed
+     */
+    @Test
+    public void reversedRingGoesBackwards() {
+        TurnRing ring = new TurnRing(5);
+        ring.advance();
+        ring.reverse();
+        Assert.assertEquals(ring.getDirection(), TurnRing.COUNTERCLOCKWISE);
+        Assert.assertEquals(ring.getNextSeat(), 0);
+        Assert.assertEquals(ring.advance(), 0);
+        Assert.assertEquals(ring.advance(), 4);
+        Assert.assertEquals(ring.advance(1), 2);
+    }
+
+    /**
+     * Tests if tables with too few or too many seats are refused
+     */
+    @Test
+    public void tableSizeIsChecked() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new TurnRing(1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new TurnRing(9));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> new MauMauPlayer("Alice", 3, 3, new ArrayList<>(), new MauMauBoard()));
+    }
+}
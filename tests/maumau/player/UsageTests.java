@@ -33,8 +33,8 @@ public class UsageTests {
      */
     @Test
     public void playerHasNoSuchCardException() {
-        final Card aliceCard = new MauMauCard(CardColor.CLUBS, CardType.ACE);
-        final Card notAliceCard = new MauMauCard(CardColor.HEART, CardType.TEN);
+        final Card aliceCard = MauMauCard.of(CardColor.CLUBS, CardType.ACE);
+        final Card notAliceCard = MauMauCard.of(CardColor.HEART, CardType.TEN);
 
         List<Card> aliceHandCards = new ArrayList<>();
         aliceHandCards.add(aliceCard);
@@ -58,58 +58,109 @@ public class UsageTests {
 
         List<Card> aliceHand = new ArrayList<>();
         //alice start hand cards
-        aliceHand.add(new MauMauCard(CardColor.CLUBS, CardType.TWO));
-        aliceHand.add(new MauMauCard(CardColor.CLUBS, CardType.THREE));
-        aliceHand.add(new MauMauCard(CardColor.CLUBS, CardType.FOUR));
-        aliceHand.add(new MauMauCard(CardColor.CLUBS, CardType.FIVE));
-        aliceHand.add(new MauMauCard(CardColor.CLUBS, CardType.SIX));
-        aliceHand.add(new MauMauCard(CardColor.CLUBS, CardType.SEVEN));
+        aliceHand.add(MauMauCard.of(CardColor.CLUBS, CardType.TWO));
+        aliceHand.add(MauMauCard.of(CardColor.CLUBS, CardType.THREE));
+        aliceHand.add(MauMauCard.of(CardColor.CLUBS, CardType.FOUR));
+        aliceHand.add(MauMauCard.of(CardColor.CLUBS, CardType.FIVE));
+        aliceHand.add(MauMauCard.of(CardColor.CLUBS, CardType.SIX));
+        aliceHand.add(MauMauCard.of(CardColor.CLUBS, CardType.SEVEN));
 
 
         List<Card> bobHand = new ArrayList<>();
         //bob start hand cards
-        bobHand.add(new MauMauCard(CardColor.CLUBS, CardType.NINE));
-        bobHand.add(new MauMauCard(CardColor.CLUBS, CardType.TEN));
-        bobHand.add(new MauMauCard(CardColor.CLUBS, CardType.JACK));
-        bobHand.add(new MauMauCard(CardColor.CLUBS, CardType.QUEEN));
-        bobHand.add(new MauMauCard(CardColor.CLUBS, CardType.KING));
-        bobHand.add(new MauMauCard(CardColor.CLUBS, CardType.ACE));
+        bobHand.add(MauMauCard.of(CardColor.CLUBS, CardType.NINE));
+        bobHand.add(MauMauCard.of(CardColor.CLUBS, CardType.TEN));
+        bobHand.add(MauMauCard.of(CardColor.CLUBS, CardType.JACK));
+        bobHand.add(MauMauCard.of(CardColor.CLUBS, CardType.QUEEN));
+        bobHand.add(MauMauCard.of(CardColor.CLUBS, CardType.KING));
+        bobHand.add(MauMauCard.of(CardColor.CLUBS, CardType.ACE));
 
 
         PlayerBackdoor alice = new MauMauPlayer("Alice", 0, aliceHand, board);
         PlayerBackdoor bob = new MauMauPlayer("Bob", 1, bobHand, board);
 
-        Assert.assertFalse(alice.playCard(new MauMauCard(CardColor.CLUBS, CardType.TWO), null));
+        Assert.assertFalse(alice.playCard(MauMauCard.of(CardColor.CLUBS, CardType.TWO), null));
         this.updatePlayerTurnIndex(bob);
 
-        Assert.assertFalse(bob.playCard(new MauMauCard(CardColor.CLUBS, CardType.NINE), null));
+        Assert.assertFalse(bob.playCard(MauMauCard.of(CardColor.CLUBS, CardType.NINE), null));
         this.updatePlayerTurnIndex(alice);
 
-        Assert.assertFalse(alice.playCard(new MauMauCard(CardColor.CLUBS, CardType.THREE), null));
+        Assert.assertFalse(alice.playCard(MauMauCard.of(CardColor.CLUBS, CardType.THREE), null));
         this.updatePlayerTurnIndex(bob);
 
-        Assert.assertFalse(bob.playCard(new MauMauCard(CardColor.CLUBS, CardType.TEN), null));
+        Assert.assertFalse(bob.playCard(MauMauCard.of(CardColor.CLUBS, CardType.TEN), null));
         this.updatePlayerTurnIndex(alice);
 
-        Assert.assertFalse(alice.playCard(new MauMauCard(CardColor.CLUBS, CardType.FOUR), null));
+        Assert.assertFalse(alice.playCard(MauMauCard.of(CardColor.CLUBS, CardType.FOUR), null));
         this.updatePlayerTurnIndex(bob);
 
-        Assert.assertFalse(bob.playCard(new MauMauCard(CardColor.CLUBS, CardType.JACK), null));
+        Assert.assertFalse(bob.playCard(MauMauCard.of(CardColor.CLUBS, CardType.JACK), null));
         this.updatePlayerTurnIndex(alice);
 
-        Assert.assertFalse(alice.playCard(new MauMauCard(CardColor.CLUBS, CardType.FIVE), null));
+        Assert.assertFalse(alice.playCard(MauMauCard.of(CardColor.CLUBS, CardType.FIVE), null));
         this.updatePlayerTurnIndex(bob);
 
-        Assert.assertFalse(bob.playCard(new MauMauCard(CardColor.CLUBS, CardType.QUEEN), null));
+        Assert.assertFalse(bob.playCard(MauMauCard.of(CardColor.CLUBS, CardType.QUEEN), null));
         this.updatePlayerTurnIndex(alice);
 
-        Assert.assertFalse(alice.playCard(new MauMauCard(CardColor.CLUBS, CardType.SIX), null));
+        Assert.assertFalse(alice.playCard(MauMauCard.of(CardColor.CLUBS, CardType.SIX), null));
         this.updatePlayerTurnIndex(bob);
 
-        Assert.assertFalse(bob.playCard(new MauMauCard(CardColor.CLUBS, CardType.KING), null));
+        Assert.assertFalse(bob.playCard(MauMauCard.of(CardColor.CLUBS, CardType.KING), null));
         this.updatePlayerTurnIndex(alice);
 
-        Assert.assertTrue(alice.playCard(new MauMauCard(CardColor.CLUBS, CardType.SEVEN), null));
+        Assert.assertTrue(alice.playCard(MauMauCard.of(CardColor.CLUBS, CardType.SEVEN), null));
+    }
+
+    /**
+     * Tests if answering a seven with another card draws the penalty within one turn
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void otherCardOnASevenTakesThePenalty() throws Exception {
+        final MauMauPlayer bob = this.sevenStackedOnBob(MauMauCard.of(CardColor.SPADES, CardType.FIVE));
+        final int deckSize = bob.getDeck().size();
+
+        Assert.assertFalse(bob.playCard(MauMauCard.of(CardColor.SPADES, CardType.FIVE), null));
+        Assert.assertEquals(bob.getPlayerHand().size(), 3);
+        Assert.assertEquals(bob.getDeck().size(), deckSize - 2);
+        Assert.assertEquals(bob.getCurrentSeat(), 0);
+    }
+
+    /**
+     * Tests if drawing on a seven takes the whole penalty and passes the turn once
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void drawingOnASevenTakesThePenalty() throws Exception {
+        final MauMauPlayer bob = this.sevenStackedOnBob(MauMauCard.of(CardColor.HEART, CardType.FIVE));
+        final int deckSize = bob.getDeck().size();
+
+        bob.drawCard();
+        Assert.assertEquals(bob.getPlayerHand().size(), 4);
+        Assert.assertEquals(bob.getDeck().size(), deckSize - 2);
+        Assert.assertEquals(bob.getCurrentSeat(), 0);
+
+        //the stack is closed, the next draw is a single card
+        bob.increasePlayerIndex();
+        bob.drawCard();
+        Assert.assertEquals(bob.getPlayerHand().size(), 5);
+    }
+
+    //Alice plays a seven, Bob holds the given card and a king
+    private MauMauPlayer sevenStackedOnBob(Card bobCard) throws Exception {
+        final Card seven = MauMauCard.of(CardColor.SPADES, CardType.SEVEN);
+        TCPNetworkBoard board = new MauMauBoard(new MauMauDeck(new ArrayList<>(MauMauCard.allCards())),
+                List.of(MauMauCard.of(CardColor.SPADES, CardType.TWO)));
+        MauMauPlayer alice = new MauMauPlayer("Alice", 0,
+                new ArrayList<>(List.of(seven, MauMauCard.of(CardColor.CLUBS, CardType.ACE))), board);
+        MauMauPlayer bob = new MauMauPlayer("Bob", 1,
+                new ArrayList<>(List.of(bobCard, MauMauCard.of(CardColor.CLUBS, CardType.KING))), board);
+
+        alice.playCard(seven, null);
+        bob.incrementSevenStackCount();
+        bob.increasePlayerIndex();
+        return bob;
     }
 
     private void updatePlayerTurnIndex(PlayerBackdoor player) {
@@ -120,7 +171,7 @@ public class UsageTests {
         List<Card> cards = new ArrayList<>();
 
         //the first card on the discard pile
-        cards.add(new MauMauCard(CardColor.SPADES, CardType.TWO));
+        cards.add(MauMauCard.of(CardColor.SPADES, CardType.TWO));
 
         return cards;
     }
@@ -2,6 +2,7 @@ package maumau.verifier;
 
 import maumau.cards.Card;
 import maumau.cards.CardColor;
+import maumau.cards.CardSet;
 import maumau.cards.CardType;
 import maumau.cards.MauMauCard;
 import org.testng.Assert;
@@ -16,12 +17,12 @@ public class VerifierTests {
         //foreach card color
         for(CardColor cardColor : CardColor.values()) {
             //just an example card with the current color and no jack
-            Card currentCard = new MauMauCard(cardColor, CardType.ACE);
+            Card currentCard = MauMauCard.of(cardColor, CardType.ACE);
             //foreach card type from this color
             for (CardType cardType : CardType.values()) {
                 //see if true is returned
                 //wished color is null because every card is an ace and not a jack
-                Assert.assertTrue(ruleVerifier.canPlayCard(currentCard, new MauMauCard(cardColor, cardType), null));
+                Assert.assertTrue(ruleVerifier.canPlayCard(currentCard, MauMauCard.of(cardColor, cardType), null));
             }
         }
     }
@@ -33,12 +34,12 @@ public class VerifierTests {
         //foreach card color
         for(CardType cardType : CardType.values()) {
             //just an example card with the current type and any color
-            Card currentCard = new MauMauCard(CardColor.CLUBS, cardType);
+            Card currentCard = MauMauCard.of(CardColor.CLUBS, cardType);
             //foreach card color from this type
             for (CardColor cardColor : CardColor.values()) {
                 //see if true is returned
                 //the wished card color is always the color of the card, that should be played
-                Assert.assertTrue(ruleVerifier.canPlayCard(new MauMauCard(cardColor, cardType), currentCard, cardColor));
+                Assert.assertTrue(ruleVerifier.canPlayCard(MauMauCard.of(cardColor, cardType), currentCard, cardColor));
             }
         }
     }
@@ -52,7 +53,7 @@ public class VerifierTests {
         //foreach card color
         for(CardColor cardColor : CardColor.values()) {
             //just an example card with the current color and no jack
-            Card currentCard = new MauMauCard(cardColor, CardType.ACE);
+            Card currentCard = MauMauCard.of(cardColor, CardType.ACE);
 
             //Select a different card color then the current one to make sure it was checked for a jack
             CardColor differentCardColor = null;
@@ -62,7 +63,7 @@ public class VerifierTests {
             }
 
             //the wished card color is not the card color of to be played Jack, to make sure that a jack can be played even if another color was wished
-            Assert.assertTrue(ruleVerifier.canPlayCard(new MauMauCard(differentCardColor, CardType.JACK), currentCard, null));
+            Assert.assertTrue(ruleVerifier.canPlayCard(MauMauCard.of(differentCardColor, CardType.JACK), currentCard, null));
         }
     }
 
@@ -77,12 +78,12 @@ public class VerifierTests {
         //foreach card color
         for(CardColor lastJackCardColor : CardColor.values()) {
 
-            Card lastJack = new MauMauCard(lastJackCardColor, CardType.JACK);
+            Card lastJack = MauMauCard.of(lastJackCardColor, CardType.JACK);
 
             //foreach
             for(CardColor currentJackCardColor : CardColor.values()) {
 
-                Card currentJack = new MauMauCard(currentJackCardColor, CardType.JACK);
+                Card currentJack = MauMauCard.of(currentJackCardColor, CardType.JACK);
 
                 if(lastJackCardColor != currentJackCardColor) {
                     //check if the current jack can be played even if he is from another color than the wished color is
@@ -104,7 +105,7 @@ public class VerifierTests {
             //foreach card type from this color
             for (CardType cardType : CardType.values()) {
                 //just an example card with the current color and type representing any card on the discard pile
-                Card currentCard = new MauMauCard(cardColor, cardType);
+                Card currentCard = MauMauCard.of(cardColor, cardType);
 
 
                 for(CardColor differentCardColor : CardColor.values()) {
@@ -115,10 +116,47 @@ public class VerifierTests {
                         if(differentCardType == cardType || differentCardType == CardType.JACK ) {
                             continue; //skip this type if it's the type of the card on the discard pile or a jack
                         }
-                        Assert.assertFalse(ruleVerifier.canPlayCard(new MauMauCard(differentCardColor, differentCardType), currentCard, null));
+                        Assert.assertFalse(ruleVerifier.canPlayCard(MauMauCard.of(differentCardColor, differentCardType), currentCard, null));
                     }
                 }
             }
         }
     }
+
+    /**
+     * Tests if the playable mask after a jack with a wished color contains exactly the wished color and all jacks
+     */
+    @Test
+    public void playableMaskRespectsWishedColor() {
+        Rules ruleVerifier = new MauMauRules();
+        Card lastPlayedCard = MauMauCard.of(CardColor.CLUBS, CardType.JACK);
+
+        CardSet expected = new CardSet();
+        for(CardType cardType : CardType.values()) {
+            expected.add(MauMauCard.of(CardColor.HEART, cardType));
+        }
+        for(CardColor cardColor : CardColor.values()) {
+            expected.add(MauMauCard.of(cardColor, CardType.JACK));
+        }
+
+        Assert.assertEquals(ruleVerifier.playableMask(lastPlayedCard, CardColor.HEART), expected.getMask());
+    }
+
+    /**
+     * Tests if a whole hand can be checked against the playable mask
+     */
+    @Test
+    public void playableMaskMatchesHand() {
+        Rules ruleVerifier = new MauMauRules();
+        Card lastPlayedCard = MauMauCard.of(CardColor.SPADES, CardType.NINE);
+
+        CardSet hand = new CardSet();
+        hand.add(MauMauCard.of(CardColor.HEART, CardType.TWO));
+        hand.add(MauMauCard.of(CardColor.DIAMONDS, CardType.KING));
+        Assert.assertEquals(hand.getMask() & ruleVerifier.playableMask(lastPlayedCard, null), 0L);
+
+        Card playableCard = MauMauCard.of(CardColor.CLUBS, CardType.NINE);
+        hand.add(playableCard);
+        Assert.assertEquals(hand.getMask() & ruleVerifier.playableMask(lastPlayedCard, null), 1L << playableCard.getOrdinal());
+    }
 }
@@ -0,0 +1,703 @@
+package network;
+
+import maumau.board.MauMauBoard;
+import maumau.board.deck.MauMauDeck;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+import maumau.player.MauMauPlayer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ProtocolTests {
+
+    /**
+     * Tests if every card and every wished color survives the way through both codecs
+     * @throws IOException shouldn't be thrown
+     */
+    @Test
+    public void playCardRoundTrip() throws IOException {
+        for(MessageCodec codec : new MessageCodec[] {new LegacyMessageCodec(), new CompactMessageCodec(), new FramedMessageCodec()}) {
+            for(Card card : MauMauCard.allCards()) {
+                for(CardColor wishedColor : new CardColor[] {null, CardColor.HEART}) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    codec.writePlayCard(new DataOutputStream(bytes), card, wishedColor);
+
+                    ProtocolMessage message = new ProtocolMessage();
+                    codec.readMessage(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), message);
+
+                    Assert.assertEquals(message.method, ProtocolMessage.METHOD_PLAY);
+                    Assert.assertSame(message.card, card);
+                    Assert.assertEquals(message.wishedColor, wishedColor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests if the compact codec needs two bytes for a play, one byte for a draw and one byte per deck card
+     * @throws IOException shouldn't be thrown
+     */
+    @Test
+    public void compactMessageSizes() throws IOException {
+        MessageCodec codec = new CompactMessageCodec();
+        final Card card = MauMauCard.of(CardColor.SPADES, CardType.JACK);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.writePlayCard(new DataOutputStream(bytes), card, CardColor.CLUBS);
+        Assert.assertEquals(bytes.size(), 2);
+
+        bytes.reset();
+        codec.writeDraw(new DataOutputStream(bytes));
+        Assert.assertEquals(bytes.size(), 1);
+
+        bytes.reset();
+        codec.writeDeck(new DataOutputStream(bytes), MauMauCard.allCards());
+        Assert.assertEquals(bytes.size(), 2 + MauMauCard.NUMBER_OF_CARDS);
+
+        List<Card> deck = codec.readDeck(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assert.assertEquals(deck, MauMauCard.allCards());
+    }
+
+    /**
+     * Tests if an unknown card or color from the remote engine is an IOException, which drops the connection, instead
+     * of an unchecked exception which would end the engine without telling anybody
+     */
+    @Test
+    public void unknownCardsAreIOExceptions() {
+        //compact: unknown card, unknown wished color
+        assertMalformed(new CompactMessageCodec(), new byte[] {ProtocolMessage.METHOD_PLAY << 3 | 4, (byte) 200});
+        assertMalformed(new CompactMessageCodec(), new byte[] {ProtocolMessage.METHOD_PLAY << 3 | 7, 0});
+        //legacy: unknown color, unknown type, unknown wished color
+        assertMalformed(new LegacyMessageCodec(), new byte[] {0, 0, 0, ProtocolMessage.METHOD_PLAY, 0, 0, 0, 9,
+                0, 0, 0, 2, 0, 0, 0, 4});
+        assertMalformed(new LegacyMessageCodec(), new byte[] {0, 0, 0, ProtocolMessage.METHOD_PLAY, 0, 0, 0, 0,
+                0, 0, 0, 15, 0, 0, 0, 4});
+        assertMalformed(new LegacyMessageCodec(), new byte[] {0, 0, 0, ProtocolMessage.METHOD_PLAY, 0, 0, 0, 0,
+                0, 0, 0, 2, 0, 0, 0, 5});
+    }
+
+    /**
+     * Tests if a frame has a two byte length, a type byte, a four byte sequence number and the payload
+     * @throws IOException shouldn't be thrown
+     */
+    @Test
+    public void framedMessageLayout() throws IOException {
+        MessageCodec codec = new FramedMessageCodec();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bytes);
+
+        codec.writeDraw(dos);
+        codec.writePlayCard(dos, MauMauCard.of(CardColor.HEART, CardType.ACE), null);
+
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Assert.assertEquals(dis.readUnsignedShort(), FramedMessageCodec.HEADER_SIZE);
+        Assert.assertEquals(dis.readUnsignedByte(), FramedMessageCodec.TYPE_DRAW);
+        Assert.assertEquals(dis.readInt(), 0);
+
+        Assert.assertEquals(dis.readUnsignedShort(), FramedMessageCodec.HEADER_SIZE + 2);
+        Assert.assertEquals(dis.readUnsignedByte(), FramedMessageCodec.TYPE_PLAY);
+        Assert.assertEquals(dis.readInt(), 1);
+        Assert.assertEquals(dis.readUnsignedByte(), MauMauCard.of(CardColor.HEART, CardType.ACE).getOrdinal());
+        Assert.assertEquals(dis.readUnsignedByte(), FramedMessageCodec.NO_WISHED_COLOR);
+        Assert.assertEquals(dis.available(), 0);
+    }
+
+    /**
+     * Tests if frames with an unknown type are skipped and the following move is still read
+     * @throws IOException shouldn't be thrown
+     */
+    @Test
+    public void unknownFramesAreSkipped() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bytes);
+
+        //unknown type with a payload
+        dos.writeShort(FramedMessageCodec.HEADER_SIZE + 3);
+        dos.writeByte(42);
+        dos.writeInt(0);
+        dos.write(new byte[] {1, 2, 3});
+
+        final Card card = MauMauCard.of(CardColor.CLUBS, CardType.JACK);
+        MessageCodec sender = new FramedMessageCodec();
+        //the unknown frame above had the sequence number 0
+        sender.writeDraw(new DataOutputStream(new ByteArrayOutputStream()));
+        sender.writePlayCard(dos, card, CardColor.DIAMONDS);
+
+        ProtocolMessage message = new ProtocolMessage();
+        new FramedMessageCodec().readMessage(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), message);
+
+        Assert.assertEquals(message.method, ProtocolMessage.METHOD_PLAY);
+        Assert.assertSame(message.card, card);
+        Assert.assertEquals(message.wishedColor, CardColor.DIAMONDS);
+    }
+
+    /**
+     * Tests if a broken move and a missing frame drop the connection instead of being skipped, and if a broken move
+     * isn't acknowledged, so it's sent again on a resumption
+     * @throws IOException shouldn't be thrown
+     */
+    @Test
+    public void brokenMovesAreProtocolErrors() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bytes);
+        //play frame with an unknown card
+        dos.writeShort(FramedMessageCodec.HEADER_SIZE + 2);
+        dos.writeByte(FramedMessageCodec.TYPE_PLAY);
+        dos.writeInt(0);
+        dos.writeByte(200);
+        dos.writeByte(FramedMessageCodec.NO_WISHED_COLOR);
+
+        FramedMessageCodec receiver = new FramedMessageCodec();
+        final DataInputStream broken = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Assert.assertThrows(IOException.class, () -> receiver.readMessage(broken, new ProtocolMessage()));
+        Assert.assertEquals(receiver.getLastReceivedSequence(), -1);
+
+        //the first frame is missing
+        MessageCodec sender = new FramedMessageCodec();
+        sender.writeDraw(new DataOutputStream(new ByteArrayOutputStream()));
+        bytes.reset();
+        sender.writeDraw(dos);
+        final DataInputStream gap = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Assert.assertThrows(IOException.class, () -> new FramedMessageCodec().readMessage(gap, new ProtocolMessage()));
+    }
+
+    /**
+     * Tests if a game goes on after the connection dropped: the deck isn't sent again and a move made while the
+     * connection was down reaches the remote player after the session was resumed
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void sessionIsResumedAfterDroppedConnection() throws Exception {
+        MauMauPlayer alice = new MauMauPlayer("Alice", 0);
+        MauMauPlayer bob = new MauMauPlayer("Bob", 1);
+        MauMauTCPProtocolEngine aliceEngine = new MauMauTCPProtocolEngine(alice, "Alice");
+        MauMauTCPProtocolEngine bobEngine = new MauMauTCPProtocolEngine(bob, "Bob");
+        alice.setProtocolEngine(aliceEngine);
+        bob.setProtocolEngine(bobEngine);
+
+        CountDownLatch established = new CountDownLatch(2);
+        aliceEngine.subscribeGameSessionEstablishedListener(name -> established.countDown());
+        bobEngine.subscribeGameSessionEstablishedListener(name -> established.countDown());
+        CountDownLatch lost = new CountDownLatch(2);
+        aliceEngine.subscribeConnectionLostListener(resumable -> lost.countDown());
+        bobEngine.subscribeConnectionLostListener(resumable -> lost.countDown());
+
+        Socket[] connection = connect(aliceEngine, bobEngine);
+        Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+        Assert.assertNotEquals(aliceEngine.getSessionId(), 0L);
+        Assert.assertEquals(bobEngine.getSessionId(), aliceEngine.getSessionId());
+
+        alice.drawCard();
+        awaitSameDeckSize(alice, bob);
+
+        connection[0].close();
+        connection[1].close();
+        Assert.assertTrue(lost.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(aliceEngine.canResumeSession());
+        Assert.assertTrue(bobEngine.canResumeSession());
+
+        //made while there is no connection
+        bob.drawCard();
+        Assert.assertEquals(alice.getDeck().size(), bob.getDeck().size() + 1);
+
+        final long sessionId = aliceEngine.getSessionId();
+        connect(aliceEngine, bobEngine);
+        awaitSameDeckSize(alice, bob);
+
+        Assert.assertEquals(aliceEngine.getSessionId(), sessionId);
+        Assert.assertEquals(alice.getDeck().getDeckAsList(), bob.getDeck().getDeckAsList());
+        Assert.assertFalse(aliceEngine.canResumeSession());
+    }
+
+    /**
+     * Tests if heartbeats keep a quiet session open and if an engine closes the connection when the remote engine
+     * stops sending heartbeats
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void silentRemoteEngineIsDetected() throws Exception {
+        MauMauPlayer alice = new MauMauPlayer("Alice", 0);
+        MauMauPlayer bob = new MauMauPlayer("Bob", 1);
+        MauMauTCPProtocolEngine aliceEngine = new MauMauTCPProtocolEngine(alice, "Alice");
+        MauMauTCPProtocolEngine bobEngine = new MauMauTCPProtocolEngine(bob, "Bob");
+        alice.setProtocolEngine(aliceEngine);
+        bob.setProtocolEngine(bobEngine);
+
+        //Alice sends heartbeats often enough, Bob is silent after the board was synchronized
+        aliceEngine.setHeartbeatInterval(100);
+        aliceEngine.setIdleTimeout(0);
+        bobEngine.setHeartbeatInterval(0);
+        bobEngine.setIdleTimeout(600);
+        CountDownLatch bobLost = new CountDownLatch(1);
+        bobEngine.subscribeConnectionLostListener(resumable -> bobLost.countDown());
+
+        connect(aliceEngine, bobEngine);
+        Assert.assertFalse(bobLost.await(1500, TimeUnit.MILLISECONDS));
+
+        //now Alice goes silent as well
+        aliceEngine.setHeartbeatInterval(60_000);
+        Assert.assertTrue(bobLost.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(bobEngine.canResumeSession());
+    }
+
+    /**
+     * Tests if many engine pairs run their sessions side by side over loopback connections and if closing a
+     * connection is noticed like a closed socket
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void sessionsRunOverLoopbackConnections() throws Exception {
+        final int numberOfPairs = 200;
+        MauMauPlayer[] players = new MauMauPlayer[2 * numberOfPairs];
+        MauMauTCPProtocolEngine[] engines = new MauMauTCPProtocolEngine[2 * numberOfPairs];
+        LoopbackConnection[] connections = new LoopbackConnection[numberOfPairs];
+        CountDownLatch established = new CountDownLatch(2 * numberOfPairs);
+        CountDownLatch lost = new CountDownLatch(2 * numberOfPairs);
+
+        for(int i = 0; i < players.length; i++) {
+            players[i] = new MauMauPlayer("Player " + i, i % 2);
+            engines[i] = new MauMauTCPProtocolEngine(players[i], "Player " + i);
+            players[i].setProtocolEngine(engines[i]);
+            engines[i].subscribeGameSessionEstablishedListener(name -> established.countDown());
+            engines[i].subscribeConnectionLostListener(resumable -> lost.countDown());
+        }
+        for(int i = 0; i < numberOfPairs; i++) {
+            connections[i] = LoopbackConnection.connect(engines[2 * i], engines[2 * i + 1]);
+        }
+        Assert.assertTrue(established.await(10, TimeUnit.SECONDS));
+
+        for(int i = 0; i < numberOfPairs; i++) {
+            players[2 * i].drawCard();
+        }
+        for(int i = 0; i < numberOfPairs; i++) {
+            awaitSameDeckSize(players[2 * i], players[2 * i + 1]);
+            Assert.assertEquals(players[2 * i].getDeck().getDeckAsList(), players[2 * i + 1].getDeck().getDeckAsList());
+        }
+
+        for(LoopbackConnection connection : connections) {
+            connection.close();
+        }
+        Assert.assertTrue(lost.await(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests if three players connected with each other mirror the same game: the board of the first player, the
+     * moves of everybody and the seat skipped by an eight
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void threePlayerTableMirrorsTheGame() throws Exception {
+        final Card eight = MauMauCard.of(CardColor.SPADES, CardType.EIGHT);
+        MauMauBoard firstBoard = new MauMauBoard(new MauMauDeck(new ArrayList<>(MauMauCard.allCards())),
+                List.of(MauMauCard.of(CardColor.SPADES, CardType.TWO)));
+        MauMauPlayer[] players = {
+                new MauMauPlayer("Alice", 0, 3, new ArrayList<>(List.of(eight)), firstBoard),
+                new MauMauPlayer("Bob", 1, 3, new ArrayList<>(), new MauMauBoard()),
+                new MauMauPlayer("Carl", 2, 3, new ArrayList<>(), new MauMauBoard())
+        };
+        TableProtocolEngine[] engines = new TableProtocolEngine[players.length];
+        CountDownLatch established = new CountDownLatch(players.length);
+        for(int seat = 0; seat < players.length; seat++) {
+            engines[seat] = new TableProtocolEngine(players[seat], "Player " + seat);
+            players[seat].setProtocolEngine(engines[seat]);
+            engines[seat].subscribeGameSessionEstablishedListener(names -> established.countDown());
+        }
+        for(int first = 0; first < players.length; first++) {
+            for(int second = first + 1; second < players.length; second++) {
+                handleConnection(engines, first, second, new LoopbackConnection());
+            }
+        }
+        Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+        for(MauMauPlayer player : players) {
+            Assert.assertEquals(player.getDeck().getDeckAsList(), firstBoard.getDeck().getDeckAsList());
+        }
+
+        //Bob is skipped
+        players[0].playCard(eight, null);
+        awaitSeat(players, 2);
+        players[2].drawCard();
+        awaitSeat(players, 0);
+        players[0].drawCard();
+        awaitSeat(players, 1);
+
+        for(MauMauPlayer player : players) {
+            Assert.assertEquals(player.getDiscardPileCard(), eight);
+            Assert.assertEquals(player.getDeck().size(), players[0].getDeck().size());
+        }
+    }
+
+    /**
+     * Tests if a three-seat table goes on after the connection between two seats dropped in the middle of the game:
+     * the loss is reported, the engines of both seats can resume it and the move which didn't reach the other seat arrives once the session is
+     * resumed
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void droppedSeatOfAThreePlayerTableIsResumed() throws Exception {
+        MauMauBoard firstBoard = new MauMauBoard(new MauMauDeck(new ArrayList<>(MauMauCard.allCards())),
+                List.of(MauMauCard.of(CardColor.SPADES, CardType.TWO)));
+        MauMauPlayer[] players = {
+                new MauMauPlayer("Alice", 0, 3, new ArrayList<>(), firstBoard),
+                new MauMauPlayer("Bob", 1, 3, new ArrayList<>(), new MauMauBoard()),
+                new MauMauPlayer("Carl", 2, 3, new ArrayList<>(), new MauMauBoard())
+        };
+        TableProtocolEngine[] engines = new TableProtocolEngine[players.length];
+        CountDownLatch established = new CountDownLatch(players.length);
+        List<Boolean> lost = new CopyOnWriteArrayList<>();
+        for(int seat = 0; seat < players.length; seat++) {
+            engines[seat] = new TableProtocolEngine(players[seat], "Player " + seat);
+            players[seat].setProtocolEngine(engines[seat]);
+            engines[seat].subscribeGameSessionEstablishedListener(names -> established.countDown());
+            engines[seat].subscribeConnectionLostListener(lost::add);
+        }
+        LoopbackConnection[][] connections = new LoopbackConnection[players.length][players.length];
+        for(int first = 0; first < players.length; first++) {
+            for(int second = first + 1; second < players.length; second++) {
+                connections[first][second] = new LoopbackConnection();
+                handleConnection(engines, first, second, connections[first][second]);
+            }
+        }
+        Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+
+        players[0].drawCard();
+        awaitSeat(players, 1);
+
+        connections[1][2].close();
+        final long deadline = System.currentTimeMillis() + 5000;
+        while(lost.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(lost, List.of(true, true));
+        Assert.assertFalse(engines[0].canResumeSession());
+        Assert.assertTrue(engines[1].getEngine(2).canResumeSession());
+        Assert.assertTrue(engines[2].getEngine(1).canResumeSession());
+
+        //Alice gets the move, Carl doesn't
+        players[1].drawCard();
+        Assert.assertTrue(players[0].awaitTurnOf(2, 5000));
+        Assert.assertEquals(players[2].getCurrentSeat(), 1);
+
+        handleConnection(engines, 1, 2, new LoopbackConnection());
+        awaitSeat(players, 2);
+        players[2].drawCard();
+        awaitSeat(players, 0);
+        for(MauMauPlayer player : players) {
+            Assert.assertEquals(player.getDeck().getDeckAsList(), players[0].getDeck().getDeckAsList());
+        }
+    }
+
+    /**
+     * Tests if a table with more than two seats refuses protocol versions whose sessions can't be resumed
+     */
+    @Test
+    public void bigTableNeedsResumableSessions() {
+        MauMauPlayer carl = new MauMauPlayer("Carl", 2, 3, new ArrayList<>(), new MauMauBoard());
+        Assert.assertThrows(IllegalArgumentException.class, () -> new TableProtocolEngine(carl, "Carl",
+                MauMauTCPProtocolEngine.PROTOCOL_VERSION_COMPACT));
+    }
+
+    /**
+     * Tests if both boards stay the same when a seven is answered with another card: the penalty is drawn within the
+     * turn on both sides
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void otherCardOnASevenKeepsTheBoardsInSync() throws Exception {
+        final Card five = MauMauCard.of(CardColor.SPADES, CardType.FIVE);
+        MauMauPlayer[] players = playSevenToBob(five);
+
+        players[1].playCard(five, null);
+        awaitSeat(players, 0);
+        assertSameBoards(players);
+        Assert.assertEquals(players[1].getPlayerHand().size(), 3);
+
+        //the stack is closed on both sides, Alice draws a single card
+        players[0].drawCard();
+        awaitSeat(players, 1);
+        assertSameBoards(players);
+    }
+
+    /**
+     * Tests if both boards stay the same when a player draws on a seven and takes the whole penalty
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void drawingOnASevenKeepsTheBoardsInSync() throws Exception {
+        MauMauPlayer[] players = playSevenToBob(MauMauCard.of(CardColor.HEART, CardType.FIVE));
+
+        players[1].drawCard();
+        awaitSeat(players, 0);
+        assertSameBoards(players);
+        Assert.assertEquals(players[1].getPlayerHand().size(), 4);
+
+        players[0].drawCard();
+        awaitSeat(players, 1);
+        assertSameBoards(players);
+    }
+
+    /**
+     * Tests if both sides keep the old seven rule when the remote engine only knows the versions before
+     * {@link MauMauTCPProtocolEngine#PROTOCOL_VERSION_SEVEN_PENALTY}: another card closes the stack without a penalty
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void otherCardOnASevenWithAnOlderVersion() throws Exception {
+        final Card five = MauMauCard.of(CardColor.SPADES, CardType.FIVE);
+        MauMauPlayer[] players = playSevenToBob(five, MauMauTCPProtocolEngine.PROTOCOL_VERSION_FRAMED);
+
+        players[1].playCard(five, null);
+        awaitSeat(players, 0);
+        assertSameBoards(players);
+        Assert.assertEquals(players[1].getPlayerHand().size(), 1);
+
+        players[0].drawCard();
+        awaitSeat(players, 1);
+        assertSameBoards(players);
+        Assert.assertEquals(players[0].getPlayerHand().size(), 2);
+    }
+
+    /**
+     * Tests if a draw on a seven takes a single card and leaves the stack open when the remote engine only knows the
+     * versions before {@link MauMauTCPProtocolEngine#PROTOCOL_VERSION_SEVEN_PENALTY}
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void drawingOnASevenWithAnOlderVersion() throws Exception {
+        MauMauPlayer[] players = playSevenToBob(MauMauCard.of(CardColor.HEART, CardType.FIVE),
+                MauMauTCPProtocolEngine.PROTOCOL_VERSION_FRAMED);
+
+        players[1].drawCard();
+        awaitSeat(players, 0);
+        assertSameBoards(players);
+        Assert.assertEquals(players[1].getPlayerHand().size(), 3);
+        for(MauMauPlayer player : players) {
+            Assert.assertEquals(player.getSevenStackCount(), 1);
+        }
+    }
+
+    //Alice plays a seven over a loopback connection, Bob holds the given card and a king
+    private static MauMauPlayer[] playSevenToBob(Card bobCard) throws Exception {
+        return playSevenToBob(bobCard, MauMauTCPProtocolEngine.LATEST_PROTOCOL_VERSION);
+    }
+
+    private static MauMauPlayer[] playSevenToBob(Card bobCard, int bobMaxProtocolVersion) throws Exception {
+        final Card seven = MauMauCard.of(CardColor.SPADES, CardType.SEVEN);
+        MauMauBoard aliceBoard = new MauMauBoard(new MauMauDeck(new ArrayList<>(MauMauCard.allCards())),
+                List.of(MauMauCard.of(CardColor.SPADES, CardType.TWO)));
+        MauMauPlayer[] players = {
+                new MauMauPlayer("Alice", 0,
+                        new ArrayList<>(List.of(seven, MauMauCard.of(CardColor.CLUBS, CardType.ACE))), aliceBoard),
+                new MauMauPlayer("Bob", 1,
+                        new ArrayList<>(List.of(bobCard, MauMauCard.of(CardColor.CLUBS, CardType.KING))),
+                        new MauMauBoard())
+        };
+        CountDownLatch established = new CountDownLatch(players.length);
+        MauMauTCPProtocolEngine[] engines = new MauMauTCPProtocolEngine[players.length];
+        for(int seat = 0; seat < players.length; seat++) {
+            engines[seat] = new MauMauTCPProtocolEngine(players[seat], "Player " + seat,
+                    seat == 1 ? bobMaxProtocolVersion : MauMauTCPProtocolEngine.LATEST_PROTOCOL_VERSION);
+            players[seat].setProtocolEngine(engines[seat]);
+            engines[seat].subscribeGameSessionEstablishedListener(name -> established.countDown());
+        }
+        LoopbackConnection.connect(engines[0], engines[1]);
+        Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+
+        players[0].playCard(seven, null);
+        awaitSeat(players, 1);
+        assertSameBoards(players);
+        return players;
+    }
+
+    private static void assertSameBoards(MauMauPlayer[] players) {
+        for(MauMauPlayer player : players) {
+            Assert.assertEquals(player.getDeck().getDeckAsList(), players[0].getDeck().getDeckAsList());
+            Assert.assertEquals(player.getDiscardPileCard(), players[0].getDiscardPileCard());
+        }
+    }
+
+    /**
+     * Tests if an engine plays with a baseline engine - which sends its plain name as hello and then the board as
+     * 4-byte ints - using the first protocol version
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void baselineEngineGetsTheBoardWithTheFirstVersion() throws Exception {
+        final Card two = MauMauCard.of(CardColor.SPADES, CardType.TWO);
+        MauMauBoard aliceBoard = new MauMauBoard(new MauMauDeck(new ArrayList<>(List.of(
+                MauMauCard.of(CardColor.CLUBS, CardType.ACE), MauMauCard.of(CardColor.HEART, CardType.TEN)))),
+                List.of(two));
+        MauMauPlayer alice = new MauMauPlayer("Alice", 0, new ArrayList<>(List.of(
+                MauMauCard.of(CardColor.SPADES, CardType.FIVE), MauMauCard.of(CardColor.CLUBS, CardType.KING))),
+                aliceBoard);
+        MauMauTCPProtocolEngine aliceEngine = new MauMauTCPProtocolEngine(alice, "Alice");
+        alice.setProtocolEngine(aliceEngine);
+        CountDownLatch established = new CountDownLatch(1);
+        aliceEngine.subscribeGameSessionEstablishedListener(name -> established.countDown());
+
+        LoopbackConnection connection = new LoopbackConnection();
+        aliceEngine.handleConnection(connection.getFirstEnd().getInputStream(),
+                connection.getFirstEnd().getOutputStream());
+        DataOutputStream bob = new DataOutputStream(connection.getSecondEnd().getOutputStream());
+        DataInputStream fromAlice = new DataInputStream(connection.getSecondEnd().getInputStream());
+
+        bob.writeUTF("Bob");
+        bob.flush();
+        //the baseline engine shows the version as part of the name
+        Assert.assertTrue(fromAlice.readUTF().startsWith("Alice"));
+        Assert.assertEquals(fromAlice.readInt(), 2);
+        assertBaselineCard(fromAlice, MauMauCard.of(CardColor.CLUBS, CardType.ACE));
+        assertBaselineCard(fromAlice, MauMauCard.of(CardColor.HEART, CardType.TEN));
+        assertBaselineCard(fromAlice, two);
+        Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+
+        alice.playCard(MauMauCard.of(CardColor.SPADES, CardType.FIVE), null);
+        Assert.assertEquals(fromAlice.readInt(), ProtocolMessage.METHOD_PLAY);
+        assertBaselineCard(fromAlice, MauMauCard.of(CardColor.SPADES, CardType.FIVE));
+        //no wished color
+        Assert.assertEquals(fromAlice.readInt(), 4);
+
+        bob.writeInt(ProtocolMessage.METHOD_DRAW);
+        bob.flush();
+        Assert.assertTrue(alice.awaitTurnOf(0, 5000));
+        Assert.assertEquals(alice.getDeck().size(), 1);
+        connection.close();
+    }
+
+    /**
+     * Tests if an engine takes the board of a baseline engine and plays with it using the first protocol version
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void baselineEngineSendsTheBoardWithTheFirstVersion() throws Exception {
+        MauMauPlayer bob = new MauMauPlayer("Bob", 1, new ArrayList<>(List.of(
+                MauMauCard.of(CardColor.HEART, CardType.FIVE), MauMauCard.of(CardColor.CLUBS, CardType.KING))),
+                new MauMauBoard());
+        MauMauTCPProtocolEngine bobEngine = new MauMauTCPProtocolEngine(bob, "Bob");
+        bob.setProtocolEngine(bobEngine);
+        CountDownLatch established = new CountDownLatch(1);
+        bobEngine.subscribeGameSessionEstablishedListener(name -> established.countDown());
+
+        LoopbackConnection connection = new LoopbackConnection();
+        bobEngine.handleConnection(connection.getSecondEnd().getInputStream(),
+                connection.getSecondEnd().getOutputStream());
+        DataOutputStream alice = new DataOutputStream(connection.getFirstEnd().getOutputStream());
+        DataInputStream fromBob = new DataInputStream(connection.getFirstEnd().getInputStream());
+
+        final List<Card> deck = List.of(MauMauCard.of(CardColor.CLUBS, CardType.ACE),
+                MauMauCard.of(CardColor.HEART, CardType.TEN));
+        final Card two = MauMauCard.of(CardColor.HEART, CardType.TWO);
+        alice.writeUTF("Alice");
+        alice.writeInt(deck.size());
+        for(Card card : deck) {
+            writeBaselineCard(alice, card);
+        }
+        writeBaselineCard(alice, two);
+        alice.writeInt(ProtocolMessage.METHOD_PLAY);
+        writeBaselineCard(alice, MauMauCard.of(CardColor.HEART, CardType.SIX));
+        alice.writeInt(4);
+        alice.flush();
+
+        Assert.assertTrue(fromBob.readUTF().startsWith("Bob"));
+        Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(bob.awaitTurnOf(1, 5000));
+        Assert.assertEquals(bob.getDeck().getDeckAsList(), deck);
+        Assert.assertEquals(bob.getDiscardPileCard(), MauMauCard.of(CardColor.HEART, CardType.SIX));
+
+        bob.playCard(MauMauCard.of(CardColor.HEART, CardType.FIVE), null);
+        Assert.assertEquals(fromBob.readInt(), ProtocolMessage.METHOD_PLAY);
+        assertBaselineCard(fromBob, MauMauCard.of(CardColor.HEART, CardType.FIVE));
+        Assert.assertEquals(fromBob.readInt(), 4);
+        connection.close();
+    }
+
+    private static boolean runtimeHasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    //the baseline encoding: the color as 0 to 3, the type as its value from 2 to 14
+    private static void writeBaselineCard(DataOutputStream dos, Card card) throws IOException {
+        dos.writeInt(card.getColor().ordinal());
+        dos.writeInt(card.getType().ordinal() + 2);
+    }
+
+    private static void assertBaselineCard(DataInputStream dis, Card card) throws IOException {
+        Assert.assertEquals(dis.readInt(), card.getColor().ordinal());
+        Assert.assertEquals(dis.readInt(), card.getType().ordinal() + 2);
+    }
+
+    private static void awaitSeat(MauMauPlayer[] players, int seat) throws InterruptedException {
+        for(MauMauPlayer player : players) {
+            Assert.assertTrue(player.awaitTurnOf(seat, 5000), player + " doesn't see seat " + seat + " on turn");
+        }
+    }
+
+    private static void handleConnection(TableProtocolEngine[] engines, int first, int second,
+                                         LoopbackConnection connection) {
+        engines[first].handleConnection(second, connection.getFirstEnd().getInputStream(),
+                connection.getFirstEnd().getOutputStream());
+        engines[second].handleConnection(first, connection.getSecondEnd().getInputStream(),
+                connection.getSecondEnd().getOutputStream());
+    }
+
+    private static void assertMalformed(MessageCodec codec, byte[] bytes) {
+        final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
+        Assert.assertThrows(IOException.class, () -> codec.readMessage(dis, new ProtocolMessage()));
+    }
+
+    private static Socket[] connect(TCPProtocolEngine first, TCPProtocolEngine second) throws IOException {
+        try(ServerSocket server = new ServerSocket(0)) {
+            Socket client = new Socket("localhost", server.getLocalPort());
+            Socket accepted = server.accept();
+            first.handleConnection(accepted.getInputStream(), accepted.getOutputStream());
+            second.handleConnection(client.getInputStream(), client.getOutputStream());
+            return new Socket[] {accepted, client};
+        }
+    }
+
+    private static void awaitSameDeckSize(MauMauPlayer a, MauMauPlayer b) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while(a.getDeck().size() != b.getDeck().size() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(a.getDeck().size(), b.getDeck().size());
+    }
+
+    /**
+     * Tests if tasks run on virtual threads whenever the runtime supports them and they aren't switched off
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void protocolThreadsRunTasks() throws Exception {
+        final Thread[] worker = new Thread[1];
+        ProtocolThreads.submit(() -> worker[0] = Thread.currentThread()).get(5, TimeUnit.SECONDS);
+
+        Assert.assertNotNull(worker[0]);
+        Assert.assertNotSame(worker[0], Thread.currentThread());
+        Assert.assertEquals(worker[0].isDaemon(), true);
+
+        //decided the same way as in ProtocolThreads: -Dmaumau.threads=platform switches them off
+        final boolean switchedOff = "platform".equalsIgnoreCase(System.getProperty("maumau.threads"));
+        Assert.assertEquals(ProtocolThreads.isVirtual(), !switchedOff && runtimeHasVirtualThreads());
+    }
+}
@@ -0,0 +1,101 @@
+package network;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TCPStreamTests {
+
+    /**
+     * Tests if a client which starts before the server connects within milliseconds after the server is up
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void clientStartingEarlyConnectsFast() throws Exception {
+        final int port = freePort();
+        TCPStream client = new TCPStream(port, false, "Client");
+        Thread clientThread = new Thread(client);
+        clientThread.start();
+
+        Thread.sleep(200);
+        try(ServerSocket server = new ServerSocket(port);
+            Socket accepted = server.accept()) {
+            final long acceptedAt = System.nanoTime();
+            clientThread.join(5000);
+
+            Assert.assertTrue(client.getConnectionAttempts() > 1);
+            Assert.assertTrue(client.getSetupTimeInMillis() >= 200);
+            //the backoff is at most one second
+            Assert.assertTrue((System.nanoTime() - acceptedAt) / 1_000_000 < 1500);
+            Assert.assertNotNull(client.getInputStream());
+            Assert.assertTrue(accepted.isConnected());
+        }
+    }
+
+    /**
+     * Tests if a client which can't connect stops right away when it is killed
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void killStopsConnecting() throws Exception {
+        TCPStream client = new TCPStream(freePort(), false, "Client");
+        CountDownLatch failed = new CountDownLatch(1);
+        client.setStreamCreationListener(new TCPStreamStatusListener() {
+            @Override
+            public void streamCreated(TCPStream tcpStream) {
+            }
+
+            @Override
+            public void streamCreationFailed() {
+                failed.countDown();
+            }
+        });
+        client.setBackoff(10_000, 10_000);
+
+        new Thread(client).start();
+        Thread.sleep(100);
+        client.kill();
+
+        Assert.assertTrue(failed.await(2, TimeUnit.SECONDS));
+        Assert.assertEquals(client.getSetupTimeInMillis(), -1L);
+    }
+
+    /**
+     * Tests if the server gives up after the configured accept timeout
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void acceptTimeout() throws Exception {
+        TCPStream server = new TCPStream(freePort(), true, "Server");
+        AtomicBoolean failed = new AtomicBoolean();
+        server.setStreamCreationListener(new TCPStreamStatusListener() {
+            @Override
+            public void streamCreated(TCPStream tcpStream) {
+            }
+
+            @Override
+            public void streamCreationFailed() {
+                failed.set(true);
+            }
+        });
+        server.setAcceptTimeout(50);
+
+        final long start = System.nanoTime();
+        server.run();
+
+        Assert.assertTrue(failed.get());
+        Assert.assertTrue((System.nanoTime() - start) / 1_000_000 < 2000);
+    }
+
+    private static int freePort() throws IOException {
+        try(ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
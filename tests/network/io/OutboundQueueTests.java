@@ -0,0 +1,147 @@
+package network.io;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class OutboundQueueTests {
+
+    /**
+     * A consumer which doesn't take anything until it is released
+     */
+    private static class StalledStream extends OutputStream {
+        final CountDownLatch released = new CountDownLatch(1);
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        volatile boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            this.write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            try {
+                this.released.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if(this.closed) {
+                throw new IOException("closed");
+            }
+            this.received.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+            this.released.countDown();
+        }
+    }
+
+    /**
+     * Tests if all messages arrive in order
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void messagesArriveInOrder() throws Exception {
+        StalledStream target = new StalledStream();
+        target.released.countDown();
+        OutboundQueue queue = new OutboundQueue(target, 16, OverflowPolicy.BLOCK);
+
+        byte[] expected = new byte[1000];
+        for(int i = 0; i < expected.length; i += 10) {
+            for(int j = 0; j < 10; j++) {
+                expected[i + j] = (byte) (i + j);
+            }
+            queue.write(expected, i, 10);
+        }
+        queue.write(new byte[0]);
+        queue.close();
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while(!target.closed && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(target.received.toByteArray(), expected);
+        Assert.assertEquals(queue.getQueuedMessages(), 100);
+    }
+
+    /**
+     * Tests if messages to a stalled consumer are dropped as a whole, counted and don't block the writer
+     * @throws Exception shouldn't be thrown
+     */
+    @Test(timeOut = 2000)
+    public void dropPolicyDropsWholeMessages() throws Exception {
+        StalledStream target = new StalledStream();
+        OutboundQueue queue = new OutboundQueue(target, 64, OverflowPolicy.DROP);
+
+        byte[] message = new byte[10];
+        for(int i = 0; i < 100; i++) {
+            queue.write(message);
+        }
+
+        //the drain task may hold a queue full of messages which already left the queue
+        Assert.assertTrue(queue.getQueuedMessages() <= 12, "queued: " + queue.getQueuedMessages());
+        Assert.assertEquals(queue.getQueuedMessages() + queue.getDroppedMessages(), 100);
+        Assert.assertTrue(queue.getQueueDepth() % 10 == 0);
+        Assert.assertTrue(queue.getHighWaterMark() <= 64);
+        queue.close();
+        target.close();
+    }
+
+    /**
+     * Tests if a full queue closes the connection with the disconnect policy
+     * @throws Exception shouldn't be thrown
+     */
+    @Test(timeOut = 2000)
+    public void disconnectPolicyClosesTheConnection() throws Exception {
+        StalledStream target = new StalledStream();
+        OutboundQueue queue = new OutboundQueue(target, 64, OverflowPolicy.DISCONNECT);
+
+        byte[] message = new byte[10];
+        try {
+            for(int i = 0; i < 100; i++) {
+                queue.write(message);
+            }
+            Assert.fail("the queue should overflow");
+        } catch (IOException expected) {
+            //the connection is closed
+        }
+        Assert.assertTrue(target.closed);
+        Assert.assertThrows(IOException.class, () -> queue.write(message));
+    }
+
+    /**
+     * Tests if the block policy waits until the consumer caught up
+     * @throws Exception shouldn't be thrown
+     */
+    @Test(timeOut = 2000)
+    public void blockPolicyWaitsForTheConsumer() throws Exception {
+        StalledStream target = new StalledStream();
+        OutboundQueue queue = new OutboundQueue(target, 64, OverflowPolicy.BLOCK);
+        CountDownLatch written = new CountDownLatch(1);
+
+        Thread writer = new Thread(() -> {
+            try {
+                for(int i = 0; i < 20; i++) {
+                    queue.write(new byte[10]);
+                }
+                written.countDown();
+            } catch (IOException ignore) {
+                //the test fails because of the missing count down
+            }
+        });
+        writer.start();
+
+        Assert.assertFalse(written.await(100, TimeUnit.MILLISECONDS));
+        target.released.countDown();
+        Assert.assertTrue(written.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(queue.getDroppedMessages(), 0);
+    }
+}
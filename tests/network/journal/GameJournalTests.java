@@ -0,0 +1,348 @@
+package network.journal;
+
+import maumau.board.MauMauBoard;
+import maumau.board.deck.MauMauDeck;
+import maumau.cards.Card;
+import maumau.cards.CardColor;
+import maumau.cards.CardType;
+import maumau.cards.MauMauCard;
+import maumau.player.MauMauPlayer;
+import network.LoopbackConnection;
+import network.MauMauTCPProtocolEngine;
+import network.TableProtocolEngine;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class GameJournalTests {
+
+    /**
+     * Tests if a session and its moves are read back as they were recorded
+     * @throws IOException shouldn't be thrown
+     */
+    @Test
+    public void recordsAreReadBack() throws IOException {
+        final Path directory = Files.createTempDirectory("journal");
+        try(GameJournal journal = new GameJournal(directory)) {
+            final List<Card> deck = MauMauCard.allCards();
+            final Card top = MauMauCard.of(CardColor.HEART, CardType.TEN);
+            final Card jack = MauMauCard.of(CardColor.HEART, CardType.JACK);
+            JournalSession session = journal.openSession(42L, 1, 3, deck, top);
+            session.recordPlay(1, jack, CardColor.CLUBS);
+            session.recordDraw(2);
+
+            List<JournalEntry> entries = JournalReader.read(directory);
+            Assert.assertEquals(entries.size(), 3);
+
+            JournalEntry start = entries.get(0);
+            Assert.assertEquals(start.getType(), JournalEntry.Type.SESSION);
+            Assert.assertEquals(start.getSessionId(), session.getId());
+            Assert.assertEquals(start.getProtocolSessionId(), 42L);
+            Assert.assertEquals(start.getSeat(), 1);
+            Assert.assertEquals(start.getNumberOfSeats(), 3);
+            Assert.assertEquals(start.getDeck(), deck);
+            Assert.assertEquals(start.getTopCard(), top);
+
+            JournalEntry play = entries.get(1);
+            Assert.assertEquals(play.getType(), JournalEntry.Type.PLAY);
+            Assert.assertEquals(play.getMoveNumber(), 1);
+            Assert.assertEquals(play.getSeat(), 1);
+            Assert.assertEquals(play.getCard(), jack);
+            Assert.assertEquals(play.getWishedColor(), CardColor.CLUBS);
+            Assert.assertTrue(play.getTimestamp() >= start.getTimestamp());
+
+            JournalEntry draw = entries.get(2);
+            Assert.assertEquals(draw.getType(), JournalEntry.Type.DRAW);
+            Assert.assertEquals(draw.getMoveNumber(), 2);
+            Assert.assertEquals(draw.getSeat(), 2);
+            Assert.assertNull(draw.getCard());
+            Assert.assertNull(draw.getWishedColor());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Tests if the reader skips records which were never committed, e.g. because their writer died, and reads the
+     * records after them
+     * @throws IOException shouldn't be thrown
+     */
+    @Test
+    public void uncommittedRecordsAreSkipped() throws IOException {
+        final Path directory = Files.createTempDirectory("journal");
+        try {
+            final List<Card> deck = MauMauCard.allCards();
+            final Card top = MauMauCard.of(CardColor.CLUBS, CardType.NINE);
+            final Card queen = MauMauCard.of(CardColor.CLUBS, CardType.QUEEN);
+            final JournalSession first;
+            final JournalSession second;
+            try(GameJournal journal = new GameJournal(directory)) {
+                first = journal.openSession(0, 0, 2, deck, top);
+                first.recordPlay(0, queen, null);
+                second = journal.openSession(0, 1, 2, deck, top);
+                first.recordDraw(1);
+                second.recordDraw(0);
+            }
+
+            //uncommit the play of the first session and the start of the second one
+            final int sessionLength = JournalSegment.sessionLength(deck.size());
+            final int play = JournalSegment.HEADER_SIZE + sessionLength;
+            final int secondStart = play + JournalSegment.SLOT_SIZE;
+            final Path segment = GameJournal.listSegments(directory).get(0);
+            try(FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                for(int offset : new int[] {play, secondStart}) {
+                    channel.write(ByteBuffer.wrap(new byte[] {JournalSegment.TYPE_UNCOMMITTED}),
+                            offset + JournalSegment.TYPE_OFFSET);
+                }
+            }
+
+            List<JournalEntry> entries = JournalReader.read(directory);
+            Assert.assertEquals(entries.size(), 3);
+            Assert.assertEquals(entries.get(0).getType(), JournalEntry.Type.SESSION);
+            Assert.assertEquals(entries.get(0).getSessionId(), first.getId());
+            Assert.assertEquals(entries.get(0).getDeck(), deck);
+            Assert.assertEquals(entries.get(1).getType(), JournalEntry.Type.DRAW);
+            Assert.assertEquals(entries.get(1).getSessionId(), first.getId());
+            Assert.assertEquals(entries.get(1).getMoveNumber(), 2);
+            Assert.assertEquals(entries.get(2).getType(), JournalEntry.Type.DRAW);
+            Assert.assertEquals(entries.get(2).getSessionId(), second.getId());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Tests if sessions writing concurrently fill several small segments without losing or mixing up a move, and if a
+     * reopened journal continues with a new segment
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void concurrentSessionsRollOverSegments() throws Exception {
+        final Path directory = Files.createTempDirectory("journal");
+        final int sessions = 4;
+        final int moves = 1_000;
+        try {
+            final Card card = MauMauCard.of(CardColor.SPADES, CardType.KING);
+            final long[] ids = new long[sessions];
+            try(GameJournal journal = new GameJournal(directory, 4 * 1024)) {
+                Thread[] threads = new Thread[sessions];
+                for(int i = 0; i < sessions; i++) {
+                    final int seat = i;
+                    JournalSession session = journal.openSession(0, seat, sessions, MauMauCard.allCards(), card);
+                    ids[i] = session.getId();
+                    threads[i] = new Thread(() -> {
+                        for(int move = 0; move < moves; move++) {
+                            if(move % 2 == 0) {
+                                session.recordPlay(seat, card, null);
+                            } else {
+                                session.recordDraw(seat);
+                            }
+                        }
+                    });
+                    threads[i].start();
+                }
+                for(Thread thread : threads) {
+                    thread.join();
+                }
+            }
+            Assert.assertTrue(GameJournal.listSegments(directory).size() > 1);
+
+            List<JournalEntry> entries = JournalReader.read(directory);
+            Assert.assertEquals(entries.size(), sessions * (moves + 1));
+            for(int i = 0; i < sessions; i++) {
+                int expectedMove = 1;
+                for(JournalEntry entry : entries) {
+                    if(entry.getSessionId() != ids[i] || entry.getType() == JournalEntry.Type.SESSION) {
+                        continue;
+                    }
+                    //the moves of one thread are written in order
+                    Assert.assertEquals(entry.getMoveNumber(), expectedMove++);
+                    Assert.assertEquals(entry.getSeat(), i);
+                    Assert.assertEquals(entry.getType() == JournalEntry.Type.PLAY, entry.getMoveNumber() % 2 == 1);
+                }
+                Assert.assertEquals(expectedMove, moves + 1);
+            }
+
+            final int segments = GameJournal.listSegments(directory).size();
+            try(GameJournal journal = new GameJournal(directory, 4 * 1024)) {
+                JournalSession session = journal.openSession(0, 0, 2, MauMauCard.allCards(), card);
+                for(long id : ids) {
+                    Assert.assertNotEquals(session.getId(), id);
+                }
+            }
+            Assert.assertEquals(GameJournal.listSegments(directory).size(), segments + 1);
+            Assert.assertEquals(JournalReader.read(directory).size(), entries.size() + 1);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Tests if two engines sharing a journal record the board and the moves of both players
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void enginesJournalTheirSessions() throws Exception {
+        final Path directory = Files.createTempDirectory("journal");
+        try(GameJournal journal = new GameJournal(directory)) {
+            MauMauPlayer[] players = new MauMauPlayer[2];
+            MauMauTCPProtocolEngine[] engines = new MauMauTCPProtocolEngine[2];
+            CountDownLatch established = new CountDownLatch(2);
+            CountDownLatch moves = new CountDownLatch(4);
+            for(int seat = 0; seat < 2; seat++) {
+                players[seat] = new MauMauPlayer("Player " + seat, seat, new MauMauBoard());
+                engines[seat] = new MauMauTCPProtocolEngine(players[seat], "Player " + seat);
+                engines[seat].setJournal(journal);
+                players[seat].setProtocolEngine(engines[seat]);
+                engines[seat].subscribeGameSessionEstablishedListener(name -> established.countDown());
+                players[seat].subscribeMoveListener((movingSeat, card, wish, drawnCards) -> moves.countDown());
+            }
+            CountDownLatch firstMove = new CountDownLatch(1);
+            players[1].subscribeMoveListener((movingSeat, card, wish, drawnCards) -> firstMove.countDown());
+
+            LoopbackConnection connection = LoopbackConnection.connect(engines[0], engines[1]);
+            Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+            final List<Card> deck = players[0].getDeck().getDeckAsList();
+            final Card top = players[0].getDiscardPileCard();
+            players[0].drawCard();
+            Assert.assertTrue(firstMove.await(5, TimeUnit.SECONDS));
+            players[1].drawCard();
+            Assert.assertTrue(moves.await(5, TimeUnit.SECONDS));
+            connection.close();
+
+            List<JournalEntry> entries = JournalReader.read(directory);
+            List<JournalEntry> starts = new ArrayList<>();
+            List<JournalEntry> draws = new ArrayList<>();
+            for(JournalEntry entry : entries) {
+                (entry.getType() == JournalEntry.Type.SESSION ? starts : draws).add(entry);
+            }
+            Assert.assertEquals(starts.size(), 2);
+            for(JournalEntry start : starts) {
+                Assert.assertEquals(start.getDeck(), deck);
+                Assert.assertEquals(start.getTopCard(), top);
+            }
+            //every engine records the draws of both seats
+            Assert.assertEquals(draws.size(), 4);
+            for(JournalEntry start : starts) {
+                int expectedSeat = 0;
+                for(JournalEntry draw : draws) {
+                    if(draw.getSessionId() == start.getSessionId()) {
+                        Assert.assertEquals(draw.getType(), JournalEntry.Type.DRAW);
+                        Assert.assertEquals(draw.getSeat(), expectedSeat++);
+                        Assert.assertEquals(draw.getMoveNumber(), expectedSeat);
+                    }
+                }
+                Assert.assertEquals(expectedSeat, 2);
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Tests if every player at a table of three journals the whole game as one session, while a single connection
+     * can't be journaled there
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void tablesJournalOneSessionPerPlayer() throws Exception {
+        final Path directory = Files.createTempDirectory("journal");
+        try(GameJournal journal = new GameJournal(directory)) {
+            final Card eight = MauMauCard.of(CardColor.SPADES, CardType.EIGHT);
+            final Card top = MauMauCard.of(CardColor.SPADES, CardType.TWO);
+            MauMauBoard firstBoard = new MauMauBoard(new MauMauDeck(new ArrayList<>(MauMauCard.allCards())),
+                    List.of(top));
+            final List<Card> deck = firstBoard.getDeck().getDeckAsList();
+            MauMauPlayer[] players = {
+                    new MauMauPlayer("Alice", 0, 3, new ArrayList<>(List.of(eight)), firstBoard),
+                    new MauMauPlayer("Bob", 1, 3, new ArrayList<>(), new MauMauBoard()),
+                    new MauMauPlayer("Carl", 2, 3, new ArrayList<>(), new MauMauBoard())
+            };
+            TableProtocolEngine[] engines = new TableProtocolEngine[players.length];
+            CountDownLatch established = new CountDownLatch(players.length);
+            //every player sees every move, so after the n-th move 3 * n moves were seen
+            CountDownLatch[] seenMoves = {new CountDownLatch(3), new CountDownLatch(6), new CountDownLatch(9)};
+            for(int seat = 0; seat < players.length; seat++) {
+                engines[seat] = new TableProtocolEngine(players[seat], "Player " + seat);
+                engines[seat].setJournal(journal);
+                players[seat].setProtocolEngine(engines[seat]);
+                engines[seat].subscribeGameSessionEstablishedListener(names -> established.countDown());
+                players[seat].subscribeMoveListener((movingSeat, card, wish, drawnCards) -> {
+                    for(CountDownLatch latch : seenMoves) {
+                        latch.countDown();
+                    }
+                });
+            }
+            Assert.assertThrows(IllegalStateException.class, () -> engines[0].getEngine(1).setJournal(journal));
+            for(int first = 0; first < players.length; first++) {
+                for(int second = first + 1; second < players.length; second++) {
+                    LoopbackConnection connection = new LoopbackConnection();
+                    engines[first].handleConnection(second, connection.getFirstEnd().getInputStream(),
+                            connection.getFirstEnd().getOutputStream());
+                    engines[second].handleConnection(first, connection.getSecondEnd().getInputStream(),
+                            connection.getSecondEnd().getOutputStream());
+                }
+            }
+            Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+
+            //Bob is skipped
+            players[0].playCard(eight, null);
+            Assert.assertTrue(seenMoves[0].await(5, TimeUnit.SECONDS));
+            players[2].drawCard();
+            Assert.assertTrue(seenMoves[1].await(5, TimeUnit.SECONDS));
+            players[0].drawCard();
+            Assert.assertTrue(seenMoves[2].await(5, TimeUnit.SECONDS));
+
+            List<JournalEntry> entries = JournalReader.read(directory);
+            Assert.assertEquals(entries.size(), players.length * 4);
+            int sessions = 0;
+            for(JournalEntry start : entries) {
+                if(start.getType() != JournalEntry.Type.SESSION) {
+                    continue;
+                }
+                sessions++;
+                Assert.assertEquals(start.getNumberOfSeats(), 3);
+                Assert.assertEquals(start.getDeck(), deck);
+                Assert.assertEquals(start.getTopCard(), top);
+
+                List<JournalEntry> moves = new ArrayList<>();
+                for(JournalEntry entry : entries) {
+                    if(entry.getSessionId() == start.getSessionId() && entry.getType() != JournalEntry.Type.SESSION) {
+                        moves.add(entry);
+                    }
+                }
+                Assert.assertEquals(moves.size(), 3);
+                Assert.assertEquals(moves.get(0).getType(), JournalEntry.Type.PLAY);
+                Assert.assertEquals(moves.get(0).getSeat(), 0);
+                Assert.assertEquals(moves.get(0).getCard(), eight);
+                Assert.assertEquals(moves.get(1).getType(), JournalEntry.Type.DRAW);
+                Assert.assertEquals(moves.get(1).getSeat(), 2);
+                Assert.assertEquals(moves.get(2).getType(), JournalEntry.Type.DRAW);
+                Assert.assertEquals(moves.get(2).getSeat(), 0);
+            }
+            Assert.assertEquals(sessions, players.length);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try(Stream<Path> files = Files.walk(directory)) {
+            for(Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package network.lobby;
+
+import maumau.board.deck.DeckTemplate;
+import maumau.player.MauMauPlayer;
+import network.MauMauTCPProtocolEngine;
+import network.server.GameServer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class LobbyTests {
+
+    /**
+     * Tests if two players of the same variant are paired and play against each other through the lobby,
+     * while a player of another variant keeps waiting
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void playersArePairedByVariant() throws Exception {
+        Lobby lobby = new Lobby();
+        ExecutorService clients = Executors.newCachedThreadPool();
+        try(GameServer server = new GameServer(0, 1, lobby);
+            Socket alice = new Socket();
+            Socket skatPlayer = new Socket();
+            Socket bob = new Socket()) {
+            server.start();
+
+            Future<LobbyMatch> aliceMatch = clients.submit(() -> join(alice, server, "Alice", "standard"));
+            Future<LobbyMatch> skatMatch = clients.submit(() -> join(skatPlayer, server, "Carl", "skat"));
+            waitForWaitingPlayers(lobby, 2);
+            Future<LobbyMatch> bobMatch = clients.submit(() -> join(bob, server, "Bob", "standard"));
+
+            LobbyMatch first = aliceMatch.get(5, TimeUnit.SECONDS);
+            LobbyMatch second = bobMatch.get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(first.getTurnPosition(), 0);
+            Assert.assertEquals(second.getTurnPosition(), 1);
+            Assert.assertEquals(first.getPlayerNames(), List.of("Alice", "Bob"));
+            Assert.assertSame(first.getDeckTemplate(), DeckTemplate.STANDARD);
+            Assert.assertFalse(skatMatch.isDone());
+            Assert.assertEquals(lobby.getNumberOfWaitingPlayers(), 1);
+            Assert.assertEquals(lobby.getNumberOfGames(), 1L);
+
+            //the protocol engines talk through the lobby
+            MauMauPlayer alicePlayer = LobbyClient.createPlayer("Alice", first);
+            MauMauPlayer bobPlayer = LobbyClient.createPlayer("Bob", second);
+            CountDownLatch established = new CountDownLatch(2);
+            start(alicePlayer, "Alice", alice, established);
+            start(bobPlayer, "Bob", bob, established);
+
+            Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(bobPlayer.getDeck().getDeckAsList(), alicePlayer.getDeck().getDeckAsList());
+            Assert.assertEquals(bobPlayer.getDiscardPileCard(), alicePlayer.getDiscardPileCard());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests if a spectator who joins a running game gets the bytes both players sent from the start of the game,
+     * followed by the moves made while watching
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void spectatorWatchesTheGame() throws Exception {
+        Lobby lobby = new Lobby();
+        ExecutorService clients = Executors.newCachedThreadPool();
+        try(GameServer server = new GameServer(0, 1, lobby);
+            Socket alice = new Socket();
+            Socket bob = new Socket();
+            Socket spectator = new Socket()) {
+            server.start();
+
+            Future<LobbyMatch> aliceMatch = clients.submit(() -> join(alice, server, "Alice", "standard"));
+            //Alice has to be first in the queue
+            waitForWaitingPlayers(lobby, 1);
+            Future<LobbyMatch> bobMatch = clients.submit(() -> join(bob, server, "Bob", "standard"));
+            LobbyMatch first = aliceMatch.get(5, TimeUnit.SECONDS);
+            LobbyMatch second = bobMatch.get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(second.getGameId(), first.getGameId());
+
+            MauMauPlayer alicePlayer = LobbyClient.createPlayer("Alice", first);
+            MauMauPlayer bobPlayer = LobbyClient.createPlayer("Bob", second);
+            CountDownLatch established = new CountDownLatch(2);
+            start(alicePlayer, "Alice", alice, established);
+            start(bobPlayer, "Bob", bob, established);
+            Assert.assertTrue(established.await(5, TimeUnit.SECONDS));
+
+            spectator.connect(new InetSocketAddress("localhost", server.getLocalPort()));
+            SpectatorFeed feed = LobbyClient.spectate(spectator.getInputStream(), spectator.getOutputStream(),
+                    "Carl", "standard", 0);
+            Assert.assertEquals(feed.getGameId(), first.getGameId());
+            Assert.assertEquals(feed.getPlayerNames(), List.of("Alice", "Bob"));
+            Assert.assertSame(feed.getDeckTemplate(), DeckTemplate.STANDARD);
+
+            //the stream of every player starts with its handshake
+            byte[] buffer = new byte[0xFFFF];
+            ByteArrayOutputStream[] streams = {new ByteArrayOutputStream(), new ByteArrayOutputStream()};
+            while(streams[0].size() < 10 || streams[1].size() < 8) {
+                int n = feed.readChunk(buffer);
+                Assert.assertTrue(n > 0);
+                streams[feed.getTurnPosition()].write(buffer, 0, n);
+            }
+            //the name is followed by the protocol version
+            Assert.assertTrue(new DataInputStream(new ByteArrayInputStream(streams[0].toByteArray())).readUTF()
+                    .startsWith("Alice\u0000"));
+            Assert.assertTrue(new DataInputStream(new ByteArrayInputStream(streams[1].toByteArray())).readUTF()
+                    .startsWith("Bob\u0000"));
+            Assert.assertEquals(lobby.getNumberOfSpectators(first.getGameId()), 1);
+
+            //a move made while watching arrives as well
+            spectator.setSoTimeout(300);
+            try {
+                while(true) {
+                    int n = feed.readChunk(buffer);
+                    streams[feed.getTurnPosition()].write(buffer, 0, n);
+                }
+            } catch (SocketTimeoutException e) {
+                //everything sent so far was read
+            }
+            spectator.setSoTimeout(5000);
+            alicePlayer.drawCard();
+            Assert.assertTrue(feed.readChunk(buffer) > 0);
+            Assert.assertEquals(feed.getTurnPosition(), 0);
+
+            //the feed ends with the game, the server sees Alice leave
+            alice.shutdownOutput();
+            while(feed.readChunk(buffer) >= 0) {
+                //the rest of the game
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests if a request for an unknown variant is rejected and the client gets the reason
+     * @throws IOException shouldn't be thrown
+     */
+    @Test
+    public void unknownVariantIsRejected() throws IOException {
+        try(GameServer server = new GameServer(0, 1, new Lobby());
+            Socket socket = new Socket()) {
+            server.start();
+
+            IOException rejection = Assert.expectThrows(IOException.class,
+                    () -> join(socket, server, "Alice", "tarot"));
+            Assert.assertEquals(rejection.getMessage(), "lobby rejected the request: unknown deck variant: tarot");
+        }
+    }
+
+    private static LobbyMatch join(Socket socket, GameServer server, String name, String variant) throws IOException {
+        socket.connect(new InetSocketAddress("localhost", server.getLocalPort()));
+        return LobbyClient.join(socket.getInputStream(), socket.getOutputStream(), name, variant, 2);
+    }
+
+    private static void start(MauMauPlayer player, String name, Socket socket, CountDownLatch established)
+            throws IOException {
+        MauMauTCPProtocolEngine engine = new MauMauTCPProtocolEngine(player, name);
+        player.setProtocolEngine(engine);
+        engine.subscribeGameSessionEstablishedListener(partnerName -> established.countDown());
+        engine.handleConnection(socket.getInputStream(), socket.getOutputStream());
+    }
+
+    private static void waitForWaitingPlayers(Lobby lobby, int number) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while(lobby.getNumberOfWaitingPlayers() < number && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
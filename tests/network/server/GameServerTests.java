@@ -0,0 +1,320 @@
+package network.server;
+
+import maumau.cards.Card;
+import maumau.player.MauMauPlayer;
+import network.MauMauTCPProtocolEngine;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class GameServerTests {
+    private static final int NUMBER_OF_CLIENTS = 3;
+
+    /**
+     * Tests if several clients are served by one I/O thread and every client gets the deck of its own session
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void sessionsAreSeparate() throws Exception {
+        ProtocolEngineSessionFactory factory = new ProtocolEngineSessionFactory("Server");
+        try(GameServer server = new GameServer(0, 1, factory)) {
+            server.start();
+
+            CountDownLatch established = new CountDownLatch(NUMBER_OF_CLIENTS);
+            List<MauMauPlayer> clients = new ArrayList<>();
+            List<Socket> sockets = new ArrayList<>();
+            for(int i = 0; i < NUMBER_OF_CLIENTS; i++) {
+                Socket socket = new Socket("localhost", server.getLocalPort());
+                MauMauPlayer client = new MauMauPlayer("Client " + i, 1);
+                MauMauTCPProtocolEngine engine = new MauMauTCPProtocolEngine(client, "Client " + i);
+                client.setProtocolEngine(engine);
+                engine.subscribeGameSessionEstablishedListener(partnerName -> established.countDown());
+                engine.handleConnection(socket.getInputStream(), socket.getOutputStream());
+                clients.add(client);
+                sockets.add(socket);
+            }
+
+            Assert.assertTrue(established.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(server.getNumberOfSessions(), NUMBER_OF_CLIENTS);
+
+            for(int id = 1; id <= NUMBER_OF_CLIENTS; id++) {
+                MauMauPlayer host = factory.getPlayer(server.getSession(id));
+                List<Card> hostDeck = host.getDeck().getDeckAsList();
+
+                int matches = 0;
+                for(MauMauPlayer client : clients) {
+                    if(client.getDeck().getDeckAsList().equals(hostDeck)) {
+                        matches++;
+                        Assert.assertEquals(client.getDiscardPileCard(), host.getDiscardPileCard());
+                    }
+                }
+                Assert.assertEquals(matches, 1);
+            }
+
+            for(Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * Tests if a session is removed when its client disconnects
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void closedSessionIsRemoved() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        try(GameServer server = new GameServer(0, 1, new SessionFactory() {
+            @Override
+            public void sessionOpened(ServerSession session) {
+            }
+
+            @Override
+            public void sessionClosed(ServerSession session) {
+                closed.countDown();
+            }
+        })) {
+            server.start();
+
+            Socket socket = new Socket("localhost", server.getLocalPort());
+            socket.close();
+
+            Assert.assertTrue(closed.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(server.getNumberOfSessions(), 0);
+        }
+    }
+
+    /**
+     * Tests if a session whose client doesn't send anything is closed after the idle timeout
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void silentSessionIsClosed() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        try(GameServer server = new GameServer(0, 1, new SessionFactory() {
+            @Override
+            public void sessionOpened(ServerSession session) {
+            }
+
+            @Override
+            public void sessionClosed(ServerSession session) {
+                closed.countDown();
+            }
+        })) {
+            server.setIdleTimeout(300);
+            server.start();
+
+            try(Socket socket = new Socket("localhost", server.getLocalPort())) {
+                Assert.assertFalse(closed.await(100, TimeUnit.MILLISECONDS));
+                Assert.assertTrue(closed.await(5, TimeUnit.SECONDS));
+                Assert.assertEquals(socket.getInputStream().read(), -1);
+            }
+        }
+    }
+
+    /**
+     * Tests if bytes larger than the session buffers pass through the server in both directions
+     * @throws IOException shouldn't be thrown
+     */
+    @Test
+    public void largeEcho() throws IOException {
+        try(GameServer server = new GameServer(0, 1, session -> new Thread(() -> {
+            byte[] buffer = new byte[1000];
+            try {
+                int n;
+                while((n = session.getInputStream().read(buffer, 0, buffer.length)) > 0) {
+                    session.getOutputStream().write(buffer, 0, n);
+                }
+            } catch (IOException ignore) {
+            }
+        }).start())) {
+            server.start();
+
+            byte[] sent = new byte[ServerSession.BUFFER_SIZE * 5];
+            for(int i = 0; i < sent.length; i++) {
+                sent[i] = (byte) i;
+            }
+
+            try(Socket socket = new Socket("localhost", server.getLocalPort())) {
+                Thread writer = new Thread(() -> {
+                    try {
+                        socket.getOutputStream().write(sent);
+                    } catch (IOException ignore) {
+                    }
+                });
+                writer.start();
+
+                byte[] received = new byte[sent.length];
+                int offset = 0;
+                while(offset < received.length) {
+                    int n = socket.getInputStream().read(received, offset, received.length - offset);
+                    Assert.assertTrue(n > 0);
+                    offset += n;
+                }
+                Assert.assertEquals(received, sent);
+            }
+        }
+    }
+
+    /**
+     * Tests if a broadcast reaches every observer which keeps up and evicts an observer which doesn't read
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void slowObserverIsEvicted() throws Exception {
+        final int numberOfMessages = 1000;
+        final int payloadSize = 8 * 1024;
+        Broadcast broadcast = new Broadcast(64 * 1024);
+        List<ServerSession> sessions = new CopyOnWriteArrayList<>();
+        CountDownLatch attached = new CountDownLatch(3);
+        try(GameServer server = new GameServer(0, 1, session -> {
+            sessions.add(session);
+            broadcast.attach(session);
+            attached.countDown();
+        })) {
+            server.start();
+
+            Socket slow = new Socket();
+            slow.setReceiveBufferSize(4096);
+            slow.connect(new InetSocketAddress("localhost", server.getLocalPort()));
+            Assert.assertTrue(waitFor(sessions, 1));
+            Socket[] fast = new Socket[2];
+            for(int i = 0; i < fast.length; i++) {
+                fast[i] = new Socket("localhost", server.getLocalPort());
+            }
+            Assert.assertTrue(attached.await(5, TimeUnit.SECONDS));
+
+            long[] received = new long[fast.length];
+            List<Thread> readers = new ArrayList<>();
+            for(int i = 0; i < fast.length; i++) {
+                final int index = i;
+                Thread reader = new Thread(() -> {
+                    byte[] buffer = new byte[payloadSize];
+                    try {
+                        int n;
+                        while((n = fast[index].getInputStream().read(buffer)) > 0) {
+                            received[index] += n;
+                        }
+                    } catch (IOException ignore) {
+                    }
+                });
+                reader.start();
+                readers.add(reader);
+            }
+
+            byte[] payload = new byte[payloadSize];
+            ByteBuffer header = ByteBuffer.allocate(4).putInt(payloadSize).flip();
+            for(int i = 0; i < numberOfMessages; i++) {
+                //the fast observers are paced, so only the slow one falls behind
+                for(int j = 1; j < sessions.size(); j++) {
+                    while(sessions.get(j).getSharedBytes() > 32 * 1024) {
+                        Thread.sleep(1);
+                    }
+                }
+                broadcast.publish(header, ByteBuffer.wrap(payload));
+            }
+
+            Assert.assertEquals(broadcast.getNumberOfEvictedObservers(), 1L);
+            Assert.assertEquals(broadcast.getNumberOfObservers(), 2);
+            Assert.assertFalse(sessions.get(0).isOpen());
+
+            broadcast.close();
+            for(Thread reader : readers) {
+                reader.join(5000);
+            }
+            for(long n : received) {
+                Assert.assertEquals(n, (long) numberOfMessages * (payloadSize + 4));
+            }
+            slow.close();
+        }
+    }
+
+    /**
+     * Tests if a late observer gets the history as long as it fits into the limit and is refused afterwards
+     * @throws Exception shouldn't be thrown
+     */
+    @Test
+    public void historyIsBoundedByTheLimit() throws Exception {
+        Broadcast broadcast = new Broadcast(1024);
+        List<Boolean> attached = new CopyOnWriteArrayList<>();
+        try(GameServer server = new GameServer(0, 1, session -> attached.add(broadcast.attach(session)))) {
+            server.start();
+
+            broadcast.publish(ByteBuffer.wrap(new byte[512]));
+            try(Socket early = new Socket("localhost", server.getLocalPort())) {
+                early.setSoTimeout(5000);
+                byte[] buffer = new byte[512];
+                int received = 0;
+                while(received < buffer.length) {
+                    received += early.getInputStream().read(buffer, received, buffer.length - received);
+                }
+
+                //now the history doesn't fit anymore
+                broadcast.publish(ByteBuffer.wrap(new byte[768]));
+                Assert.assertEquals(broadcast.getNumberOfMessages(), 0);
+                try(Socket late = new Socket("localhost", server.getLocalPort())) {
+                    final long deadline = System.currentTimeMillis() + 5000;
+                    while(attached.size() < 2 && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(10);
+                    }
+                    Assert.assertEquals(attached, List.of(true, false));
+                    Assert.assertTrue(late.isConnected());
+                }
+            }
+            broadcast.close();
+        }
+    }
+
+    @Test
+    public void observerWithACutOffReplayIsEvicted() throws Exception {
+        final int limit = 64 << 20;
+        //the same bytes are queued several times, only the views are copied
+        final ByteBuffer chunk = ByteBuffer.wrap(new byte[12 << 20]).asReadOnlyBuffer();
+        Broadcast broadcast = new Broadcast(limit);
+        broadcast.publish(chunk);
+        broadcast.publish(chunk);
+
+        List<ServerSession> sessions = new CopyOnWriteArrayList<>();
+        List<Boolean> attached = new CopyOnWriteArrayList<>();
+        try(GameServer server = new GameServer(0, 1, session -> {
+            //the observer is far behind already: the first message of the replay fits, the second one doesn't
+            Assert.assertTrue(session.sendShared(new ByteBuffer[] {chunk, chunk, chunk, chunk}, limit));
+            sessions.add(session);
+            attached.add(broadcast.attach(session));
+        })) {
+            server.start();
+
+            try(Socket slow = new Socket()) {
+                slow.setReceiveBufferSize(4096);
+                slow.connect(new InetSocketAddress("localhost", server.getLocalPort()));
+                Assert.assertTrue(waitFor(sessions, 1));
+                final long deadline = System.currentTimeMillis() + 5000;
+                while(attached.isEmpty() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                Assert.assertEquals(attached, List.of(false));
+                Assert.assertFalse(sessions.get(0).isOpen());
+                Assert.assertEquals(broadcast.getNumberOfObservers(), 0);
+                Assert.assertEquals(broadcast.getNumberOfEvictedObservers(), 1L);
+            }
+            broadcast.close();
+        }
+    }
+
+    private static boolean waitFor(List<ServerSession> sessions, int number) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while(sessions.size() < number && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return sessions.size() >= number;
+    }
+}
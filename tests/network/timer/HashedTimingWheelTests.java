@@ -0,0 +1,69 @@
+package network.timer;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HashedTimingWheelTests {
+
+    /**
+     * Tests if many timeouts run, none of them before its delay and none later than one tick plus a tolerance,
+     * also those which need more than one round of the wheel
+     * @throws InterruptedException shouldn't be thrown
+     */
+    @Test
+    public void timeoutsRunAfterTheirDelay() throws InterruptedException {
+        HashedTimingWheel wheel = new HashedTimingWheel(10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+        final int numberOfTimeouts = 1000;
+        CountDownLatch done = new CountDownLatch(numberOfTimeouts);
+        AtomicInteger early = new AtomicInteger();
+        AtomicLong maxLatenessNanos = new AtomicLong();
+
+        for(int i = 0; i < numberOfTimeouts; i++) {
+            final long delay = i % 300;
+            final long scheduled = System.nanoTime();
+            wheel.schedule(() -> {
+                final long lateness = System.nanoTime() - scheduled - TimeUnit.MILLISECONDS.toNanos(delay);
+                if(lateness < 0) {
+                    early.incrementAndGet();
+                }
+                maxLatenessNanos.accumulateAndGet(lateness, Math::max);
+                done.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(early.get(), 0);
+        //one tick of 10 ms plus a tolerance for a busy machine
+        Assert.assertTrue(maxLatenessNanos.get() < TimeUnit.MILLISECONDS.toNanos(10 + 200),
+                "a timeout ran " + maxLatenessNanos.get() / 1_000_000 + " ms late");
+        Assert.assertEquals(wheel.getNumberOfPendingTimeouts(), 0);
+        wheel.stop();
+    }
+
+    /**
+     * Tests if a cancelled timeout doesn't run
+     * @throws InterruptedException shouldn't be thrown
+     */
+    @Test
+    public void cancelledTimeoutDoesNotRun() throws InterruptedException {
+        HashedTimingWheel wheel = new HashedTimingWheel(10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+        AtomicBoolean ran = new AtomicBoolean();
+        CountDownLatch later = new CountDownLatch(1);
+
+        Timeout timeout = wheel.schedule(() -> ran.set(true), 50, TimeUnit.MILLISECONDS);
+        wheel.schedule(later::countDown, 100, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(timeout.cancel());
+        Assert.assertFalse(timeout.cancel());
+
+        Assert.assertTrue(later.await(2, TimeUnit.SECONDS));
+        Assert.assertFalse(ran.get());
+        Assert.assertTrue(timeout.isCancelled());
+        wheel.stop();
+    }
+}
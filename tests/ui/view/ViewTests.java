@@ -22,10 +22,10 @@ public class ViewTests {
         VisualizerBackdoor visualizer = new GameVisualizer(System.out, player);
 
         List<char[][]> cards = new ArrayList<>();
-        cards.add(visualizer.getCard(new MauMauCard(CardColor.CLUBS, CardType.TWO)));
-        cards.add(visualizer.getCard(new MauMauCard(CardColor.SPADES, CardType.KING)));
-        cards.add(visualizer.getCard(new MauMauCard(CardColor.HEART, CardType.TEN)));
-        cards.add(visualizer.getCard(new MauMauCard(CardColor.DIAMONDS, CardType.ACE)));
+        cards.add(visualizer.getCard(MauMauCard.of(CardColor.CLUBS, CardType.TWO)));
+        cards.add(visualizer.getCard(MauMauCard.of(CardColor.SPADES, CardType.KING)));
+        cards.add(visualizer.getCard(MauMauCard.of(CardColor.HEART, CardType.TEN)));
+        cards.add(visualizer.getCard(MauMauCard.of(CardColor.DIAMONDS, CardType.ACE)));
 
         for(char[][] card : cards) {
             for (int i = 0; i < visualizer.getCardHeight(); i++) {